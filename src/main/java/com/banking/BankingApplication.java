@@ -1,23 +1,89 @@
 package com.banking;
 
+import com.banking.batch.BatchCommand;
+import com.banking.batch.BatchRunner;
+import com.banking.dao.InMemoryAccountRepository;
+import com.banking.dao.InMemoryTransactionLog;
+import com.banking.dao.InMemoryTransactionRepository;
 import com.banking.exception.BankingException;
 import com.banking.model.*;
+import com.banking.scheduling.StandingOrderScheduler;
 import com.banking.service.AccountService;
+import com.banking.service.AdmissionController;
+import com.banking.service.RateLimitedAccountService;
+import com.banking.service.WarmBoot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Scanner;
 
 public class BankingApplication {
     private static final Logger logger = LoggerFactory.getLogger(BankingApplication.class);
-    private static final AccountService accountService = new AccountService();
+    private static final AccountService accountService = createAccountService();
     private static final Scanner scanner = new Scanner(System.in);
 
     public static void main(String[] args) {
         logger.info("Banking Management System started");
 
+        if (Boolean.getBoolean("banking.boot.warm")) {
+            if (accountService.getShardRouter() == null) {
+                logger.info("Warm boot skipped: in-memory storage has no pools or cache to warm");
+            } else {
+                warmBoot();
+            }
+        }
+
+        if (Boolean.getBoolean("banking.directory.enabled")) {
+            Path directoryFile = Paths.get(System.getProperty("banking.directory.file", "account-directory.bin"));
+            Runtime.getRuntime().addShutdownHook(new Thread(
+                    () -> accountService.saveAccountDirectories(directoryFile), "account-directory-snapshot"));
+            try {
+                int accounts = accountService.loadAccountDirectories(directoryFile,
+                        Integer.getInteger("banking.directory.expected", 1_000_000));
+                logger.info("Account directory ready with {} account(s)", accounts);
+            } catch (BankingException e) {
+                logger.warn("Resolving account numbers without the directory", e);
+            }
+        }
+
+        try {
+            accountService.rebuildVelocityWindows();
+        } catch (BankingException e) {
+            logger.warn("Starting with empty velocity windows", e);
+        }
+
+        try {
+            accountService.recoverCrossShardTransfers();
+        } catch (BankingException e) {
+            logger.error("In-doubt cross-shard transfers left unresolved", e);
+        }
+
+        if (args.length > 0 && args[0].equals("--batch")) {
+            System.exit(runBatch(args));
+        }
+
+        if (Boolean.getBoolean("banking.schedule.enabled")) {
+            StandingOrderScheduler scheduler = StandingOrderScheduler.fromSystemProperties(accountService);
+            Runtime.getRuntime().addShutdownHook(new Thread(scheduler::close, "standing-order-shutdown"));
+            try {
+                scheduler.start();
+            } catch (BankingException e) {
+                logger.error("Standing order scheduler did not start", e);
+            }
+        }
+
         while (true) {
             displayMenu();
             int choice = getIntInput("Enter your choice: ");
@@ -51,6 +117,66 @@ public class BankingApplication {
         }
     }
 
+    /**
+     * {@code -Dbanking.boot.warm=true}: runs {@link WarmBoot} before any work is taken and saves its hot-account
+     * snapshot at shutdown. The snapshot is only kept when warm boot is on, since nothing else reads it.
+     */
+    private static void warmBoot() {
+        WarmBoot warmBoot = WarmBoot.fromSystemProperties(accountService);
+        Runtime.getRuntime().addShutdownHook(new Thread(warmBoot::saveSnapshot, "hot-account-snapshot"));
+        try {
+            WarmBoot.BootReport report = warmBoot.run();
+            logger.info("Ready {} ms after JVM start ({})",
+                    ManagementFactory.getRuntimeMXBean().getUptime(), report);
+        } catch (BankingException e) {
+            logger.warn("Warm boot failed, starting cold", e);
+        }
+    }
+
+    /** {@code -Dbanking.storage=memory} keeps all account data on the heap, for simulations and load tests. */
+    private static AccountService createAccountService() {
+        boolean inMemory = "memory".equals(System.getProperty("banking.storage"));
+        if (Boolean.getBoolean("banking.admission.enabled")) {
+            AdmissionController admission = AdmissionController.fromSystemProperties();
+            return inMemory
+                    ? new RateLimitedAccountService(admission, new InMemoryAccountRepository(),
+                            new InMemoryTransactionRepository(), new InMemoryTransactionLog())
+                    : new RateLimitedAccountService(admission);
+        }
+        return inMemory ? AccountService.inMemory() : new AccountService();
+    }
+
+    /**
+     * {@code --batch <script|-> [results]}: runs a command script (see {@link BatchCommand}) without the menu,
+     * writing tab-separated results to the results file or stdout and a summary to stderr.
+     * Exit status is 0 when every command succeeded, 1 when some failed and 2 when the script could not be read.
+     */
+    private static int runBatch(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: BankingApplication --batch <script|-> [results-file]");
+            return 2;
+        }
+        BatchRunner runner = new BatchRunner(accountService,
+                Integer.getInteger("banking.batch.threads", Runtime.getRuntime().availableProcessors() * 2),
+                Integer.getInteger("banking.batch.inflight", 10_000));
+
+        try (BufferedReader script = args[1].equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(args[1]), StandardCharsets.UTF_8);
+             PrintWriter results = args.length > 2
+                     ? new PrintWriter(Files.newBufferedWriter(Paths.get(args[2]), StandardCharsets.UTF_8))
+                     : new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+
+            BatchRunner.BatchSummary summary = runner.run(script, results);
+            System.err.println(summary);
+            return summary.getFailed() == 0 ? 0 : 1;
+        } catch (IOException e) {
+            logger.error("Batch script failed", e);
+            System.err.println("Error: " + e.getMessage());
+            return 2;
+        }
+    }
+
     private static void displayMenu() {
         System.out.println("\n========================================");
         System.out.println("   BANKING MANAGEMENT SYSTEM");
@@ -0,0 +1,353 @@
+package com.banking.analytics;
+
+import com.banking.config.ShardRouter;
+import com.banking.dao.TransactionDAO;
+import com.banking.exception.BankingException;
+import com.banking.model.AccountType;
+import com.banking.model.TransactionStatus;
+import com.banking.model.TransactionType;
+import com.banking.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * In-memory column store of the {@code transaction} table for analytical scans. Rows live in chunks of
+ * primitive arrays: account id, amount in minor units and creation time as longs, and transaction type,
+ * account type and status as one-byte enum ordinals. A {@link Query} filters with bit masks over those
+ * codes and aggregates into per-group counters, one chunk range per core, without creating an object per row.
+ *
+ * {@link #refresh()} appends rows added since the last call, from every source, once they are older than the
+ * settle window, so the status has usually left PENDING and concurrent inserts have committed. Rows are not
+ * updated or removed afterwards, so the store is a snapshot of history, including rows later archived.
+ * One thread refreshes; queries can run at any time and see every row appended before they started.
+ */
+public class TransactionColumns implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionColumns.class);
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int PAGE_SIZE = 50_000;
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private enum Dimension {
+        NONE,
+        TRANSACTION_TYPE,
+        ACCOUNT_TYPE,
+        STATUS
+    }
+
+    private static final class Chunk {
+        final long[] accountId = new long[CHUNK_SIZE];
+        final long[] amount = new long[CHUNK_SIZE];
+        final long[] createdAt = new long[CHUNK_SIZE];
+        final byte[] type = new byte[CHUNK_SIZE];
+        final byte[] accountType = new byte[CHUNK_SIZE];
+        final byte[] status = new byte[CHUNK_SIZE];
+    }
+
+    private final List<TransactionDAO> sources;
+    private final long[] watermarks;
+    private final long settleMillis;
+    private final int parallelism;
+    private final ExecutorService scanners;
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile int rowCount;
+    private int writeIndex;
+
+    public TransactionColumns(List<TransactionDAO> sources, long settleMillis, int parallelism) {
+        this.sources = new ArrayList<>(sources);
+        this.watermarks = new long[sources.size()];
+        this.settleMillis = settleMillis;
+        this.parallelism = parallelism;
+        this.scanners = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "column-scan");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Store over every shard's {@code transaction} table, scanning on all cores. */
+    public static TransactionColumns fromShards(ShardRouter shards) {
+        List<TransactionDAO> sources = new ArrayList<>();
+        for (int i = 0; i < shards.getShardCount(); i++) {
+            sources.add(new TransactionDAO(shards.getShard(i)));
+        }
+        return new TransactionColumns(sources, Long.getLong("banking.columns.settle.ms", 60_000),
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    /** Appends the rows added since the last refresh. Returns how many were appended. */
+    public synchronized int refresh() throws BankingException {
+        LocalDateTime settledBefore = new Timestamp(System.currentTimeMillis() - settleMillis).toLocalDateTime();
+        int appended = 0;
+        try {
+            for (int source = 0; source < sources.size(); source++) {
+                final int index = source;
+                int page;
+                do {
+                    page = sources.get(source).scanAfter(watermarks[source], settledBefore, PAGE_SIZE,
+                            (transactionId, accountId, type, accountType, amountMinor, createdAtMillis, status) -> {
+                                append(accountId, type, accountType, amountMinor, createdAtMillis, status);
+                                watermarks[index] = transactionId;
+                            });
+                    // Publish page by page so queries see a long initial load progressively.
+                    appended += page;
+                    rowCount = writeIndex;
+                } while (page == PAGE_SIZE);
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to refresh transaction columns", e);
+            throw new BankingException("Failed to refresh transaction columns", e);
+        }
+        if (appended > 0) {
+            logger.info("Transaction columns refreshed: {} row(s) appended, {} in total", appended, rowCount);
+        }
+        return appended;
+    }
+
+    // Writes past rowCount, which stays put until the page is published.
+    private void append(long accountId, TransactionType type, AccountType accountType, long amountMinor,
+                        long createdAtMillis, TransactionStatus status) {
+        int row = writeIndex++;
+        int chunkIndex = row >>> CHUNK_BITS;
+        Chunk[] current = chunks;
+        if (chunkIndex == current.length) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[chunkIndex] = new Chunk();
+            chunks = current;
+        }
+        Chunk chunk = current[chunkIndex];
+        int i = row & CHUNK_MASK;
+        chunk.accountId[i] = accountId;
+        chunk.amount[i] = amountMinor;
+        chunk.createdAt[i] = createdAtMillis;
+        chunk.type[i] = (byte) type.ordinal();
+        chunk.accountType[i] = (byte) accountType.ordinal();
+        chunk.status[i] = (byte) status.ordinal();
+    }
+
+    public Query query() {
+        return new Query();
+    }
+
+    /** Count and total amount of the rows in one group. */
+    public static final class Totals {
+        private final long count;
+        private final long amountMinor;
+
+        Totals(long count, long amountMinor) {
+            this.count = count;
+            this.amountMinor = amountMinor;
+        }
+
+        public long getCount() { return count; }
+
+        public long getAmountMinor() { return amountMinor; }
+
+        public BigDecimal getAmount() { return MoneyUtils.fromMinorUnits(amountMinor); }
+
+        @Override
+        public String toString() {
+            return "Totals{count=" + count + ", amount=" + getAmount() + '}';
+        }
+    }
+
+    /** Filter over the columns; every condition left unset matches all rows. Not thread-safe. */
+    public final class Query {
+        private int typeMask = -1;
+        private int accountTypeMask = -1;
+        private int statusMask = -1;
+        private long fromMillis = Long.MIN_VALUE;
+        private long toMillis = Long.MAX_VALUE;
+        private long accountId = -1;
+
+        private Query() {
+        }
+
+        public Query types(TransactionType... types) {
+            typeMask = 0;
+            for (TransactionType type : types) {
+                typeMask |= 1 << type.ordinal();
+            }
+            return this;
+        }
+
+        public Query accountTypes(AccountType... accountTypes) {
+            accountTypeMask = 0;
+            for (AccountType accountType : accountTypes) {
+                accountTypeMask |= 1 << accountType.ordinal();
+            }
+            return this;
+        }
+
+        public Query statuses(TransactionStatus... statuses) {
+            statusMask = 0;
+            for (TransactionStatus status : statuses) {
+                statusMask |= 1 << status.ordinal();
+            }
+            return this;
+        }
+
+        /** Rows created in {@code [from, to)}. */
+        public Query createdBetween(LocalDateTime from, LocalDateTime to) {
+            fromMillis = Timestamp.valueOf(from).getTime();
+            toMillis = Timestamp.valueOf(to).getTime();
+            return this;
+        }
+
+        public Query account(long accountId) {
+            this.accountId = accountId;
+            return this;
+        }
+
+        public Totals total() throws BankingException {
+            long[][] result = aggregate(Dimension.NONE);
+            return new Totals(result[0][0], result[1][0]);
+        }
+
+        public Map<TransactionType, Totals> byTransactionType() throws BankingException {
+            return toMap(aggregate(Dimension.TRANSACTION_TYPE), TYPES, TransactionType.class);
+        }
+
+        public Map<AccountType, Totals> byAccountType() throws BankingException {
+            return toMap(aggregate(Dimension.ACCOUNT_TYPE), ACCOUNT_TYPES, AccountType.class);
+        }
+
+        public Map<TransactionStatus, Totals> byStatus() throws BankingException {
+            return toMap(aggregate(Dimension.STATUS), STATUSES, TransactionStatus.class);
+        }
+
+        /** Counts in {@code [0][code]}, minor-unit sums in {@code [1][code]}. */
+        long[][] aggregate(Dimension dimension) throws BankingException {
+            int rows = rowCount;
+            Chunk[] snapshot = chunks;
+            int groups = groupCount(dimension);
+            int chunkCount = (rows + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+            long[][] total = new long[2][groups];
+            if (chunkCount == 0) {
+                return total;
+            }
+
+            int tasks = Math.min(parallelism, chunkCount);
+            if (tasks == 1) {
+                scanChunks(snapshot, 0, chunkCount, rows, dimension, total);
+                return total;
+            }
+            List<Callable<long[][]>> scans = new ArrayList<>(tasks);
+            for (int t = 0; t < tasks; t++) {
+                int from = (int) ((long) chunkCount * t / tasks);
+                int to = (int) ((long) chunkCount * (t + 1) / tasks);
+                scans.add(() -> {
+                    long[][] partial = new long[2][groups];
+                    scanChunks(snapshot, from, to, rows, dimension, partial);
+                    return partial;
+                });
+            }
+            try {
+                for (Future<long[][]> scan : scanners.invokeAll(scans)) {
+                    long[][] partial = scan.get();
+                    for (int g = 0; g < groups; g++) {
+                        total[0][g] += partial[0][g];
+                        total[1][g] += partial[1][g];
+                    }
+                }
+                return total;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BankingException("Interrupted while scanning transaction columns", e);
+            } catch (ExecutionException e) {
+                throw new BankingException("Transaction column scan failed", e.getCause());
+            }
+        }
+
+        private void scanChunks(Chunk[] snapshot, int fromChunk, int toChunk, int rows, Dimension dimension,
+                                long[][] into) {
+            long[] counts = into[0];
+            long[] sums = into[1];
+            for (int c = fromChunk; c < toChunk; c++) {
+                Chunk chunk = snapshot[c];
+                int n = Math.min(CHUNK_SIZE, rows - (c << CHUNK_BITS));
+                byte[] groupColumn = groupColumn(chunk, dimension);
+                for (int i = 0; i < n; i++) {
+                    if ((typeMask >>> chunk.type[i] & 1) == 0
+                            || (accountTypeMask >>> chunk.accountType[i] & 1) == 0
+                            || (statusMask >>> chunk.status[i] & 1) == 0) {
+                        continue;
+                    }
+                    long createdAt = chunk.createdAt[i];
+                    if (createdAt < fromMillis || createdAt >= toMillis
+                            || (accountId >= 0 && chunk.accountId[i] != accountId)) {
+                        continue;
+                    }
+                    int group = groupColumn != null ? groupColumn[i] : 0;
+                    counts[group]++;
+                    sums[group] += chunk.amount[i];
+                }
+            }
+        }
+    }
+
+    private static int groupCount(Dimension dimension) {
+        switch (dimension) {
+            case TRANSACTION_TYPE:
+                return TYPES.length;
+            case ACCOUNT_TYPE:
+                return ACCOUNT_TYPES.length;
+            case STATUS:
+                return STATUSES.length;
+            default:
+                return 1;
+        }
+    }
+
+    private static byte[] groupColumn(Chunk chunk, Dimension dimension) {
+        switch (dimension) {
+            case TRANSACTION_TYPE:
+                return chunk.type;
+            case ACCOUNT_TYPE:
+                return chunk.accountType;
+            case STATUS:
+                return chunk.status;
+            default:
+                return null;
+        }
+    }
+
+    private static <E extends Enum<E>> Map<E, Totals> toMap(long[][] result, E[] values, Class<E> type) {
+        Map<E, Totals> totals = new EnumMap<>(type);
+        for (int code = 0; code < values.length; code++) {
+            if (result[0][code] > 0) {
+                totals.put(values[code], new Totals(result[0][code], result[1][code]));
+            }
+        }
+        return Collections.unmodifiableMap(totals);
+    }
+
+    @Override
+    public void close() {
+        scanners.shutdownNow();
+    }
+}
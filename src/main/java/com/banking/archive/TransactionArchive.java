@@ -0,0 +1,549 @@
+package com.banking.archive;
+
+import com.banking.model.Transaction;
+import com.banking.model.TransactionLogEntry;
+import com.banking.model.TransactionStatus;
+import com.banking.model.TransactionType;
+import com.banking.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Local store for archived transactions and their transaction_log rows. Rows are partitioned by
+ * {@code account_id % partitions} into immutable segment files. Each segment holds one deflate-compressed
+ * block per account followed by an index of (accountId, offset, length, count), so a history lookup only
+ * inflates that account's blocks.
+ *
+ * Each partition's segment list and indexes are kept in memory. A lookup checks the partition directory's
+ * modification time and rescans it only after another process has added or removed a segment, so only the
+ * segments that hold the account are opened. Once a partition has {@code compactAfter} small segments they are
+ * merged into one, keeping the number of segments a lookup visits bounded as the archiver keeps running.
+ */
+public class TransactionArchive {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchive.class);
+
+    private static final int MAGIC = 0x54584152; // "TXAR"
+    private static final short VERSION = 2;
+    private static final short VERSION_WITHOUT_LOGS = 1;
+    private static final int HEADER_SIZE = 6;
+    private static final int FOOTER_SIZE = 12;
+    private static final int INDEX_ENTRY_SIZE = 24;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int DEFAULT_COMPACT_AFTER = 8;
+    private static final long SMALL_SEGMENT_BYTES = 8L * 1024 * 1024;
+    private static final long MTIME_GRANULARITY_MILLIS = 2_000;
+
+    private final Path directory;
+    private final int partitions;
+    private final int compactAfter;
+    private final Map<Integer, PartitionView> views = new ConcurrentHashMap<>();
+
+    public TransactionArchive(Path directory, int partitions) {
+        this(directory, partitions, DEFAULT_COMPACT_AFTER);
+    }
+
+    public TransactionArchive(Path directory, int partitions, int compactAfter) {
+        this.directory = directory;
+        this.partitions = partitions;
+        this.compactAfter = compactAfter;
+    }
+
+    public static TransactionArchive fromSystemProperties() {
+        return new TransactionArchive(Paths.get(System.getProperty("banking.archive.dir", "archive")),
+                Integer.getInteger("banking.archive.partitions", 16),
+                Integer.getInteger("banking.archive.compact.after", DEFAULT_COMPACT_AFTER));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Writes the transactions, and the log rows that belong to them, into one new segment per partition,
+     * then compacts any partition that has collected {@code compactAfter} small segments.
+     */
+    public synchronized void writeSegments(List<Transaction> transactions, List<TransactionLogEntry> logEntries)
+            throws IOException {
+        Map<Long, List<TransactionLogEntry>> logsByTransaction = new HashMap<>();
+        for (TransactionLogEntry entry : logEntries) {
+            logsByTransaction.computeIfAbsent(entry.getTransactionId(), k -> new ArrayList<>()).add(entry);
+        }
+        Map<Integer, Map<Long, List<Transaction>>> byPartition = new TreeMap<>();
+        for (Transaction t : transactions) {
+            byPartition.computeIfAbsent(partitionOf(t.getAccountId()), k -> new TreeMap<>())
+                    .computeIfAbsent(t.getAccountId(), k -> new ArrayList<>())
+                    .add(t);
+        }
+
+        for (Map.Entry<Integer, Map<Long, List<Transaction>>> entry : byPartition.entrySet()) {
+            int partition = entry.getKey();
+            Segment segment = writeSegment(partition, entry.getValue(), logsByTransaction);
+            PartitionView view = view(partition);
+            List<Segment> segments = new ArrayList<>(view.segments);
+            segments.removeIf(s -> s.path.equals(segment.path));
+            segments.add(segment);
+            publish(partition, segments);
+            compactIfNeeded(partition);
+        }
+    }
+
+    public List<Transaction> findByAccountId(Long accountId) throws IOException {
+        Map<Long, Transaction> byId = new LinkedHashMap<>();
+        for (Block block : readBlocks(accountId)) {
+            for (Transaction t : block.transactions) {
+                byId.putIfAbsent(t.getTransactionId(), t);
+            }
+        }
+        List<Transaction> result = new ArrayList<>(byId.values());
+        result.sort(Comparator.comparing(Transaction::getCreatedAt)
+                .thenComparing(Transaction::getTransactionId).reversed());
+        return result;
+    }
+
+    /** The archived transaction_log rows of the account's archived transactions, in log id order. */
+    public List<TransactionLogEntry> findLogEntries(Long accountId) throws IOException {
+        Map<Long, TransactionLogEntry> byId = new TreeMap<>();
+        for (Block block : readBlocks(accountId)) {
+            for (TransactionLogEntry entry : block.logEntries) {
+                byId.putIfAbsent(entry.getLogId(), entry);
+            }
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    /** Segments currently listed for the partition the account falls in. */
+    int getSegmentCount(Long accountId) throws IOException {
+        return view(partitionOf(accountId)).segments.size();
+    }
+
+    // A compaction elsewhere can delete a segment between listing and opening it; rescan once and retry.
+    private List<Block> readBlocks(Long accountId) throws IOException {
+        int partition = partitionOf(accountId);
+        try {
+            return readBlocks(view(partition), accountId);
+        } catch (NoSuchFileException e) {
+            views.remove(partition);
+            return readBlocks(view(partition), accountId);
+        }
+    }
+
+    private List<Block> readBlocks(PartitionView view, Long accountId) throws IOException {
+        List<Block> blocks = new ArrayList<>();
+        for (Segment segment : view.segments) {
+            IndexEntry entry = segment.index.get(accountId);
+            if (entry != null) {
+                blocks.add(readBlock(segment, entry));
+            }
+        }
+        return blocks;
+    }
+
+    private Block readBlock(Segment segment, IndexEntry entry) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+            ByteBuffer block = ByteBuffer.allocate(entry.length);
+            readFully(channel, block, entry.offset);
+            return decode(segment.version, entry.accountId, decompress(block.array()), entry.count);
+        }
+    }
+
+    private void compactIfNeeded(int partition) throws IOException {
+        List<Segment> small = new ArrayList<>();
+        for (Segment segment : view(partition).segments) {
+            if (segment.size < SMALL_SEGMENT_BYTES) {
+                small.add(segment);
+            }
+        }
+        if (small.size() < compactAfter) {
+            return;
+        }
+
+        Map<Long, Map<Long, Transaction>> byAccount = new TreeMap<>();
+        Map<Long, List<TransactionLogEntry>> logsByTransaction = new HashMap<>();
+        Map<Long, TransactionLogEntry> logsById = new HashMap<>();
+        for (Segment segment : small) {
+            for (IndexEntry entry : segment.index.values()) {
+                Block block = readBlock(segment, entry);
+                Map<Long, Transaction> rows = byAccount.computeIfAbsent(entry.accountId, k -> new TreeMap<>());
+                for (Transaction t : block.transactions) {
+                    rows.putIfAbsent(t.getTransactionId(), t);
+                }
+                for (TransactionLogEntry log : block.logEntries) {
+                    if (logsById.putIfAbsent(log.getLogId(), log) == null) {
+                        logsByTransaction.computeIfAbsent(log.getTransactionId(), k -> new ArrayList<>()).add(log);
+                    }
+                }
+            }
+        }
+        Map<Long, List<Transaction>> merged = new TreeMap<>();
+        byAccount.forEach((accountId, rows) -> merged.put(accountId, new ArrayList<>(rows.values())));
+
+        // The merged segment is in place before the small ones go, so a crash leaves duplicates, not gaps.
+        Segment compacted = writeSegment(partition, merged, logsByTransaction);
+        List<Segment> segments = new ArrayList<>(view(partition).segments);
+        segments.removeAll(small);
+        segments.removeIf(s -> s.path.equals(compacted.path));
+        segments.add(compacted);
+        for (Segment segment : small) {
+            if (!segment.path.equals(compacted.path)) {
+                Files.deleteIfExists(segment.path);
+            }
+        }
+        publish(partition, segments);
+        logger.info("Compacted {} segment(s) of partition {} into {}", small.size(), partition, compacted.path);
+    }
+
+    private Segment writeSegment(int partition, Map<Long, List<Transaction>> byAccount,
+                                 Map<Long, List<TransactionLogEntry>> logsByTransaction) throws IOException {
+        long firstId = Long.MAX_VALUE;
+        long lastId = Long.MIN_VALUE;
+        for (List<Transaction> list : byAccount.values()) {
+            for (Transaction t : list) {
+                firstId = Math.min(firstId, t.getTransactionId());
+                lastId = Math.max(lastId, t.getTransactionId());
+            }
+        }
+
+        Path partitionDir = partitionDir(partition);
+        Files.createDirectories(partitionDir);
+        Path segment = partitionDir.resolve(String.format("segment-%019d-%019d%s", firstId, lastId, SEGMENT_SUFFIX));
+        Path temp = partitionDir.resolve(segment.getFileName() + ".tmp");
+
+        Map<Long, IndexEntry> index = new HashMap<>(byAccount.size() * 2);
+        long size;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            writeFully(channel, ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putShort(VERSION).flip());
+            long offset = HEADER_SIZE;
+            List<IndexEntry> entries = new ArrayList<>();
+
+            for (Map.Entry<Long, List<Transaction>> account : byAccount.entrySet()) {
+                byte[] compressed = compress(deflater, encode(account.getValue(), logsByTransaction));
+                writeFully(channel, ByteBuffer.wrap(compressed));
+                entries.add(new IndexEntry(account.getKey(), offset, compressed.length, account.getValue().size()));
+                offset += compressed.length;
+            }
+
+            ByteBuffer indexBuffer = ByteBuffer.allocate(4 + entries.size() * INDEX_ENTRY_SIZE + FOOTER_SIZE);
+            indexBuffer.putInt(entries.size());
+            for (IndexEntry e : entries) {
+                indexBuffer.putLong(e.accountId).putLong(e.offset).putInt(e.length).putInt(e.count);
+                index.put(e.accountId, e);
+            }
+            indexBuffer.putLong(offset).putInt(MAGIC);
+            writeFully(channel, indexBuffer.flip());
+            channel.force(true);
+            size = channel.size();
+        } finally {
+            deflater.end();
+        }
+
+        Files.move(temp, segment, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        logger.info("Archived {} account(s) to segment {}", byAccount.size(), segment);
+        return new Segment(segment, VERSION, size, index);
+    }
+
+    // Rescans the partition only when its directory changed since the cached view was taken. A view taken
+    // within MTIME_GRANULARITY_MILLIS of the change is not trusted, as a later change could share the mtime.
+    private PartitionView view(int partition) throws IOException {
+        Path partitionDir = partitionDir(partition);
+        long scannedAt = System.currentTimeMillis();
+        FileTime modified = Files.isDirectory(partitionDir) ? Files.getLastModifiedTime(partitionDir) : null;
+        PartitionView cached = views.get(partition);
+        if (cached != null && Objects.equals(cached.modified, modified)
+                && (modified == null || modified.toMillis() + MTIME_GRANULARITY_MILLIS < cached.scannedAt)) {
+            return cached;
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        if (modified != null) {
+            List<Path> paths;
+            try (Stream<Path> stream = Files.list(partitionDir)) {
+                paths = stream.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            for (Path path : paths) {
+                segments.add(loadSegment(path));
+            }
+        }
+        PartitionView view = new PartitionView(modified, scannedAt, segments);
+        views.put(partition, view);
+        return view;
+    }
+
+    private void publish(int partition, List<Segment> segments) throws IOException {
+        long scannedAt = System.currentTimeMillis();
+        views.put(partition, new PartitionView(Files.getLastModifiedTime(partitionDir(partition)), scannedAt, segments));
+    }
+
+    private Segment loadSegment(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Corrupt archive segment: " + path);
+            }
+            short version = header.getShort();
+            if (version != VERSION && version != VERSION_WITHOUT_LOGS) {
+                throw new IOException("Unsupported archive segment version " + version + ": " + path);
+            }
+
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+            readFully(channel, footer, size - FOOTER_SIZE);
+            footer.flip();
+            long indexOffset = footer.getLong();
+            if (footer.getInt() != MAGIC) {
+                throw new IOException("Corrupt archive segment: " + path);
+            }
+
+            ByteBuffer indexBuffer = ByteBuffer.allocate((int) (size - FOOTER_SIZE - indexOffset));
+            readFully(channel, indexBuffer, indexOffset);
+            indexBuffer.flip();
+
+            int entries = indexBuffer.getInt();
+            Map<Long, IndexEntry> index = new HashMap<>(entries * 2);
+            for (int i = 0; i < entries; i++) {
+                long accountId = indexBuffer.getLong();
+                index.put(accountId, new IndexEntry(accountId, indexBuffer.getLong(),
+                        indexBuffer.getInt(), indexBuffer.getInt()));
+            }
+            return new Segment(path, version, size, index);
+        }
+    }
+
+    private int partitionOf(Long accountId) {
+        return (int) Math.floorMod(accountId, (long) partitions);
+    }
+
+    private Path partitionDir(int partition) {
+        return directory.resolve(String.format("partition-%03d", partition));
+    }
+
+    private static byte[] encode(List<Transaction> transactions,
+                                 Map<Long, List<TransactionLogEntry>> logsByTransaction) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(transactions.size() * 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (Transaction t : transactions) {
+                out.writeLong(t.getTransactionId());
+                out.writeByte(t.getTransType().ordinal());
+                out.writeLong(MoneyUtils.toMinorUnits(t.getAmount()));
+                out.writeLong(MoneyUtils.toMinorUnits(t.getBalanceAfter()));
+                out.writeByte(t.getStatus().ordinal());
+                writeTimestamp(out, t.getCreatedAt());
+                writeOptionalString(out, t.getDescription());
+
+                List<TransactionLogEntry> logs = logsByTransaction.getOrDefault(t.getTransactionId(),
+                        Collections.emptyList());
+                out.writeInt(logs.size());
+                for (TransactionLogEntry log : logs) {
+                    out.writeLong(log.getLogId());
+                    out.writeUTF(log.getLogLevel());
+                    writeOptionalString(out, log.getMessage());
+                    writeOptionalString(out, log.getIpAddress());
+                    writeOptionalString(out, log.getUserAgent());
+                    out.writeBoolean(log.getCreatedAt() != null);
+                    if (log.getCreatedAt() != null) {
+                        writeTimestamp(out, log.getCreatedAt());
+                    }
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Block decode(short version, Long accountId, byte[] data, int count) throws IOException {
+        TransactionType[] types = TransactionType.values();
+        TransactionStatus[] statuses = TransactionStatus.values();
+        Block block = new Block(count);
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            for (int i = 0; i < count; i++) {
+                Transaction t = new Transaction();
+                t.setTransactionId(in.readLong());
+                t.setAccountId(accountId);
+                t.setTransType(types[in.readByte()]);
+                t.setAmount(MoneyUtils.fromMinorUnits(in.readLong()));
+                t.setBalanceAfter(MoneyUtils.fromMinorUnits(in.readLong()));
+                t.setStatus(statuses[in.readByte()]);
+                t.setCreatedAt(readTimestamp(in));
+                t.setDescription(readOptionalString(in));
+                block.transactions.add(t);
+
+                if (version == VERSION_WITHOUT_LOGS) {
+                    continue;
+                }
+                int logs = in.readInt();
+                for (int j = 0; j < logs; j++) {
+                    TransactionLogEntry log = new TransactionLogEntry();
+                    log.setLogId(in.readLong());
+                    log.setTransactionId(t.getTransactionId());
+                    log.setLogLevel(in.readUTF());
+                    log.setMessage(readOptionalString(in));
+                    log.setIpAddress(readOptionalString(in));
+                    log.setUserAgent(readOptionalString(in));
+                    if (in.readBoolean()) {
+                        log.setCreatedAt(readTimestamp(in));
+                    }
+                    block.logEntries.add(log);
+                }
+            }
+        }
+        return block;
+    }
+
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    private static LocalDateTime readTimestamp(DataInputStream in) throws IOException {
+        long epochSecond = in.readLong();
+        return LocalDateTime.ofEpochSecond(epochSecond, in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeOptionalString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readOptionalString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static byte[] compress(Deflater deflater, byte[] data) {
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] data) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && inflater.needsInput()) {
+                    throw new IOException("Truncated archive block");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                throw new IOException("Unexpected end of archive segment");
+            }
+        }
+    }
+
+    private static final class IndexEntry {
+        final long accountId;
+        final long offset;
+        final int length;
+        final int count;
+
+        IndexEntry(long accountId, long offset, int length, int count) {
+            this.accountId = accountId;
+            this.offset = offset;
+            this.length = length;
+            this.count = count;
+        }
+    }
+
+    private static final class Segment {
+        final Path path;
+        final short version;
+        final long size;
+        final Map<Long, IndexEntry> index;
+
+        Segment(Path path, short version, long size, Map<Long, IndexEntry> index) {
+            this.path = path;
+            this.version = version;
+            this.size = size;
+            this.index = index;
+        }
+    }
+
+    // Immutable: writers publish a new view rather than changing the one readers hold.
+    private static final class PartitionView {
+        final FileTime modified;
+        final long scannedAt;
+        final List<Segment> segments;
+
+        PartitionView(FileTime modified, long scannedAt, List<Segment> segments) {
+            this.modified = modified;
+            this.scannedAt = scannedAt;
+            this.segments = List.copyOf(segments);
+        }
+    }
+
+    private static final class Block {
+        final List<Transaction> transactions;
+        final List<TransactionLogEntry> logEntries = new ArrayList<>();
+
+        Block(int count) {
+            this.transactions = new ArrayList<>(count);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.banking.archive;
+
+import com.banking.config.DatabaseConfig;
+import com.banking.config.ShardRouter;
+import com.banking.dao.TransactionDAO;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionLogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Moves transactions older than the configured age, with their {@code transaction_log} rows, from the
+ * database into the archive. Each batch and its log rows are written to segment files before either is
+ * deleted, so a crash can leave a row in both places but never in neither; history reads drop such
+ * duplicates.
+ *
+ * Usage: {@code TransactionArchiver <max-age-days> [batch-size]}; run from the command line it archives every
+ * shard in turn into the one archive the account service reads.
+ */
+public class TransactionArchiver {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchiver.class);
+    private static final int DEFAULT_BATCH_SIZE = 5000;
+
+    private final TransactionDAO transactionDAO;
+    private final TransactionArchive archive;
+    private final Duration maxAge;
+    private final int batchSize;
+
+    public TransactionArchiver(TransactionDAO transactionDAO, TransactionArchive archive,
+                               Duration maxAge, int batchSize) {
+        this.transactionDAO = transactionDAO;
+        this.archive = archive;
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: TransactionArchiver <max-age-days> [batch-size]");
+            System.exit(1);
+        }
+        Duration maxAge = Duration.ofDays(Long.parseLong(args[0]));
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_BATCH_SIZE;
+
+        TransactionArchive archive = TransactionArchive.fromSystemProperties();
+        long archived = 0;
+        for (DatabaseConfig shard : ShardRouter.getInstance().getShards()) {
+            archived += new TransactionArchiver(new TransactionDAO(shard), archive, maxAge, batchSize).run();
+        }
+        System.out.println("Archived " + archived + " transaction(s)");
+    }
+
+    public long run() throws SQLException, IOException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+        long lastId = 0;
+        long archived = 0;
+
+        logger.info("Archiving transactions created before {} to {}", cutoff, archive.getDirectory());
+        while (true) {
+            List<Transaction> batch = transactionDAO.findCreatedBefore(cutoff, lastId, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<Long> ids = batch.stream().map(Transaction::getTransactionId).collect(Collectors.toList());
+            List<TransactionLogEntry> logEntries = transactionDAO.findLogEntries(ids);
+            archive.writeSegments(batch, logEntries);
+            transactionDAO.deleteArchived(ids,
+                    logEntries.stream().map(TransactionLogEntry::getLogId).collect(Collectors.toList()));
+
+            lastId = ids.get(ids.size() - 1);
+            archived += batch.size();
+            logger.info("Archived {} transactions (up to ID {})", archived, lastId);
+        }
+        return archived;
+    }
+}
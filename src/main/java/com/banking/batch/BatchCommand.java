@@ -0,0 +1,122 @@
+package com.banking.batch;
+
+import com.banking.exception.InvalidTransactionException;
+import com.banking.model.AccountType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One line of a batch script. Fields are separated by whitespace; everything after the last required
+ * field is the description. Blank lines and lines starting with {@code #} are skipped.
+ *
+ * <pre>
+ * create   ACCOUNT CUSTOMER_ID TYPE INITIAL_DEPOSIT
+ * deposit  ACCOUNT AMOUNT [DESCRIPTION]
+ * withdraw ACCOUNT AMOUNT [DESCRIPTION]
+ * transfer FROM TO AMOUNT [DESCRIPTION]
+ * balance  ACCOUNT
+ * close    ACCOUNT
+ * </pre>
+ */
+public class BatchCommand {
+
+    public enum Type {
+        CREATE(4),
+        DEPOSIT(2),
+        WITHDRAW(2),
+        TRANSFER(3),
+        BALANCE(1),
+        CLOSE(1);
+
+        private final int requiredArgs;
+
+        Type(int requiredArgs) {
+            this.requiredArgs = requiredArgs;
+        }
+    }
+
+    private final long lineNumber;
+    private final Type type;
+    private final String accountNumber;
+    private final String toAccountNumber;
+    private final Long customerId;
+    private final AccountType accountType;
+    private final BigDecimal amount;
+    private final String description;
+
+    private BatchCommand(long lineNumber, Type type, String accountNumber, String toAccountNumber,
+                         Long customerId, AccountType accountType, BigDecimal amount, String description) {
+        this.lineNumber = lineNumber;
+        this.type = type;
+        this.accountNumber = accountNumber;
+        this.toAccountNumber = toAccountNumber;
+        this.customerId = customerId;
+        this.accountType = accountType;
+        this.amount = amount;
+        this.description = description;
+    }
+
+    /** Returns {@code null} for blank and comment lines. */
+    public static BatchCommand parse(long lineNumber, String line) throws InvalidTransactionException {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+
+        String[] head = trimmed.split("\\s+", 2);
+        Type type;
+        try {
+            type = Type.valueOf(head[0].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTransactionException("Unknown command: " + head[0]);
+        }
+
+        String rest = head.length > 1 ? head[1] : "";
+        String[] args = rest.isEmpty() ? new String[0] : rest.split("\\s+", type.requiredArgs + 1);
+        if (args.length < type.requiredArgs) {
+            throw new InvalidTransactionException(type + " expects " + type.requiredArgs + " argument(s)");
+        }
+        String description = args.length > type.requiredArgs ? args[type.requiredArgs] : "";
+
+        try {
+            switch (type) {
+                case CREATE:
+                    return new BatchCommand(lineNumber, type, args[0], null, Long.parseLong(args[1]),
+                            AccountType.valueOf(args[2].toUpperCase()), new BigDecimal(args[3]), null);
+                case DEPOSIT:
+                case WITHDRAW:
+                    return new BatchCommand(lineNumber, type, args[0], null, null, null,
+                            new BigDecimal(args[1]), description);
+                case TRANSFER:
+                    return new BatchCommand(lineNumber, type, args[0], args[1], null, null,
+                            new BigDecimal(args[2]), description);
+                default:
+                    return new BatchCommand(lineNumber, type, args[0], null, null, null, null, null);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTransactionException("Invalid " + type + " arguments: " + e.getMessage());
+        }
+    }
+
+    /** Accounts whose earlier commands must finish before this one runs. */
+    public List<String> getAccounts() {
+        return toAccountNumber == null ? List.of(accountNumber) : List.of(accountNumber, toAccountNumber);
+    }
+
+    public long getLineNumber() { return lineNumber; }
+
+    public Type getType() { return type; }
+
+    public String getAccountNumber() { return accountNumber; }
+
+    public String getToAccountNumber() { return toAccountNumber; }
+
+    public Long getCustomerId() { return customerId; }
+
+    public AccountType getAccountType() { return accountType; }
+
+    public BigDecimal getAmount() { return amount; }
+
+    public String getDescription() { return description; }
+}
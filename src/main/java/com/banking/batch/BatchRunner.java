@@ -0,0 +1,197 @@
+package com.banking.batch;
+
+import com.banking.exception.BankingException;
+import com.banking.model.Account;
+import com.banking.model.AccountStatus;
+import com.banking.model.Transaction;
+import com.banking.service.AccountService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs a batch script on a worker pool. Commands touching the same account run in script order: each
+ * command is chained after the last pending command of every account it touches, so a transfer waits
+ * for both sides. Commands on unrelated accounts run concurrently.
+ *
+ * Results are written as tab-separated lines ({@code line command account status result}) in completion
+ * order; the line number ties each result back to the script.
+ */
+public class BatchRunner {
+    private static final Logger logger = LoggerFactory.getLogger(BatchRunner.class);
+
+    private final AccountService accountService;
+    private final int threads;
+    private final int maxInFlight;
+
+    public BatchRunner(AccountService accountService, int threads, int maxInFlight) {
+        this.accountService = accountService;
+        this.threads = threads;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public BatchSummary run(BufferedReader script, PrintWriter results) throws IOException {
+        long started = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "batch-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        ConcurrentHashMap<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+
+        results.println("line\tcommand\taccount\tstatus\tresult");
+        try {
+            String line;
+            long lineNumber = 0;
+            while ((line = script.readLine()) != null) {
+                lineNumber++;
+                BatchCommand command;
+                try {
+                    command = BatchCommand.parse(lineNumber, line);
+                } catch (BankingException e) {
+                    failed.increment();
+                    write(results, lineNumber, "-", "-", "ERROR", e.getMessage());
+                    continue;
+                }
+                if (command == null) {
+                    continue;
+                }
+
+                inFlight.acquireUninterruptibly();
+                List<CompletableFuture<Void>> predecessors = new ArrayList<>(2);
+                for (String account : command.getAccounts()) {
+                    CompletableFuture<Void> tail = tails.get(account);
+                    if (tail != null) {
+                        predecessors.add(tail);
+                    }
+                }
+                CompletableFuture<Void> after = predecessors.isEmpty()
+                        ? CompletableFuture.completedFuture(null)
+                        : CompletableFuture.allOf(predecessors.toArray(new CompletableFuture<?>[0]));
+
+                CompletableFuture<Void> next = after.handleAsync((ignored, error) -> {
+                    try {
+                        String outcome = execute(command);
+                        succeeded.increment();
+                        write(results, command.getLineNumber(), command.getType().name(),
+                                command.getAccountNumber(), "OK", outcome);
+                    } catch (BankingException | RuntimeException e) {
+                        failed.increment();
+                        write(results, command.getLineNumber(), command.getType().name(),
+                                command.getAccountNumber(), "ERROR", e.getMessage());
+                    } finally {
+                        inFlight.release();
+                    }
+                    return null;
+                }, executor);
+
+                for (String account : command.getAccounts()) {
+                    tails.put(account, next);
+                    next.whenComplete((ignored, error) -> tails.remove(account, next));
+                }
+            }
+
+            inFlight.acquireUninterruptibly(maxInFlight);
+            inFlight.release(maxInFlight);
+        } finally {
+            executor.shutdown();
+            results.flush();
+        }
+
+        BatchSummary summary = new BatchSummary(succeeded.sum(), failed.sum(),
+                (System.nanoTime() - started) / 1_000_000);
+        logger.info("Batch completed: {}", summary);
+        return summary;
+    }
+
+    private String execute(BatchCommand command) throws BankingException {
+        switch (command.getType()) {
+            case CREATE: {
+                Account account = new Account();
+                account.setAccountNumber(command.getAccountNumber());
+                account.setCustomerId(command.getCustomerId());
+                account.setAccountType(command.getAccountType());
+                account.setBalance(command.getAmount());
+                account.setStatus(AccountStatus.ACTIVE);
+                Account created = accountService.createAccount(account);
+                return "accountId=" + created.getAccountId() + " balance=" + created.getBalance();
+            }
+            case DEPOSIT: {
+                Transaction t = accountService.deposit(command.getAccountNumber(), command.getAmount(),
+                        command.getDescription());
+                return "transactionId=" + t.getTransactionId() + " balance=" + t.getBalanceAfter();
+            }
+            case WITHDRAW: {
+                Transaction t = accountService.withdraw(command.getAccountNumber(), command.getAmount(),
+                        command.getDescription());
+                return "transactionId=" + t.getTransactionId() + " balance=" + t.getBalanceAfter();
+            }
+            case TRANSFER:
+                accountService.transfer(command.getAccountNumber(), command.getToAccountNumber(),
+                        command.getAmount(), command.getDescription());
+                return "to=" + command.getToAccountNumber() + " amount=" + command.getAmount();
+            case BALANCE:
+                return "balance=" + accountService.getBalance(command.getAccountNumber());
+            case CLOSE:
+                accountService.closeAccount(command.getAccountNumber());
+                return "closed";
+            default:
+                throw new IllegalStateException("Unhandled command " + command.getType());
+        }
+    }
+
+    private static void write(PrintWriter results, long lineNumber, String command, String account,
+                              String status, String result) {
+        String clean = result == null ? "" : result.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        synchronized (results) {
+            results.println(lineNumber + "\t" + command + "\t" + account + "\t" + status + "\t" + clean);
+        }
+    }
+
+    public static class BatchSummary {
+        private final long succeeded;
+        private final long failed;
+        private final long elapsedMillis;
+
+        public BatchSummary(long succeeded, long failed, long elapsedMillis) {
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getSucceeded() { return succeeded; }
+
+        public long getFailed() { return failed; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public double getCommandsPerSecond() {
+            return elapsedMillis == 0 ? 0 : (succeeded + failed) * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "BatchSummary{" +
+                    "commands=" + (succeeded + failed) +
+                    ", succeeded=" + succeeded +
+                    ", failed=" + failed +
+                    ", elapsedMillis=" + elapsedMillis +
+                    ", commandsPerSecond=" + String.format("%.1f", getCommandsPerSecond()) +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.banking.config;
+
+import com.banking.jfr.ConnectionAcquireEvent;
+import com.banking.jfr.StatementTracing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-size pool for one datasource. Borrowed connections are proxies whose {@code close()}
+ * hands the physical connection back to the pool.
+ */
+public class ConnectionPool {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String name;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+
+    private final BlockingDeque<Connection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private volatile boolean healthy = true;
+    private volatile boolean closed;
+
+    public ConnectionPool(String name, String url, String username, String password,
+                          int maxSize, long acquireTimeoutMillis) {
+        this.name = name;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    public String getName() { return name; }
+
+    public String getUrl() { return url; }
+
+    public boolean isHealthy() { return healthy; }
+
+    public void markUnhealthy() {
+        if (healthy) {
+            healthy = false;
+            logger.warn("Datasource {} marked unhealthy", name);
+        }
+    }
+
+    public int getMaxSize() { return maxSize; }
+
+    public int getTotalConnections() { return total.get(); }
+
+    public int getIdleConnections() { return idle.size(); }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed: " + name);
+        }
+
+        ConnectionAcquireEvent event = new ConnectionAcquireEvent();
+        event.begin();
+        Connection physical = idle.pollFirst();
+        while (physical != null && physical.isClosed()) {
+            total.decrementAndGet();
+            physical = idle.pollFirst();
+        }
+
+        boolean reused = physical != null;
+        try {
+            if (physical == null) {
+                physical = createOrWait();
+            }
+        } finally {
+            event.complete(name, reused);
+        }
+        return wrap(physical);
+    }
+
+    private Connection createOrWait() throws SQLException {
+        while (true) {
+            int current = total.get();
+            if (current < maxSize) {
+                if (total.compareAndSet(current, current + 1)) {
+                    try {
+                        return openPhysical();
+                    } catch (SQLException e) {
+                        total.decrementAndGet();
+                        throw e;
+                    }
+                }
+                continue;
+            }
+
+            try {
+                Connection physical = idle.pollFirst(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+                if (physical == null) {
+                    // Transient: the datasource is busy, not broken.
+                    throw new SQLTransientConnectionException("Timed out waiting for a connection from " + name);
+                }
+                if (!physical.isClosed()) {
+                    return physical;
+                }
+                total.decrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted waiting for a connection from " + name, e);
+            }
+        }
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, username, password);
+        logger.debug("Database connection established: {}", name);
+        return conn;
+    }
+
+    void release(Connection physical) {
+        try {
+            if (closed || physical.isClosed()) {
+                discard(physical);
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            idle.offerFirst(physical);
+        } catch (SQLException e) {
+            logger.warn("Discarding broken connection from {}", name, e);
+            discard(physical);
+        }
+    }
+
+    private void discard(Connection physical) {
+        total.decrementAndGet();
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing discarded connection from {}", name, e);
+        }
+    }
+
+    public int warmUp(int connections) {
+        int target = Math.min(connections, maxSize);
+        int opened = 0;
+        while (total.get() < target) {
+            int current = total.get();
+            if (!total.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            try {
+                idle.offerLast(openPhysical());
+                opened++;
+            } catch (SQLException e) {
+                total.decrementAndGet();
+                logger.warn("Failed to pre-open connection for {}", name, e);
+                break;
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * Prepares each statement once on every idle connection. With a driver-side statement cache
+     * ({@code cachePrepStmts} on MySQL) the prepared handles stay with the physical connection.
+     */
+    public int prepareStatements(List<String> statements) {
+        List<Connection> borrowed = new ArrayList<>();
+        Connection physical;
+        while ((physical = idle.pollFirst()) != null) {
+            borrowed.add(physical);
+        }
+
+        int prepared = 0;
+        try {
+            for (Connection conn : borrowed) {
+                for (String sql : statements) {
+                    try {
+                        conn.prepareStatement(sql).close();
+                        prepared++;
+                    } catch (SQLException e) {
+                        logger.warn("Failed to prepare statement on {}: {}", name, sql, e);
+                    }
+                }
+            }
+        } finally {
+            for (Connection conn : borrowed) {
+                release(conn);
+            }
+        }
+        return prepared;
+    }
+
+    public boolean checkHealth() {
+        try (Connection conn = getConnection()) {
+            boolean valid = conn.isValid(VALIDATION_TIMEOUT_SECONDS);
+            if (valid && !healthy) {
+                logger.info("Datasource {} is healthy again", name);
+            }
+            if (!valid) {
+                markUnhealthy();
+            } else {
+                healthy = true;
+            }
+            return valid;
+        } catch (SQLTransientConnectionException e) {
+            // Every connection is in use: busy, not broken.
+            logger.debug("Health check skipped for {}: no free connection", name);
+            return healthy;
+        } catch (SQLException e) {
+            markUnhealthy();
+            logger.debug("Health check failed for {}", name, e);
+            return false;
+        }
+    }
+
+    public void close() {
+        closed = true;
+        Connection physical;
+        while ((physical = idle.pollFirst()) != null) {
+            discard(physical);
+        }
+    }
+
+    private Connection wrap(Connection physical) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(physical));
+    }
+
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private boolean returned;
+
+        PooledConnectionHandler(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || physical.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(physical)) {
+                        return physical;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + name + "]" + physical;
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection already returned to pool " + name);
+            }
+            Object result;
+            try {
+                result = method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof PreparedStatement && "prepareStatement".equals(method.getName())
+                    && StatementTracing.isEnabled()) {
+                return StatementTracing.wrap((PreparedStatement) result, (String) args[0], name);
+            }
+            return result;
+        }
+    }
+}
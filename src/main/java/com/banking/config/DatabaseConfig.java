@@ -6,21 +6,54 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DatabaseConfig {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseConfig.class);
+    private static final String DEFAULT_DRIVER = "com.mysql.cj.jdbc.Driver";
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final long DEFAULT_POOL_TIMEOUT_MILLIS = 30_000;
+    private static final long DEFAULT_READ_ACQUIRE_TIMEOUT_MILLIS = 250;
+    private static final long DEFAULT_STICKY_MILLIS = 5_000;
+    private static final long DEFAULT_HEALTH_INTERVAL_SECONDS = 10;
+
     private static DatabaseConfig instance;
     private String url;
     private String username;
     private String password;
+    private String driver;
+    private int poolSize;
+    private long poolTimeoutMillis;
+    private long readAcquireTimeoutMillis;
+    private long stickyMillis;
+    private long healthIntervalSeconds;
+    private final List<String> replicaUrls = new ArrayList<>();
+
+    private volatile ConnectionPool primary;
+    private volatile List<ConnectionPool> replicas = Collections.emptyList();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+    private ScheduledExecutorService healthChecker;
 
     private DatabaseConfig() {
         loadDatabaseProperties();
     }
 
+    public DatabaseConfig(Properties props) {
+        applyProperties(props);
+    }
+
     public static synchronized DatabaseConfig getInstance() {
         if (instance == null) {
             instance = new DatabaseConfig();
@@ -40,9 +73,7 @@ public class DatabaseConfig {
             }
 
             props.load(input);
-            this.url = props.getProperty("db.url");
-            this.username = props.getProperty("db.username");
-            this.password = props.getProperty("db.password");
+            applyProperties(props);
 
             logger.info("Database properties loaded successfully");
         } catch (IOException e) {
@@ -51,27 +82,172 @@ public class DatabaseConfig {
         }
     }
 
+    private void applyProperties(Properties props) {
+        this.url = props.getProperty("db.url");
+        this.username = props.getProperty("db.username");
+        this.password = props.getProperty("db.password");
+        this.driver = props.getProperty("db.driver", DEFAULT_DRIVER);
+        this.poolSize = Integer.parseInt(props.getProperty("db.pool.size", String.valueOf(DEFAULT_POOL_SIZE)));
+        this.poolTimeoutMillis = Long.parseLong(props.getProperty("db.pool.timeout.ms",
+                String.valueOf(DEFAULT_POOL_TIMEOUT_MILLIS)));
+        this.readAcquireTimeoutMillis = Long.parseLong(props.getProperty("db.read.acquire.timeout.ms",
+                String.valueOf(DEFAULT_READ_ACQUIRE_TIMEOUT_MILLIS)));
+        this.stickyMillis = Long.parseLong(props.getProperty("db.read.sticky.ms",
+                String.valueOf(DEFAULT_STICKY_MILLIS)));
+        this.healthIntervalSeconds = Long.parseLong(props.getProperty("db.health.interval.seconds",
+                String.valueOf(DEFAULT_HEALTH_INTERVAL_SECONDS)));
+
+        for (int i = 1; props.getProperty("db.replica." + i + ".url") != null; i++) {
+            replicaUrls.add(props.getProperty("db.replica." + i + ".url"));
+        }
+    }
+
     private void setDefaultProperties() {
         this.url = "jdbc:mysql://localhost:3306/banking_system";
         this.username = "root";
         this.password = "password";
+        this.driver = DEFAULT_DRIVER;
+        this.poolSize = DEFAULT_POOL_SIZE;
+        this.poolTimeoutMillis = DEFAULT_POOL_TIMEOUT_MILLIS;
+        this.readAcquireTimeoutMillis = DEFAULT_READ_ACQUIRE_TIMEOUT_MILLIS;
+        this.stickyMillis = DEFAULT_STICKY_MILLIS;
+        this.healthIntervalSeconds = DEFAULT_HEALTH_INTERVAL_SECONDS;
     }
 
-    public Connection getConnection() throws SQLException {
+    private synchronized void initPools() throws SQLException {
+        if (primary != null) {
+            return;
+        }
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            Connection conn = DriverManager.getConnection(url, username, password);
-            logger.debug("Database connection established");
-            return conn;
+            Class.forName(driver);
         } catch (ClassNotFoundException e) {
-            logger.error("MySQL Driver not found", e);
-            throw new SQLException("MySQL Driver not found", e);
+            logger.error("JDBC driver not found: {}", driver, e);
+            throw new SQLException("JDBC driver not found: " + driver, e);
+        }
+
+        List<ConnectionPool> replicaPools = new ArrayList<>();
+        // Short acquire timeout: a read waits briefly on a busy replica, then moves on to the next datasource.
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            replicaPools.add(new ConnectionPool("replica-" + (i + 1), replicaUrls.get(i),
+                    username, password, poolSize, readAcquireTimeoutMillis));
+        }
+        this.replicas = Collections.unmodifiableList(replicaPools);
+
+        if (!replicas.isEmpty() && healthIntervalSeconds > 0) {
+            healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "datasource-health-check");
+                t.setDaemon(true);
+                return t;
+            });
+            healthChecker.scheduleWithFixedDelay(this::checkHealth,
+                    healthIntervalSeconds, healthIntervalSeconds, TimeUnit.SECONDS);
+        }
+
+        primary = new ConnectionPool("primary", url, username, password, poolSize, poolTimeoutMillis);
+        logger.info("Connection pools initialised: primary + {} replica(s)", replicas.size());
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (primary == null) {
+            initPools();
+        }
+        try {
+            return primary.getConnection();
         } catch (SQLException e) {
             logger.error("Failed to establish database connection", e);
             throw e;
         }
     }
 
+    /**
+     * Connection for a read that may be served by a replica. Reads keyed by something written
+     * within the sticky window, or made while no replica is healthy or has a free connection, go to the primary.
+     */
+    public Connection getReadConnection(String stickyKey) throws SQLException {
+        if (primary == null) {
+            initPools();
+        }
+        if (replicas.isEmpty() || isSticky(stickyKey)) {
+            return getConnection();
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ConnectionPool replica = replicas.get((start + i) % size);
+            if (!replica.isHealthy()) {
+                continue;
+            }
+            try {
+                return replica.getConnection();
+            } catch (SQLTransientConnectionException e) {
+                logger.debug("Replica {} has no free connection, trying next datasource", replica.getName());
+            } catch (SQLException e) {
+                logger.warn("Read connection to {} failed, trying next datasource", replica.getName(), e);
+                replica.markUnhealthy();
+            }
+        }
+        return getConnection();
+    }
+
+    public void markWritten(String stickyKey) {
+        if (stickyKey != null && !replicas.isEmpty()) {
+            recentWrites.put(stickyKey, System.currentTimeMillis() + stickyMillis);
+        }
+    }
+
+    private boolean isSticky(String stickyKey) {
+        if (stickyKey == null) {
+            return false;
+        }
+        Long until = recentWrites.get(stickyKey);
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            recentWrites.remove(stickyKey, until);
+            return false;
+        }
+        return true;
+    }
+
+    public void checkHealth() {
+        if (primary != null && !primary.checkHealth()) {
+            logger.error("Primary datasource failed health check");
+        }
+        for (ConnectionPool replica : replicas) {
+            replica.checkHealth();
+        }
+        long now = System.currentTimeMillis();
+        recentWrites.values().removeIf(until -> until < now);
+    }
+
+    public ConnectionPool getPrimaryPool() throws SQLException {
+        if (primary == null) {
+            initPools();
+        }
+        return primary;
+    }
+
+    public List<ConnectionPool> getReplicaPools() throws SQLException {
+        if (primary == null) {
+            initPools();
+        }
+        return replicas;
+    }
+
+    public synchronized void shutdown() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        if (primary != null) {
+            primary.close();
+        }
+        for (ConnectionPool replica : replicas) {
+            replica.close();
+        }
+    }
+
     public void closeConnection(Connection conn) {
         if (conn != null) {
             try {
@@ -82,4 +258,4 @@ public class DatabaseConfig {
             }
         }
     }
-}
\ No newline at end of file
+}
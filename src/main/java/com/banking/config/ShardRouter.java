@@ -0,0 +1,135 @@
+package com.banking.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Partitions account data across several databases by a hash of the account number. Shard 0 is the
+ * database configured by {@code db.url}; with {@code db.shard.count=N} shards 1..N-1 come from
+ * {@code db.shard.<i>.url}, optionally with their own {@code db.shard.<i>.replica.<j>.url},
+ * {@code db.shard.<i>.username} and {@code db.shard.<i>.password}. Every shard is a separate
+ * {@link DatabaseConfig}, so each has its own pools and replicas.
+ *
+ * Account and transaction ids come from each shard's auto-increment, so they are only unique across
+ * shards when the shards interleave them (MySQL {@code auto_increment_increment=N} and
+ * {@code auto_increment_offset=i+1}). The shard count cannot change without moving accounts.
+ */
+public class ShardRouter {
+    private static final Logger logger = LoggerFactory.getLogger(ShardRouter.class);
+
+    private static ShardRouter instance;
+    private final List<DatabaseConfig> shards;
+
+    public ShardRouter(List<DatabaseConfig> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+    }
+
+    /** Router over the shards in {@code database.properties}, with shard 0 being {@link DatabaseConfig#getInstance()}. */
+    public static synchronized ShardRouter getInstance() {
+        if (instance == null) {
+            Properties props = new Properties();
+            try (InputStream input = ShardRouter.class.getClassLoader()
+                    .getResourceAsStream("database.properties")) {
+                if (input != null) {
+                    props.load(input);
+                }
+            } catch (IOException e) {
+                logger.error("Error loading shard properties, using a single database", e);
+            }
+            List<DatabaseConfig> shards = new ArrayList<>();
+            shards.add(DatabaseConfig.getInstance());
+            for (int i = 1; i < shardCount(props); i++) {
+                shards.add(new DatabaseConfig(shardProperties(props, i)));
+            }
+            instance = new ShardRouter(shards);
+            if (shards.size() > 1) {
+                logger.info("Account data sharded across {} databases", shards.size());
+            }
+        }
+        return instance;
+    }
+
+    /** Router built entirely from {@code props}; shard 0 uses the top-level {@code db.*} settings. */
+    public static ShardRouter fromProperties(Properties props) {
+        List<DatabaseConfig> shards = new ArrayList<>();
+        shards.add(new DatabaseConfig(props));
+        for (int i = 1; i < shardCount(props); i++) {
+            shards.add(new DatabaseConfig(shardProperties(props, i)));
+        }
+        return new ShardRouter(shards);
+    }
+
+    private static int shardCount(Properties props) {
+        return Integer.parseInt(props.getProperty("db.shard.count", "1"));
+    }
+
+    // Shard i inherits driver and pool settings; its url, credentials and replicas are its own.
+    private static Properties shardProperties(Properties props, int shard) {
+        String prefix = "db.shard." + shard + ".";
+        String url = props.getProperty(prefix + "url");
+        if (url == null) {
+            throw new IllegalArgumentException("Missing " + prefix + "url");
+        }
+
+        Properties shardProps = new Properties();
+        for (String name : props.stringPropertyNames()) {
+            if (!name.startsWith("db.replica.") && !name.startsWith("db.shard.")) {
+                shardProps.setProperty(name, props.getProperty(name));
+            }
+        }
+        shardProps.setProperty("db.url", url);
+        shardProps.setProperty("db.username", props.getProperty(prefix + "username", props.getProperty("db.username", "")));
+        shardProps.setProperty("db.password", props.getProperty(prefix + "password", props.getProperty("db.password", "")));
+        for (int j = 1; props.getProperty(prefix + "replica." + j + ".url") != null; j++) {
+            shardProps.setProperty("db.replica." + j + ".url", props.getProperty(prefix + "replica." + j + ".url"));
+        }
+        return shardProps;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public List<DatabaseConfig> getShards() {
+        return shards;
+    }
+
+    public DatabaseConfig getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    public DatabaseConfig forAccount(String accountNumber) {
+        return shards.get(shardOf(accountNumber));
+    }
+
+    /** Shard index for an account number; stable across JVMs since it only depends on {@link String#hashCode()}. */
+    public int shardOf(String accountNumber) {
+        if (shards.size() == 1) {
+            return 0;
+        }
+        // Spread the bits first: sequential account numbers differ mostly in their last characters.
+        int h = accountNumber.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, shards.size());
+    }
+
+    public void shutdown() {
+        for (DatabaseConfig shard : shards) {
+            shard.shutdown();
+        }
+    }
+}
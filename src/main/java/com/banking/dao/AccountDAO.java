@@ -2,6 +2,7 @@ package com.banking.dao;
 
 import com.banking.config.DatabaseConfig;
 import com.banking.exception.AccountNotFoundException;
+import com.banking.logging.BusinessEventLog;
 import com.banking.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,14 +12,73 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
-public class AccountDAO {
+public class AccountDAO implements AccountRepository {
     private static final Logger logger = LoggerFactory.getLogger(AccountDAO.class);
+    private static final String SELECT_BY_NUMBER_SQL = "SELECT * FROM account WHERE account_number = ?";
+    private static final String SELECT_BY_ID_SQL = "SELECT * FROM account WHERE account_id = ?";
+    private static final String UPDATE_BALANCE_SQL = "UPDATE account SET balance = ?, updated_at = CURRENT_TIMESTAMP WHERE account_id = ?";
     private final DatabaseConfig dbConfig;
+    private final BusinessEventLog eventLog;
+    private volatile AccountDirectory directory;
 
     public AccountDAO() {
-        this.dbConfig = DatabaseConfig.getInstance();
+        this(DatabaseConfig.getInstance());
     }
 
+    public AccountDAO(DatabaseConfig dbConfig) {
+        this.dbConfig = dbConfig;
+        this.eventLog = BusinessEventLog.getInstance();
+    }
+
+    /** Statements on the posting and lookup path, prepared ahead of traffic by the warm boot. */
+    public static List<String> hotStatements() {
+        return List.of(SELECT_BY_NUMBER_SQL, SELECT_BY_ID_SQL, UPDATE_BALANCE_SQL);
+    }
+
+    /**
+     * Resolves account numbers through {@code directory} first, so lookups go by primary key, and keeps it
+     * current as accounts are created or found. Null turns it off.
+     */
+    public void setDirectory(AccountDirectory directory) {
+        this.directory = directory;
+    }
+
+    public AccountDirectory getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Adds every account with an id above the directory's highest to it, paging through the table in id
+     * order. Returns the number of accounts added.
+     */
+    public int loadDirectory(AccountDirectory directory, int pageSize) throws SQLException {
+        String sql = "SELECT account_id, account_number FROM account WHERE account_id > ? ORDER BY account_id LIMIT ?";
+        int loaded = 0;
+        long afterId = directory.getMaxAccountId();
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int page;
+            do {
+                stmt.setLong(1, afterId);
+                stmt.setInt(2, pageSize);
+                page = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        afterId = rs.getLong(1);
+                        if (directory.put(rs.getString(2), afterId)) {
+                            loaded++;
+                        }
+                        page++;
+                    }
+                }
+            } while (page == pageSize);
+        }
+        logger.info("Account directory loaded {} account(s), {} in total", loaded, directory.size());
+        return loaded;
+    }
+
+    @Override
     public Account create(Account account) throws SQLException {
         String sql = "INSERT INTO account (account_number, customer_id, account_type, balance, status) VALUES (?, ?, ?, ?, ?)";
 
@@ -37,6 +97,11 @@ public class AccountDAO {
                 try (ResultSet rs = stmt.getGeneratedKeys()) {
                     if (rs.next()) {
                         account.setAccountId(rs.getLong(1));
+                        AccountDirectory directory = this.directory;
+                        if (directory != null) {
+                            directory.put(account.getAccountNumber(), account.getAccountId());
+                        }
+                        markWritten(account);
                         logger.info("Account created: {}", account.getAccountNumber());
                     }
                 }
@@ -48,26 +113,80 @@ public class AccountDAO {
         }
     }
 
+    @Override
     public Account findByAccountNumber(String accountNumber) throws SQLException, AccountNotFoundException {
-        String sql = "SELECT * FROM account WHERE account_number = ?";
+        try (Connection conn = dbConfig.getConnection()) {
+            return findByAccountNumber(conn, accountNumber);
+        }
+    }
 
-        try (Connection conn = dbConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    @Override
+    public Account findByAccountNumberReadOnly(String accountNumber) throws SQLException, AccountNotFoundException {
+        try (Connection conn = dbConfig.getReadConnection(accountNumberKey(accountNumber))) {
+            return findByAccountNumber(conn, accountNumber);
+        }
+    }
+
+    /** Primary-side lookup that returns {@code null} instead of throwing when the account does not exist. */
+    @Override
+    public Account findByAccountNumberOrNull(String accountNumber) throws SQLException {
+        try (Connection conn = dbConfig.getConnection()) {
+            return lookupByAccountNumber(conn, accountNumber);
+        }
+    }
+
+    private Account findByAccountNumber(Connection conn, String accountNumber)
+            throws SQLException, AccountNotFoundException {
+        Account account = lookupByAccountNumber(conn, accountNumber);
+        if (account == null) {
+            throw new AccountNotFoundException(accountNumber);
+        }
+        return account;
+    }
+
+    private Account lookupByAccountNumber(Connection conn, String accountNumber) throws SQLException {
+        AccountDirectory directory = this.directory;
+        if (directory != null) {
+            long accountId = directory.get(accountNumber);
+            if (accountId != AccountDirectory.MISSING) {
+                Account account = lookupById(conn, accountId);
+                if (account != null && accountNumber.equals(account.getAccountNumber())) {
+                    return account;
+                }
+            }
+        }
+
+        String sql = SELECT_BY_NUMBER_SQL;
 
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, accountNumber);
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToAccount(rs);
-                } else {
-                    throw new AccountNotFoundException(accountNumber);
+                if (!rs.next()) {
+                    return null;
+                }
+                Account account = mapResultSetToAccount(rs);
+                if (directory != null) {
+                    directory.put(accountNumber, account.getAccountId());
                 }
+                return account;
             }
         }
     }
 
+    private Account lookupById(Connection conn, long accountId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ID_SQL)) {
+            stmt.setLong(1, accountId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapResultSetToAccount(rs) : null;
+            }
+        }
+    }
+
+    @Override
     public Account findById(Long accountId) throws SQLException, AccountNotFoundException {
-        String sql = "SELECT * FROM account WHERE account_id = ?";
+        String sql = SELECT_BY_ID_SQL;
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -84,11 +203,12 @@ public class AccountDAO {
         }
     }
 
+    @Override
     public List<Account> findByCustomerId(Long customerId) throws SQLException {
         String sql = "SELECT * FROM account WHERE customer_id = ?";
         List<Account> accounts = new ArrayList<>();
 
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getReadConnection(customerKey(customerId));
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, customerId);
@@ -102,8 +222,9 @@ public class AccountDAO {
         return accounts;
     }
 
+    @Override
     public void updateBalance(Long accountId, BigDecimal newBalance) throws SQLException {
-        String sql = "UPDATE account SET balance = ?, updated_at = CURRENT_TIMESTAMP WHERE account_id = ?";
+        String sql = UPDATE_BALANCE_SQL;
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -113,7 +234,9 @@ public class AccountDAO {
 
             int affected = stmt.executeUpdate();
             if (affected > 0) {
-                logger.info("Balance updated for account ID: {}, New balance: {}", accountId, newBalance);
+                dbConfig.markWritten(accountIdKey(accountId));
+                eventLog.logBalanceUpdate(accountId, newBalance);
+                logger.debug("Balance updated for account ID: {}, New balance: {}", accountId, newBalance);
             }
         } catch (SQLException e) {
             logger.error("Error updating balance for account ID: {}", accountId, e);
@@ -121,6 +244,7 @@ public class AccountDAO {
         }
     }
 
+    @Override
     public void updateStatus(Long accountId, AccountStatus status) throws SQLException {
         String sql = "UPDATE account SET status = ?, updated_at = CURRENT_TIMESTAMP WHERE account_id = ?";
 
@@ -131,10 +255,31 @@ public class AccountDAO {
             stmt.setLong(2, accountId);
 
             stmt.executeUpdate();
-            logger.info("Status updated for account ID: {} to {}", accountId, status);
+            dbConfig.markWritten(accountIdKey(accountId));
+            eventLog.logStatusChange(accountId, status);
+            logger.debug("Status updated for account ID: {} to {}", accountId, status);
         }
     }
 
+    @Override
+    public void markWritten(Account account) {
+        dbConfig.markWritten(accountNumberKey(account.getAccountNumber()));
+        dbConfig.markWritten(accountIdKey(account.getAccountId()));
+        dbConfig.markWritten(customerKey(account.getCustomerId()));
+    }
+
+    static String accountNumberKey(String accountNumber) {
+        return "account:" + accountNumber;
+    }
+
+    static String accountIdKey(Long accountId) {
+        return "account-id:" + accountId;
+    }
+
+    static String customerKey(Long customerId) {
+        return "customer:" + customerId;
+    }
+
     private Account mapResultSetToAccount(ResultSet rs) throws SQLException {
         Account account = new Account();
         account.setAccountId(rs.getLong("account_id"));
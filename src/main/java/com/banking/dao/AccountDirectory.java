@@ -0,0 +1,274 @@
+package com.banking.dao;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Off-heap map from account number to account id. Entries are 32-byte slots in direct buffers, split into
+ * segments that each grow independently, so tens of millions of accounts cost a few hundred megabytes
+ * outside the heap instead of gigabytes of map entries inside it.
+ *
+ * A slot holds a tag (high hash bits plus key length), up to {@link #MAX_KEY_BYTES} key bytes and the id,
+ * placed by linear probing. Writers lock their segment, fill in the key and id, then publish the tag with a
+ * release store; readers take no lock and only trust a slot once its tag is visible. Entries are never
+ * removed, and a segment that grows is published as a whole new buffer, so a reader on the old one still
+ * sees a consistent table.
+ */
+public final class AccountDirectory {
+    public static final long MISSING = -1L;
+    public static final int MAX_KEY_BYTES = 20;
+
+    private static final int SLOT_BYTES = 32;
+    private static final int KEY_OFFSET = 4;
+    private static final int ID_OFFSET = 24;
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final int MIN_SEGMENT_SLOTS = 1 << 8;
+    private static final int MAX_SEGMENT_SLOTS = 1 << 25;
+    private static final double MAX_LOAD = 0.7;
+    private static final int FILE_MAGIC = 0x41434452;
+    private static final int FILE_VERSION = 1;
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final VarHandle TAG = MethodHandles.byteBufferViewVarHandle(int[].class, ORDER);
+
+    private static final class Segment {
+        volatile ByteBuffer table;
+        int size;
+
+        Segment(int slots) {
+            this.table = ByteBuffer.allocateDirect(slots * SLOT_BYTES).order(ORDER);
+        }
+    }
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final AtomicLong maxAccountId = new AtomicLong();
+
+    public AccountDirectory(int expectedAccounts) {
+        int perSegment = (int) Math.min(MAX_SEGMENT_SLOTS, (long) (expectedAccounts / SEGMENTS / MAX_LOAD) + 1);
+        int slots = Math.max(MIN_SEGMENT_SLOTS, Integer.highestOneBit(perSegment - 1) << 1);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(slots);
+        }
+    }
+
+    private AccountDirectory() {
+    }
+
+    /** Id for {@code accountNumber}, or {@link #MISSING}. Lock-free. */
+    public long get(String accountNumber) {
+        byte[] key = accountNumber.getBytes(StandardCharsets.UTF_8);
+        if (key.length == 0 || key.length > MAX_KEY_BYTES) {
+            return MISSING;
+        }
+        int hash = hash(key);
+        int tag = tag(hash, key.length);
+        ByteBuffer table = segments[hash >>> (32 - SEGMENT_BITS)].table;
+        int mask = table.capacity() / SLOT_BYTES - 1;
+
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int offset = slot * SLOT_BYTES;
+            int found = (int) TAG.getAcquire(table, offset);
+            if (found == 0) {
+                return MISSING;
+            }
+            if (found == tag && keyEquals(table, offset, key)) {
+                return table.getLong(offset + ID_OFFSET);
+            }
+        }
+    }
+
+    /**
+     * Adds a mapping; an account number already present keeps its id. Returns false if the number is too
+     * long to store or its segment is full.
+     */
+    public boolean put(String accountNumber, long accountId) {
+        byte[] key = accountNumber.getBytes(StandardCharsets.UTF_8);
+        if (key.length == 0 || key.length > MAX_KEY_BYTES) {
+            return false;
+        }
+        int hash = hash(key);
+        Segment segment = segments[hash >>> (32 - SEGMENT_BITS)];
+        synchronized (segment) {
+            ByteBuffer table = segment.table;
+            int slots = table.capacity() / SLOT_BYTES;
+            if (segment.size + 1 > slots * MAX_LOAD) {
+                if (slots >= MAX_SEGMENT_SLOTS) {
+                    return false;
+                }
+                table = grow(table, slots * 2);
+                segment.table = table;
+            }
+            if (insert(table, hash, key, accountId)) {
+                segment.size++;
+                maxAccountId.accumulateAndGet(accountId, Math::max);
+            }
+            return true;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    /** Highest id added so far; rows above it are the ones a reloaded directory still has to pick up. */
+    public long getMaxAccountId() {
+        return maxAccountId.get();
+    }
+
+    public long getOffHeapBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.table.capacity();
+        }
+        return bytes;
+    }
+
+    /** Writes the tables as-is to {@code file}, replacing it atomically. */
+    public void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(20).order(ORDER);
+            header.putInt(FILE_MAGIC).putInt(FILE_VERSION).putInt(SEGMENTS).putLong(maxAccountId.get()).flip();
+            writeFully(channel, header);
+
+            ByteBuffer segmentHeader = ByteBuffer.allocate(8).order(ORDER);
+            for (Segment segment : segments) {
+                synchronized (segment) {
+                    segmentHeader.clear();
+                    segmentHeader.putInt(segment.size).putInt(segment.table.capacity() / SLOT_BYTES).flip();
+                    writeFully(channel, segmentHeader);
+                    writeFully(channel, segment.table.duplicate().clear());
+                }
+            }
+            channel.force(false);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Reads a directory written by {@link #save}; the slot layout is loaded straight into direct buffers. */
+    public static AccountDirectory load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, ByteBuffer.allocate(20).order(ORDER));
+            if (header.getInt() != FILE_MAGIC || header.getInt() != FILE_VERSION || header.getInt() != SEGMENTS) {
+                throw new IOException("Not an account directory file: " + file);
+            }
+            AccountDirectory directory = new AccountDirectory();
+            directory.maxAccountId.set(header.getLong());
+
+            ByteBuffer segmentHeader = ByteBuffer.allocate(8).order(ORDER);
+            for (int i = 0; i < SEGMENTS; i++) {
+                segmentHeader.clear();
+                readFully(channel, segmentHeader);
+                int size = segmentHeader.getInt();
+                int slots = segmentHeader.getInt();
+                if (Integer.bitCount(slots) != 1 || slots > MAX_SEGMENT_SLOTS) {
+                    throw new IOException("Corrupt account directory file: " + file);
+                }
+                Segment segment = new Segment(slots);
+                readFully(channel, segment.table);
+                segment.table.clear();
+                segment.size = size;
+                directory.segments[i] = segment;
+            }
+            return directory;
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer table, int slots) {
+        ByteBuffer grown = ByteBuffer.allocateDirect(slots * SLOT_BYTES).order(ORDER);
+        int mask = slots - 1;
+        for (int offset = 0; offset < table.capacity(); offset += SLOT_BYTES) {
+            int tag = table.getInt(offset);
+            if (tag == 0) {
+                continue;
+            }
+            int length = tag & 0xFF;
+            byte[] key = new byte[length];
+            table.get(offset + KEY_OFFSET, key);
+            int hash = hash(key);
+            int slot = hash & mask;
+            while (grown.getInt(slot * SLOT_BYTES) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            grown.put(slot * SLOT_BYTES, table, offset, SLOT_BYTES);
+        }
+        return grown;
+    }
+
+    private static boolean insert(ByteBuffer table, int hash, byte[] key, long accountId) {
+        int tag = tag(hash, key.length);
+        int mask = table.capacity() / SLOT_BYTES - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int offset = slot * SLOT_BYTES;
+            int found = table.getInt(offset);
+            if (found == 0) {
+                table.put(offset + KEY_OFFSET, key);
+                table.putLong(offset + ID_OFFSET, accountId);
+                TAG.setRelease(table, offset, tag);
+                return true;
+            }
+            if (found == tag && keyEquals(table, offset, key)) {
+                return false;
+            }
+        }
+    }
+
+    private static boolean keyEquals(ByteBuffer table, int offset, byte[] key) {
+        for (int i = 0; i < key.length; i++) {
+            if (table.get(offset + KEY_OFFSET + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Never zero: an empty slot has tag 0 and keys are at least one byte long.
+    private static int tag(int hash, int length) {
+        return (hash & 0xFFFFFF00) | length;
+    }
+
+    private static int hash(byte[] key) {
+        int h = 0x811C9DC5;
+        for (byte b : key) {
+            h = (h ^ (b & 0xFF)) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Account directory file is truncated");
+            }
+        }
+        return buffer.flip();
+    }
+}
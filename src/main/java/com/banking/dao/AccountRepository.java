@@ -0,0 +1,39 @@
+package com.banking.dao;
+
+import com.banking.exception.AccountNotFoundException;
+import com.banking.model.Account;
+import com.banking.model.AccountStatus;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Account storage behind {@link com.banking.service.AccountService}: {@link AccountDAO} over the database or
+ * {@link InMemoryAccountRepository} on the heap. Storage failures are reported as {@link SQLException}
+ * whatever the engine, so the service handles them the same way.
+ */
+public interface AccountRepository {
+
+    /** Stores a new account and sets its id. Fails if the account number is already taken. */
+    Account create(Account account) throws SQLException;
+
+    Account findByAccountNumber(String accountNumber) throws SQLException, AccountNotFoundException;
+
+    /** Like {@link #findByAccountNumber} but may be served by a replica that trails recent writes. */
+    Account findByAccountNumberReadOnly(String accountNumber) throws SQLException, AccountNotFoundException;
+
+    /** Lookup against the primary copy that returns {@code null} when the account does not exist. */
+    Account findByAccountNumberOrNull(String accountNumber) throws SQLException;
+
+    Account findById(Long accountId) throws SQLException, AccountNotFoundException;
+
+    List<Account> findByCustomerId(Long customerId) throws SQLException;
+
+    void updateBalance(Long accountId, BigDecimal newBalance) throws SQLException;
+
+    void updateStatus(Long accountId, AccountStatus status) throws SQLException;
+
+    /** Makes reads of {@code account} that follow see the caller's writes; a no-op where reads are never stale. */
+    void markWritten(Account account);
+}
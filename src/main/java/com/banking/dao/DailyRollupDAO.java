@@ -0,0 +1,128 @@
+package com.banking.dao;
+
+import com.banking.config.DatabaseConfig;
+import com.banking.model.DailyRollup;
+import com.banking.model.RollupScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DailyRollupDAO {
+    private static final Logger logger = LoggerFactory.getLogger(DailyRollupDAO.class);
+    private final DatabaseConfig dbConfig;
+
+    public DailyRollupDAO() {
+        this(DatabaseConfig.getInstance());
+    }
+
+    public DailyRollupDAO(DatabaseConfig dbConfig) {
+        this.dbConfig = dbConfig;
+    }
+
+    public void createTableIfMissing() throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS daily_rollup ("
+                + "rollup_date DATE NOT NULL, "
+                + "scope VARCHAR(16) NOT NULL, "
+                + "scope_id BIGINT NOT NULL, "
+                + "deposit_count BIGINT NOT NULL DEFAULT 0, "
+                + "deposit_amount DECIMAL(19, 2) NOT NULL DEFAULT 0, "
+                + "withdrawal_count BIGINT NOT NULL DEFAULT 0, "
+                + "withdrawal_amount DECIMAL(19, 2) NOT NULL DEFAULT 0, "
+                + "transfer_in_count BIGINT NOT NULL DEFAULT 0, "
+                + "transfer_in_amount DECIMAL(19, 2) NOT NULL DEFAULT 0, "
+                + "transfer_out_count BIGINT NOT NULL DEFAULT 0, "
+                + "transfer_out_amount DECIMAL(19, 2) NOT NULL DEFAULT 0, "
+                + "PRIMARY KEY (scope, scope_id, rollup_date))";
+
+        try (Connection conn = dbConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    /** Adds each delta to its row, creating the row on first use, in a single transaction. */
+    public void addDeltas(List<DailyRollup> deltas) throws SQLException {
+        String sql = "INSERT INTO daily_rollup (rollup_date, scope, scope_id, deposit_count, deposit_amount, "
+                + "withdrawal_count, withdrawal_amount, transfer_in_count, transfer_in_amount, "
+                + "transfer_out_count, transfer_out_amount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE "
+                + "deposit_count = deposit_count + VALUES(deposit_count), "
+                + "deposit_amount = deposit_amount + VALUES(deposit_amount), "
+                + "withdrawal_count = withdrawal_count + VALUES(withdrawal_count), "
+                + "withdrawal_amount = withdrawal_amount + VALUES(withdrawal_amount), "
+                + "transfer_in_count = transfer_in_count + VALUES(transfer_in_count), "
+                + "transfer_in_amount = transfer_in_amount + VALUES(transfer_in_amount), "
+                + "transfer_out_count = transfer_out_count + VALUES(transfer_out_count), "
+                + "transfer_out_amount = transfer_out_amount + VALUES(transfer_out_amount)";
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (DailyRollup delta : deltas) {
+                    stmt.setDate(1, Date.valueOf(delta.getRollupDate()));
+                    stmt.setString(2, delta.getScope().name());
+                    stmt.setLong(3, delta.getScopeId());
+                    stmt.setLong(4, delta.getDepositCount());
+                    stmt.setBigDecimal(5, delta.getDepositAmount());
+                    stmt.setLong(6, delta.getWithdrawalCount());
+                    stmt.setBigDecimal(7, delta.getWithdrawalAmount());
+                    stmt.setLong(8, delta.getTransferInCount());
+                    stmt.setBigDecimal(9, delta.getTransferInAmount());
+                    stmt.setLong(10, delta.getTransferOutCount());
+                    stmt.setBigDecimal(11, delta.getTransferOutAmount());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            conn.commit();
+            logger.debug("Flushed {} rollup delta(s)", deltas.size());
+        } catch (SQLException e) {
+            logger.error("Error flushing {} rollup delta(s)", deltas.size(), e);
+            throw e;
+        }
+    }
+
+    public List<DailyRollup> findRange(RollupScope scope, long scopeId, LocalDate from, LocalDate to)
+            throws SQLException {
+        String sql = "SELECT * FROM daily_rollup WHERE scope = ? AND scope_id = ? "
+                + "AND rollup_date >= ? AND rollup_date <= ? ORDER BY rollup_date";
+        List<DailyRollup> rollups = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, scope.name());
+            stmt.setLong(2, scopeId);
+            stmt.setDate(3, Date.valueOf(from));
+            stmt.setDate(4, Date.valueOf(to));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rollups.add(mapResultSetToRollup(rs));
+                }
+            }
+        }
+        return rollups;
+    }
+
+    private DailyRollup mapResultSetToRollup(ResultSet rs) throws SQLException {
+        DailyRollup rollup = new DailyRollup(rs.getDate("rollup_date").toLocalDate(),
+                RollupScope.valueOf(rs.getString("scope")), rs.getLong("scope_id"));
+        rollup.setDepositCount(rs.getLong("deposit_count"));
+        rollup.setDepositAmount(rs.getBigDecimal("deposit_amount"));
+        rollup.setWithdrawalCount(rs.getLong("withdrawal_count"));
+        rollup.setWithdrawalAmount(rs.getBigDecimal("withdrawal_amount"));
+        rollup.setTransferInCount(rs.getLong("transfer_in_count"));
+        rollup.setTransferInAmount(rs.getBigDecimal("transfer_in_amount"));
+        rollup.setTransferOutCount(rs.getLong("transfer_out_count"));
+        rollup.setTransferOutAmount(rs.getBigDecimal("transfer_out_amount"));
+        return rollup;
+    }
+}
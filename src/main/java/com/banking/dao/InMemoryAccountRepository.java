@@ -0,0 +1,161 @@
+package com.banking.dao;
+
+import com.banking.exception.AccountNotFoundException;
+import com.banking.model.Account;
+import com.banking.model.AccountStatus;
+
+import java.math.BigDecimal;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link AccountRepository} on the heap, for simulations, benchmarks and tests. Rows sit in concurrent maps
+ * by id, with indexes by account number and customer. An update replaces the row with a changed copy and
+ * readers always get a copy of their own, so as with rows read from the database, callers can change what
+ * they hold without touching what is stored. Nothing is persisted and every read sees the latest write.
+ */
+public class InMemoryAccountRepository implements AccountRepository {
+    private final ConcurrentHashMap<Long, Account> rows = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> idsByNumber = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Long>> idsByCustomer = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    @Override
+    public Account create(Account account) throws SQLIntegrityConstraintViolationException {
+        long accountId = nextId.getAndIncrement();
+        if (idsByNumber.putIfAbsent(account.getAccountNumber(), accountId) != null) {
+            throw new SQLIntegrityConstraintViolationException(
+                    "Duplicate account number: " + account.getAccountNumber());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        account.setAccountId(accountId);
+        account.setCreatedAt(now);
+        account.setUpdatedAt(now);
+        rows.put(accountId, copy(account));
+        idsByCustomer.computeIfAbsent(account.getCustomerId(), k -> new ConcurrentSkipListSet<>()).add(accountId);
+        return account;
+    }
+
+    @Override
+    public Account findByAccountNumber(String accountNumber) throws AccountNotFoundException {
+        Account account = findByAccountNumberOrNull(accountNumber);
+        if (account == null) {
+            throw new AccountNotFoundException(accountNumber);
+        }
+        return account;
+    }
+
+    @Override
+    public Account findByAccountNumberReadOnly(String accountNumber) throws AccountNotFoundException {
+        return findByAccountNumber(accountNumber);
+    }
+
+    @Override
+    public Account findByAccountNumberOrNull(String accountNumber) {
+        Long accountId = idsByNumber.get(accountNumber);
+        return accountId != null ? copyOrNull(rows.get(accountId)) : null;
+    }
+
+    @Override
+    public Account findById(Long accountId) throws AccountNotFoundException {
+        Account account = copyOrNull(rows.get(accountId));
+        if (account == null) {
+            throw new AccountNotFoundException(accountId);
+        }
+        return account;
+    }
+
+    @Override
+    public List<Account> findByCustomerId(Long customerId) {
+        List<Account> accounts = new ArrayList<>();
+        Set<Long> accountIds = idsByCustomer.get(customerId);
+        if (accountIds != null) {
+            for (Long accountId : accountIds) {
+                Account account = copyOrNull(rows.get(accountId));
+                if (account != null) {
+                    accounts.add(account);
+                }
+            }
+        }
+        return accounts;
+    }
+
+    @Override
+    public void updateBalance(Long accountId, BigDecimal newBalance) {
+        rows.computeIfPresent(accountId, (id, row) -> {
+            Account updated = copy(row);
+            updated.setBalance(newBalance);
+            updated.setUpdatedAt(LocalDateTime.now());
+            return updated;
+        });
+    }
+
+    @Override
+    public void updateStatus(Long accountId, AccountStatus status) {
+        rows.computeIfPresent(accountId, (id, row) -> {
+            Account updated = copy(row);
+            updated.setStatus(status);
+            updated.setUpdatedAt(LocalDateTime.now());
+            return updated;
+        });
+    }
+
+    @Override
+    public void markWritten(Account account) {
+        // No replicas to fall behind.
+    }
+
+    /**
+     * Stores an account exactly as given, id and timestamps included, as when loading a snapshot. Ids handed
+     * out by {@link #create} afterwards start above the highest one restored.
+     */
+    public void restore(Account account) throws SQLIntegrityConstraintViolationException {
+        long accountId = account.getAccountId();
+        if (idsByNumber.putIfAbsent(account.getAccountNumber(), accountId) != null) {
+            throw new SQLIntegrityConstraintViolationException(
+                    "Duplicate account number: " + account.getAccountNumber());
+        }
+        rows.put(accountId, copy(account));
+        idsByCustomer.computeIfAbsent(account.getCustomerId(), k -> new ConcurrentSkipListSet<>()).add(accountId);
+        nextId.accumulateAndGet(accountId + 1, Math::max);
+    }
+
+    /** Copies of the accounts with ids in {@code [fromId, toId)}, in id order. */
+    public List<Account> findByIdRange(long fromId, long toId) {
+        List<Account> accounts = new ArrayList<>();
+        for (long accountId = fromId; accountId < toId; accountId++) {
+            Account account = copyOrNull(rows.get(accountId));
+            if (account != null) {
+                accounts.add(account);
+            }
+        }
+        return accounts;
+    }
+
+    /** The highest id handed out so far, or 0 when no account was ever created. */
+    public long maxAccountId() {
+        return nextId.get() - 1;
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    private static Account copyOrNull(Account row) {
+        return row != null ? copy(row) : null;
+    }
+
+    private static Account copy(Account row) {
+        Account account = new Account(row.getAccountId(), row.getAccountNumber(), row.getCustomerId(),
+                row.getAccountType(), row.getBalance(), row.getStatus());
+        account.setCreatedAt(row.getCreatedAt());
+        account.setUpdatedAt(row.getUpdatedAt());
+        return account;
+    }
+}
@@ -0,0 +1,98 @@
+package com.banking.dao;
+
+import com.banking.model.Account;
+import com.banking.model.AccountStatus;
+import com.banking.model.AccountType;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionStatus;
+import com.banking.model.TransactionType;
+import com.banking.util.MoneyUtils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link InterestAccrualRepository} on the heap, over the in-memory account and transaction stores an
+ * in-memory {@code AccountService} posts to. Markers and checkpoints live in sets keyed by run id and die
+ * with the process, which is enough for simulations and for testing a run that stops part way.
+ */
+public class InMemoryInterestAccrualRepository implements InterestAccrualRepository {
+    private final InMemoryAccountRepository accounts;
+    private final TransactionRepository transactions;
+    private final Map<String, Set<Long>> creditedByRun = new HashMap<>();
+    private final Map<String, Set<Long>> completedByRun = new HashMap<>();
+
+    public InMemoryInterestAccrualRepository(InMemoryAccountRepository accounts, TransactionRepository transactions) {
+        this.accounts = accounts;
+        this.transactions = transactions;
+    }
+
+    @Override
+    public void createCheckpointTableIfMissing() {
+        // Nothing to create.
+    }
+
+    @Override
+    public long findMaxAccountId() {
+        return accounts.maxAccountId();
+    }
+
+    @Override
+    public synchronized Set<Long> findCompletedRanges(String runId) {
+        return new HashSet<>(completedByRun.getOrDefault(runId, Set.of()));
+    }
+
+    @Override
+    public List<Account> findEligibleAccounts(long rangeStart, long rangeEnd) {
+        List<Account> eligible = new ArrayList<>();
+        for (Account account : accounts.findByIdRange(rangeStart, rangeEnd)) {
+            if (account.getStatus() == AccountStatus.ACTIVE
+                    && (account.getAccountType() == AccountType.SAVINGS
+                        || account.getAccountType() == AccountType.FIXED_DEPOSIT)
+                    && account.getBalance().signum() > 0) {
+                eligible.add(account);
+            }
+        }
+        return eligible;
+    }
+
+    @Override
+    public synchronized List<Transaction> creditInterest(String runId, List<Account> batch,
+                                                         InterestCalculator calculator, String description)
+            throws SQLException {
+        Set<Long> credited = creditedByRun.computeIfAbsent(runId, k -> new HashSet<>());
+        List<Transaction> posted = new ArrayList<>();
+        for (Account listed : batch) {
+            if (credited.contains(listed.getAccountId())) {
+                continue;
+            }
+            Account account = accounts.findByAccountNumberOrNull(listed.getAccountNumber());
+            if (account == null || account.getStatus() != AccountStatus.ACTIVE) {
+                continue;
+            }
+            long balanceMinor = MoneyUtils.toMinorUnits(account.getBalance());
+            long interestMinor = calculator.interest(account.getAccountType(), balanceMinor);
+            if (interestMinor <= 0) {
+                continue;
+            }
+            Transaction transaction = new Transaction(account.getAccountId(), TransactionType.DEPOSIT,
+                    MoneyUtils.fromMinorUnits(interestMinor), MoneyUtils.fromMinorUnits(balanceMinor + interestMinor),
+                    description);
+            transaction.setStatus(TransactionStatus.SUCCESS);
+            posted.add(transactions.create(transaction));
+            accounts.updateBalance(account.getAccountId(), transaction.getBalanceAfter());
+            credited.add(account.getAccountId());
+        }
+        return posted;
+    }
+
+    @Override
+    public synchronized boolean completeRange(String runId, long rangeStart, RangeResult result) {
+        return completedByRun.computeIfAbsent(runId, k -> new HashSet<>()).add(rangeStart);
+    }
+}
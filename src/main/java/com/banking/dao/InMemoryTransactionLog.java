@@ -0,0 +1,28 @@
+package com.banking.dao;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/** {@link TransactionLogRepository} that keeps each transaction's messages on the heap. */
+public class InMemoryTransactionLog implements TransactionLogRepository {
+    private final ConcurrentHashMap<Long, Queue<String>> messages = new ConcurrentHashMap<>();
+
+    @Override
+    public void logTransaction(Long transactionId, String logLevel, String message) {
+        messages.computeIfAbsent(transactionId, k -> new ConcurrentLinkedQueue<>()).add(logLevel + " " + message);
+    }
+
+    @Override
+    public void logTransactionWithDetails(Long transactionId, String logLevel, String message,
+                                          String ipAddress, String userAgent) {
+        logTransaction(transactionId, logLevel, message + " [" + ipAddress + ", " + userAgent + "]");
+    }
+
+    /** Messages logged for the transaction, oldest first, each prefixed with its level. */
+    public List<String> getMessages(Long transactionId) {
+        Queue<String> logged = messages.get(transactionId);
+        return logged != null ? List.copyOf(logged) : List.of();
+    }
+}
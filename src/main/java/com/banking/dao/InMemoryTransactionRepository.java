@@ -0,0 +1,104 @@
+package com.banking.dao;
+
+import com.banking.model.Transaction;
+import com.banking.model.TransactionStatus;
+import com.banking.model.TransactionType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link TransactionRepository} on the heap. Rows are kept by id and each account's ids in a deque with the
+ * newest at the front, so a history is read without sorting. Like {@link InMemoryAccountRepository}, rows
+ * are replaced rather than changed and readers get copies.
+ */
+public class InMemoryTransactionRepository implements TransactionRepository {
+    private final ConcurrentHashMap<Long, Transaction> rows = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Deque<Long>> idsByAccount = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    @Override
+    public Transaction create(Transaction transaction) {
+        long transactionId = nextId.getAndIncrement();
+        transaction.setTransactionId(transactionId);
+        Transaction row = copy(transaction);
+        if (row.getCreatedAt() == null) {
+            row.setCreatedAt(LocalDateTime.now());
+        }
+        rows.put(transactionId, row);
+        idsByAccount.computeIfAbsent(transaction.getAccountId(), k -> new ConcurrentLinkedDeque<>())
+                .addFirst(transactionId);
+        return transaction;
+    }
+
+    @Override
+    public void updateStatus(Long transactionId, TransactionStatus status) {
+        rows.computeIfPresent(transactionId, (id, row) -> {
+            Transaction updated = copy(row);
+            updated.setStatus(status);
+            return updated;
+        });
+    }
+
+    @Override
+    public List<Transaction> findByAccountId(Long accountId) {
+        List<Transaction> transactions = new ArrayList<>();
+        Deque<Long> transactionIds = idsByAccount.get(accountId);
+        if (transactionIds != null) {
+            for (Long transactionId : transactionIds) {
+                Transaction row = rows.get(transactionId);
+                if (row != null) {
+                    transactions.add(copy(row));
+                }
+            }
+        }
+        return transactions;
+    }
+
+    @Override
+    public Transaction findById(Long transactionId) {
+        Transaction row = rows.get(transactionId);
+        return row != null ? copy(row) : null;
+    }
+
+    @Override
+    public List<Transaction> findByTypeSince(TransactionType type, LocalDateTime since) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (Transaction row : rows.values()) {
+            if (row.getTransType() == type && !row.getCreatedAt().isBefore(since)) {
+                transactions.add(copy(row));
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * Stores a transaction with the id and timestamp it already has, as when loading a snapshot. Each
+     * account's transactions must be restored oldest first to keep its history newest first.
+     */
+    public void restore(Transaction transaction) {
+        long transactionId = transaction.getTransactionId();
+        rows.put(transactionId, copy(transaction));
+        idsByAccount.computeIfAbsent(transaction.getAccountId(), k -> new ConcurrentLinkedDeque<>())
+                .addFirst(transactionId);
+        nextId.accumulateAndGet(transactionId + 1, Math::max);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    private static Transaction copy(Transaction row) {
+        Transaction transaction = new Transaction(row.getAccountId(), row.getTransType(), row.getAmount(),
+                row.getBalanceAfter(), row.getDescription());
+        transaction.setTransactionId(row.getTransactionId());
+        transaction.setStatus(row.getStatus());
+        transaction.setCreatedAt(row.getCreatedAt());
+        return transaction;
+    }
+}
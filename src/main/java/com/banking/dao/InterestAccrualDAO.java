@@ -0,0 +1,270 @@
+package com.banking.dao;
+
+import com.banking.config.DatabaseConfig;
+import com.banking.model.Account;
+import com.banking.model.AccountStatus;
+import com.banking.model.AccountType;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionStatus;
+import com.banking.model.TransactionType;
+import com.banking.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class InterestAccrualDAO implements InterestAccrualRepository {
+    private static final Logger logger = LoggerFactory.getLogger(InterestAccrualDAO.class);
+    private final DatabaseConfig dbConfig;
+
+    public InterestAccrualDAO() {
+        this(DatabaseConfig.getInstance());
+    }
+
+    public InterestAccrualDAO(DatabaseConfig dbConfig) {
+        this.dbConfig = dbConfig;
+    }
+
+    @Override
+    public void createCheckpointTableIfMissing() throws SQLException {
+        String rangeSql = "CREATE TABLE IF NOT EXISTS interest_accrual_checkpoint ("
+                + "run_id VARCHAR(64) NOT NULL, "
+                + "range_start BIGINT NOT NULL, "
+                + "accounts_credited INT NOT NULL, "
+                + "total_interest DECIMAL(19, 2) NOT NULL, "
+                + "completed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                + "PRIMARY KEY (run_id, range_start))";
+        String postingSql = "CREATE TABLE IF NOT EXISTS interest_accrual_posting ("
+                + "run_id VARCHAR(64) NOT NULL, "
+                + "account_id BIGINT NOT NULL, "
+                + "transaction_id BIGINT NOT NULL, "
+                + "PRIMARY KEY (run_id, account_id))";
+
+        try (Connection conn = dbConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(rangeSql);
+            stmt.execute(postingSql);
+        }
+    }
+
+    @Override
+    public long findMaxAccountId() throws SQLException {
+        String sql = "SELECT COALESCE(MAX(account_id), 0) FROM account";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    @Override
+    public Set<Long> findCompletedRanges(String runId) throws SQLException {
+        String sql = "SELECT range_start FROM interest_accrual_checkpoint WHERE run_id = ?";
+        Set<Long> ranges = new HashSet<>();
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, runId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ranges.add(rs.getLong(1));
+                }
+            }
+        }
+        return ranges;
+    }
+
+    @Override
+    public List<Account> findEligibleAccounts(long rangeStart, long rangeEnd) throws SQLException {
+        String sql = "SELECT account_id, account_number, customer_id, account_type, balance, status FROM account "
+                + "WHERE account_id >= ? AND account_id < ? AND status = 'ACTIVE' "
+                + "AND account_type IN ('SAVINGS', 'FIXED_DEPOSIT') AND balance > 0 "
+                + "ORDER BY account_id";
+        List<Account> accounts = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, rangeStart);
+            stmt.setLong(2, rangeEnd);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    accounts.add(new Account(rs.getLong("account_id"), rs.getString("account_number"),
+                            rs.getLong("customer_id"), AccountType.valueOf(rs.getString("account_type")),
+                            rs.getBigDecimal("balance"), AccountStatus.valueOf(rs.getString("status"))));
+                }
+            }
+        }
+        return accounts;
+    }
+
+    /**
+     * One database transaction for the whole list: the rows are locked with one SELECT FOR UPDATE, accounts
+     * already credited are found with one marker lookup, and the transactions, balances and markers are
+     * written as three statement batches, so a chunk costs a fixed handful of round-trips and one commit.
+     */
+    @Override
+    public List<Transaction> creditInterest(String runId, List<Account> accounts, InterestCalculator calculator,
+                                            String description) throws SQLException {
+        List<Transaction> credited = new ArrayList<>();
+        if (accounts.isEmpty()) {
+            return credited;
+        }
+        String placeholders = placeholders(accounts.size());
+        String selectSql = "SELECT account_id, account_type, balance, status FROM account WHERE account_id IN ("
+                + placeholders + ") ORDER BY account_id FOR UPDATE";
+        String postedSql = "SELECT account_id FROM interest_accrual_posting WHERE run_id = ? AND account_id IN ("
+                + placeholders + ")";
+        String insertSql = "INSERT INTO transaction (account_id, trans_type, amount, balance_after, description, "
+                + "status) VALUES (?, ?, ?, ?, ?, ?)";
+        String updateSql = "UPDATE account SET balance = ?, updated_at = CURRENT_TIMESTAMP WHERE account_id = ?";
+        String markerSql = "INSERT INTO interest_accrual_posting (run_id, account_id, transaction_id) VALUES (?, ?, ?)";
+
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            List<Transaction> candidates = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                for (int i = 0; i < accounts.size(); i++) {
+                    stmt.setLong(i + 1, accounts.get(i).getAccountId());
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (!AccountStatus.ACTIVE.name().equals(rs.getString("status"))) {
+                            continue;
+                        }
+                        long balanceMinor = MoneyUtils.toMinorUnits(rs.getBigDecimal("balance"));
+                        long interestMinor = calculator.interest(AccountType.valueOf(rs.getString("account_type")),
+                                balanceMinor);
+                        if (interestMinor <= 0) {
+                            continue;
+                        }
+                        Transaction transaction = new Transaction(rs.getLong("account_id"), TransactionType.DEPOSIT,
+                                MoneyUtils.fromMinorUnits(interestMinor),
+                                MoneyUtils.fromMinorUnits(balanceMinor + interestMinor), description);
+                        transaction.setStatus(TransactionStatus.SUCCESS);
+                        candidates.add(transaction);
+                    }
+                }
+            }
+
+            // Read under the row locks, so a concurrent run of the same id cannot credit in between.
+            Set<Long> posted = new HashSet<>();
+            try (PreparedStatement stmt = conn.prepareStatement(postedSql)) {
+                stmt.setString(1, runId);
+                for (int i = 0; i < accounts.size(); i++) {
+                    stmt.setLong(i + 2, accounts.get(i).getAccountId());
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        posted.add(rs.getLong(1));
+                    }
+                }
+            }
+            Map<Long, Transaction> byAccount = new HashMap<>();
+            for (Transaction transaction : candidates) {
+                if (!posted.contains(transaction.getAccountId())) {
+                    byAccount.put(transaction.getAccountId(), transaction);
+                }
+            }
+            if (byAccount.isEmpty()) {
+                conn.rollback();
+                return credited;
+            }
+            // Keep the caller's order so ids, audit rows and events line up with it.
+            for (Account account : accounts) {
+                Transaction transaction = byAccount.get(account.getAccountId());
+                if (transaction != null) {
+                    credited.add(transaction);
+                }
+            }
+
+            try (PreparedStatement insert = conn.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Transaction transaction : credited) {
+                    insert.setLong(1, transaction.getAccountId());
+                    insert.setString(2, transaction.getTransType().name());
+                    insert.setBigDecimal(3, transaction.getAmount());
+                    insert.setBigDecimal(4, transaction.getBalanceAfter());
+                    insert.setString(5, description);
+                    insert.setString(6, transaction.getStatus().name());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                try (ResultSet rs = insert.getGeneratedKeys()) {
+                    for (Transaction transaction : credited) {
+                        if (!rs.next()) {
+                            throw new SQLException("No id generated for interest transaction on account "
+                                    + transaction.getAccountId());
+                        }
+                        transaction.setTransactionId(rs.getLong(1));
+                    }
+                }
+            }
+            try (PreparedStatement update = conn.prepareStatement(updateSql)) {
+                for (Transaction transaction : credited) {
+                    update.setBigDecimal(1, transaction.getBalanceAfter());
+                    update.setLong(2, transaction.getAccountId());
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+            try (PreparedStatement marker = conn.prepareStatement(markerSql)) {
+                for (Transaction transaction : credited) {
+                    marker.setString(1, runId);
+                    marker.setLong(2, transaction.getAccountId());
+                    marker.setLong(3, transaction.getTransactionId());
+                    marker.addBatch();
+                }
+                marker.executeBatch();
+            }
+
+            conn.commit();
+            for (Transaction transaction : credited) {
+                dbConfig.markWritten(AccountDAO.accountIdKey(transaction.getAccountId()));
+            }
+            return credited;
+        } catch (SQLException e) {
+            logger.error("Interest accrual failed for run {} on {} account(s)", runId, accounts.size(), e);
+            throw e;
+        }
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Records the range as done so re-runs of the run id skip it. Returns {@code false} when another run
+     * already recorded it.
+     */
+    @Override
+    public boolean completeRange(String runId, long rangeStart, RangeResult result) throws SQLException {
+        String sql = "INSERT INTO interest_accrual_checkpoint (run_id, range_start, accounts_credited, total_interest) "
+                + "VALUES (?, ?, ?, ?)";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, runId);
+            stmt.setLong(2, rangeStart);
+            stmt.setInt(3, result.getAccountsCredited());
+            stmt.setBigDecimal(4, MoneyUtils.fromMinorUnits(result.getTotalInterestMinor()));
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            logger.warn("Range {} of run {} already completed elsewhere", rangeStart, runId);
+            return false;
+        }
+    }
+}
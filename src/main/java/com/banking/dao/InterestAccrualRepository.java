@@ -0,0 +1,59 @@
+package com.banking.dao;
+
+import com.banking.model.Account;
+import com.banking.model.AccountType;
+import com.banking.model.Transaction;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Interest run bookkeeping for one store: {@link InterestAccrualDAO} over a database shard or
+ * {@link InMemoryInterestAccrualRepository} on the heap. A run credits each account at most once, recorded
+ * by a per-account marker under the run id, and checkpoints each id range once all of it is credited.
+ */
+public interface InterestAccrualRepository {
+
+    void createCheckpointTableIfMissing() throws SQLException;
+
+    long findMaxAccountId() throws SQLException;
+
+    Set<Long> findCompletedRanges(String runId) throws SQLException;
+
+    /** The accounts in {@code [rangeStart, rangeEnd)} that currently earn interest, in id order. */
+    List<Account> findEligibleAccounts(long rangeStart, long rangeEnd) throws SQLException;
+
+    /**
+     * Credits interest to each of {@code accounts} and records it against the run, all in one commit. Each
+     * balance is re-read inside that commit, so every credit is computed from the balance it updates. Accounts
+     * the run already credited, closed accounts and accounts with nothing to credit are skipped. Returns the
+     * committed transactions.
+     */
+    List<Transaction> creditInterest(String runId, List<Account> accounts, InterestCalculator calculator,
+                                     String description) throws SQLException;
+
+    /**
+     * Records the range as done so re-runs of the run id skip it. Returns {@code false} when another run
+     * already recorded it.
+     */
+    boolean completeRange(String runId, long rangeStart, RangeResult result) throws SQLException;
+
+    interface InterestCalculator {
+        long interest(AccountType type, long balanceMinor);
+    }
+
+    class RangeResult {
+        private final int accountsCredited;
+        private final long totalInterestMinor;
+
+        public RangeResult(int accountsCredited, long totalInterestMinor) {
+            this.accountsCredited = accountsCredited;
+            this.totalInterestMinor = totalInterestMinor;
+        }
+
+        public int getAccountsCredited() { return accountsCredited; }
+
+        public long getTotalInterestMinor() { return totalInterestMinor; }
+    }
+}
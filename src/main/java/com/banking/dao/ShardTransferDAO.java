@@ -0,0 +1,386 @@
+package com.banking.dao;
+
+import com.banking.config.DatabaseConfig;
+import com.banking.model.ShardTransfer;
+import com.banking.model.ShardTransferState;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionStatus;
+import com.banking.model.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Durable state for transfers between shards on one shard's database: the coordinator record in
+ * {@code shard_transfer} (kept on the source account's shard) and the participant legs in
+ * {@code shard_transfer_leg}. Each leg operation is one local database transaction and is idempotent,
+ * so recovery can repeat it safely.
+ */
+public class ShardTransferDAO {
+    private static final Logger logger = LoggerFactory.getLogger(ShardTransferDAO.class);
+    private static final String INSERT_TRANSACTION_SQL = "INSERT INTO transaction (account_id, trans_type, amount, "
+            + "balance_after, description, status) VALUES (?, ?, ?, ?, ?, ?)";
+
+    public enum Leg {
+        DEBIT,
+        CREDIT
+    }
+
+    private final DatabaseConfig dbConfig;
+
+    public ShardTransferDAO(DatabaseConfig dbConfig) {
+        this.dbConfig = dbConfig;
+    }
+
+    public void createTablesIfMissing() throws SQLException {
+        String transferSql = "CREATE TABLE IF NOT EXISTS shard_transfer ("
+                + "transfer_id VARCHAR(36) PRIMARY KEY, "
+                + "from_account_number VARCHAR(20) NOT NULL, "
+                + "to_account_number VARCHAR(20) NOT NULL, "
+                + "amount DECIMAL(15, 2) NOT NULL, "
+                + "description VARCHAR(255), "
+                + "state VARCHAR(16) NOT NULL, "
+                + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+        String legSql = "CREATE TABLE IF NOT EXISTS shard_transfer_leg ("
+                + "transfer_id VARCHAR(36) NOT NULL, "
+                + "leg VARCHAR(8) NOT NULL, "
+                + "account_id BIGINT NOT NULL, "
+                + "amount DECIMAL(15, 2) NOT NULL, "
+                + "description VARCHAR(255), "
+                + "transaction_id BIGINT, "
+                + "status VARCHAR(20) NOT NULL, "
+                + "PRIMARY KEY (transfer_id, leg))";
+
+        try (Connection conn = dbConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(transferSql);
+            stmt.execute(legSql);
+        }
+    }
+
+    public void begin(ShardTransfer transfer) throws SQLException {
+        String sql = "INSERT INTO shard_transfer (transfer_id, from_account_number, to_account_number, amount, "
+                + "description, state) VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, transfer.getTransferId());
+            stmt.setString(2, transfer.getFromAccountNumber());
+            stmt.setString(3, transfer.getToAccountNumber());
+            stmt.setBigDecimal(4, transfer.getAmount());
+            stmt.setString(5, transfer.getDescription());
+            stmt.setString(6, transfer.getState().name());
+            stmt.executeUpdate();
+        }
+    }
+
+    /** Moves the coordinator record from {@code expected} to {@code next}; false if it was not in {@code expected}. */
+    public boolean updateState(String transferId, ShardTransferState expected, ShardTransferState next)
+            throws SQLException {
+        String sql = "UPDATE shard_transfer SET state = ? WHERE transfer_id = ? AND state = ?";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, next.name());
+            stmt.setString(2, transferId);
+            stmt.setString(3, expected.name());
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    public ShardTransferState findState(String transferId) throws SQLException {
+        String sql = "SELECT state FROM shard_transfer WHERE transfer_id = ?";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, transferId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? ShardTransferState.valueOf(rs.getString("state")) : null;
+            }
+        }
+    }
+
+    /** Coordinator records whose legs have not all been resolved yet. */
+    public List<ShardTransfer> findUnfinished() throws SQLException {
+        String sql = "SELECT * FROM shard_transfer WHERE state IN (?, ?, ?) ORDER BY created_at";
+        List<ShardTransfer> transfers = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, ShardTransferState.PREPARING.name());
+            stmt.setString(2, ShardTransferState.COMMITTED.name());
+            stmt.setString(3, ShardTransferState.ABORTED.name());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    transfers.add(mapResultSetToTransfer(rs));
+                }
+            }
+        }
+        return transfers;
+    }
+
+    /**
+     * Takes {@code amount} out of the account and records a pending withdrawal for it, provided the account
+     * is active and has the funds. Returns {@code null} without changing anything otherwise.
+     */
+    public Transaction prepareDebit(String transferId, Long accountId, BigDecimal amount, String description)
+            throws SQLException {
+        String debitSql = "UPDATE account SET balance = balance - ?, updated_at = CURRENT_TIMESTAMP "
+                + "WHERE account_id = ? AND status = 'ACTIVE' AND balance >= ?";
+        String legSql = "INSERT INTO shard_transfer_leg (transfer_id, leg, account_id, amount, description, "
+                + "transaction_id, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(debitSql)) {
+                    stmt.setBigDecimal(1, amount);
+                    stmt.setLong(2, accountId);
+                    stmt.setBigDecimal(3, amount);
+                    if (stmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        return null;
+                    }
+                }
+                Transaction transaction = new Transaction(accountId, TransactionType.WITHDRAWAL, amount,
+                        balanceOf(conn, accountId), description);
+                insertTransaction(conn, transaction);
+
+                try (PreparedStatement stmt = conn.prepareStatement(legSql)) {
+                    stmt.setString(1, transferId);
+                    stmt.setString(2, Leg.DEBIT.name());
+                    stmt.setLong(3, accountId);
+                    stmt.setBigDecimal(4, amount);
+                    stmt.setString(5, description);
+                    stmt.setLong(6, transaction.getTransactionId());
+                    stmt.setString(7, TransactionStatus.PENDING.name());
+                    stmt.executeUpdate();
+                }
+                conn.commit();
+                return transaction;
+            } catch (SQLException e) {
+                conn.rollback();
+                logger.error("Error preparing debit leg of transfer {}", transferId, e);
+                throw e;
+            }
+        }
+    }
+
+    /** Records a pending credit for an active account; nothing moves until {@link #commitLeg}. */
+    public boolean prepareCredit(String transferId, Long accountId, BigDecimal amount, String description)
+            throws SQLException {
+        String lockSql = "SELECT status FROM account WHERE account_id = ? FOR UPDATE";
+        String legSql = "INSERT INTO shard_transfer_leg (transfer_id, leg, account_id, amount, description, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+                    stmt.setLong(1, accountId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next() || !"ACTIVE".equals(rs.getString("status"))) {
+                            conn.rollback();
+                            return false;
+                        }
+                    }
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(legSql)) {
+                    stmt.setString(1, transferId);
+                    stmt.setString(2, Leg.CREDIT.name());
+                    stmt.setLong(3, accountId);
+                    stmt.setBigDecimal(4, amount);
+                    stmt.setString(5, description);
+                    stmt.setString(6, TransactionStatus.PENDING.name());
+                    stmt.executeUpdate();
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                logger.error("Error preparing credit leg of transfer {}", transferId, e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Makes a pending leg final: the withdrawal of a debit leg becomes SUCCESS, a credit leg is applied to
+     * the balance. Returns the leg's transaction, or {@code null} if the leg is missing or already resolved.
+     */
+    public Transaction commitLeg(String transferId, Leg leg) throws SQLException {
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                LegRow row = lockPendingLeg(conn, transferId, leg);
+                if (row == null) {
+                    conn.rollback();
+                    return null;
+                }
+
+                Transaction transaction;
+                if (leg == Leg.DEBIT) {
+                    updateTransactionStatus(conn, row.transactionId, TransactionStatus.SUCCESS);
+                    transaction = new Transaction(row.accountId, TransactionType.WITHDRAWAL, row.amount,
+                            null, row.description);
+                    transaction.setTransactionId(row.transactionId);
+                    transaction.setStatus(TransactionStatus.SUCCESS);
+                } else {
+                    adjustBalance(conn, row.accountId, row.amount);
+                    transaction = new Transaction(row.accountId, TransactionType.DEPOSIT, row.amount,
+                            balanceOf(conn, row.accountId), row.description);
+                    transaction.setStatus(TransactionStatus.SUCCESS);
+                    insertTransaction(conn, transaction);
+                }
+                resolveLeg(conn, transferId, leg, transaction.getTransactionId(), TransactionStatus.SUCCESS);
+                conn.commit();
+                return transaction;
+            } catch (SQLException e) {
+                conn.rollback();
+                logger.error("Error committing {} leg of transfer {}", leg, transferId, e);
+                throw e;
+            }
+        }
+    }
+
+    /** Undoes a pending leg: a debit leg's funds go back and its withdrawal becomes FAILED. False if nothing was pending. */
+    public boolean abortLeg(String transferId, Leg leg) throws SQLException {
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                LegRow row = lockPendingLeg(conn, transferId, leg);
+                if (row == null) {
+                    conn.rollback();
+                    return false;
+                }
+                if (leg == Leg.DEBIT) {
+                    adjustBalance(conn, row.accountId, row.amount);
+                    updateTransactionStatus(conn, row.transactionId, TransactionStatus.FAILED);
+                }
+                resolveLeg(conn, transferId, leg, row.transactionId, TransactionStatus.FAILED);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                logger.error("Error aborting {} leg of transfer {}", leg, transferId, e);
+                throw e;
+            }
+        }
+    }
+
+    private static final class LegRow {
+        final Long accountId;
+        final BigDecimal amount;
+        final String description;
+        final Long transactionId;
+
+        LegRow(Long accountId, BigDecimal amount, String description, Long transactionId) {
+            this.accountId = accountId;
+            this.amount = amount;
+            this.description = description;
+            this.transactionId = transactionId;
+        }
+    }
+
+    private LegRow lockPendingLeg(Connection conn, String transferId, Leg leg) throws SQLException {
+        String sql = "SELECT * FROM shard_transfer_leg WHERE transfer_id = ? AND leg = ? FOR UPDATE";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, transferId);
+            stmt.setString(2, leg.name());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || !TransactionStatus.PENDING.name().equals(rs.getString("status"))) {
+                    return null;
+                }
+                long transactionId = rs.getLong("transaction_id");
+                return new LegRow(rs.getLong("account_id"), rs.getBigDecimal("amount"),
+                        rs.getString("description"), rs.wasNull() ? null : transactionId);
+            }
+        }
+    }
+
+    private void resolveLeg(Connection conn, String transferId, Leg leg, Long transactionId,
+                            TransactionStatus status) throws SQLException {
+        String sql = "UPDATE shard_transfer_leg SET status = ?, transaction_id = ? WHERE transfer_id = ? AND leg = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, status.name());
+            if (transactionId != null) {
+                stmt.setLong(2, transactionId);
+            } else {
+                stmt.setNull(2, Types.BIGINT);
+            }
+            stmt.setString(3, transferId);
+            stmt.setString(4, leg.name());
+            stmt.executeUpdate();
+        }
+    }
+
+    private void adjustBalance(Connection conn, Long accountId, BigDecimal delta) throws SQLException {
+        String sql = "UPDATE account SET balance = balance + ?, updated_at = CURRENT_TIMESTAMP WHERE account_id = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setBigDecimal(1, delta);
+            stmt.setLong(2, accountId);
+            stmt.executeUpdate();
+        }
+    }
+
+    private BigDecimal balanceOf(Connection conn, Long accountId) throws SQLException {
+        String sql = "SELECT balance FROM account WHERE account_id = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, accountId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Account disappeared during transfer: " + accountId);
+                }
+                return rs.getBigDecimal(1);
+            }
+        }
+    }
+
+    private void insertTransaction(Connection conn, Transaction transaction) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_TRANSACTION_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setLong(1, transaction.getAccountId());
+            stmt.setString(2, transaction.getTransType().name());
+            stmt.setBigDecimal(3, transaction.getAmount());
+            stmt.setBigDecimal(4, transaction.getBalanceAfter());
+            stmt.setString(5, transaction.getDescription());
+            stmt.setString(6, transaction.getStatus().name());
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    transaction.setTransactionId(rs.getLong(1));
+                }
+            }
+        }
+    }
+
+    private void updateTransactionStatus(Connection conn, Long transactionId, TransactionStatus status)
+            throws SQLException {
+        String sql = "UPDATE transaction SET status = ? WHERE transaction_id = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, status.name());
+            stmt.setLong(2, transactionId);
+            stmt.executeUpdate();
+        }
+    }
+
+    private ShardTransfer mapResultSetToTransfer(ResultSet rs) throws SQLException {
+        ShardTransfer transfer = new ShardTransfer();
+        transfer.setTransferId(rs.getString("transfer_id"));
+        transfer.setFromAccountNumber(rs.getString("from_account_number"));
+        transfer.setToAccountNumber(rs.getString("to_account_number"));
+        transfer.setAmount(rs.getBigDecimal("amount"));
+        transfer.setDescription(rs.getString("description"));
+        transfer.setState(ShardTransferState.valueOf(rs.getString("state")));
+        transfer.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        return transfer;
+    }
+}
@@ -0,0 +1,223 @@
+package com.banking.dao;
+
+import com.banking.config.DatabaseConfig;
+import com.banking.model.ScheduleFrequency;
+import com.banking.model.StandingOrder;
+import com.banking.model.StandingOrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class StandingOrderDAO {
+    private static final Logger logger = LoggerFactory.getLogger(StandingOrderDAO.class);
+    private final DatabaseConfig dbConfig;
+
+    public StandingOrderDAO() {
+        this(DatabaseConfig.getInstance());
+    }
+
+    public StandingOrderDAO(DatabaseConfig dbConfig) {
+        this.dbConfig = dbConfig;
+    }
+
+    public void createTableIfMissing() throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS standing_order ("
+                + "order_id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "from_account_number VARCHAR(20) NOT NULL, "
+                + "to_account_number VARCHAR(20) NOT NULL, "
+                + "amount DECIMAL(15, 2) NOT NULL, "
+                + "description VARCHAR(255), "
+                + "frequency VARCHAR(16) NOT NULL, "
+                + "first_due_at DATETIME NOT NULL, "
+                + "end_at DATETIME, "
+                + "next_due_at DATETIME, "
+                + "in_flight_due_at DATETIME, "
+                + "last_due_at DATETIME, "
+                + "last_outcome VARCHAR(64), "
+                + "executions BIGINT NOT NULL DEFAULT 0, "
+                + "status VARCHAR(16) NOT NULL, "
+                + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+
+        try (Connection conn = dbConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    public StandingOrder create(StandingOrder order) throws SQLException {
+        String sql = "INSERT INTO standing_order (from_account_number, to_account_number, amount, description, "
+                + "frequency, first_due_at, end_at, next_due_at, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setString(1, order.getFromAccountNumber());
+            stmt.setString(2, order.getToAccountNumber());
+            stmt.setBigDecimal(3, order.getAmount());
+            stmt.setString(4, order.getDescription());
+            stmt.setString(5, order.getFrequency().name());
+            stmt.setTimestamp(6, Timestamp.valueOf(order.getFirstDueAt()));
+            stmt.setTimestamp(7, toTimestamp(order.getEndAt()));
+            stmt.setTimestamp(8, toTimestamp(order.getNextDueAt()));
+            stmt.setString(9, order.getStatus().name());
+            stmt.executeUpdate();
+
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    order.setOrderId(rs.getLong(1));
+                }
+            }
+            logger.debug("Standing order created: ID {}", order.getOrderId());
+            return order;
+        } catch (SQLException e) {
+            logger.error("Error creating standing order", e);
+            throw e;
+        }
+    }
+
+    public StandingOrder findById(long orderId) throws SQLException {
+        List<StandingOrder> found = findByIds(List.of(orderId));
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    public List<StandingOrder> findByIds(Collection<Long> orderIds) throws SQLException {
+        List<StandingOrder> orders = new ArrayList<>(orderIds.size());
+        if (orderIds.isEmpty()) {
+            return orders;
+        }
+        StringBuilder sql = new StringBuilder("SELECT * FROM standing_order WHERE order_id IN (");
+        for (int i = 0; i < orderIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(')');
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (Long orderId : orderIds) {
+                stmt.setLong(index++, orderId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(mapResultSetToOrder(rs));
+                }
+            }
+        }
+        return orders;
+    }
+
+    /** One page of active orders in id order, for loading the schedule at startup. */
+    public List<StandingOrder> findActive(long afterOrderId, int limit) throws SQLException {
+        String sql = "SELECT * FROM standing_order WHERE status = ? AND order_id > ? ORDER BY order_id LIMIT ?";
+        List<StandingOrder> orders = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, StandingOrderStatus.ACTIVE.name());
+            stmt.setLong(2, afterOrderId);
+            stmt.setInt(3, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(mapResultSetToOrder(rs));
+                }
+            }
+        }
+        return orders;
+    }
+
+    public List<StandingOrder> findInFlight() throws SQLException {
+        String sql = "SELECT * FROM standing_order WHERE in_flight_due_at IS NOT NULL";
+        List<StandingOrder> orders = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                orders.add(mapResultSetToOrder(rs));
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Moves an active order from {@code expectedDue} to {@code nextDue}, provided nothing else has moved it
+     * first. With a non-null {@code inFlightDue} this claims that occurrence for execution; only one caller
+     * can win the claim for a given occurrence, which is what keeps a transfer from running twice.
+     */
+    public boolean advance(long orderId, LocalDateTime expectedDue, LocalDateTime nextDue,
+                           StandingOrderStatus status, LocalDateTime inFlightDue) throws SQLException {
+        String sql = "UPDATE standing_order SET next_due_at = ?, status = ?, in_flight_due_at = ? "
+                + "WHERE order_id = ? AND status = ? AND next_due_at = ? AND in_flight_due_at IS NULL";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, toTimestamp(nextDue));
+            stmt.setString(2, status.name());
+            stmt.setTimestamp(3, toTimestamp(inFlightDue));
+            stmt.setLong(4, orderId);
+            stmt.setString(5, StandingOrderStatus.ACTIVE.name());
+            stmt.setTimestamp(6, Timestamp.valueOf(expectedDue));
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /** Records how a claimed occurrence ended and releases the claim. */
+    public void recordOutcome(long orderId, LocalDateTime due, String outcome) throws SQLException {
+        String sql = "UPDATE standing_order SET in_flight_due_at = NULL, last_due_at = ?, last_outcome = ?, "
+                + "executions = executions + 1 WHERE order_id = ? AND in_flight_due_at = ?";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(due));
+            stmt.setString(2, outcome);
+            stmt.setLong(3, orderId);
+            stmt.setTimestamp(4, Timestamp.valueOf(due));
+            stmt.executeUpdate();
+        }
+    }
+
+    public boolean cancel(long orderId) throws SQLException {
+        String sql = "UPDATE standing_order SET status = ? WHERE order_id = ? AND status = ?";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, StandingOrderStatus.CANCELLED.name());
+            stmt.setLong(2, orderId);
+            stmt.setString(3, StandingOrderStatus.ACTIVE.name());
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp value) {
+        return value != null ? value.toLocalDateTime() : null;
+    }
+
+    private StandingOrder mapResultSetToOrder(ResultSet rs) throws SQLException {
+        StandingOrder order = new StandingOrder();
+        order.setOrderId(rs.getLong("order_id"));
+        order.setFromAccountNumber(rs.getString("from_account_number"));
+        order.setToAccountNumber(rs.getString("to_account_number"));
+        order.setAmount(rs.getBigDecimal("amount"));
+        order.setDescription(rs.getString("description"));
+        order.setFrequency(ScheduleFrequency.valueOf(rs.getString("frequency")));
+        order.setFirstDueAt(rs.getTimestamp("first_due_at").toLocalDateTime());
+        order.setEndAt(toLocalDateTime(rs.getTimestamp("end_at")));
+        order.setNextDueAt(toLocalDateTime(rs.getTimestamp("next_due_at")));
+        order.setInFlightDueAt(toLocalDateTime(rs.getTimestamp("in_flight_due_at")));
+        order.setLastDueAt(toLocalDateTime(rs.getTimestamp("last_due_at")));
+        order.setLastOutcome(rs.getString("last_outcome"));
+        order.setExecutions(rs.getLong("executions"));
+        order.setStatus(StandingOrderStatus.valueOf(rs.getString("status")));
+        order.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        return order;
+    }
+}
@@ -1,26 +1,54 @@
 package com.banking.dao;
 
 import com.banking.config.DatabaseConfig;
+import com.banking.logging.BusinessEventLog;
+import com.banking.model.AccountType;
 import com.banking.model.Transaction;
+import com.banking.model.TransactionLogEntry;
 import com.banking.model.TransactionStatus;
 import com.banking.model.TransactionType;
+import com.banking.util.MoneyUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-public class TransactionDAO {
+public class TransactionDAO implements TransactionRepository {
     private static final Logger logger = LoggerFactory.getLogger(TransactionDAO.class);
+    private static final String INSERT_SQL = "INSERT INTO transaction (account_id, trans_type, amount, balance_after, description, status) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_STATUS_SQL = "UPDATE transaction SET status = ? WHERE transaction_id = ?";
+    private static final String SELECT_BY_ACCOUNT_SQL = "SELECT * FROM transaction WHERE account_id = ? ORDER BY created_at DESC";
+    private static final int IN_CHUNK = 1000;
     private final DatabaseConfig dbConfig;
+    private final BusinessEventLog eventLog;
+
+    /** Receives scanned rows as primitives and enum constants, without building a {@link Transaction}. */
+    public interface RowSink {
+        void accept(long transactionId, long accountId, TransactionType type, AccountType accountType,
+                    long amountMinor, long createdAtMillis, TransactionStatus status);
+    }
 
     public TransactionDAO() {
-        this.dbConfig = DatabaseConfig.getInstance();
+        this(DatabaseConfig.getInstance());
+    }
+
+    public TransactionDAO(DatabaseConfig dbConfig) {
+        this.dbConfig = dbConfig;
+        this.eventLog = BusinessEventLog.getInstance();
+    }
+
+    /** Statements on the posting and history path, prepared ahead of traffic by the warm boot. */
+    public static List<String> hotStatements() {
+        return List.of(INSERT_SQL, UPDATE_STATUS_SQL, SELECT_BY_ACCOUNT_SQL);
     }
 
+    @Override
     public Transaction create(Transaction transaction) throws SQLException {
-        String sql = "INSERT INTO transaction (account_id, trans_type, amount, balance_after, description, status) VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = INSERT_SQL;
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -38,7 +66,10 @@ public class TransactionDAO {
                 try (ResultSet rs = stmt.getGeneratedKeys()) {
                     if (rs.next()) {
                         transaction.setTransactionId(rs.getLong(1));
-                        logger.info("Transaction created: ID {}", transaction.getTransactionId());
+                        dbConfig.markWritten(AccountDAO.accountIdKey(transaction.getAccountId()));
+                        eventLog.logPosting(transaction.getAccountId(), transaction.getTransactionId(),
+                                transaction.getTransType(), transaction.getAmount(), transaction.getBalanceAfter());
+                        logger.debug("Transaction created: ID {}", transaction.getTransactionId());
                     }
                 }
             }
@@ -49,8 +80,9 @@ public class TransactionDAO {
         }
     }
 
+    @Override
     public void updateStatus(Long transactionId, TransactionStatus status) throws SQLException {
-        String sql = "UPDATE transaction SET status = ? WHERE transaction_id = ?";
+        String sql = UPDATE_STATUS_SQL;
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -59,15 +91,16 @@ public class TransactionDAO {
             stmt.setLong(2, transactionId);
 
             stmt.executeUpdate();
-            logger.info("Transaction status updated: ID {} to {}", transactionId, status);
+            logger.debug("Transaction status updated: ID {} to {}", transactionId, status);
         }
     }
 
+    @Override
     public List<Transaction> findByAccountId(Long accountId) throws SQLException {
-        String sql = "SELECT * FROM transaction WHERE account_id = ? ORDER BY created_at DESC";
+        String sql = SELECT_BY_ACCOUNT_SQL;
         List<Transaction> transactions = new ArrayList<>();
 
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getReadConnection(AccountDAO.accountIdKey(accountId));
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, accountId);
@@ -81,6 +114,7 @@ public class TransactionDAO {
         return transactions;
     }
 
+    @Override
     public Transaction findById(Long transactionId) throws SQLException {
         String sql = "SELECT * FROM transaction WHERE transaction_id = ?";
 
@@ -98,6 +132,172 @@ public class TransactionDAO {
         return null;
     }
 
+    @Override
+    public List<Transaction> findByTypeSince(TransactionType type, LocalDateTime since) throws SQLException {
+        String sql = "SELECT * FROM transaction WHERE trans_type = ? AND created_at >= ?";
+        List<Transaction> transactions = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, type.name());
+            stmt.setTimestamp(2, Timestamp.valueOf(since));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapResultSetToTransaction(rs));
+                }
+            }
+        }
+        return transactions;
+    }
+
+    public List<Transaction> findCreatedBefore(LocalDateTime cutoff, long afterTransactionId, int limit)
+            throws SQLException {
+        String sql = "SELECT * FROM transaction WHERE created_at < ? AND transaction_id > ? "
+                + "ORDER BY transaction_id LIMIT ?";
+        List<Transaction> transactions = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+            stmt.setLong(2, afterTransactionId);
+            stmt.setInt(3, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapResultSetToTransaction(rs));
+                }
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * Streams up to {@code limit} transactions with ids above {@code afterTransactionId} created before
+     * {@code createdBefore}, in id order and joined with their account's type. Returns the number of rows.
+     */
+    public int scanAfter(long afterTransactionId, LocalDateTime createdBefore, int limit, RowSink sink)
+            throws SQLException {
+        String sql = "SELECT t.transaction_id, t.account_id, t.trans_type, t.amount, t.status, t.created_at, "
+                + "a.account_type FROM transaction t JOIN account a ON a.account_id = t.account_id "
+                + "WHERE t.transaction_id > ? AND t.created_at < ? ORDER BY t.transaction_id LIMIT ?";
+        int rows = 0;
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, afterTransactionId);
+            stmt.setTimestamp(2, Timestamp.valueOf(createdBefore));
+            stmt.setInt(3, limit);
+            stmt.setFetchSize(limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    sink.accept(rs.getLong(1), rs.getLong(2), TransactionType.valueOf(rs.getString(3)),
+                            AccountType.valueOf(rs.getString(7)), MoneyUtils.toMinorUnits(rs.getBigDecimal(4)),
+                            rs.getTimestamp(6).getTime(), TransactionStatus.valueOf(rs.getString(5)));
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /** The transaction_log rows of the given transactions, read in chunks of {@link #IN_CHUNK} ids. */
+    public List<TransactionLogEntry> findLogEntries(List<Long> transactionIds) throws SQLException {
+        List<TransactionLogEntry> entries = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getConnection()) {
+            for (int from = 0; from < transactionIds.size(); from += IN_CHUNK) {
+                List<Long> chunk = transactionIds.subList(from, Math.min(transactionIds.size(), from + IN_CHUNK));
+                String sql = "SELECT log_id, transaction_id, log_level, message, ip_address, user_agent, created_at "
+                        + "FROM transaction_log WHERE transaction_id IN (" + placeholders(chunk.size()) + ") "
+                        + "ORDER BY log_id";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setLong(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            TransactionLogEntry entry = new TransactionLogEntry();
+                            entry.setLogId(rs.getLong(1));
+                            entry.setTransactionId(rs.getLong(2));
+                            entry.setLogLevel(rs.getString(3));
+                            entry.setMessage(rs.getString(4));
+                            entry.setIpAddress(rs.getString(5));
+                            entry.setUserAgent(rs.getString(6));
+                            Timestamp createdAt = rs.getTimestamp(7);
+                            entry.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+                            entries.add(entry);
+                        }
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Deletes archived transactions together with their archived transaction_log rows, in one database
+     * transaction. The log rows are deleted explicitly rather than left to the foreign key's cascade; if a
+     * transaction still has a log row that was not archived, nothing is deleted and the call fails, so the
+     * cascade can never remove an audit row the archive does not hold.
+     */
+    public int deleteArchived(List<Long> transactionIds, List<Long> logIds) throws SQLException {
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM transaction_log WHERE log_id = ?")) {
+                for (Long logId : logIds) {
+                    stmt.setLong(1, logId);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+
+            for (int from = 0; from < transactionIds.size(); from += IN_CHUNK) {
+                List<Long> chunk = transactionIds.subList(from, Math.min(transactionIds.size(), from + IN_CHUNK));
+                String sql = "SELECT COUNT(*) FROM transaction_log WHERE transaction_id IN ("
+                        + placeholders(chunk.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setLong(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                        if (rs.getLong(1) > 0) {
+                            conn.rollback();
+                            throw new SQLException(rs.getLong(1) + " transaction_log row(s) were written after "
+                                    + "their transactions were archived; not deleting the batch");
+                        }
+                    }
+                }
+            }
+
+            int deleted = 0;
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM transaction WHERE transaction_id = ?")) {
+                for (Long transactionId : transactionIds) {
+                    stmt.setLong(1, transactionId);
+                    stmt.addBatch();
+                }
+                for (int count : stmt.executeBatch()) {
+                    deleted += Math.max(count, 0);
+                }
+            }
+            conn.commit();
+            logger.debug("Deleted {} transactions and {} log rows", deleted, logIds.size());
+            return deleted;
+        } catch (SQLException e) {
+            logger.error("Error deleting {} archived transactions", transactionIds.size(), e);
+            throw e;
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
     private Transaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
         Transaction transaction = new Transaction();
         transaction.setTransactionId(rs.getLong("transaction_id"));
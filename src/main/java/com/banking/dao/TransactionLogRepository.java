@@ -0,0 +1,22 @@
+package com.banking.dao;
+
+import java.util.List;
+
+/**
+ * Audit messages attached to transactions. Writing one is best effort: a failure is logged and never
+ * fails the posting it describes.
+ */
+public interface TransactionLogRepository {
+
+    void logTransaction(Long transactionId, String logLevel, String message);
+
+    void logTransactionWithDetails(Long transactionId, String logLevel, String message,
+                                   String ipAddress, String userAgent);
+
+    /** Logs {@code messages.get(i)} against {@code transactionIds.get(i)}, in one write where the store allows. */
+    default void logTransactions(List<Long> transactionIds, String logLevel, List<String> messages) {
+        for (int i = 0; i < transactionIds.size(); i++) {
+            logTransaction(transactionIds.get(i), logLevel, messages.get(i));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.banking.dao;
+
+import com.banking.model.Transaction;
+import com.banking.model.TransactionStatus;
+import com.banking.model.TransactionType;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Transaction storage behind {@link com.banking.service.AccountService}: {@link TransactionDAO} over the
+ * database or {@link InMemoryTransactionRepository} on the heap.
+ */
+public interface TransactionRepository {
+
+    /** Stores a new transaction and sets its id. */
+    Transaction create(Transaction transaction) throws SQLException;
+
+    void updateStatus(Long transactionId, TransactionStatus status) throws SQLException;
+
+    /** The account's transactions, newest first. */
+    List<Transaction> findByAccountId(Long accountId) throws SQLException;
+
+    /** The transaction, or {@code null} when there is none with that id. */
+    Transaction findById(Long transactionId) throws SQLException;
+
+    List<Transaction> findByTypeSince(TransactionType type, LocalDateTime since) throws SQLException;
+}
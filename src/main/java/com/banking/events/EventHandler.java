@@ -0,0 +1,11 @@
+package com.banking.events;
+
+@FunctionalInterface
+public interface EventHandler {
+
+    void onEvent(TransactionEvent event, boolean endOfBatch) throws Exception;
+
+    /** Called when the consumer fell a full ring behind and {@code missed} events were overwritten. */
+    default void onOverrun(long missed) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.banking.events;
+
+import com.banking.model.TransactionType;
+import com.banking.util.MoneyUtils;
+
+import java.math.BigDecimal;
+
+/**
+ * A committed posting as seen by a feed consumer. Instances are reused by the consumer thread between
+ * calls; copy the values out if they need to outlive {@link EventHandler#onEvent}.
+ */
+public final class TransactionEvent {
+    private long sequence;
+    private TransactionType type;
+    private long transactionId;
+    private long accountId;
+    private long counterpartyAccountId;
+    private long amountMinor;
+    private long balanceAfterMinor;
+    private long timestampMillis;
+
+    void set(long sequence, TransactionType type, long transactionId, long accountId, long counterpartyAccountId,
+             long amountMinor, long balanceAfterMinor, long timestampMillis) {
+        this.sequence = sequence;
+        this.type = type;
+        this.transactionId = transactionId;
+        this.accountId = accountId;
+        this.counterpartyAccountId = counterpartyAccountId;
+        this.amountMinor = amountMinor;
+        this.balanceAfterMinor = balanceAfterMinor;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public long getSequence() { return sequence; }
+
+    public TransactionType getType() { return type; }
+
+    public long getTransactionId() { return transactionId; }
+
+    public long getAccountId() { return accountId; }
+
+    /** Destination account of a TRANSFER, 0 for deposits and withdrawals. */
+    public long getCounterpartyAccountId() { return counterpartyAccountId; }
+
+    public long getAmountMinor() { return amountMinor; }
+
+    public BigDecimal getAmount() { return MoneyUtils.fromMinorUnits(amountMinor); }
+
+    public long getBalanceAfterMinor() { return balanceAfterMinor; }
+
+    public BigDecimal getBalanceAfter() { return MoneyUtils.fromMinorUnits(balanceAfterMinor); }
+
+    public long getTimestampMillis() { return timestampMillis; }
+
+    @Override
+    public String toString() {
+        return "TransactionEvent{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", transactionId=" + transactionId +
+                ", accountId=" + accountId +
+                ", counterpartyAccountId=" + counterpartyAccountId +
+                ", amount=" + getAmount() +
+                ", balanceAfter=" + getBalanceAfter() +
+                ", timestampMillis=" + timestampMillis +
+                '}';
+    }
+}
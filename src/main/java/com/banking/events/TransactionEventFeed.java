@@ -0,0 +1,305 @@
+package com.banking.events;
+
+import com.banking.model.TransactionType;
+import com.banking.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process feed of committed postings. Publishers claim a sequence and write into a fixed ring of
+ * preallocated slots; every subscription runs on its own thread with its own cursor and reads in batches.
+ *
+ * Publishers never wait for consumers. A consumer that falls a whole ring behind has its unread events
+ * overwritten: it notices on the next read, skips to the oldest event still in the ring and reports the
+ * gap through {@link EventHandler#onOverrun} and {@link Subscription#getMissed()}. Use
+ * {@link Subscription#getLag()} to watch consumers before they get that far.
+ *
+ * Each slot carries a version used as a seqlock: {@code 2 * seq + 1} while sequence {@code seq} is being
+ * written and {@code 2 * seq + 2} once it is readable.
+ */
+public final class TransactionEventFeed implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionEventFeed.class);
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private static class Holder {
+        private static final TransactionEventFeed INSTANCE = createDefault();
+    }
+
+    private final int capacity;
+    private final int mask;
+
+    private final AtomicLongArray versions;
+    private final byte[] types;
+    private final long[] transactionIds;
+    private final long[] accountIds;
+    private final long[] counterpartyIds;
+    private final long[] amounts;
+    private final long[] balances;
+    private final long[] timestamps;
+
+    private final AtomicLong next = new AtomicLong();
+    private final LongAdder published = new LongAdder();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public TransactionEventFeed(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+
+        this.versions = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            // As if sequence i - capacity had been written, so the first lap needs no special case.
+            versions.set(i, readyVersion(i - capacity));
+        }
+        this.types = new byte[capacity];
+        this.transactionIds = new long[capacity];
+        this.accountIds = new long[capacity];
+        this.counterpartyIds = new long[capacity];
+        this.amounts = new long[capacity];
+        this.balances = new long[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    public static TransactionEventFeed getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static TransactionEventFeed createDefault() {
+        TransactionEventFeed feed = new TransactionEventFeed(Integer.getInteger("banking.feed.capacity", 16384));
+        Runtime.getRuntime().addShutdownHook(new Thread(feed::close, "transaction-feed-shutdown"));
+        return feed;
+    }
+
+    public void publish(TransactionType type, Long transactionId, Long accountId, Long counterpartyAccountId,
+                        BigDecimal amount, BigDecimal balanceAfter) {
+        long seq = next.getAndIncrement();
+        int idx = (int) (seq & mask);
+
+        // The slot is free once the previous lap's writer has finished with it.
+        long previous = readyVersion(seq - capacity);
+        while (!versions.compareAndSet(idx, previous, readyVersion(seq) - 1)) {
+            Thread.onSpinWait();
+        }
+
+        types[idx] = (byte) type.ordinal();
+        transactionIds[idx] = value(transactionId);
+        accountIds[idx] = value(accountId);
+        counterpartyIds[idx] = value(counterpartyAccountId);
+        amounts[idx] = MoneyUtils.toMinorUnits(amount);
+        balances[idx] = MoneyUtils.toMinorUnits(balanceAfter);
+        timestamps[idx] = System.currentTimeMillis();
+        versions.set(idx, readyVersion(seq));
+
+        published.increment();
+        for (Subscription subscription : subscriptions) {
+            subscription.waitStrategy.signal();
+        }
+    }
+
+    public Subscription subscribe(String name, EventHandler handler, WaitStrategy waitStrategy, int maxBatch) {
+        Subscription subscription = new Subscription(name, handler, waitStrategy, Math.min(maxBatch, capacity),
+                next.get());
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        logger.info("Transaction feed consumer '{}' subscribed at sequence {}", name, subscription.sequence);
+        return subscription;
+    }
+
+    public List<Subscription> getSubscriptions() {
+        return List.copyOf(subscriptions);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Highest sequence claimed by a publisher, -1 before the first event. */
+    public long getCursor() {
+        return next.get() - 1;
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    @Override
+    public void close() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    private boolean isReady(long seq) {
+        return versions.get((int) (seq & mask)) == readyVersion(seq);
+    }
+
+    private boolean isOverwritten(long seq) {
+        return versions.get((int) (seq & mask)) > readyVersion(seq);
+    }
+
+    private boolean read(long seq, TransactionEvent event) {
+        int idx = (int) (seq & mask);
+        long version = readyVersion(seq);
+        if (versions.get(idx) != version) {
+            return false;
+        }
+        event.set(seq, TYPES[types[idx]], transactionIds[idx], accountIds[idx], counterpartyIds[idx],
+                amounts[idx], balances[idx], timestamps[idx]);
+        VarHandle.acquireFence();
+        return versions.get(idx) == version;
+    }
+
+    private static long readyVersion(long seq) {
+        return 2 * seq + 2;
+    }
+
+    private static long value(Long id) {
+        return id != null ? id : 0L;
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final String name;
+        private final EventHandler handler;
+        private final WaitStrategy waitStrategy;
+        private final TransactionEvent[] batch;
+        private final Thread thread;
+
+        private volatile long sequence;
+        private volatile boolean running = true;
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder missed = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        private Subscription(String name, EventHandler handler, WaitStrategy waitStrategy, int maxBatch,
+                             long startSequence) {
+            this.name = name;
+            this.handler = handler;
+            this.waitStrategy = waitStrategy;
+            this.sequence = startSequence;
+            this.batch = new TransactionEvent[Math.max(1, maxBatch)];
+            for (int i = 0; i < batch.length; i++) {
+                batch[i] = new TransactionEvent();
+            }
+            this.thread = new Thread(this::consumeLoop, "transaction-feed-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** Next sequence this consumer will read. */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /** Events published but not yet handed to this consumer. */
+        public long getLag() {
+            return Math.max(0, next.get() - sequence);
+        }
+
+        public long getProcessed() {
+            return processed.sum();
+        }
+
+        public long getMissed() {
+            return missed.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        private void consumeLoop() {
+            int attempt = 0;
+            while (running) {
+                long start = sequence;
+                int available = 0;
+                while (available < batch.length && isReady(start + available)
+                        && read(start + available, batch[available])) {
+                    available++;
+                }
+
+                if (available > 0) {
+                    attempt = 0;
+                    deliver(available);
+                    sequence = start + available;
+                } else if (isOverwritten(start)) {
+                    skipOverwritten(start);
+                } else {
+                    try {
+                        waitStrategy.idle(attempt++);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void deliver(int count) {
+            for (int i = 0; i < count; i++) {
+                try {
+                    handler.onEvent(batch[i], i == count - 1);
+                } catch (Exception e) {
+                    failures.increment();
+                    logger.error("Transaction feed consumer '{}' failed on sequence {}", name,
+                            batch[i].getSequence(), e);
+                }
+            }
+            processed.add(count);
+        }
+
+        private void skipOverwritten(long from) {
+            long oldest = Math.max(from, next.get() - capacity);
+            long gap = oldest - from;
+            if (gap == 0) {
+                return;
+            }
+            sequence = oldest;
+            missed.add(gap);
+            logger.warn("Transaction feed consumer '{}' overrun: skipped {} event(s), resuming at {}",
+                    name, gap, oldest);
+            handler.onOverrun(gap);
+        }
+
+        @Override
+        public void close() {
+            if (!running) {
+                return;
+            }
+            running = false;
+            subscriptions.remove(this);
+            waitStrategy.signal();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Subscription{" +
+                    "name='" + name + '\'' +
+                    ", sequence=" + sequence +
+                    ", lag=" + getLag() +
+                    ", processed=" + getProcessed() +
+                    ", missed=" + getMissed() +
+                    ", failures=" + getFailures() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.banking.events;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * How a consumer waits when it has caught up with the publishers. Each subscription gets its own instance.
+ */
+public interface WaitStrategy {
+
+    void idle(int attempt) throws InterruptedException;
+
+    /** Called by publishers after every event; only the blocking strategy does anything here. */
+    default void signal() {
+    }
+
+    static WaitStrategy busySpin() {
+        return attempt -> Thread.onSpinWait();
+    }
+
+    static WaitStrategy yielding() {
+        return attempt -> {
+            if (attempt < 100) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        };
+    }
+
+    static WaitStrategy sleeping() {
+        return attempt -> {
+            if (attempt < 100) {
+                Thread.onSpinWait();
+            } else if (attempt < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            }
+        };
+    }
+
+    static WaitStrategy blocking() {
+        return new Blocking();
+    }
+
+    static WaitStrategy fromName(String name) {
+        switch (name.toLowerCase()) {
+            case "busy-spin":
+                return busySpin();
+            case "yielding":
+                return yielding();
+            case "sleeping":
+                return sleeping();
+            case "blocking":
+                return blocking();
+            default:
+                throw new IllegalArgumentException("Unknown wait strategy: " + name);
+        }
+    }
+
+    final class Blocking implements WaitStrategy {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition published = lock.newCondition();
+        private volatile boolean waiting;
+
+        @Override
+        public void idle(int attempt) throws InterruptedException {
+            lock.lock();
+            try {
+                waiting = true;
+                // Timed so a signal that races with the check above costs at most one millisecond.
+                published.await(1, TimeUnit.MILLISECONDS);
+            } finally {
+                waiting = false;
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void signal() {
+            if (!waiting) {
+                return;
+            }
+            lock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
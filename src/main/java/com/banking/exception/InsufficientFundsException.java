@@ -1,21 +1,39 @@
 package com.banking.exception;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
 public class InsufficientFundsException extends BankingException {
-    private final double requiredAmount;
-    private final double availableBalance;
+    private final BigDecimal required;
+    private final BigDecimal available;
 
     public InsufficientFundsException(double requiredAmount, double availableBalance) {
-        super(String.format("Insufficient funds. Required: %.2f, Available: %.2f",
-                requiredAmount, availableBalance));
-        this.requiredAmount = requiredAmount;
-        this.availableBalance = availableBalance;
+        this(BigDecimal.valueOf(requiredAmount), BigDecimal.valueOf(availableBalance));
+    }
+
+    public InsufficientFundsException(BigDecimal required, BigDecimal available) {
+        super("Insufficient funds. Required: " + twoPlaces(required) + ", Available: " + twoPlaces(available));
+        this.required = required;
+        this.available = available;
+    }
+
+    public BigDecimal getRequired() {
+        return required;
+    }
+
+    public BigDecimal getAvailable() {
+        return available;
     }
 
     public double getRequiredAmount() {
-        return requiredAmount;
+        return required.doubleValue();
     }
 
     public double getAvailableBalance() {
-        return availableBalance;
+        return available.doubleValue();
+    }
+
+    private static String twoPlaces(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
     }
-}
\ No newline at end of file
+}
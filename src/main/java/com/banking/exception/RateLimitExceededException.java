@@ -0,0 +1,13 @@
+package com.banking.exception;
+
+public class RateLimitExceededException extends BankingException {
+    public RateLimitExceededException(String keyClass, String key) {
+        super("Rate limit exceeded for " + keyClass + ": " + key);
+    }
+
+    // Rejections are expected under abuse; skip the stack walk.
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,14 @@
+package com.banking.exception;
+
+public class VelocityLimitExceededException extends BankingException {
+    private final String ruleName;
+
+    public VelocityLimitExceededException(String ruleName, String accountNumber) {
+        super("Velocity limit '" + ruleName + "' exceeded for account: " + accountNumber);
+        this.ruleName = ruleName;
+    }
+
+    public String getRuleName() {
+        return ruleName;
+    }
+}
@@ -0,0 +1,72 @@
+package com.banking.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.math.BigDecimal;
+
+@Name("com.banking.AccountOperation")
+@Label("Account Operation")
+@Category({"Banking", "Service"})
+@Description("One AccountService call, from entry to return")
+@StackTrace(false)
+@Threshold("1 ms")
+public class AccountOperationEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Account Number")
+    String accountNumber;
+
+    @Label("Amount Bucket")
+    @Description("Order of magnitude of the amount, e.g. 100-1k")
+    String amountBucket;
+
+    @Label("Outcome")
+    String outcome;
+
+    /** Ends the event and commits it if it passed the threshold; fields are only filled in when committed. */
+    public void complete(String operation, String accountNumber, BigDecimal amount, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.accountNumber = accountNumber;
+            this.amountBucket = bucket(amount);
+            this.outcome = outcome;
+            commit();
+        }
+    }
+
+    static String bucket(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        if (amount.signum() <= 0) {
+            return "<=0";
+        }
+        // Integer digits of the amount: 1 for 0.01-9.99, 2 for 10-99.99, ...
+        int digits = amount.precision() - amount.scale();
+        switch (digits) {
+            case 0:
+            case 1:
+                return "<10";
+            case 2:
+                return "10-100";
+            case 3:
+                return "100-1k";
+            case 4:
+                return "1k-10k";
+            case 5:
+                return "10k-100k";
+            case 6:
+                return "100k-1M";
+            default:
+                return digits < 0 ? "<10" : ">=1M";
+        }
+    }
+}
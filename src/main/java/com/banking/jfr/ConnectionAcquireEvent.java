@@ -0,0 +1,33 @@
+package com.banking.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.banking.ConnectionAcquire")
+@Label("Connection Acquire")
+@Category({"Banking", "Database"})
+@Description("Time spent getting a connection from a pool, including opening or waiting for one")
+@StackTrace(false)
+@Threshold("1 ms")
+public class ConnectionAcquireEvent extends jdk.jfr.Event {
+
+    @Label("Datasource")
+    String datasource;
+
+    @Label("Reused")
+    @Description("Served from an idle connection without opening or waiting")
+    boolean reused;
+
+    public void complete(String datasource, boolean reused) {
+        end();
+        if (shouldCommit()) {
+            this.datasource = datasource;
+            this.reused = reused;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.banking.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.banking.Statement")
+@Label("SQL Statement")
+@Category({"Banking", "Database"})
+@Description("Execution of one prepared statement; for queries, until the result set is exhausted or closed")
+@StackTrace(false)
+@Threshold("1 ms")
+public class StatementEvent extends jdk.jfr.Event {
+
+    @Label("Datasource")
+    String datasource;
+
+    @Label("SQL Id")
+    @Description("Statement verb and table, e.g. SELECT account")
+    String sqlId;
+
+    @Label("Rows")
+    @Description("Rows returned by a query or affected by an update")
+    long rows;
+
+    void complete(String datasource, String sqlId, long rows) {
+        end();
+        if (shouldCommit()) {
+            this.datasource = datasource;
+            this.sqlId = sqlId;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.banking.jfr;
+
+import jdk.jfr.EventType;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emits a {@link StatementEvent} per execution of a prepared statement. The connection pool only wraps
+ * statements while a recording has the event enabled, so with JFR off a statement costs one flag check.
+ */
+public final class StatementTracing {
+    private static final EventType STATEMENT_EVENT = EventType.getEventType(StatementEvent.class);
+    private static final ConcurrentHashMap<String, String> SQL_IDS = new ConcurrentHashMap<>();
+
+    private StatementTracing() {
+    }
+
+    public static boolean isEnabled() {
+        return STATEMENT_EVENT.isEnabled();
+    }
+
+    public static PreparedStatement wrap(PreparedStatement statement, String sql, String datasource) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new StatementHandler(statement, SQL_IDS.computeIfAbsent(sql, StatementTracing::sqlId), datasource));
+    }
+
+    /** Verb and first table named in the statement, e.g. {@code UPDATE account}, so events group by statement shape. */
+    static String sqlId(String sql) {
+        String[] words = sql.trim().split("[\\s(,]+");
+        String verb = words.length > 0 ? words[0].toUpperCase(Locale.ROOT) : "";
+        String marker;
+        switch (verb) {
+            case "SELECT":
+            case "DELETE":
+                marker = "FROM";
+                break;
+            case "INSERT":
+            case "REPLACE":
+                marker = "INTO";
+                break;
+            case "UPDATE":
+                return words.length > 1 ? verb + " " + words[1] : verb;
+            default:
+                return verb;
+        }
+        for (int i = 1; i < words.length - 1; i++) {
+            if (words[i].equalsIgnoreCase(marker)) {
+                return verb + " " + words[i + 1];
+            }
+        }
+        return verb;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final String sqlId;
+        private final String datasource;
+        private ResultSetHandler openQuery;
+
+        StatementHandler(PreparedStatement statement, String sqlId, String datasource) {
+            this.statement = statement;
+            this.sqlId = sqlId;
+            this.datasource = datasource;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "executeQuery":
+                    if (args == null) {
+                        return executeQuery(proxy, method);
+                    }
+                    break;
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "executeBatch":
+                case "executeLargeBatch":
+                case "execute":
+                    if (args == null) {
+                        return executeUpdate(method);
+                    }
+                    break;
+                case "close":
+                    finishQuery();
+                    break;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(statement)) {
+                        return statement;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            return StatementTracing.invoke(statement, method, args);
+        }
+
+        private Object executeQuery(Object proxy, Method method) throws Throwable {
+            finishQuery();
+            StatementEvent event = new StatementEvent();
+            event.begin();
+            ResultSet rs;
+            try {
+                rs = (ResultSet) StatementTracing.invoke(statement, method, null);
+            } catch (Throwable t) {
+                event.complete(datasource, sqlId, -1);
+                throw t;
+            }
+            openQuery = new ResultSetHandler(rs, event, datasource, sqlId);
+            return Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, openQuery);
+        }
+
+        private Object executeUpdate(Method method) throws Throwable {
+            finishQuery();
+            StatementEvent event = new StatementEvent();
+            event.begin();
+            long rows = -1;
+            try {
+                Object result = StatementTracing.invoke(statement, method, null);
+                rows = rowCount(result);
+                return result;
+            } finally {
+                event.complete(datasource, sqlId, rows);
+            }
+        }
+
+        private long rowCount(Object result) throws Exception {
+            if (result instanceof int[]) {
+                long sum = 0;
+                for (int count : (int[]) result) {
+                    sum += Math.max(count, 0);
+                }
+                return sum;
+            }
+            if (result instanceof long[]) {
+                long sum = 0;
+                for (long count : (long[]) result) {
+                    sum += Math.max(count, 0);
+                }
+                return sum;
+            }
+            if (result instanceof Number) {
+                return ((Number) result).longValue();
+            }
+            // execute(): a result set means the row count is not known up front.
+            return Boolean.TRUE.equals(result) ? -1 : statement.getLargeUpdateCount();
+        }
+
+        private void finishQuery() {
+            if (openQuery != null) {
+                openQuery.finish();
+                openQuery = null;
+            }
+        }
+    }
+
+    /** Counts rows as they are read; the query's event ends when the result set is exhausted or closed. */
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet rs;
+        private final StatementEvent event;
+        private final String datasource;
+        private final String sqlId;
+        private long rows;
+        private boolean finished;
+
+        ResultSetHandler(ResultSet rs, StatementEvent event, String datasource, String sqlId) {
+            this.rs = rs;
+            this.event = event;
+            this.datasource = datasource;
+            this.sqlId = sqlId;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    boolean more = rs.next();
+                    if (more) {
+                        rows++;
+                    } else {
+                        finish();
+                    }
+                    return more;
+                case "close":
+                    finish();
+                    break;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(rs)) {
+                        return rs;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            return StatementTracing.invoke(rs, method, args);
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                event.complete(datasource, sqlId, rows);
+            }
+        }
+    }
+}
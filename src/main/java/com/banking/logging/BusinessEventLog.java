@@ -0,0 +1,319 @@
+package com.banking.logging;
+
+import com.banking.model.AccountStatus;
+import com.banking.model.TransactionType;
+import com.banking.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Binary business-event log. Producers claim a slot in a bounded ring buffer with a CAS and never block;
+ * when the buffer is full the event is dropped and counted. A single writer thread drains published slots
+ * in batches into daily files named {@code banking-events-yyyy-MM-dd.bin}.
+ *
+ * Each record is {@value #RECORD_SIZE} little-endian bytes:
+ * epochMillis(8) category(2) detail(2) reserved(4) accountId(8) transactionId(8) amountMinor(8) balanceMinor(8).
+ */
+public final class BusinessEventLog implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BusinessEventLog.class);
+
+    public static final int RECORD_SIZE = 48;
+    private static final String FILE_PREFIX = "banking-events-";
+    private static final String FILE_SUFFIX = ".bin";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static class Holder {
+        private static final BusinessEventLog INSTANCE = createDefault();
+    }
+
+    private final Path directory;
+    private final ZoneId zone;
+    private final LongSupplier clock;
+    private final int capacity;
+    private final int mask;
+    private final int batchSize;
+    private final int[] sampleRates;
+
+    private final AtomicLongArray published;
+    private final long[] timestamps;
+    private final short[] categories;
+    private final short[] details;
+    private final long[] accountIds;
+    private final long[] transactionIds;
+    private final long[] amounts;
+    private final long[] balances;
+
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private FileChannel channel;
+    private long currentDayEndMillis = Long.MIN_VALUE;
+
+    public BusinessEventLog(Path directory, int capacity, int batchSize, int[] sampleRates) {
+        this(directory, capacity, batchSize, sampleRates, ZoneId.systemDefault(), System::currentTimeMillis, true);
+    }
+
+    /**
+     * Log with its own zone and clock. Without a writer thread nothing is written until {@link #close},
+     * which then drains the buffer on the calling thread.
+     */
+    BusinessEventLog(Path directory, int capacity, int batchSize, int[] sampleRates, ZoneId zone,
+                     LongSupplier clock, boolean startWriter) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        if (sampleRates.length != EventCategory.values().length) {
+            throw new IllegalArgumentException("Expected one sample rate per event category");
+        }
+        this.directory = directory;
+        this.zone = zone;
+        this.clock = clock;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.batchSize = Math.min(batchSize, capacity);
+        this.sampleRates = sampleRates.clone();
+
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1L);
+        }
+        this.timestamps = new long[capacity];
+        this.categories = new short[capacity];
+        this.details = new short[capacity];
+        this.accountIds = new long[capacity];
+        this.transactionIds = new long[capacity];
+        this.amounts = new long[capacity];
+        this.balances = new long[capacity];
+
+        if (startWriter) {
+            this.writer = new Thread(this::drainLoop, "business-event-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        } else {
+            this.writer = null;
+        }
+    }
+
+    public static BusinessEventLog getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static BusinessEventLog createDefault() {
+        Path dir = Paths.get(System.getProperty("banking.events.dir", "logs"));
+        int capacity = Integer.getInteger("banking.events.capacity", 8192);
+        int batchSize = Integer.getInteger("banking.events.batch", 256);
+
+        EventCategory[] values = EventCategory.values();
+        int[] rates = new int[values.length];
+        for (EventCategory category : values) {
+            rates[category.ordinal()] = Integer.getInteger("banking.events.sample." + category.name(), 1);
+        }
+
+        BusinessEventLog log = new BusinessEventLog(dir, capacity, batchSize, rates);
+        Runtime.getRuntime().addShutdownHook(new Thread(log::close, "business-event-flush"));
+        return log;
+    }
+
+    public void logPosting(Long accountId, Long transactionId, TransactionType type,
+                           BigDecimal amount, BigDecimal balanceAfter) {
+        if (!sampled(EventCategory.POSTING)) {
+            return;
+        }
+        append(EventCategory.POSTING, type.ordinal(), value(accountId), value(transactionId),
+                MoneyUtils.toMinorUnits(amount), MoneyUtils.toMinorUnits(balanceAfter));
+    }
+
+    public void logBalanceUpdate(Long accountId, BigDecimal newBalance) {
+        if (!sampled(EventCategory.BALANCE_UPDATE)) {
+            return;
+        }
+        append(EventCategory.BALANCE_UPDATE, 0, value(accountId), 0L,
+                0L, MoneyUtils.toMinorUnits(newBalance));
+    }
+
+    public void logStatusChange(Long accountId, AccountStatus status) {
+        if (!sampled(EventCategory.STATUS_CHANGE)) {
+            return;
+        }
+        append(EventCategory.STATUS_CHANGE, status.ordinal(), value(accountId), 0L, 0L, 0L);
+    }
+
+    public void logFailure(FailureCode code, Long accountId, BigDecimal amount) {
+        if (!sampled(EventCategory.FAILURE)) {
+            return;
+        }
+        append(EventCategory.FAILURE, code.ordinal(), value(accountId), 0L,
+                MoneyUtils.toMinorUnits(amount), 0L);
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    private boolean sampled(EventCategory category) {
+        int rate = sampleRates[category.ordinal()];
+        if (rate <= 0) {
+            return false;
+        }
+        return rate == 1 || ThreadLocalRandom.current().nextInt(rate) == 0;
+    }
+
+    private void append(EventCategory category, int detail, long accountId, long transactionId,
+                        long amountMinor, long balanceMinor) {
+        long seq;
+        do {
+            seq = head.get();
+            if (seq - tail >= capacity || !running) {
+                dropped.increment();
+                return;
+            }
+        } while (!head.compareAndSet(seq, seq + 1));
+
+        int idx = (int) (seq & mask);
+        timestamps[idx] = clock.getAsLong();
+        categories[idx] = (short) category.ordinal();
+        details[idx] = (short) detail;
+        accountIds[idx] = accountId;
+        transactionIds[idx] = transactionId;
+        amounts[idx] = amountMinor;
+        balances[idx] = balanceMinor;
+        published.lazySet(idx, seq);
+    }
+
+    private void drainLoop() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(batchSize * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (running || tail != head.get()) {
+            int drained = drainBatch(buffer);
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        closeChannel();
+    }
+
+    private int drainBatch(ByteBuffer buffer) {
+        long next = tail;
+        int count = 0;
+        buffer.clear();
+
+        while (count < batchSize) {
+            int idx = (int) (next & mask);
+            if (published.get(idx) != next) {
+                break;
+            }
+            long timestamp = timestamps[idx];
+            if (timestamp >= currentDayEndMillis) {
+                writeBuffer(buffer);
+                buffer.clear();
+                rollOver(timestamp);
+            }
+            buffer.putLong(timestamp)
+                    .putShort(categories[idx])
+                    .putShort(details[idx])
+                    .putInt(0)
+                    .putLong(accountIds[idx])
+                    .putLong(transactionIds[idx])
+                    .putLong(amounts[idx])
+                    .putLong(balances[idx]);
+            next++;
+            count++;
+        }
+
+        tail = next;
+        writeBuffer(buffer);
+        written.add(count);
+        return count;
+    }
+
+    private void writeBuffer(ByteBuffer buffer) {
+        buffer.flip();
+        if (!buffer.hasRemaining() || channel == null) {
+            return;
+        }
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write business events to {}", directory, e);
+        }
+    }
+
+    private void rollOver(long timestamp) {
+        closeChannel();
+        LocalDate day = Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate();
+        currentDayEndMillis = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+
+        Path file = directory.resolve(FILE_PREFIX + day + FILE_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.error("Failed to open business event file {}", file, e);
+            channel = null;
+        }
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                logger.error("Error closing business event file", e);
+            }
+            channel = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (writer == null) {
+            drainLoop();
+            return;
+        }
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long value(Long id) {
+        return id != null ? id : 0L;
+    }
+}
@@ -0,0 +1,8 @@
+package com.banking.logging;
+
+public enum EventCategory {
+    POSTING,
+    BALANCE_UPDATE,
+    STATUS_CHANGE,
+    FAILURE
+}
@@ -0,0 +1,9 @@
+package com.banking.logging;
+
+public enum FailureCode {
+    DATABASE_ERROR,
+    ACCOUNT_NOT_FOUND,
+    ACCOUNT_CLOSED,
+    INSUFFICIENT_FUNDS,
+    INVALID_AMOUNT
+}
@@ -0,0 +1,73 @@
+package com.banking.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class DailyRollup {
+    private LocalDate rollupDate;
+    private RollupScope scope;
+    private Long scopeId;
+    private long depositCount;
+    private BigDecimal depositAmount = BigDecimal.ZERO;
+    private long withdrawalCount;
+    private BigDecimal withdrawalAmount = BigDecimal.ZERO;
+    private long transferInCount;
+    private BigDecimal transferInAmount = BigDecimal.ZERO;
+    private long transferOutCount;
+    private BigDecimal transferOutAmount = BigDecimal.ZERO;
+
+    public DailyRollup() {}
+
+    public DailyRollup(LocalDate rollupDate, RollupScope scope, Long scopeId) {
+        this.rollupDate = rollupDate;
+        this.scope = scope;
+        this.scopeId = scopeId;
+    }
+
+    // Getters and Setters
+    public LocalDate getRollupDate() { return rollupDate; }
+    public void setRollupDate(LocalDate rollupDate) { this.rollupDate = rollupDate; }
+
+    public RollupScope getScope() { return scope; }
+    public void setScope(RollupScope scope) { this.scope = scope; }
+
+    public Long getScopeId() { return scopeId; }
+    public void setScopeId(Long scopeId) { this.scopeId = scopeId; }
+
+    public long getDepositCount() { return depositCount; }
+    public void setDepositCount(long depositCount) { this.depositCount = depositCount; }
+
+    public BigDecimal getDepositAmount() { return depositAmount; }
+    public void setDepositAmount(BigDecimal depositAmount) { this.depositAmount = depositAmount; }
+
+    public long getWithdrawalCount() { return withdrawalCount; }
+    public void setWithdrawalCount(long withdrawalCount) { this.withdrawalCount = withdrawalCount; }
+
+    public BigDecimal getWithdrawalAmount() { return withdrawalAmount; }
+    public void setWithdrawalAmount(BigDecimal withdrawalAmount) { this.withdrawalAmount = withdrawalAmount; }
+
+    public long getTransferInCount() { return transferInCount; }
+    public void setTransferInCount(long transferInCount) { this.transferInCount = transferInCount; }
+
+    public BigDecimal getTransferInAmount() { return transferInAmount; }
+    public void setTransferInAmount(BigDecimal transferInAmount) { this.transferInAmount = transferInAmount; }
+
+    public long getTransferOutCount() { return transferOutCount; }
+    public void setTransferOutCount(long transferOutCount) { this.transferOutCount = transferOutCount; }
+
+    public BigDecimal getTransferOutAmount() { return transferOutAmount; }
+    public void setTransferOutAmount(BigDecimal transferOutAmount) { this.transferOutAmount = transferOutAmount; }
+
+    @Override
+    public String toString() {
+        return "DailyRollup{" +
+                "rollupDate=" + rollupDate +
+                ", scope=" + scope +
+                ", scopeId=" + scopeId +
+                ", deposits=" + depositCount + "/" + depositAmount +
+                ", withdrawals=" + withdrawalCount + "/" + withdrawalAmount +
+                ", transfersIn=" + transferInCount + "/" + transferInAmount +
+                ", transfersOut=" + transferOutCount + "/" + transferOutAmount +
+                '}';
+    }
+}
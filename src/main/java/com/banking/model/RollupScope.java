@@ -0,0 +1,7 @@
+package com.banking.model;
+
+public enum RollupScope {
+    ACCOUNT,
+    CUSTOMER,
+    BANK
+}
@@ -0,0 +1,36 @@
+package com.banking.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum ScheduleFrequency {
+    ONCE,
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    /**
+     * First occurrence strictly after {@code after}, counted from {@code anchor} so that a monthly order
+     * anchored on the 31st falls back to the 30th or 28th in short months without drifting. Null for ONCE.
+     */
+    public LocalDateTime nextAfter(LocalDateTime anchor, LocalDateTime after) {
+        if (after.isBefore(anchor)) {
+            return anchor;
+        }
+        switch (this) {
+            case DAILY:
+                return anchor.plusDays(ChronoUnit.DAYS.between(anchor, after) + 1);
+            case WEEKLY:
+                return anchor.plusWeeks(ChronoUnit.WEEKS.between(anchor, after) + 1);
+            case MONTHLY:
+                long months = ChronoUnit.MONTHS.between(anchor, after);
+                LocalDateTime next = anchor.plusMonths(months);
+                while (!next.isAfter(after)) {
+                    next = anchor.plusMonths(++months);
+                }
+                return next;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.banking.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Coordinator record of a transfer between accounts on different shards. */
+public class ShardTransfer {
+    private String transferId;
+    private String fromAccountNumber;
+    private String toAccountNumber;
+    private BigDecimal amount;
+    private String description;
+    private ShardTransferState state;
+    private LocalDateTime createdAt;
+
+    public ShardTransfer() {}
+
+    public ShardTransfer(String transferId, String fromAccountNumber, String toAccountNumber,
+                         BigDecimal amount, String description) {
+        this.transferId = transferId;
+        this.fromAccountNumber = fromAccountNumber;
+        this.toAccountNumber = toAccountNumber;
+        this.amount = amount;
+        this.description = description;
+        this.state = ShardTransferState.PREPARING;
+    }
+
+    // Getters and Setters
+    public String getTransferId() { return transferId; }
+    public void setTransferId(String transferId) { this.transferId = transferId; }
+
+    public String getFromAccountNumber() { return fromAccountNumber; }
+    public void setFromAccountNumber(String fromAccountNumber) { this.fromAccountNumber = fromAccountNumber; }
+
+    public String getToAccountNumber() { return toAccountNumber; }
+    public void setToAccountNumber(String toAccountNumber) { this.toAccountNumber = toAccountNumber; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public ShardTransferState getState() { return state; }
+    public void setState(ShardTransferState state) { this.state = state; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public String toString() {
+        return "ShardTransfer{" +
+                "transferId='" + transferId + '\'' +
+                ", from='" + fromAccountNumber + '\'' +
+                ", to='" + toAccountNumber + '\'' +
+                ", amount=" + amount +
+                ", state=" + state +
+                '}';
+    }
+}
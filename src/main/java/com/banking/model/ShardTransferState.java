@@ -0,0 +1,9 @@
+package com.banking.model;
+
+public enum ShardTransferState {
+    PREPARING,
+    COMMITTED,
+    ABORTED,
+    COMPLETED,
+    ROLLED_BACK
+}
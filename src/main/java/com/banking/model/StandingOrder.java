@@ -0,0 +1,97 @@
+package com.banking.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class StandingOrder {
+    private Long orderId;
+    private String fromAccountNumber;
+    private String toAccountNumber;
+    private BigDecimal amount;
+    private String description;
+    private ScheduleFrequency frequency;
+    private LocalDateTime firstDueAt;
+    private LocalDateTime endAt;
+    private LocalDateTime nextDueAt;
+    private LocalDateTime inFlightDueAt;
+    private LocalDateTime lastDueAt;
+    private String lastOutcome;
+    private long executions;
+    private StandingOrderStatus status;
+    private LocalDateTime createdAt;
+
+    public StandingOrder() {}
+
+    public StandingOrder(String fromAccountNumber, String toAccountNumber, BigDecimal amount,
+                         String description, ScheduleFrequency frequency, LocalDateTime firstDueAt) {
+        this.fromAccountNumber = fromAccountNumber;
+        this.toAccountNumber = toAccountNumber;
+        this.amount = amount;
+        this.description = description;
+        this.frequency = frequency;
+        this.firstDueAt = firstDueAt;
+        this.nextDueAt = firstDueAt;
+        this.status = StandingOrderStatus.ACTIVE;
+    }
+
+    // Getters and Setters
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getFromAccountNumber() { return fromAccountNumber; }
+    public void setFromAccountNumber(String fromAccountNumber) { this.fromAccountNumber = fromAccountNumber; }
+
+    public String getToAccountNumber() { return toAccountNumber; }
+    public void setToAccountNumber(String toAccountNumber) { this.toAccountNumber = toAccountNumber; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public ScheduleFrequency getFrequency() { return frequency; }
+    public void setFrequency(ScheduleFrequency frequency) { this.frequency = frequency; }
+
+    public LocalDateTime getFirstDueAt() { return firstDueAt; }
+    public void setFirstDueAt(LocalDateTime firstDueAt) { this.firstDueAt = firstDueAt; }
+
+    /** Last instant an occurrence may fall on; null for no end. */
+    public LocalDateTime getEndAt() { return endAt; }
+    public void setEndAt(LocalDateTime endAt) { this.endAt = endAt; }
+
+    public LocalDateTime getNextDueAt() { return nextDueAt; }
+    public void setNextDueAt(LocalDateTime nextDueAt) { this.nextDueAt = nextDueAt; }
+
+    /** Occurrence that has been claimed but whose transfer has not been recorded yet. */
+    public LocalDateTime getInFlightDueAt() { return inFlightDueAt; }
+    public void setInFlightDueAt(LocalDateTime inFlightDueAt) { this.inFlightDueAt = inFlightDueAt; }
+
+    public LocalDateTime getLastDueAt() { return lastDueAt; }
+    public void setLastDueAt(LocalDateTime lastDueAt) { this.lastDueAt = lastDueAt; }
+
+    public String getLastOutcome() { return lastOutcome; }
+    public void setLastOutcome(String lastOutcome) { this.lastOutcome = lastOutcome; }
+
+    public long getExecutions() { return executions; }
+    public void setExecutions(long executions) { this.executions = executions; }
+
+    public StandingOrderStatus getStatus() { return status; }
+    public void setStatus(StandingOrderStatus status) { this.status = status; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public String toString() {
+        return "StandingOrder{" +
+                "orderId=" + orderId +
+                ", from='" + fromAccountNumber + '\'' +
+                ", to='" + toAccountNumber + '\'' +
+                ", amount=" + amount +
+                ", frequency=" + frequency +
+                ", nextDueAt=" + nextDueAt +
+                ", status=" + status +
+                '}';
+    }
+}
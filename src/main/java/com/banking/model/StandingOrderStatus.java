@@ -0,0 +1,7 @@
+package com.banking.model;
+
+public enum StandingOrderStatus {
+    ACTIVE,
+    COMPLETED,
+    CANCELLED
+}
@@ -0,0 +1,52 @@
+package com.banking.model;
+
+import java.time.LocalDateTime;
+
+public class TransactionLogEntry {
+    private Long logId;
+    private Long transactionId;
+    private String logLevel;
+    private String message;
+    private String ipAddress;
+    private String userAgent;
+    private LocalDateTime createdAt;
+
+    public TransactionLogEntry() {}
+
+    public TransactionLogEntry(Long transactionId, String logLevel, String message) {
+        this.transactionId = transactionId;
+        this.logLevel = logLevel;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public Long getLogId() { return logId; }
+    public void setLogId(Long logId) { this.logId = logId; }
+
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+
+    public String getLogLevel() { return logLevel; }
+    public void setLogLevel(String logLevel) { this.logLevel = logLevel; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public String getIpAddress() { return ipAddress; }
+    public void setIpAddress(String ipAddress) { this.ipAddress = ipAddress; }
+
+    public String getUserAgent() { return userAgent; }
+    public void setUserAgent(String userAgent) { this.userAgent = userAgent; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public String toString() {
+        return "TransactionLogEntry{" +
+                "logId=" + logId +
+                ", transactionId=" + transactionId +
+                ", logLevel='" + logLevel + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,383 @@
+package com.banking.scheduling;
+
+import com.banking.dao.StandingOrderDAO;
+import com.banking.exception.BankingException;
+import com.banking.exception.InvalidTransactionException;
+import com.banking.model.StandingOrder;
+import com.banking.model.StandingOrderStatus;
+import com.banking.service.AccountService;
+import com.banking.service.PostingResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs standing orders and future-dated transfers through {@link AccountService#tryTransfer}. Schedules
+ * live in the {@code standing_order} table; in memory each active order is one {@link TimerWheel} entry
+ * for its next due time, so nothing polls the table. Every tick the occurrences that fell due are loaded
+ * in batches and executed on a fixed worker pool, and the tick waits for them before the next one starts.
+ *
+ * An occurrence is claimed in the table before its transfer is posted, and the claim only succeeds while
+ * the row still shows that occurrence as next, so it runs at most once even across restarts. Occurrences
+ * missed while the process was down run one per tick, oldest first. A claim left behind by a crash is
+ * recorded as {@code UNKNOWN} at startup and not retried, since the transfer may already have posted.
+ * Assumes a single scheduler instance per database.
+ */
+public class StandingOrderScheduler implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(StandingOrderScheduler.class);
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    static final String OUTCOME_ERROR = "ERROR";
+    static final String OUTCOME_UNKNOWN = "UNKNOWN";
+
+    private final AccountService accountService;
+    private final StandingOrderDAO orderDAO;
+    private final ZoneId zone;
+    private final long tickMillis;
+    private final int batchSize;
+    private final int maxCatchUp;
+    private final ExecutorService workers;
+    private final ConcurrentLinkedQueue<TimerWheel.Timer> incoming = new ConcurrentLinkedQueue<>();
+    private final TimerWheel wheel;
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private ScheduledExecutorService ticker;
+    private volatile boolean tableReady;
+
+    public StandingOrderScheduler(AccountService accountService, StandingOrderDAO orderDAO, ZoneId zone,
+                                  long tickMillis, int workerThreads, int batchSize, int maxCatchUp) {
+        this.accountService = accountService;
+        this.orderDAO = orderDAO;
+        this.zone = zone;
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+        this.maxCatchUp = maxCatchUp;
+        this.wheel = new TimerWheel(tickMillis, System.currentTimeMillis());
+        this.workers = Executors.newFixedThreadPool(workerThreads, r -> {
+            Thread t = new Thread(r, "standing-order-worker");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static StandingOrderScheduler fromSystemProperties(AccountService accountService) {
+        return new StandingOrderScheduler(accountService, new StandingOrderDAO(), ZoneId.systemDefault(),
+                Long.getLong("banking.schedule.tick.ms", 1000),
+                Integer.getInteger("banking.schedule.workers", 4),
+                Integer.getInteger("banking.schedule.batch", 200),
+                Integer.getInteger("banking.schedule.catchup.max", 0));
+    }
+
+    /** Loads active orders into the wheel and starts ticking. Returns the number of orders loaded. */
+    public synchronized int start() throws BankingException {
+        if (ticker != null) {
+            return 0;
+        }
+        int loaded = load();
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "standing-order-ticker");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                tick(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                logger.error("Standing order tick failed", e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        logger.info("Standing order scheduler started with {} active order(s)", loaded);
+        return loaded;
+    }
+
+    int load() throws BankingException {
+        try {
+            ensureTable();
+            for (StandingOrder order : orderDAO.findInFlight()) {
+                logger.warn("Standing order {} was interrupted while posting the {} occurrence; "
+                        + "recording it as {} without retrying", order.getOrderId(), order.getInFlightDueAt(),
+                        OUTCOME_UNKNOWN);
+                orderDAO.recordOutcome(order.getOrderId(), order.getInFlightDueAt(), OUTCOME_UNKNOWN);
+            }
+
+            LocalDateTime now = LocalDateTime.now(zone);
+            int loaded = 0;
+            long afterId = 0;
+            List<StandingOrder> page;
+            do {
+                page = orderDAO.findActive(afterId, LOAD_PAGE_SIZE);
+                for (StandingOrder order : page) {
+                    afterId = order.getOrderId();
+                    LocalDateTime due = limitCatchUp(order, now);
+                    if (due != null) {
+                        enqueue(order.getOrderId(), due);
+                        loaded++;
+                    }
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+            return loaded;
+        } catch (SQLException e) {
+            logger.error("Failed to load standing orders", e);
+            throw new BankingException("Failed to load standing orders", e);
+        }
+    }
+
+    public StandingOrder schedule(StandingOrder order) throws BankingException {
+        if (order.getAmount() == null || order.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new InvalidTransactionException("Standing order amount must be positive");
+        }
+        if (order.getFromAccountNumber().equals(order.getToAccountNumber())) {
+            throw new InvalidTransactionException("Cannot schedule a transfer to the same account");
+        }
+        if (order.getFrequency() == null || order.getFirstDueAt() == null) {
+            throw new InvalidTransactionException("Standing order needs a frequency and a first due time");
+        }
+        // DATETIME columns hold whole seconds; the in-memory due time must match what is stored.
+        order.setFirstDueAt(order.getFirstDueAt().truncatedTo(ChronoUnit.SECONDS));
+        order.setNextDueAt(order.getFirstDueAt());
+        order.setStatus(StandingOrderStatus.ACTIVE);
+        try {
+            ensureTable();
+            StandingOrder created = orderDAO.create(order);
+            enqueue(created.getOrderId(), created.getNextDueAt());
+            logger.info("Standing order {} scheduled, first due {}", created.getOrderId(), created.getNextDueAt());
+            return created;
+        } catch (SQLException e) {
+            logger.error("Failed to schedule standing order", e);
+            throw new BankingException("Failed to schedule standing order", e);
+        }
+    }
+
+    /** Stops future occurrences. An occurrence already being posted still completes. */
+    public boolean cancel(long orderId) throws BankingException {
+        try {
+            ensureTable();
+            boolean cancelled = orderDAO.cancel(orderId);
+            if (cancelled) {
+                logger.info("Standing order {} cancelled", orderId);
+            }
+            return cancelled;
+        } catch (SQLException e) {
+            logger.error("Failed to cancel standing order {}", orderId, e);
+            throw new BankingException("Failed to cancel standing order", e);
+        }
+    }
+
+    public StandingOrder getStandingOrder(long orderId) throws BankingException {
+        try {
+            ensureTable();
+            return orderDAO.findById(orderId);
+        } catch (SQLException e) {
+            logger.error("Failed to fetch standing order {}", orderId, e);
+            throw new BankingException("Failed to fetch standing order", e);
+        }
+    }
+
+    public long getExecutedCount() { return executed.get(); }
+
+    public long getFailedCount() { return failed.get(); }
+
+    /** Timers that fired for an order that had since been cancelled, completed or moved on. */
+    public long getStaleCount() { return stale.get(); }
+
+    /** Runs one tick: fires what is due at {@code nowMillis} and waits for those occurrences to finish. */
+    int tick(long nowMillis) {
+        TimerWheel.Timer timer;
+        while ((timer = incoming.poll()) != null) {
+            wheel.add(timer, toMillis(decode(timer.value)));
+        }
+        List<TimerWheel.Timer> due = wheel.advance(nowMillis);
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        List<Future<?>> batches = new ArrayList<>();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<TimerWheel.Timer> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            batches.add(workers.submit(() -> runBatch(batch)));
+        }
+        for (Future<?> batch : batches) {
+            try {
+                batch.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                logger.error("Standing order batch failed", e.getCause());
+            }
+        }
+        return due.size();
+    }
+
+    private void runBatch(List<TimerWheel.Timer> batch) {
+        Map<Long, StandingOrder> orders = new HashMap<>();
+        try {
+            List<Long> ids = new ArrayList<>(batch.size());
+            for (TimerWheel.Timer timer : batch) {
+                ids.add(timer.id);
+            }
+            for (StandingOrder order : orderDAO.findByIds(ids)) {
+                orders.put(order.getOrderId(), order);
+            }
+        } catch (SQLException e) {
+            // Nothing was claimed yet; put the timers back so the next tick retries them.
+            logger.warn("Failed to load {} due standing order(s), retrying next tick", batch.size(), e);
+            incoming.addAll(batch);
+            return;
+        }
+
+        for (TimerWheel.Timer timer : batch) {
+            execute(orders.get(timer.id), decode(timer.value));
+        }
+    }
+
+    private void execute(StandingOrder order, LocalDateTime due) {
+        if (order == null || order.getStatus() != StandingOrderStatus.ACTIVE
+                || !due.equals(order.getNextDueAt()) || order.getInFlightDueAt() != null) {
+            stale.incrementAndGet();
+            return;
+        }
+
+        long orderId = order.getOrderId();
+        LocalDateTime next = nextOccurrence(order, due);
+        StandingOrderStatus status = next != null ? StandingOrderStatus.ACTIVE : StandingOrderStatus.COMPLETED;
+        try {
+            if (!orderDAO.advance(orderId, due, next, status, due)) {
+                stale.incrementAndGet();
+                return;
+            }
+        } catch (SQLException e) {
+            logger.warn("Failed to claim standing order {} for {}, retrying next tick", orderId, due, e);
+            enqueue(orderId, due);
+            return;
+        }
+
+        String outcome;
+        try {
+            PostingResult result = accountService.tryTransfer(order.getFromAccountNumber(),
+                    order.getToAccountNumber(), order.getAmount(), describe(order, due));
+            outcome = result.getOutcome().name();
+            if (result.isSuccess()) {
+                executed.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+                logger.info("Standing order {} for {} rejected: {}", orderId, due, result);
+            }
+        } catch (BankingException e) {
+            outcome = OUTCOME_ERROR;
+            failed.incrementAndGet();
+            logger.error("Standing order {} for {} failed; not retried", orderId, due, e);
+        }
+
+        try {
+            orderDAO.recordOutcome(orderId, due, outcome);
+        } catch (SQLException e) {
+            // The claim stays in place, which keeps the order parked until a restart resolves it.
+            logger.error("Failed to record outcome {} of standing order {} for {}", outcome, orderId, due, e);
+            return;
+        }
+        if (next != null) {
+            enqueue(orderId, next);
+        }
+    }
+
+    /** Next due time after {@code due}, or null once the order has no further occurrences. */
+    private LocalDateTime nextOccurrence(StandingOrder order, LocalDateTime due) {
+        LocalDateTime next = order.getFrequency().nextAfter(order.getFirstDueAt(), due);
+        if (next == null || (order.getEndAt() != null && next.isAfter(order.getEndAt()))) {
+            return null;
+        }
+        return next;
+    }
+
+    /**
+     * With a catch-up limit, moves an order that missed more than that many occurrences forward so only the
+     * most recent ones run. Returns the due time to schedule, or null if the order has nothing left.
+     */
+    private LocalDateTime limitCatchUp(StandingOrder order, LocalDateTime now) throws SQLException {
+        LocalDateTime due = order.getNextDueAt();
+        if (due == null || maxCatchUp <= 0 || !due.isBefore(now)) {
+            return due;
+        }
+        List<LocalDateTime> missed = new ArrayList<>();
+        for (LocalDateTime t = due; t != null && t.isBefore(now); t = nextOccurrence(order, t)) {
+            missed.add(t);
+        }
+        if (missed.size() <= maxCatchUp) {
+            return due;
+        }
+        LocalDateTime resumeAt = missed.get(missed.size() - maxCatchUp);
+        if (!orderDAO.advance(order.getOrderId(), due, resumeAt, StandingOrderStatus.ACTIVE, null)) {
+            return null;
+        }
+        logger.warn("Standing order {} missed {} occurrence(s); skipping to {}", order.getOrderId(),
+                missed.size(), resumeAt);
+        return resumeAt;
+    }
+
+    private String describe(StandingOrder order, LocalDateTime due) {
+        String reference = "standing order " + order.getOrderId() + " due " + due;
+        return order.getDescription() != null ? order.getDescription() + " (" + reference + ")" : reference;
+    }
+
+    private void enqueue(long orderId, LocalDateTime due) {
+        incoming.add(new TimerWheel.Timer(orderId, encode(due)));
+    }
+
+    // Due times travel through the wheel as local epoch seconds, which round-trips exactly even across
+    // DST gaps; the firing instant is derived separately in the scheduler's zone.
+    private static long encode(LocalDateTime due) {
+        return due.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime decode(long value) {
+        return LocalDateTime.ofEpochSecond(value, 0, ZoneOffset.UTC);
+    }
+
+    private long toMillis(LocalDateTime due) {
+        return due.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private void ensureTable() throws SQLException {
+        if (!tableReady) {
+            orderDAO.createTableIfMissing();
+            tableReady = true;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (ticker != null) {
+                ticker.shutdownNow();
+                ticker = null;
+            }
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Standing order workers did not finish within 30 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.banking.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hierarchical timer wheel: a 256-slot wheel of single ticks and three 64-slot wheels of coarser
+ * ranges, so with one-second ticks it covers about two years before timers are parked in the top
+ * slot and re-placed. Adding a timer and firing it are O(1); a timer only moves when its coarse slot
+ * comes round and it is cascaded one level down.
+ *
+ * Not thread-safe; the scheduler touches it from its tick thread only.
+ */
+final class TimerWheel {
+    private static final int ROOT_BITS = 8;
+    private static final int LEVEL_BITS = 6;
+    private static final int LEVELS = 4;
+    private static final int ROOT_MASK = (1 << ROOT_BITS) - 1;
+    private static final int LEVEL_MASK = (1 << LEVEL_BITS) - 1;
+    private static final long MAX_DELTA = (1L << (ROOT_BITS + (LEVELS - 1) * LEVEL_BITS)) - 1;
+
+    /** A pending timer. {@code value} is an opaque payload for the owner, e.g. an encoded due time. */
+    static final class Timer {
+        final long id;
+        final long value;
+        long dueTick;
+        Timer next;
+
+        Timer(long id, long value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+    private final long tickMillis;
+    private final Timer[][] slots = new Timer[LEVELS][];
+    private long currentTick;
+    private Timer overdue;
+    private int size;
+
+    TimerWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        slots[0] = new Timer[1 << ROOT_BITS];
+        for (int level = 1; level < LEVELS; level++) {
+            slots[level] = new Timer[1 << LEVEL_BITS];
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Adds a timer that fires on the first tick at or after {@code dueMillis}; past due times fire on the next advance. */
+    void add(Timer timer, long dueMillis) {
+        timer.dueTick = Math.floorDiv(dueMillis + tickMillis - 1, tickMillis);
+        size++;
+        place(timer);
+    }
+
+    /** Processes every tick up to {@code nowMillis} and returns the timers that fell due, tick by tick. */
+    List<Timer> advance(long nowMillis) {
+        List<Timer> due = new ArrayList<>();
+        drain(overdue, due);
+        overdue = null;
+
+        long nowTick = nowMillis / tickMillis;
+        while (currentTick <= nowTick) {
+            int index = (int) (currentTick & ROOT_MASK);
+            if (index == 0) {
+                cascade();
+            }
+            Timer fired = slots[0][index];
+            slots[0][index] = null;
+            drain(fired, due);
+            currentTick++;
+        }
+        size -= due.size();
+        return due;
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int index = (int) ((currentTick >>> (ROOT_BITS + (level - 1) * LEVEL_BITS)) & LEVEL_MASK);
+            Timer timer = slots[level][index];
+            slots[level][index] = null;
+            while (timer != null) {
+                Timer next = timer.next;
+                place(timer);
+                timer = next;
+            }
+            if (index != 0) {
+                break;
+            }
+        }
+    }
+
+    private void place(Timer timer) {
+        long delta = timer.dueTick - currentTick;
+        if (delta < 0) {
+            timer.next = overdue;
+            overdue = timer;
+            return;
+        }
+        // Beyond the top wheel's range: park in the furthest slot and re-place when it cascades.
+        long tick = delta > MAX_DELTA ? currentTick + MAX_DELTA : timer.dueTick;
+        delta = tick - currentTick;
+
+        Timer[] wheel;
+        int index;
+        if (delta < (1L << ROOT_BITS)) {
+            wheel = slots[0];
+            index = (int) (tick & ROOT_MASK);
+        } else {
+            int level = 1;
+            while (delta >= (1L << (ROOT_BITS + level * LEVEL_BITS))) {
+                level++;
+            }
+            wheel = slots[level];
+            index = (int) ((tick >>> (ROOT_BITS + (level - 1) * LEVEL_BITS)) & LEVEL_MASK);
+        }
+        timer.next = wheel[index];
+        wheel[index] = timer;
+    }
+
+    private static void drain(Timer head, List<Timer> into) {
+        int start = into.size();
+        for (Timer timer = head; timer != null; ) {
+            Timer next = timer.next;
+            timer.next = null;
+            into.add(timer);
+            timer = next;
+        }
+        // Slots are pushed head-first; restore insertion order within the slot.
+        Collections.reverse(into.subList(start, into.size()));
+    }
+}
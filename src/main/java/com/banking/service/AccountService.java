@@ -1,31 +1,246 @@
 package com.banking.service;
 
+import com.banking.archive.TransactionArchive;
+import com.banking.config.ShardRouter;
 import com.banking.dao.AccountDAO;
+import com.banking.dao.AccountDirectory;
+import com.banking.dao.AccountRepository;
+import com.banking.dao.InMemoryAccountRepository;
+import com.banking.dao.InMemoryTransactionLog;
+import com.banking.dao.InMemoryTransactionRepository;
 import com.banking.dao.TransactionDAO;
+import com.banking.dao.TransactionLogRepository;
+import com.banking.dao.TransactionRepository;
+import com.banking.events.TransactionEventFeed;
 import com.banking.exception.*;
+import com.banking.jfr.AccountOperationEvent;
+import com.banking.logging.BusinessEventLog;
+import com.banking.logging.FailureCode;
 import com.banking.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class AccountService {
     private static final Logger logger = LoggerFactory.getLogger(AccountService.class);
-    private final AccountDAO accountDAO;
-    private final TransactionDAO transactionDAO;
-    private final TransactionLogService logService;
+    private static final String OUTCOME_SUCCESS = PostingResult.Outcome.SUCCESS.name();
+    private static final String OUTCOME_ERROR = "ERROR";
+    private static final int POSTING_LOCK_STRIPES = 1024;
+    private final ShardRouter shards;
+    private final AccountRepository[] accountDAOs;
+    private final TransactionRepository[] transactionDAOs;
+    private final TransactionLogRepository[] logServices;
+    private final ShardTransferCoordinator crossShard;
+    private final ExecutorService scatter;
+    private final BusinessEventLog eventLog;
+    private final TransactionArchive archive;
+    private final VelocityMonitor velocityMonitor;
+    private final TransactionEventFeed eventFeed;
+    private final HotAccountTracker hotAccounts;
+    private final DailyRollupService rollups;
+    // Each posting reads the balance, checks it and writes the new one in separate statements; holding the
+    // account's stripe across them keeps two postings in this process from overwriting each other.
+    private final Object[] postingLocks = new Object[POSTING_LOCK_STRIPES];
 
     public AccountService() {
-        this.accountDAO = new AccountDAO();
-        this.transactionDAO = new TransactionDAO();
-        this.logService = new TransactionLogService();
+        this(ShardRouter.getInstance());
+    }
+
+    /**
+     * Service over account data partitioned by {@code shards}. Every account-number keyed operation goes to
+     * that account's shard; transfers between shards run through {@link ShardTransferCoordinator}.
+     */
+    public AccountService(ShardRouter shards) {
+        this(shards, jdbcAccounts(shards), jdbcTransactions(shards), jdbcLogs(shards), DailyRollupService.getInstance());
+    }
+
+    /**
+     * Service over a single, unsharded store given as its three repositories. Daily rollups are kept in
+     * memory for this instance only and never written to the database.
+     */
+    public AccountService(AccountRepository accounts, TransactionRepository transactions,
+                          TransactionLogRepository logs) {
+        this(null, new AccountRepository[]{accounts}, new TransactionRepository[]{transactions},
+                new TransactionLogRepository[]{logs}, new DailyRollupService(null, ZoneId.systemDefault()));
+    }
+
+    private AccountService(ShardRouter shards, AccountRepository[] accountDAOs, TransactionRepository[] transactionDAOs,
+                           TransactionLogRepository[] logServices, DailyRollupService rollups) {
+        int shardCount = accountDAOs.length;
+        this.shards = shards;
+        this.accountDAOs = accountDAOs;
+        this.transactionDAOs = transactionDAOs;
+        this.logServices = logServices;
+        this.crossShard = shardCount > 1 ? new ShardTransferCoordinator(shards, accountDAOs) : null;
+        this.scatter = shardCount > 1 ? Executors.newFixedThreadPool(shardCount, r -> {
+            Thread t = new Thread(r, "shard-scatter");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+        this.eventLog = BusinessEventLog.getInstance();
+        this.archive = TransactionArchive.fromSystemProperties();
+        this.velocityMonitor = VelocityMonitor.fromConfiguration();
+        this.eventFeed = TransactionEventFeed.getInstance();
+        this.hotAccounts = new HotAccountTracker(Integer.getInteger("banking.boot.track.max", 100_000));
+        this.rollups = rollups;
+        for (int i = 0; i < postingLocks.length; i++) {
+            postingLocks[i] = new Object();
+        }
+    }
+
+    /** Service that keeps everything on the heap, for simulations and tests; nothing touches the database. */
+    public static AccountService inMemory() {
+        return new AccountService(new InMemoryAccountRepository(), new InMemoryTransactionRepository(),
+                new InMemoryTransactionLog());
+    }
+
+    private static AccountRepository[] jdbcAccounts(ShardRouter shards) {
+        AccountRepository[] accounts = new AccountRepository[shards.getShardCount()];
+        for (int i = 0; i < accounts.length; i++) {
+            accounts[i] = new AccountDAO(shards.getShard(i));
+        }
+        return accounts;
+    }
+
+    private static TransactionRepository[] jdbcTransactions(ShardRouter shards) {
+        TransactionRepository[] transactions = new TransactionRepository[shards.getShardCount()];
+        for (int i = 0; i < transactions.length; i++) {
+            transactions[i] = new TransactionDAO(shards.getShard(i));
+        }
+        return transactions;
+    }
+
+    private static TransactionLogRepository[] jdbcLogs(ShardRouter shards) {
+        TransactionLogRepository[] logs = new TransactionLogRepository[shards.getShardCount()];
+        for (int i = 0; i < logs.length; i++) {
+            logs[i] = new TransactionLogService(shards.getShard(i));
+        }
+        return logs;
+    }
+
+    public VelocityMonitor getVelocityMonitor() {
+        return velocityMonitor;
+    }
+
+    public TransactionEventFeed getEventFeed() {
+        return eventFeed;
+    }
+
+    public HotAccountTracker getHotAccountTracker() {
+        return hotAccounts;
+    }
+
+    public DailyRollupService getDailyRollups() {
+        return rollups;
+    }
+
+    public List<DailyRollup> getAccountRollups(String accountNumber, LocalDate from, LocalDate to)
+            throws BankingException {
+        Account account = getAccount(accountNumber);
+        return rollups.getAccountRollups(account.getAccountId(), from, to);
+    }
+
+    /** Null when the service runs on repositories given directly rather than on database shards. */
+    public ShardRouter getShardRouter() {
+        return shards;
+    }
+
+    /**
+     * Gives every shard an off-heap account-number directory. Each is reloaded from its snapshot file when
+     * one exists (shard i > 0 uses {@code file.i}) and then picks up accounts created since from the table.
+     * Returns the number of accounts in all directories; stores that are not database tables are skipped.
+     */
+    public int loadAccountDirectories(Path file, int expectedAccounts) throws BankingException {
+        int total = 0;
+        for (int shard = 0; shard < accountDAOs.length; shard++) {
+            if (!(accountDAOs[shard] instanceof AccountDAO accountDAO)) {
+                continue;
+            }
+            Path shardFile = directoryFile(file, shard);
+            AccountDirectory directory = null;
+            if (Files.exists(shardFile)) {
+                try {
+                    directory = AccountDirectory.load(shardFile);
+                } catch (IOException e) {
+                    logger.warn("Ignoring unreadable account directory {}", shardFile, e);
+                }
+            }
+            if (directory == null) {
+                directory = new AccountDirectory(expectedAccounts);
+            }
+            try {
+                accountDAO.loadDirectory(directory, 10_000);
+            } catch (SQLException e) {
+                logger.error("Failed to load account directory for shard {}", shard, e);
+                throw new BankingException("Failed to load account directory", e);
+            }
+            accountDAO.setDirectory(directory);
+            total += directory.size();
+        }
+        return total;
+    }
+
+    public void saveAccountDirectories(Path file) {
+        for (int shard = 0; shard < accountDAOs.length; shard++) {
+            if (!(accountDAOs[shard] instanceof AccountDAO accountDAO)) {
+                continue;
+            }
+            AccountDirectory directory = accountDAO.getDirectory();
+            if (directory == null) {
+                continue;
+            }
+            Path shardFile = directoryFile(file, shard);
+            try {
+                directory.save(shardFile);
+                logger.info("Account directory written: {} account(s) to {}", directory.size(), shardFile);
+            } catch (IOException e) {
+                logger.error("Failed to write account directory {}", shardFile, e);
+            }
+        }
+    }
+
+    private static Path directoryFile(Path file, int shard) {
+        return shard == 0 ? file : file.resolveSibling(file.getFileName() + "." + shard);
+    }
+
+    public void rebuildVelocityWindows() throws BankingException {
+        try {
+            LocalDateTime since = LocalDateTime.now().minus(Duration.ofMillis(velocityMonitor.getLongestWindowMillis()));
+            List<Transaction> withdrawals = new ArrayList<>();
+            for (TransactionRepository transactionDAO : transactionDAOs) {
+                withdrawals.addAll(transactionDAO.findByTypeSince(TransactionType.WITHDRAWAL, since));
+            }
+            velocityMonitor.rebuild(withdrawals);
+        } catch (SQLException e) {
+            logger.error("Failed to rebuild velocity windows", e);
+            throw new BankingException("Failed to rebuild velocity windows", e);
+        }
     }
 
     public Account createAccount(Account account) throws BankingException {
         try {
-            Account created = accountDAO.create(account);
+            Account created = accounts(account.getAccountNumber()).create(account);
             logger.info("Account created successfully: {}", created.getAccountNumber());
             return created;
         } catch (SQLException e) {
@@ -35,33 +250,392 @@ public class AccountService {
     }
 
     public Account getAccount(String accountNumber) throws BankingException {
+        hotAccounts.record(accountNumber);
+        return lookupAccount(accountNumber);
+    }
+
+    /** Looks an account up like {@link #getAccount} without counting it as traffic, for the warm boot. */
+    Account preloadAccount(String accountNumber) throws BankingException {
+        return lookupAccount(accountNumber);
+    }
+
+    private Account lookupAccount(String accountNumber) throws BankingException {
+        AccountOperationEvent event = new AccountOperationEvent();
+        event.begin();
+        String outcome = OUTCOME_ERROR;
         try {
-            return accountDAO.findByAccountNumber(accountNumber);
+            Account account = accounts(accountNumber).findByAccountNumberReadOnly(accountNumber);
+            outcome = OUTCOME_SUCCESS;
+            return account;
         } catch (SQLException e) {
             logger.error("Database error while fetching account", e);
             throw new BankingException("Failed to fetch account", e);
+        } finally {
+            event.complete("GET_ACCOUNT", accountNumber, null, outcome);
         }
     }
 
+    /** A customer's accounts can sit on any shard; with several shards they are queried in parallel. */
     public List<Account> getCustomerAccounts(Long customerId) throws BankingException {
         try {
-            return accountDAO.findByCustomerId(customerId);
-        } catch (SQLException e) {
+            if (scatter == null) {
+                return accountDAOs[0].findByCustomerId(customerId);
+            }
+            List<Callable<List<Account>>> queries = new ArrayList<>(accountDAOs.length);
+            for (AccountRepository accountDAO : accountDAOs) {
+                queries.add(() -> accountDAO.findByCustomerId(customerId));
+            }
+            List<Account> accounts = new ArrayList<>();
+            for (Future<List<Account>> shard : scatter.invokeAll(queries)) {
+                accounts.addAll(shard.get());
+            }
+            return accounts;
+        } catch (SQLException | ExecutionException e) {
             logger.error("Failed to fetch customer accounts", e);
             throw new BankingException("Failed to fetch customer accounts", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BankingException("Interrupted while fetching customer accounts", e);
+        }
+    }
+
+    /**
+     * Finishes cross-shard transfers that a crash left between prepare and completion: committed ones are
+     * applied, the rest rolled back. Meant to run at startup; a no-op with a single shard.
+     */
+    public int recoverCrossShardTransfers() throws BankingException {
+        if (crossShard == null) {
+            return 0;
+        }
+        try {
+            int resolved = crossShard.recover();
+            if (resolved > 0) {
+                logger.info("Resolved {} in-doubt cross-shard transfer(s)", resolved);
+            }
+            return resolved;
+        } catch (SQLException e) {
+            logger.error("Failed to recover cross-shard transfers", e);
+            throw new BankingException("Failed to recover cross-shard transfers", e);
         }
     }
 
     public Transaction deposit(String accountNumber, BigDecimal amount, String description)
             throws BankingException {
+        return tryDeposit(accountNumber, amount, description).getTransactionOrThrow();
+    }
+
+    public Transaction withdraw(String accountNumber, BigDecimal amount, String description)
+            throws BankingException {
+        return tryWithdraw(accountNumber, amount, description).getTransactionOrThrow();
+    }
+
+    public void transfer(String fromAccountNumber, String toAccountNumber,
+                         BigDecimal amount, String description) throws BankingException {
+        tryTransfer(fromAccountNumber, toAccountNumber, amount, description).getTransactionOrThrow();
+    }
+
+    /**
+     * Like {@link #deposit} but reports invalid amounts and missing or closed accounts as a
+     * {@link PostingResult} outcome instead of throwing. Database failures still throw.
+     */
+    public PostingResult tryDeposit(String accountNumber, BigDecimal amount, String description)
+            throws BankingException {
+        AccountOperationEvent event = new AccountOperationEvent();
+        event.begin();
+        PostingResult result = null;
+        try {
+            result = credit(accountNumber, amount, description, DailyRollupService.Kind.DEPOSIT);
+            return result;
+        } finally {
+            event.complete("DEPOSIT", accountNumber, amount, outcomeOf(result));
+        }
+    }
+
+    /**
+     * Like {@link #withdraw} but reports business rejections, including insufficient funds and velocity
+     * limits, as a {@link PostingResult} outcome instead of throwing. Database failures still throw.
+     */
+    public PostingResult tryWithdraw(String accountNumber, BigDecimal amount, String description)
+            throws BankingException {
+        AccountOperationEvent event = new AccountOperationEvent();
+        event.begin();
+        PostingResult result = null;
+        try {
+            result = debit(accountNumber, amount, description, DailyRollupService.Kind.WITHDRAWAL);
+            return result;
+        } finally {
+            event.complete("WITHDRAW", accountNumber, amount, outcomeOf(result));
+        }
+    }
+
+    /**
+     * Like {@link #transfer} but reports business rejections as a {@link PostingResult} outcome. On success
+     * the result carries both legs. Database failures still throw.
+     */
+    public PostingResult tryTransfer(String fromAccountNumber, String toAccountNumber,
+                                     BigDecimal amount, String description) throws BankingException {
+        AccountOperationEvent event = new AccountOperationEvent();
+        event.begin();
+        PostingResult result = null;
+        try {
+            result = postTransfer(fromAccountNumber, toAccountNumber, amount, description);
+            return result;
+        } finally {
+            event.complete("TRANSFER", fromAccountNumber, amount, outcomeOf(result));
+        }
+    }
+
+    /**
+     * Like {@link #tryTransfer(String, String, BigDecimal, String)} for callers that already looked both
+     * accounts up, possibly in parallel. The snapshots are only used to validate; each leg re-reads its
+     * account before posting.
+     */
+    public PostingResult tryTransfer(Account fromAccount, Account toAccount, BigDecimal amount, String description)
+            throws BankingException {
+        AccountOperationEvent event = new AccountOperationEvent();
+        event.begin();
+        PostingResult result = null;
+        try {
+            result = checkTransfer(fromAccount.getAccountNumber(), toAccount.getAccountNumber(), amount);
+            if (result == null) {
+                result = postTransfer(fromAccount, toAccount, amount, description);
+            }
+            return result;
+        } finally {
+            event.complete("TRANSFER", fromAccount.getAccountNumber(), amount, outcomeOf(result));
+        }
+    }
+
+    /**
+     * Looks an account up on the primary, or returns null when it does not exist. Meant for lookups made on
+     * behalf of a posting, so admission control does not charge it separately.
+     */
+    public Account findAccountOrNull(String accountNumber) throws BankingException {
+        try {
+            return accounts(accountNumber).findByAccountNumberOrNull(accountNumber);
+        } catch (SQLException e) {
+            logger.error("Database error while fetching account", e);
+            throw new BankingException("Failed to fetch account", e);
+        }
+    }
+
+    private PostingResult postTransfer(String fromAccountNumber, String toAccountNumber,
+                                       BigDecimal amount, String description) throws BankingException {
+        PostingResult invalid = checkTransfer(fromAccountNumber, toAccountNumber, amount);
+        if (invalid != null) {
+            return invalid;
+        }
 
+        Account fromAccount;
+        Account toAccount;
+        try {
+            fromAccount = accounts(fromAccountNumber).findByAccountNumberOrNull(fromAccountNumber);
+            if (fromAccount == null) {
+                return PostingResult.rejected(PostingResult.Outcome.ACCOUNT_NOT_FOUND, fromAccountNumber, amount);
+            }
+            toAccount = accounts(toAccountNumber).findByAccountNumberOrNull(toAccountNumber);
+            if (toAccount == null) {
+                return PostingResult.rejected(PostingResult.Outcome.ACCOUNT_NOT_FOUND, toAccountNumber, amount);
+            }
+        } catch (SQLException e) {
+            eventLog.logFailure(FailureCode.DATABASE_ERROR, null, amount);
+            logger.error("Transfer failed", e);
+            throw new BankingException("Transfer transaction failed", e);
+        }
+        return postTransfer(fromAccount, toAccount, amount, description);
+    }
+
+    private PostingResult checkTransfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new InvalidTransactionException("Deposit amount must be positive");
+            eventLog.logFailure(FailureCode.INVALID_AMOUNT, null, amount);
+            return PostingResult.invalid(PostingResult.Outcome.INVALID_AMOUNT, amount,
+                    "Transfer amount must be positive");
         }
 
+        if (fromAccountNumber.equals(toAccountNumber)) {
+            return PostingResult.invalid(PostingResult.Outcome.SAME_ACCOUNT, amount,
+                    "Cannot transfer to the same account");
+        }
+        return null;
+    }
+
+    private PostingResult postTransfer(Account fromAccount, Account toAccount,
+                                       BigDecimal amount, String description) throws BankingException {
+        String fromAccountNumber = fromAccount.getAccountNumber();
+        String toAccountNumber = toAccount.getAccountNumber();
         try {
-            Account account = accountDAO.findByAccountNumber(accountNumber);
-            validateAccountActive(account);
+            PostingResult rejection = checkActive(fromAccount, amount);
+            if (rejection == null) {
+                rejection = checkActive(toAccount, amount);
+            }
+            if (rejection == null) {
+                rejection = admitPosting(fromAccount, amount);
+            }
+            if (rejection == null) {
+                rejection = checkDebit(fromAccount, amount);
+            }
+            if (rejection != null) {
+                return rejection;
+            }
+
+            if (shardOf(fromAccountNumber) != shardOf(toAccountNumber)) {
+                return postCrossShardTransfer(fromAccount, toAccount, amount, description);
+            }
+
+            // Both stripes are held across the two legs, so neither account can be closed or drained in between.
+            int fromLock = postingLockIndex(fromAccountNumber);
+            int toLock = postingLockIndex(toAccountNumber);
+            PostingResult debit;
+            PostingResult credit;
+            synchronized (postingLocks[Math.min(fromLock, toLock)]) {
+                synchronized (postingLocks[Math.max(fromLock, toLock)]) {
+                    // The destination may have been closed since it was looked up; check before moving money.
+                    Account destination = accounts(toAccountNumber).findByAccountNumberOrNull(toAccountNumber);
+                    if (destination == null) {
+                        return PostingResult.rejected(PostingResult.Outcome.ACCOUNT_NOT_FOUND, toAccountNumber, amount);
+                    }
+                    PostingResult closed = checkActive(destination, amount);
+                    if (closed != null) {
+                        return closed;
+                    }
+
+                    // Debit from source
+                    debit = applyDebit(fromAccountNumber, amount,
+                            "Transfer to " + toAccountNumber + ": " + description, DailyRollupService.Kind.TRANSFER_OUT);
+                    if (!debit.isSuccess()) {
+                        return debit;
+                    }
+
+                    // Credit to destination
+                    try {
+                        credit = applyCredit(toAccountNumber, amount,
+                                "Transfer from " + fromAccountNumber + ": " + description,
+                                DailyRollupService.Kind.TRANSFER_IN);
+                    } catch (BankingException e) {
+                        try {
+                            reverseDebit(fromAccount, toAccountNumber, amount);
+                        } catch (BankingException reversalFailure) {
+                            e.addSuppressed(reversalFailure);
+                        }
+                        throw e;
+                    }
+                    if (!credit.isSuccess()) {
+                        reverseDebit(fromAccount, toAccountNumber, amount);
+                        return credit;
+                    }
+                    // Only a debit that stays posted counts towards the source's velocity limits.
+                    velocityMonitor.record(fromAccount.getAccountId(), amount);
+                }
+            }
+
+            // Each leg has already been published on its own; this ties them together for consumers.
+            Transaction debitLeg = debit.getTransaction();
+            eventFeed.publish(TransactionType.TRANSFER, debitLeg.getTransactionId(), fromAccount.getAccountId(),
+                    toAccount.getAccountId(), amount, debitLeg.getBalanceAfter());
+
+            logger.info("Transfer completed: {} from {} to {}", amount, fromAccountNumber, toAccountNumber);
+            return PostingResult.transferred(debitLeg, credit.getTransaction());
+
+        } catch (BankingException | SQLException e) {
+            eventLog.logFailure(FailureCode.DATABASE_ERROR, null, amount);
+            logger.error("Transfer failed", e);
+            throw new BankingException("Transfer transaction failed", e);
+        }
+    }
+
+    // Puts back a debit whose credit leg did not post, for example because another process closed the
+    // destination or the database failed, so a failed transfer never loses the money. The rollups take the
+    // debit back rather than counting an incoming transfer, and the debit was never sampled for velocity.
+    private void reverseDebit(Account fromAccount, String toAccountNumber, BigDecimal amount)
+            throws BankingException {
+        String fromAccountNumber = fromAccount.getAccountNumber();
+        PostingResult reversal = applyCredit(fromAccountNumber, amount,
+                "Reversal of transfer to " + toAccountNumber, null);
+        if (!reversal.isSuccess()) {
+            logger.error("Debit of {} from {} could not be reversed: {}", amount, fromAccountNumber,
+                    reversal.getOutcome());
+            throw new BankingException("Transfer failed and its debit could not be reversed");
+        }
+        rollups.reverse(DailyRollupService.Kind.TRANSFER_OUT, fromAccount.getAccountId(),
+                fromAccount.getCustomerId(), amount);
+        logger.warn("Transfer of {} from {} to {} reversed", amount, fromAccountNumber, toAccountNumber);
+    }
+
+    /**
+     * Runs a validated transfer between shards through the two-phase coordinator, then does the same
+     * after-commit bookkeeping as the single-shard legs. A credit leg left to recovery is not published.
+     */
+    private PostingResult postCrossShardTransfer(Account fromAccount, Account toAccount, BigDecimal amount,
+                                                 String description) throws SQLException {
+        int fromLock = postingLockIndex(fromAccount.getAccountNumber());
+        int toLock = postingLockIndex(toAccount.getAccountNumber());
+        PostingResult result;
+        synchronized (postingLocks[Math.min(fromLock, toLock)]) {
+            synchronized (postingLocks[Math.max(fromLock, toLock)]) {
+                result = crossShard.transfer(fromAccount, toAccount, amount, description);
+            }
+        }
+        if (!result.isSuccess()) {
+            return result;
+        }
+
+        Transaction debitLeg = result.getTransaction();
+        accountDAOs[shardOf(fromAccount.getAccountNumber())].markWritten(fromAccount);
+        velocityMonitor.record(fromAccount.getAccountId(), amount);
+        hotAccounts.record(fromAccount.getAccountNumber());
+        rollups.record(DailyRollupService.Kind.TRANSFER_OUT, fromAccount.getAccountId(), fromAccount.getCustomerId(),
+                amount);
+        eventFeed.publish(TransactionType.WITHDRAWAL, debitLeg.getTransactionId(), fromAccount.getAccountId(),
+                null, amount, debitLeg.getBalanceAfter());
+
+        Transaction creditLeg = result.getCreditTransaction();
+        if (creditLeg != null) {
+            accountDAOs[shardOf(toAccount.getAccountNumber())].markWritten(toAccount);
+            hotAccounts.record(toAccount.getAccountNumber());
+            rollups.record(DailyRollupService.Kind.TRANSFER_IN, toAccount.getAccountId(), toAccount.getCustomerId(),
+                    amount);
+            eventFeed.publish(TransactionType.DEPOSIT, creditLeg.getTransactionId(), toAccount.getAccountId(),
+                    null, amount, creditLeg.getBalanceAfter());
+            eventFeed.publish(TransactionType.TRANSFER, debitLeg.getTransactionId(), fromAccount.getAccountId(),
+                    toAccount.getAccountId(), amount, debitLeg.getBalanceAfter());
+        }
+
+        // Same message as a single-shard transfer, so log analysis (LogChunkParser) counts both.
+        logger.info("Transfer completed: {} from {} to {}", amount,
+                fromAccount.getAccountNumber(), toAccount.getAccountNumber());
+        return result;
+    }
+
+    private PostingResult credit(String accountNumber, BigDecimal amount, String description,
+                                 DailyRollupService.Kind rollupKind) throws BankingException {
+        synchronized (postingLocks[postingLockIndex(accountNumber)]) {
+            return applyCredit(accountNumber, amount, description, rollupKind);
+        }
+    }
+
+    // rollupKind is null for a reversal, which adjusts the rollups itself.
+    private PostingResult applyCredit(String accountNumber, BigDecimal amount, String description,
+                                      DailyRollupService.Kind rollupKind) throws BankingException {
+
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            eventLog.logFailure(FailureCode.INVALID_AMOUNT, null, amount);
+            return PostingResult.invalid(PostingResult.Outcome.INVALID_AMOUNT, amount,
+                    "Deposit amount must be positive");
+        }
+
+        try {
+            int shard = shardOf(accountNumber);
+            Account account = accountDAOs[shard].findByAccountNumberOrNull(accountNumber);
+            if (account == null) {
+                return PostingResult.rejected(PostingResult.Outcome.ACCOUNT_NOT_FOUND, accountNumber, amount);
+            }
+            PostingResult rejection = checkActive(account, amount);
+            if (rejection == null && rollupKind == DailyRollupService.Kind.DEPOSIT) {
+                rejection = admitPosting(account, amount);
+            }
+            if (rejection != null) {
+                return rejection;
+            }
 
             BigDecimal newBalance = account.getBalance().add(amount);
 
@@ -73,40 +647,168 @@ public class AccountService {
                     description
             );
 
-            transaction = transactionDAO.create(transaction);
-            accountDAO.updateBalance(account.getAccountId(), newBalance);
-            transactionDAO.updateStatus(transaction.getTransactionId(), TransactionStatus.SUCCESS);
+            transaction = transactionDAOs[shard].create(transaction);
+            accountDAOs[shard].updateBalance(account.getAccountId(), newBalance);
+            transactionDAOs[shard].updateStatus(transaction.getTransactionId(), TransactionStatus.SUCCESS);
+            accountDAOs[shard].markWritten(account);
 
-            logService.logTransaction(transaction.getTransactionId(),
+            hotAccounts.record(accountNumber);
+            if (rollupKind != null) {
+                rollups.record(rollupKind, account.getAccountId(), account.getCustomerId(), amount);
+            }
+            eventFeed.publish(TransactionType.DEPOSIT, transaction.getTransactionId(), account.getAccountId(),
+                    null, amount, newBalance);
+            logServices[shard].logTransaction(transaction.getTransactionId(),
                     "INFO", "Deposit successful: " + amount);
 
             logger.info("Deposit completed: {} to account {}", amount, accountNumber);
-            return transaction;
+            return PostingResult.success(transaction);
 
-        } catch (AccountNotFoundException | AccountClosedException e) {
-            throw e;
         } catch (SQLException e) {
+            eventLog.logFailure(FailureCode.DATABASE_ERROR, null, amount);
             logger.error("Deposit failed", e);
             throw new BankingException("Deposit transaction failed", e);
         }
     }
 
-    public Transaction withdraw(String accountNumber, BigDecimal amount, String description)
+    /**
+     * Credits a deposit that {@code posting} writes to the store itself, for jobs such as the interest run
+     * that commit the credit together with their own bookkeeping. The posting runs under the account's
+     * posting stripe and returns the committed transaction, or {@code null} when it posted nothing; a
+     * committed credit then gets the same event log, audit row ({@code "<auditLabel>: <amount>"}), rollup
+     * and feed records as a deposit. Returns {@code null} without calling {@code posting} when the account
+     * is missing or closed.
+     */
+    public Transaction postCredit(String accountNumber, CreditPosting posting, String auditLabel)
             throws BankingException {
+        int shard = shardOf(accountNumber);
+        Transaction transaction;
+        Account account;
+        try {
+            synchronized (postingLocks[postingLockIndex(accountNumber)]) {
+                account = accountDAOs[shard].findByAccountNumberOrNull(accountNumber);
+                if (account == null || account.getStatus() == AccountStatus.CLOSED) {
+                    return null;
+                }
+                transaction = posting.post(account);
+                if (transaction == null) {
+                    return null;
+                }
+                accountDAOs[shard].markWritten(account);
+            }
+        } catch (SQLException e) {
+            eventLog.logFailure(FailureCode.DATABASE_ERROR, null, null);
+            logger.error("Credit posting failed for account {}", accountNumber, e);
+            throw new BankingException("Credit posting failed", e);
+        }
 
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new InvalidTransactionException("Withdrawal amount must be positive");
+        recordPostedCredit(account, transaction);
+        logServices[shard].logTransaction(transaction.getTransactionId(), "INFO",
+                auditLabel + ": " + transaction.getAmount());
+        return transaction;
+    }
+
+    /**
+     * {@link #postCredit} for a batch of accounts on one shard, committed by {@code posting} in a single
+     * store transaction. The posting stripes of all the accounts are held, in index order as transfers take
+     * them, while it runs, so no deposit, withdrawal or transfer on those accounts can interleave with the
+     * batch. {@code posting} must re-read each balance it credits and skip closed accounts. Every committed
+     * credit gets the same records as with {@link #postCredit}, and the audit rows are written as one batch.
+     * Returns the committed transactions.
+     */
+    public List<Transaction> postCredits(List<Account> accounts, CreditBatch posting, String auditLabel)
+            throws BankingException {
+        if (accounts.isEmpty()) {
+            return List.of();
+        }
+        int shard = shardOf(accounts.get(0).getAccountNumber());
+        TreeSet<Integer> stripes = new TreeSet<>();
+        Map<Long, Account> byId = new HashMap<>();
+        for (Account account : accounts) {
+            if (shardOf(account.getAccountNumber()) != shard) {
+                throw new IllegalArgumentException("A credit batch must stay on one shard: "
+                        + account.getAccountNumber());
+            }
+            stripes.add(postingLockIndex(account.getAccountNumber()));
+            byId.put(account.getAccountId(), account);
         }
 
+        List<Transaction> transactions;
         try {
-            Account account = accountDAO.findByAccountNumber(accountNumber);
-            validateAccountActive(account);
+            transactions = postUnderStripes(stripes.stream().mapToInt(Integer::intValue).toArray(), 0,
+                    accounts, posting);
+            for (Transaction transaction : transactions) {
+                accountDAOs[shard].markWritten(byId.get(transaction.getAccountId()));
+            }
+        } catch (SQLException e) {
+            eventLog.logFailure(FailureCode.DATABASE_ERROR, null, null);
+            logger.error("Credit batch failed for {} account(s)", accounts.size(), e);
+            throw new BankingException("Credit posting failed", e);
+        }
+
+        List<Long> transactionIds = new ArrayList<>(transactions.size());
+        List<String> messages = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            recordPostedCredit(byId.get(transaction.getAccountId()), transaction);
+            transactionIds.add(transaction.getTransactionId());
+            messages.add(auditLabel + ": " + transaction.getAmount());
+        }
+        logServices[shard].logTransactions(transactionIds, "INFO", messages);
+        return transactions;
+    }
+
+    // Takes stripes[next..] one inside the other, then posts the batch.
+    private List<Transaction> postUnderStripes(int[] stripes, int next, List<Account> accounts,
+                                               CreditBatch posting) throws SQLException {
+        if (next == stripes.length) {
+            return posting.post(accounts);
+        }
+        synchronized (postingLocks[stripes[next]]) {
+            return postUnderStripes(stripes, next + 1, accounts, posting);
+        }
+    }
+
+    private void recordPostedCredit(Account account, Transaction transaction) {
+        BigDecimal amount = transaction.getAmount();
+        eventLog.logPosting(account.getAccountId(), transaction.getTransactionId(), TransactionType.DEPOSIT,
+                amount, transaction.getBalanceAfter());
+        eventLog.logBalanceUpdate(account.getAccountId(), transaction.getBalanceAfter());
+        rollups.record(DailyRollupService.Kind.DEPOSIT, account.getAccountId(), account.getCustomerId(), amount);
+        eventFeed.publish(TransactionType.DEPOSIT, transaction.getTransactionId(), account.getAccountId(),
+                null, amount, transaction.getBalanceAfter());
+    }
+
+    private PostingResult debit(String accountNumber, BigDecimal amount, String description,
+                                DailyRollupService.Kind rollupKind) throws BankingException {
+        synchronized (postingLocks[postingLockIndex(accountNumber)]) {
+            return applyDebit(accountNumber, amount, description, rollupKind);
+        }
+    }
 
-            if (account.getBalance().compareTo(amount) < 0) {
-                throw new InsufficientFundsException(
-                        amount.doubleValue(),
-                        account.getBalance().doubleValue()
-                );
+    private PostingResult applyDebit(String accountNumber, BigDecimal amount, String description,
+                                     DailyRollupService.Kind rollupKind) throws BankingException {
+
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            eventLog.logFailure(FailureCode.INVALID_AMOUNT, null, amount);
+            return PostingResult.invalid(PostingResult.Outcome.INVALID_AMOUNT, amount,
+                    "Withdrawal amount must be positive");
+        }
+
+        try {
+            int shard = shardOf(accountNumber);
+            Account account = accountDAOs[shard].findByAccountNumberOrNull(accountNumber);
+            if (account == null) {
+                return PostingResult.rejected(PostingResult.Outcome.ACCOUNT_NOT_FOUND, accountNumber, amount);
+            }
+            PostingResult rejection = checkActive(account, amount);
+            if (rejection == null && rollupKind == DailyRollupService.Kind.WITHDRAWAL) {
+                rejection = admitPosting(account, amount);
+            }
+            if (rejection == null) {
+                rejection = checkDebit(account, amount);
+            }
+            if (rejection != null) {
+                return rejection;
             }
 
             BigDecimal newBalance = account.getBalance().subtract(amount);
@@ -119,63 +821,60 @@ public class AccountService {
                     description
             );
 
-            transaction = transactionDAO.create(transaction);
-            accountDAO.updateBalance(account.getAccountId(), newBalance);
-            transactionDAO.updateStatus(transaction.getTransactionId(), TransactionStatus.SUCCESS);
+            transaction = transactionDAOs[shard].create(transaction);
+            accountDAOs[shard].updateBalance(account.getAccountId(), newBalance);
+            transactionDAOs[shard].updateStatus(transaction.getTransactionId(), TransactionStatus.SUCCESS);
+            accountDAOs[shard].markWritten(account);
 
-            logService.logTransaction(transaction.getTransactionId(),
+            if (rollupKind != DailyRollupService.Kind.TRANSFER_OUT) {
+                // A transfer samples its debit once the credit leg has posted.
+                velocityMonitor.record(account.getAccountId(), amount);
+            }
+            hotAccounts.record(accountNumber);
+            rollups.record(rollupKind, account.getAccountId(), account.getCustomerId(), amount);
+            eventFeed.publish(TransactionType.WITHDRAWAL, transaction.getTransactionId(), account.getAccountId(),
+                    null, amount, newBalance);
+            logServices[shard].logTransaction(transaction.getTransactionId(),
                     "INFO", "Withdrawal successful: " + amount);
 
             logger.info("Withdrawal completed: {} from account {}", amount, accountNumber);
-            return transaction;
+            return PostingResult.success(transaction);
 
-        } catch (AccountNotFoundException | AccountClosedException | InsufficientFundsException e) {
-            throw e;
         } catch (SQLException e) {
+            eventLog.logFailure(FailureCode.DATABASE_ERROR, null, amount);
             logger.error("Withdrawal failed", e);
             throw new BankingException("Withdrawal transaction failed", e);
         }
     }
 
-    public void transfer(String fromAccountNumber, String toAccountNumber,
-                         BigDecimal amount, String description) throws BankingException {
-
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new InvalidTransactionException("Transfer amount must be positive");
-        }
-
-        if (fromAccountNumber.equals(toAccountNumber)) {
-            throw new InvalidTransactionException("Cannot transfer to the same account");
+    private PostingResult checkActive(Account account, BigDecimal amount) {
+        if (account.getStatus() == AccountStatus.CLOSED) {
+            eventLog.logFailure(FailureCode.ACCOUNT_CLOSED, account.getAccountId(), null);
+            return PostingResult.rejected(PostingResult.Outcome.ACCOUNT_CLOSED, account.getAccountNumber(), amount);
         }
+        return null;
+    }
 
-        try {
-            Account fromAccount = accountDAO.findByAccountNumber(fromAccountNumber);
-            Account toAccount = accountDAO.findByAccountNumber(toAccountNumber);
-
-            validateAccountActive(fromAccount);
-            validateAccountActive(toAccount);
-
-            if (fromAccount.getBalance().compareTo(amount) < 0) {
-                throw new InsufficientFundsException(
-                        amount.doubleValue(),
-                        fromAccount.getBalance().doubleValue()
-                );
-            }
-
-            // Debit from source
-            withdraw(fromAccountNumber, amount, "Transfer to " + toAccountNumber + ": " + description);
-
-            // Credit to destination
-            deposit(toAccountNumber, amount, "Transfer from " + fromAccountNumber + ": " + description);
-
-            logger.info("Transfer completed: {} from {} to {}", amount, fromAccountNumber, toAccountNumber);
+    /**
+     * Called once per deposit, withdrawal or transfer with the account it posts to (a transfer's source),
+     * after the account is looked up and before anything is written. A non-null result rejects the posting.
+     * Transfer legs and reversals are not admitted again.
+     */
+    protected PostingResult admitPosting(Account account, BigDecimal amount) {
+        return null;
+    }
 
-        } catch (AccountNotFoundException | AccountClosedException | InsufficientFundsException e) {
-            throw e;
-        } catch (BankingException | SQLException e) {
-            logger.error("Transfer failed", e);
-            throw new BankingException("Transfer transaction failed", e);
+    private PostingResult checkDebit(Account account, BigDecimal amount) {
+        if (account.getBalance().compareTo(amount) < 0) {
+            eventLog.logFailure(FailureCode.INSUFFICIENT_FUNDS, account.getAccountId(), amount);
+            return PostingResult.insufficientFunds(account.getAccountNumber(), amount, account.getBalance());
         }
+        VelocityRule violated = velocityMonitor.findViolation(account.getAccountId(), amount);
+        if (violated != null) {
+            return PostingResult.limited(PostingResult.Outcome.VELOCITY_LIMIT, account.getAccountNumber(),
+                    amount, violated.getName());
+        }
+        return null;
     }
 
     public BigDecimal getBalance(String accountNumber) throws BankingException {
@@ -184,37 +883,102 @@ public class AccountService {
     }
 
     public List<Transaction> getTransactionHistory(String accountNumber) throws BankingException {
+        AccountOperationEvent event = new AccountOperationEvent();
+        event.begin();
+        String outcome = OUTCOME_ERROR;
         try {
-            Account account = accountDAO.findByAccountNumber(accountNumber);
-            return transactionDAO.findByAccountId(account.getAccountId());
-        } catch (SQLException e) {
+            int shard = shardOf(accountNumber);
+            Account account = accountDAOs[shard].findByAccountNumberReadOnly(accountNumber);
+            List<Transaction> recent = transactionDAOs[shard].findByAccountId(account.getAccountId());
+            List<Transaction> archived = archive.findByAccountId(account.getAccountId());
+            List<Transaction> history = mergeHistory(recent, archived);
+            outcome = OUTCOME_SUCCESS;
+            return history;
+        } catch (SQLException | IOException e) {
             logger.error("Failed to fetch transaction history", e);
             throw new BankingException("Failed to fetch transaction history", e);
+        } finally {
+            event.complete("HISTORY", accountNumber, null, outcome);
         }
     }
 
+    // Both lists are newest first and archived rows are older than anything still in the table;
+    // a row can briefly exist in both while the archiver is running.
+    static List<Transaction> mergeHistory(List<Transaction> recent, List<Transaction> archived) {
+        if (archived.isEmpty()) {
+            return recent;
+        }
+        List<Transaction> merged = new ArrayList<>(recent.size() + archived.size());
+        Set<Long> seen = new HashSet<>();
+        for (Transaction t : recent) {
+            seen.add(t.getTransactionId());
+            merged.add(t);
+        }
+        for (Transaction t : archived) {
+            if (seen.add(t.getTransactionId())) {
+                merged.add(t);
+            }
+        }
+        return merged;
+    }
+
     public void closeAccount(String accountNumber) throws BankingException {
+        AccountOperationEvent event = new AccountOperationEvent();
+        event.begin();
+        String outcome = OUTCOME_ERROR;
         try {
-            Account account = accountDAO.findByAccountNumber(accountNumber);
-
-            if (account.getBalance().compareTo(BigDecimal.ZERO) != 0) {
-                throw new InvalidTransactionException(
-                        "Cannot close account with non-zero balance: " + account.getBalance()
-                );
+            AccountRepository accountDAO = accounts(accountNumber);
+            synchronized (postingLocks[postingLockIndex(accountNumber)]) {
+                Account account = accountDAO.findByAccountNumber(accountNumber);
+
+                if (account.getBalance().compareTo(BigDecimal.ZERO) != 0) {
+                    throw new InvalidTransactionException(
+                            "Cannot close account with non-zero balance: " + account.getBalance()
+                    );
+                }
+
+                accountDAO.updateStatus(account.getAccountId(), AccountStatus.CLOSED);
+                accountDAO.markWritten(account);
             }
-
-            accountDAO.updateStatus(account.getAccountId(), AccountStatus.CLOSED);
             logger.info("Account closed: {}", accountNumber);
+            outcome = OUTCOME_SUCCESS;
 
         } catch (SQLException e) {
             logger.error("Failed to close account", e);
             throw new BankingException("Failed to close account", e);
+        } finally {
+            event.complete("CLOSE", accountNumber, null, outcome);
         }
     }
 
-    private void validateAccountActive(Account account) throws AccountClosedException {
-        if (account.getStatus() == AccountStatus.CLOSED) {
-            throw new AccountClosedException(account.getAccountNumber());
-        }
+    private AccountRepository accounts(String accountNumber) {
+        return accountDAOs[shardOf(accountNumber)];
+    }
+
+    private static int postingLockIndex(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), POSTING_LOCK_STRIPES);
+    }
+
+    private int shardOf(String accountNumber) {
+        return shards != null ? shards.shardOf(accountNumber) : 0;
+    }
+
+    // Outcome recorded when the operation threw instead of returning.
+    private static String outcomeOf(PostingResult result) {
+        return result != null ? result.getOutcome().name() : OUTCOME_ERROR;
+    }
+
+    /** A credit written by the caller; see {@link #postCredit}. */
+    public interface CreditPosting {
+
+        /** Commits the credit for {@code account}, read from the primary, or returns {@code null} to skip it. */
+        Transaction post(Account account) throws SQLException;
+    }
+
+    /** Credits written by the caller in one commit; see {@link #postCredits}. */
+    public interface CreditBatch {
+
+        /** Commits the credits for {@code accounts} and returns the transactions it committed. */
+        List<Transaction> post(List<Account> accounts) throws SQLException;
     }
-}
\ No newline at end of file
+}
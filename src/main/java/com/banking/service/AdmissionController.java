@@ -0,0 +1,217 @@
+package com.banking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-key rate limits for account numbers and customer ids. Each key class keeps its buckets in a
+ * bounded concurrent map; buckets idle for longer than the idle timeout are swept out a few at a time
+ * by new keys arriving while the map is full or after the sweep interval has passed, so no single
+ * request pays for a pass over the whole map. Keys that arrive while the map is full of active buckets
+ * are admitted untracked rather than blocking.
+ */
+public class AdmissionController {
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionController.class);
+    private static final int SWEEP_STEP = 64;
+
+    public enum KeyClass {
+        ACCOUNT,
+        CUSTOMER
+    }
+
+    private final Map<KeyClass, KeySpace> keySpaces = new EnumMap<>(KeyClass.class);
+
+    public AdmissionController(Map<KeyClass, Limit> limits, int maxKeysPerClass, long idleTimeoutMillis) {
+        for (KeyClass keyClass : KeyClass.values()) {
+            Limit limit = limits.get(keyClass);
+            if (limit != null) {
+                keySpaces.put(keyClass, new KeySpace(keyClass, limit, maxKeysPerClass,
+                        TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis)));
+            }
+        }
+    }
+
+    public static AdmissionController fromSystemProperties() {
+        Map<KeyClass, Limit> limits = new EnumMap<>(KeyClass.class);
+        limits.put(KeyClass.ACCOUNT, new Limit(
+                Double.parseDouble(System.getProperty("banking.admission.account.rate", "50")),
+                Integer.getInteger("banking.admission.account.burst", 100)));
+        limits.put(KeyClass.CUSTOMER, new Limit(
+                Double.parseDouble(System.getProperty("banking.admission.customer.rate", "200")),
+                Integer.getInteger("banking.admission.customer.burst", 400)));
+        return new AdmissionController(limits,
+                Integer.getInteger("banking.admission.max.keys", 100_000),
+                Long.getLong("banking.admission.idle.ms", TimeUnit.MINUTES.toMillis(5)));
+    }
+
+    public boolean tryAcquire(KeyClass keyClass, Object key) {
+        return tryAcquire(keyClass, key, System.nanoTime());
+    }
+
+    boolean tryAcquire(KeyClass keyClass, Object key, long nowNanos) {
+        KeySpace space = keySpaces.get(keyClass);
+        if (space == null || key == null) {
+            return true;
+        }
+        return space.tryAcquire(key, nowNanos);
+    }
+
+    public Stats getStats(KeyClass keyClass) {
+        KeySpace space = keySpaces.get(keyClass);
+        return space == null ? new Stats(keyClass, 0, 0, 0, 0, 0) : space.snapshot();
+    }
+
+    public static class Limit {
+        private final double ratePerSecond;
+        private final int burst;
+
+        public Limit(double ratePerSecond, int burst) {
+            this.ratePerSecond = ratePerSecond;
+            this.burst = burst;
+        }
+
+        public double getRatePerSecond() { return ratePerSecond; }
+
+        public int getBurst() { return burst; }
+    }
+
+    public static class Stats {
+        private final KeyClass keyClass;
+        private final long admitted;
+        private final long rejected;
+        private final long untracked;
+        private final long evicted;
+        private final int activeKeys;
+
+        public Stats(KeyClass keyClass, long admitted, long rejected, long untracked, long evicted, int activeKeys) {
+            this.keyClass = keyClass;
+            this.admitted = admitted;
+            this.rejected = rejected;
+            this.untracked = untracked;
+            this.evicted = evicted;
+            this.activeKeys = activeKeys;
+        }
+
+        public KeyClass getKeyClass() { return keyClass; }
+
+        public long getAdmitted() { return admitted; }
+
+        public long getRejected() { return rejected; }
+
+        public long getUntracked() { return untracked; }
+
+        public long getEvicted() { return evicted; }
+
+        public int getActiveKeys() { return activeKeys; }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "keyClass=" + keyClass +
+                    ", admitted=" + admitted +
+                    ", rejected=" + rejected +
+                    ", untracked=" + untracked +
+                    ", evicted=" + evicted +
+                    ", activeKeys=" + activeKeys +
+                    '}';
+        }
+    }
+
+    private static final class KeySpace {
+        private final KeyClass keyClass;
+        private final Limit limit;
+        private final int maxKeys;
+        private final long idleNanos;
+        private final ConcurrentHashMap<Object, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder untracked = new LongAdder();
+        private final LongAdder evicted = new LongAdder();
+        private final AtomicBoolean sweeping = new AtomicBoolean();
+        private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+        // Guarded by sweeping; resumes where the previous step stopped.
+        private Iterator<Map.Entry<Object, TokenBucket>> sweepCursor;
+
+        KeySpace(KeyClass keyClass, Limit limit, int maxKeys, long idleNanos) {
+            this.keyClass = keyClass;
+            this.limit = limit;
+            this.maxKeys = maxKeys;
+            this.idleNanos = idleNanos;
+        }
+
+        boolean tryAcquire(Object key, long now) {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxKeys || now - lastSweepNanos.get() > idleNanos) {
+                    sweep(now);
+                }
+                if (buckets.size() >= maxKeys) {
+                    untracked.increment();
+                    admitted.increment();
+                    return true;
+                }
+                bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit.getRatePerSecond(), limit.getBurst(), now));
+            }
+
+            if (bucket.tryAcquire(now)) {
+                admitted.increment();
+                return true;
+            }
+            rejected.increment();
+            return false;
+        }
+
+        // Visits at most SWEEP_STEP buckets; a thread that finds another one sweeping skips the step.
+        private void sweep(long now) {
+            if (!sweeping.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                int removed = 0;
+                boolean restarted = false;
+                for (int visited = 0; visited < SWEEP_STEP; visited++) {
+                    if (sweepCursor == null || !sweepCursor.hasNext()) {
+                        if (sweepCursor != null) {
+                            // A full pass is done; the sweep interval restarts from here.
+                            lastSweepNanos.set(now);
+                        }
+                        // Start at most one new pass per step, so a small map is not visited twice.
+                        if (restarted) {
+                            break;
+                        }
+                        sweepCursor = buckets.entrySet().iterator();
+                        restarted = true;
+                        if (!sweepCursor.hasNext()) {
+                            break;
+                        }
+                    }
+                    Map.Entry<Object, TokenBucket> entry = sweepCursor.next();
+                    if (now - entry.getValue().getLastAccessNanos() > idleNanos
+                            && buckets.remove(entry.getKey(), entry.getValue())) {
+                        removed++;
+                    }
+                }
+                if (removed > 0) {
+                    evicted.add(removed);
+                    logger.debug("Evicted {} idle {} bucket(s)", removed, keyClass);
+                }
+            } finally {
+                sweeping.set(false);
+            }
+        }
+
+        Stats snapshot() {
+            return new Stats(keyClass, admitted.sum(), rejected.sum(), untracked.sum(), evicted.sum(), buckets.size());
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.banking.service;
+
+import com.banking.exception.BankingException;
+import com.banking.model.Account;
+import com.banking.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking front for an {@link AccountService}. Every call returns at once with a
+ * {@link CompletableFuture} and runs on a fixed pool with a bounded queue; when the queue is full the
+ * future fails with a {@link BankingException} instead of the caller waiting.
+ *
+ * Independent reads run side by side: a transfer fetches both accounts together and
+ * {@link #getAccountActivity} fetches the account and its history together, so they take about as long
+ * as the slowest query rather than the sum. Concurrent lookups of the same account share one query.
+ *
+ * Futures time out after the configured default unless completed sooner; callers can also apply their own
+ * {@code orTimeout} or cancel. A read that has not started is dropped and one that has is interrupted. A
+ * write that has not started is dropped too, but once it is running it is never interrupted; its outcome
+ * is then only visible in the account's history.
+ */
+public class AsyncAccountService implements AutoCloseable {
+    private final AccountService accountService;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final Map<String, CompletableFuture<Account>> reads = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Account>> lookups = new ConcurrentHashMap<>();
+
+    /**
+     * @param threads       worker threads; keep at or below the connection pool size
+     * @param queueCapacity calls allowed to wait for a worker before new ones are refused
+     * @param timeoutMillis default time limit for each returned future, 0 for none
+     */
+    public AsyncAccountService(AccountService accountService, int threads, int queueCapacity, long timeoutMillis) {
+        this.accountService = accountService;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "account-async");
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    public static AsyncAccountService fromSystemProperties(AccountService accountService) {
+        return new AsyncAccountService(accountService,
+                Integer.getInteger("banking.async.threads", 8),
+                Integer.getInteger("banking.async.queue", 1000),
+                Long.getLong("banking.async.timeout.ms", 5000));
+    }
+
+    /**
+     * The account as {@link AccountService#getAccount} returns it. Lookups of the same number that overlap
+     * share one query and receive the same {@link Account} instance, which callers must not modify.
+     */
+    public CompletableFuture<Account> getAccount(String accountNumber) {
+        return coalesce(reads, accountNumber, () -> accountService.getAccount(accountNumber));
+    }
+
+    /** Several accounts fetched in parallel, in the order given. */
+    public CompletableFuture<List<Account>> getAccounts(List<String> accountNumbers) {
+        List<CompletableFuture<Account>> accounts = new ArrayList<>(accountNumbers.size());
+        for (String accountNumber : accountNumbers) {
+            accounts.add(getAccount(accountNumber));
+        }
+        return CompletableFuture.allOf(accounts.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            Account[] result = new Account[accounts.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = accounts.get(i).join();
+            }
+            return List.of(result);
+        });
+    }
+
+    public CompletableFuture<BigDecimal> getBalance(String accountNumber) {
+        return getAccount(accountNumber).thenApply(Account::getBalance);
+    }
+
+    public CompletableFuture<List<Transaction>> getTransactionHistory(String accountNumber) {
+        return submit(() -> accountService.getTransactionHistory(accountNumber), true);
+    }
+
+    /** The account and its history, queried at the same time. */
+    public CompletableFuture<AccountActivity> getAccountActivity(String accountNumber) {
+        return getAccount(accountNumber).thenCombine(getTransactionHistory(accountNumber), AccountActivity::new);
+    }
+
+    public CompletableFuture<List<Account>> getCustomerAccounts(Long customerId) {
+        return submit(() -> accountService.getCustomerAccounts(customerId), true);
+    }
+
+    public CompletableFuture<PostingResult> deposit(String accountNumber, BigDecimal amount, String description) {
+        return submit(() -> accountService.tryDeposit(accountNumber, amount, description), false);
+    }
+
+    public CompletableFuture<PostingResult> withdraw(String accountNumber, BigDecimal amount, String description) {
+        return submit(() -> accountService.tryWithdraw(accountNumber, amount, description), false);
+    }
+
+    /**
+     * Transfer with both accounts looked up in parallel before posting. Rejections are reported as in
+     * {@link AccountService#tryTransfer(String, String, BigDecimal, String)}.
+     */
+    public CompletableFuture<PostingResult> transfer(String fromAccountNumber, String toAccountNumber,
+                                                     BigDecimal amount, String description) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0 || fromAccountNumber.equals(toAccountNumber)) {
+            // Rejected without touching the database; nothing to prefetch.
+            return submit(() -> accountService.tryTransfer(fromAccountNumber, toAccountNumber, amount, description),
+                    false);
+        }
+
+        CompletableFuture<PostingResult> result = new CompletableFuture<>();
+        CompletableFuture<Account> from = coalesce(lookups, fromAccountNumber,
+                () -> accountService.findAccountOrNull(fromAccountNumber));
+        CompletableFuture<Account> to = coalesce(lookups, toAccountNumber,
+                () -> accountService.findAccountOrNull(toAccountNumber));
+
+        from.thenCombine(to, (fromAccount, toAccount) -> new Account[]{fromAccount, toAccount})
+                .thenCompose(accounts -> {
+                    if (accounts[0] == null) {
+                        return CompletableFuture.completedFuture(PostingResult.rejected(
+                                PostingResult.Outcome.ACCOUNT_NOT_FOUND, fromAccountNumber, amount));
+                    }
+                    if (accounts[1] == null) {
+                        return CompletableFuture.completedFuture(PostingResult.rejected(
+                                PostingResult.Outcome.ACCOUNT_NOT_FOUND, toAccountNumber, amount));
+                    }
+                    // Skipped if the caller gave up while the lookups were running.
+                    return submit(() -> result.isDone() ? null
+                            : accountService.tryTransfer(accounts[0], accounts[1], amount, description), false);
+                })
+                .whenComplete((posted, failure) -> {
+                    if (failure != null) {
+                        result.completeExceptionally(unwrap(failure));
+                    } else {
+                        result.complete(posted);
+                    }
+                });
+
+        result.whenComplete((posted, failure) -> {
+            if (failure != null) {
+                from.cancel(false);
+                to.cancel(false);
+            }
+        });
+        return withTimeout(result);
+    }
+
+    public CompletableFuture<Void> closeAccount(String accountNumber) {
+        return submit(() -> {
+            accountService.closeAccount(accountNumber);
+            return null;
+        }, false);
+    }
+
+    /** Calls waiting for a worker. */
+    public int getQueuedCalls() {
+        return executor.getQueue().size();
+    }
+
+    /** Stops taking calls; those already queued still run. */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Joins an in-flight query for {@code key} or starts one. Each caller gets its own dependent future, so
+     * one caller cancelling does not fail the others.
+     */
+    private CompletableFuture<Account> coalesce(Map<String, CompletableFuture<Account>> inFlight, String key,
+                                                Call<Account> call) {
+        CompletableFuture<Account> created = new CompletableFuture<>();
+        CompletableFuture<Account> shared = inFlight.putIfAbsent(key, created);
+        if (shared == null) {
+            shared = created;
+            submit(call, true).whenComplete((account, failure) -> {
+                inFlight.remove(key, created);
+                if (failure != null) {
+                    created.completeExceptionally(unwrap(failure));
+                } else {
+                    created.complete(account);
+                }
+            });
+        }
+        return shared.copy();
+    }
+
+    private <T> CompletableFuture<T> submit(Call<T> call, boolean interruptible) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(call.run());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new BankingException("Too many pending account operations", e));
+            return future;
+        }
+        future.whenComplete((value, failure) -> {
+            if (failure != null) {
+                task.cancel(interruptible);
+            }
+        });
+        return withTimeout(future);
+    }
+
+    private <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future) {
+        return timeoutMillis > 0 ? future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS) : future;
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    /** An account together with its transaction history. */
+    public static final class AccountActivity {
+        private final Account account;
+        private final List<Transaction> history;
+
+        AccountActivity(Account account, List<Transaction> history) {
+            this.account = account;
+            this.history = history;
+        }
+
+        public Account getAccount() {
+            return account;
+        }
+
+        public List<Transaction> getHistory() {
+            return history;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call<T> {
+        T run() throws BankingException;
+    }
+}
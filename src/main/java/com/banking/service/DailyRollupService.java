@@ -0,0 +1,298 @@
+package com.banking.service;
+
+import com.banking.dao.DailyRollupDAO;
+import com.banking.exception.BankingException;
+import com.banking.model.DailyRollup;
+import com.banking.model.RollupScope;
+import com.banking.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-day deposit, withdrawal and transfer totals at account, customer and bank level, kept in the
+ * {@code daily_rollup} table. Each committed posting adds to three in-memory cells; a background task
+ * adds the accumulated deltas to the table every few seconds, so a report over a date range reads one
+ * row per day instead of scanning {@code transaction}. Queries include deltas not yet flushed.
+ *
+ * Deltas still in memory when the process dies are lost; the shutdown hook flushes them on a clean exit.
+ * Without a {@link DailyRollupDAO} the totals only ever live in memory: flushing does nothing and queries
+ * read the pending cells alone.
+ */
+public class DailyRollupService implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(DailyRollupService.class);
+    private static final long BANK_SCOPE_ID = 0L;
+
+    public enum Kind {
+        DEPOSIT,
+        WITHDRAWAL,
+        TRANSFER_IN,
+        TRANSFER_OUT
+    }
+
+    private static class Holder {
+        private static final DailyRollupService INSTANCE = createDefault();
+    }
+
+    private final DailyRollupDAO rollupDAO;
+    private final ZoneId zone;
+    private final ConcurrentHashMap<Key, Cell> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private volatile boolean tableReady;
+    private ScheduledExecutorService flusher;
+
+    public DailyRollupService(DailyRollupDAO rollupDAO, ZoneId zone) {
+        this.rollupDAO = rollupDAO;
+        this.zone = zone;
+    }
+
+    public static DailyRollupService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static DailyRollupService createDefault() {
+        DailyRollupService service = new DailyRollupService(new DailyRollupDAO(), ZoneId.systemDefault());
+        service.startFlusher(Long.getLong("banking.rollup.flush.seconds", 5));
+        Runtime.getRuntime().addShutdownHook(new Thread(service::close, "rollup-flush"));
+        return service;
+    }
+
+    public synchronized void startFlusher(long intervalSeconds) {
+        if (flusher != null || intervalSeconds <= 0) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rollup-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (BankingException e) {
+                logger.warn("Rollup flush failed, will retry", e);
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public void record(Kind kind, Long accountId, Long customerId, BigDecimal amount) {
+        record(kind, accountId, customerId, 1, MoneyUtils.toMinorUnits(amount));
+    }
+
+    /** Takes back a posting recorded today, as when the debit leg of a failed transfer is reversed. */
+    public void reverse(Kind kind, Long accountId, Long customerId, BigDecimal amount) {
+        record(kind, accountId, customerId, -1, -MoneyUtils.toMinorUnits(amount));
+    }
+
+    private void record(Kind kind, Long accountId, Long customerId, long count, long amountMinor) {
+        LocalDate day = LocalDate.now(zone);
+        add(new Key(day, RollupScope.ACCOUNT, accountId), kind, count, amountMinor);
+        if (customerId != null) {
+            add(new Key(day, RollupScope.CUSTOMER, customerId), kind, count, amountMinor);
+        }
+        add(new Key(day, RollupScope.BANK, BANK_SCOPE_ID), kind, count, amountMinor);
+    }
+
+    private void add(Key key, Kind kind, long count, long amountMinor) {
+        while (!pending.computeIfAbsent(key, Cell::new).add(kind, count, amountMinor)) {
+            // Cell was retired by a concurrent flush; the next computeIfAbsent creates a fresh one.
+        }
+    }
+
+    public int flush() throws BankingException {
+        if (rollupDAO == null) {
+            return 0;
+        }
+        synchronized (flushLock) {
+            List<Cell> drained = new ArrayList<>();
+            for (Key key : pending.keySet()) {
+                Cell cell = pending.remove(key);
+                if (cell != null) {
+                    cell.retire();
+                    drained.add(cell);
+                }
+            }
+            if (drained.isEmpty()) {
+                return 0;
+            }
+
+            List<DailyRollup> deltas = new ArrayList<>(drained.size());
+            for (Cell cell : drained) {
+                deltas.add(cell.toRollup());
+            }
+            try {
+                ensureTable();
+                rollupDAO.addDeltas(deltas);
+                return deltas.size();
+            } catch (SQLException e) {
+                // Put the deltas back so the next flush retries them.
+                for (Cell cell : drained) {
+                    for (Kind kind : Kind.values()) {
+                        if (cell.counts[kind.ordinal()] != 0) {
+                            add(cell.key, kind, cell.counts[kind.ordinal()], cell.amounts[kind.ordinal()]);
+                        }
+                    }
+                }
+                throw new BankingException("Failed to flush daily rollups", e);
+            }
+        }
+    }
+
+    public List<DailyRollup> getAccountRollups(Long accountId, LocalDate from, LocalDate to)
+            throws BankingException {
+        return getRollups(RollupScope.ACCOUNT, accountId, from, to);
+    }
+
+    public List<DailyRollup> getCustomerRollups(Long customerId, LocalDate from, LocalDate to)
+            throws BankingException {
+        return getRollups(RollupScope.CUSTOMER, customerId, from, to);
+    }
+
+    public List<DailyRollup> getBankRollups(LocalDate from, LocalDate to) throws BankingException {
+        return getRollups(RollupScope.BANK, BANK_SCOPE_ID, from, to);
+    }
+
+    private List<DailyRollup> getRollups(RollupScope scope, long scopeId, LocalDate from, LocalDate to)
+            throws BankingException {
+        // Holding the flush lock keeps a concurrent flush from hiding deltas that left memory but are not yet committed.
+        synchronized (flushLock) {
+            return readRollups(scope, scopeId, from, to);
+        }
+    }
+
+    private List<DailyRollup> readRollups(RollupScope scope, long scopeId, LocalDate from, LocalDate to)
+            throws BankingException {
+        Map<LocalDate, DailyRollup> byDay = new TreeMap<>();
+        if (rollupDAO != null) {
+            try {
+                ensureTable();
+                for (DailyRollup rollup : rollupDAO.findRange(scope, scopeId, from, to)) {
+                    byDay.put(rollup.getRollupDate(), rollup);
+                }
+            } catch (SQLException e) {
+                logger.error("Failed to fetch {} rollups for {}", scope, scopeId, e);
+                throw new BankingException("Failed to fetch daily rollups", e);
+            }
+        }
+
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            Cell cell = pending.get(new Key(day, scope, scopeId));
+            if (cell != null) {
+                merge(byDay.computeIfAbsent(day, d -> new DailyRollup(d, scope, scopeId)), cell.toRollup());
+            }
+        }
+        return new ArrayList<>(byDay.values());
+    }
+
+    private void ensureTable() throws SQLException {
+        if (!tableReady) {
+            rollupDAO.createTableIfMissing();
+            tableReady = true;
+        }
+    }
+
+    private static void merge(DailyRollup target, DailyRollup delta) {
+        target.setDepositCount(target.getDepositCount() + delta.getDepositCount());
+        target.setDepositAmount(target.getDepositAmount().add(delta.getDepositAmount()));
+        target.setWithdrawalCount(target.getWithdrawalCount() + delta.getWithdrawalCount());
+        target.setWithdrawalAmount(target.getWithdrawalAmount().add(delta.getWithdrawalAmount()));
+        target.setTransferInCount(target.getTransferInCount() + delta.getTransferInCount());
+        target.setTransferInAmount(target.getTransferInAmount().add(delta.getTransferInAmount()));
+        target.setTransferOutCount(target.getTransferOutCount() + delta.getTransferOutCount());
+        target.setTransferOutAmount(target.getTransferOutAmount().add(delta.getTransferOutAmount()));
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (flusher != null) {
+                flusher.shutdownNow();
+                flusher = null;
+            }
+        }
+        try {
+            flush();
+        } catch (BankingException e) {
+            logger.error("Final rollup flush failed; {} pending cell(s) lost", pending.size(), e);
+        }
+    }
+
+    private static final class Key {
+        final LocalDate day;
+        final RollupScope scope;
+        final long scopeId;
+
+        Key(LocalDate day, RollupScope scope, long scopeId) {
+            this.day = day;
+            this.scope = scope;
+            this.scopeId = scopeId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return scopeId == other.scopeId && scope == other.scope && day.equals(other.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, scope, scopeId);
+        }
+    }
+
+    private static final class Cell {
+        final Key key;
+        final long[] counts = new long[Kind.values().length];
+        final long[] amounts = new long[Kind.values().length];
+        private boolean retired;
+
+        Cell(Key key) {
+            this.key = key;
+        }
+
+        synchronized boolean add(Kind kind, long count, long amountMinor) {
+            if (retired) {
+                return false;
+            }
+            counts[kind.ordinal()] += count;
+            amounts[kind.ordinal()] += amountMinor;
+            return true;
+        }
+
+        synchronized void retire() {
+            retired = true;
+        }
+
+        synchronized DailyRollup toRollup() {
+            DailyRollup rollup = new DailyRollup(key.day, key.scope, key.scopeId);
+            rollup.setDepositCount(counts[Kind.DEPOSIT.ordinal()]);
+            rollup.setDepositAmount(MoneyUtils.fromMinorUnits(amounts[Kind.DEPOSIT.ordinal()]));
+            rollup.setWithdrawalCount(counts[Kind.WITHDRAWAL.ordinal()]);
+            rollup.setWithdrawalAmount(MoneyUtils.fromMinorUnits(amounts[Kind.WITHDRAWAL.ordinal()]));
+            rollup.setTransferInCount(counts[Kind.TRANSFER_IN.ordinal()]);
+            rollup.setTransferInAmount(MoneyUtils.fromMinorUnits(amounts[Kind.TRANSFER_IN.ordinal()]));
+            rollup.setTransferOutCount(counts[Kind.TRANSFER_OUT.ordinal()]);
+            rollup.setTransferOutAmount(MoneyUtils.fromMinorUnits(amounts[Kind.TRANSFER_OUT.ordinal()]));
+            return rollup;
+        }
+    }
+}
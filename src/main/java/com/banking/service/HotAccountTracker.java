@@ -0,0 +1,106 @@
+package com.banking.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often each account is touched so the busiest ones can be written to a snapshot at shutdown
+ * and loaded first on the next start. Once {@code maxAccounts} distinct accounts are tracked, new ones
+ * are ignored; the counts of accounts already tracked keep growing.
+ *
+ * Snapshot files have one {@code accountNumber count} pair per line, busiest first.
+ */
+public class HotAccountTracker {
+    private final int maxAccounts;
+    private final ConcurrentHashMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+    public HotAccountTracker(int maxAccounts) {
+        this.maxAccounts = maxAccounts;
+    }
+
+    public void record(String accountNumber) {
+        if (accountNumber == null) {
+            return;
+        }
+        LongAdder count = counts.get(accountNumber);
+        if (count == null) {
+            if (counts.size() >= maxAccounts) {
+                return;
+            }
+            count = counts.computeIfAbsent(accountNumber, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    public int size() {
+        return counts.size();
+    }
+
+    public List<String> top(int limit) {
+        List<Map.Entry<String, Long>> entries = sortedByCount();
+
+        List<String> result = new ArrayList<>(Math.min(limit, entries.size()));
+        for (int i = 0; i < entries.size() && i < limit; i++) {
+            result.add(entries.get(i).getKey());
+        }
+        return result;
+    }
+
+    public int writeSnapshot(Path file, int limit) throws IOException {
+        List<Map.Entry<String, Long>> entries = sortedByCount();
+        int written = Math.min(limit, entries.size());
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < written; i++) {
+                Map.Entry<String, Long> entry = entries.get(i);
+                writer.write(entry.getKey());
+                writer.write(' ');
+                writer.write(Long.toString(entry.getValue()));
+                writer.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    private List<Map.Entry<String, Long>> sortedByCount() {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(counts.size());
+        counts.forEach((number, count) -> entries.add(Map.entry(number, count.sum())));
+        entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        return entries;
+    }
+
+    public static List<String> readSnapshot(Path file, int limit) throws IOException {
+        List<String> accountNumbers = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return accountNumbers;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while (accountNumbers.size() < limit && (line = reader.readLine()) != null) {
+                int space = line.indexOf(' ');
+                String number = (space < 0 ? line : line.substring(0, space)).trim();
+                if (!number.isEmpty()) {
+                    accountNumbers.add(number);
+                }
+            }
+        }
+        return accountNumbers;
+    }
+}
@@ -0,0 +1,263 @@
+package com.banking.service;
+
+import com.banking.config.DatabaseConfig;
+import com.banking.config.ShardRouter;
+import com.banking.dao.InterestAccrualDAO;
+import com.banking.dao.InterestAccrualRepository;
+import com.banking.exception.BankingException;
+import com.banking.model.Account;
+import com.banking.model.AccountType;
+import com.banking.model.Transaction;
+import com.banking.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Month-end (or any period) interest run for SAVINGS and FIXED_DEPOSIT accounts on every shard.
+ *
+ * Each shard's account id space is cut into fixed ranges that are processed in parallel. A range's eligible
+ * accounts are credited in chunks of {@code banking.interest.batch} (default 500) through
+ * {@link AccountService#postCredits}: each chunk is one commit, made while the posting stripes of all its
+ * accounts are held, and writes a per-account marker under the run id alongside the credits. Every credit
+ * gets the same audit, rollup and feed records as a deposit. A range is checkpointed once all its chunks are
+ * committed, so re-running the same run id after a crash skips finished ranges, and the markers keep the
+ * committed chunks of an unfinished range from being credited twice.
+ */
+public class InterestAccrualService {
+    private static final Logger logger = LoggerFactory.getLogger(InterestAccrualService.class);
+
+    private static final long BASIS_POINTS = 10_000L;
+    private static final long DAYS_PER_YEAR = 365L;
+
+    private final AccountService accountService;
+    private final List<InterestAccrualRepository> accrualRepositories;
+    private final Map<AccountType, Integer> annualRateBasisPoints;
+    private final int parallelism;
+    private final long rangeSize;
+    private final int batchSize;
+
+    public InterestAccrualService(Map<AccountType, Integer> annualRateBasisPoints, int parallelism, long rangeSize) {
+        this(new AccountService(ShardRouter.getInstance()), annualRateBasisPoints, parallelism, rangeSize);
+    }
+
+    /** Run over the shards of {@code accountService}, which must be backed by a {@link ShardRouter}. */
+    public InterestAccrualService(AccountService accountService, Map<AccountType, Integer> annualRateBasisPoints,
+                                  int parallelism, long rangeSize) {
+        this(accountService, accrualDAOs(accountService.getShardRouter()), annualRateBasisPoints, parallelism,
+                rangeSize);
+    }
+
+    /** Run with one accrual repository per shard, in shard order. */
+    public InterestAccrualService(AccountService accountService,
+                                  List<? extends InterestAccrualRepository> accrualRepositories,
+                                  Map<AccountType, Integer> annualRateBasisPoints, int parallelism, long rangeSize) {
+        this(accountService, accrualRepositories, annualRateBasisPoints, parallelism, rangeSize,
+                Integer.getInteger("banking.interest.batch", 500));
+    }
+
+    /** As above, committing {@code batchSize} credits at a time. */
+    public InterestAccrualService(AccountService accountService,
+                                  List<? extends InterestAccrualRepository> accrualRepositories,
+                                  Map<AccountType, Integer> annualRateBasisPoints, int parallelism, long rangeSize,
+                                  int batchSize) {
+        this.accountService = accountService;
+        this.accrualRepositories = List.copyOf(accrualRepositories);
+        this.annualRateBasisPoints = new EnumMap<>(annualRateBasisPoints);
+        this.parallelism = parallelism;
+        this.rangeSize = rangeSize;
+        this.batchSize = batchSize;
+    }
+
+    private static List<InterestAccrualRepository> accrualDAOs(ShardRouter shards) {
+        if (shards == null) {
+            throw new IllegalArgumentException("Interest accrual needs an account service over database shards");
+        }
+        List<InterestAccrualRepository> daos = new ArrayList<>(shards.getShardCount());
+        for (DatabaseConfig shard : shards.getShards()) {
+            daos.add(new InterestAccrualDAO(shard));
+        }
+        return daos;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: InterestAccrualService <run-id> <days> [savings-bps] [fixed-deposit-bps]");
+            System.exit(1);
+        }
+        Map<AccountType, Integer> rates = new EnumMap<>(AccountType.class);
+        rates.put(AccountType.SAVINGS, args.length > 2 ? Integer.parseInt(args[2]) : 350);
+        rates.put(AccountType.FIXED_DEPOSIT, args.length > 3 ? Integer.parseInt(args[3]) : 650);
+
+        InterestAccrualService service = new InterestAccrualService(rates,
+                Runtime.getRuntime().availableProcessors(), 10_000);
+        AccrualResult result = service.run(args[0], Integer.parseInt(args[1]));
+        System.out.println(result);
+    }
+
+    public AccrualResult run(String runId, int days) throws BankingException {
+        long started = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+
+        try {
+            String description = "Interest accrual " + runId;
+            List<Future<InterestAccrualRepository.RangeResult>> futures = new ArrayList<>();
+            int skipped = 0;
+            for (InterestAccrualRepository accrualRepository : accrualRepositories) {
+                accrualRepository.createCheckpointTableIfMissing();
+                long maxAccountId = accrualRepository.findMaxAccountId();
+                Set<Long> completed = accrualRepository.findCompletedRanges(runId);
+
+                for (long start = 1; start <= maxAccountId; start += rangeSize) {
+                    if (completed.contains(start)) {
+                        skipped++;
+                        continue;
+                    }
+                    long rangeStart = start;
+                    long rangeEnd = start + rangeSize;
+                    futures.add(executor.submit(() ->
+                            accrueRange(accrualRepository, runId, rangeStart, rangeEnd, days, description)));
+                }
+            }
+
+            int ranges = 0;
+            long accounts = 0;
+            long totalMinor = 0;
+            for (Future<InterestAccrualRepository.RangeResult> future : futures) {
+                InterestAccrualRepository.RangeResult range = future.get();
+                if (range == null) {
+                    skipped++;
+                    continue;
+                }
+                ranges++;
+                accounts += range.getAccountsCredited();
+                totalMinor += range.getTotalInterestMinor();
+            }
+
+            AccrualResult result = new AccrualResult(runId, ranges, skipped, accounts, totalMinor,
+                    (System.nanoTime() - started) / 1_000_000);
+            logger.info("Interest run completed: {}", result);
+            return result;
+
+        } catch (SQLException e) {
+            logger.error("Interest run {} failed", runId, e);
+            throw new BankingException("Interest accrual failed", e);
+        } catch (ExecutionException e) {
+            logger.error("Interest run {} failed; credited accounts and completed ranges are checkpointed",
+                    runId, e.getCause());
+            throw new BankingException("Interest accrual failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BankingException("Interest accrual interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Returns null when another run already completed the range.
+    private InterestAccrualRepository.RangeResult accrueRange(InterestAccrualRepository accrualRepository,
+                                                              String runId, long rangeStart, long rangeEnd,
+                                                              int days, String description)
+            throws SQLException, BankingException {
+        InterestAccrualRepository.InterestCalculator calculator =
+                (type, balanceMinor) -> interestFor(type, balanceMinor, days);
+        List<Account> eligible = accrualRepository.findEligibleAccounts(rangeStart, rangeEnd);
+        int credited = 0;
+        long totalMinor = 0;
+        for (int from = 0; from < eligible.size(); from += batchSize) {
+            List<Account> chunk = eligible.subList(from, Math.min(eligible.size(), from + batchSize));
+            List<Transaction> transactions = accountService.postCredits(chunk,
+                    accounts -> accrualRepository.creditInterest(runId, accounts, calculator, description),
+                    "Interest credited");
+            for (Transaction transaction : transactions) {
+                credited++;
+                totalMinor += MoneyUtils.toMinorUnits(transaction.getAmount());
+            }
+        }
+        InterestAccrualRepository.RangeResult result = new InterestAccrualRepository.RangeResult(credited, totalMinor);
+        return accrualRepository.completeRange(runId, rangeStart, result) ? result : null;
+    }
+
+    long interestFor(AccountType type, long balanceMinor, int days) {
+        Integer rate = annualRateBasisPoints.get(type);
+        if (rate == null || rate <= 0 || balanceMinor <= 0 || days <= 0) {
+            return 0L;
+        }
+        long divisor = BASIS_POINTS * DAYS_PER_YEAR;
+        try {
+            long numerator = Math.multiplyExact(Math.multiplyExact(balanceMinor, (long) rate), (long) days);
+            return divideHalfEven(numerator, divisor);
+        } catch (ArithmeticException overflow) {
+            BigInteger[] qr = BigInteger.valueOf(balanceMinor)
+                    .multiply(BigInteger.valueOf(rate))
+                    .multiply(BigInteger.valueOf(days))
+                    .divideAndRemainder(BigInteger.valueOf(divisor));
+            long quotient = qr[0].longValueExact();
+            int cmp = qr[1].shiftLeft(1).compareTo(BigInteger.valueOf(divisor));
+            return cmp > 0 || (cmp == 0 && (quotient & 1) == 1) ? quotient + 1 : quotient;
+        }
+    }
+
+    private static long divideHalfEven(long numerator, long divisor) {
+        long quotient = numerator / divisor;
+        long twiceRemainder = (numerator % divisor) * 2;
+        if (twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) == 1)) {
+            quotient++;
+        }
+        return quotient;
+    }
+
+    public static class AccrualResult {
+        private final String runId;
+        private final int rangesProcessed;
+        private final int rangesSkipped;
+        private final long accountsCredited;
+        private final long totalInterestMinor;
+        private final long elapsedMillis;
+
+        public AccrualResult(String runId, int rangesProcessed, int rangesSkipped,
+                             long accountsCredited, long totalInterestMinor, long elapsedMillis) {
+            this.runId = runId;
+            this.rangesProcessed = rangesProcessed;
+            this.rangesSkipped = rangesSkipped;
+            this.accountsCredited = accountsCredited;
+            this.totalInterestMinor = totalInterestMinor;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public String getRunId() { return runId; }
+
+        public int getRangesProcessed() { return rangesProcessed; }
+
+        public int getRangesSkipped() { return rangesSkipped; }
+
+        public long getAccountsCredited() { return accountsCredited; }
+
+        public long getTotalInterestMinor() { return totalInterestMinor; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return "AccrualResult{" +
+                    "runId='" + runId + '\'' +
+                    ", rangesProcessed=" + rangesProcessed +
+                    ", rangesSkipped=" + rangesSkipped +
+                    ", accountsCredited=" + accountsCredited +
+                    ", totalInterest=" + MoneyUtils.fromMinorUnits(totalInterestMinor) +
+                    ", elapsedMillis=" + elapsedMillis +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.banking.service;
+
+import com.banking.exception.*;
+import com.banking.model.Transaction;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of a deposit, withdrawal or transfer from the {@code try*} methods of {@link AccountService}.
+ * Expected business rejections come back as an outcome code with the exact amounts involved instead of an
+ * exception; only infrastructure failures are still thrown. {@link #getTransactionOrThrow()} turns a
+ * rejection into the exception the throwing API has always used.
+ */
+public final class PostingResult {
+
+    public enum Outcome {
+        SUCCESS,
+        INVALID_AMOUNT,
+        SAME_ACCOUNT,
+        ACCOUNT_NOT_FOUND,
+        ACCOUNT_CLOSED,
+        INSUFFICIENT_FUNDS,
+        VELOCITY_LIMIT,
+        RATE_LIMITED
+    }
+
+    private final Outcome outcome;
+    private final Transaction transaction;
+    private final Transaction creditTransaction;
+    private final String accountNumber;
+    private final BigDecimal requestedAmount;
+    private final BigDecimal availableBalance;
+    private final String reason;
+
+    private PostingResult(Outcome outcome, Transaction transaction, Transaction creditTransaction,
+                          String accountNumber, BigDecimal requestedAmount, BigDecimal availableBalance,
+                          String reason) {
+        this.outcome = outcome;
+        this.transaction = transaction;
+        this.creditTransaction = creditTransaction;
+        this.accountNumber = accountNumber;
+        this.requestedAmount = requestedAmount;
+        this.availableBalance = availableBalance;
+        this.reason = reason;
+    }
+
+    static PostingResult success(Transaction transaction) {
+        return new PostingResult(Outcome.SUCCESS, transaction, null, null, transaction.getAmount(), null, null);
+    }
+
+    static PostingResult transferred(Transaction debit, Transaction credit) {
+        return new PostingResult(Outcome.SUCCESS, debit, credit, null, debit.getAmount(), null, null);
+    }
+
+    static PostingResult invalid(Outcome outcome, BigDecimal amount, String reason) {
+        return new PostingResult(outcome, null, null, null, amount, null, reason);
+    }
+
+    static PostingResult rejected(Outcome outcome, String accountNumber, BigDecimal amount) {
+        return new PostingResult(outcome, null, null, accountNumber, amount, null, null);
+    }
+
+    static PostingResult insufficientFunds(String accountNumber, BigDecimal amount, BigDecimal available) {
+        return new PostingResult(Outcome.INSUFFICIENT_FUNDS, null, null, accountNumber, amount, available, null);
+    }
+
+    static PostingResult limited(Outcome outcome, String accountNumber, BigDecimal amount, String limitName) {
+        return new PostingResult(outcome, null, null, accountNumber, amount, null, limitName);
+    }
+
+    public Outcome getOutcome() { return outcome; }
+
+    public boolean isSuccess() { return outcome == Outcome.SUCCESS; }
+
+    /** The posted transaction; for a transfer, the debit leg. Null unless successful. */
+    public Transaction getTransaction() { return transaction; }
+
+    /** The credit leg of a successful transfer. */
+    public Transaction getCreditTransaction() { return creditTransaction; }
+
+    /** The account the rejection applies to. */
+    public String getAccountNumber() { return accountNumber; }
+
+    public BigDecimal getRequestedAmount() { return requestedAmount; }
+
+    /** Balance at the time of an INSUFFICIENT_FUNDS rejection. */
+    public BigDecimal getAvailableBalance() { return availableBalance; }
+
+    /** Fixed reason for INVALID_AMOUNT and SAME_ACCOUNT, or the name of the rule or key class that was exceeded. */
+    public String getReason() { return reason; }
+
+    public Transaction getTransactionOrThrow() throws BankingException {
+        switch (outcome) {
+            case SUCCESS:
+                return transaction;
+            case INVALID_AMOUNT:
+            case SAME_ACCOUNT:
+                throw new InvalidTransactionException(reason);
+            case ACCOUNT_NOT_FOUND:
+                throw new AccountNotFoundException(accountNumber);
+            case ACCOUNT_CLOSED:
+                throw new AccountClosedException(accountNumber);
+            case INSUFFICIENT_FUNDS:
+                throw new InsufficientFundsException(requestedAmount, availableBalance);
+            case VELOCITY_LIMIT:
+                throw new VelocityLimitExceededException(reason, accountNumber);
+            case RATE_LIMITED:
+                throw new RateLimitExceededException(reason, accountNumber);
+            default:
+                throw new IllegalStateException("Unhandled outcome " + outcome);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PostingResult{" +
+                "outcome=" + outcome +
+                (transaction != null ? ", transactionId=" + transaction.getTransactionId() : "") +
+                (accountNumber != null ? ", accountNumber='" + accountNumber + '\'' : "") +
+                ", requestedAmount=" + requestedAmount +
+                (availableBalance != null ? ", availableBalance=" + availableBalance : "") +
+                (reason != null ? ", reason='" + reason + '\'' : "") +
+                '}';
+    }
+}
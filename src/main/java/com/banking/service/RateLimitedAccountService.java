@@ -0,0 +1,168 @@
+package com.banking.service;
+
+import com.banking.dao.AccountRepository;
+import com.banking.dao.TransactionLogRepository;
+import com.banking.dao.TransactionRepository;
+import com.banking.exception.BankingException;
+import com.banking.exception.RateLimitExceededException;
+import com.banking.model.Account;
+import com.banking.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * {@link AccountService} with per-account and per-customer admission control. Calls over the limit
+ * fail with {@link RateLimitExceededException} (or a RATE_LIMITED {@link PostingResult} from the
+ * {@code try*} methods) before any connection is opened. Postings are also charged to the owning customer
+ * once their account is looked up. Nested calls made by the service itself (deposit delegating to
+ * tryDeposit, getBalance's lookup) are not charged again, and neither is {@link #findAccountOrNull}, which
+ * serves the lookups made ahead of a transfer that is charged itself.
+ */
+public class RateLimitedAccountService extends AccountService {
+    private final AdmissionController admission;
+    private final ThreadLocal<Boolean> admitted = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    public RateLimitedAccountService(AdmissionController admission) {
+        this.admission = admission;
+    }
+
+    public RateLimitedAccountService(AdmissionController admission, AccountRepository accounts,
+                                     TransactionRepository transactions, TransactionLogRepository logs) {
+        super(accounts, transactions, logs);
+        this.admission = admission;
+    }
+
+    public AdmissionController getAdmissionController() {
+        return admission;
+    }
+
+    @Override
+    public Account createAccount(Account account) throws BankingException {
+        return admit(AdmissionController.KeyClass.CUSTOMER, account.getCustomerId(),
+                () -> super.createAccount(account));
+    }
+
+    @Override
+    public Account getAccount(String accountNumber) throws BankingException {
+        return admit(AdmissionController.KeyClass.ACCOUNT, accountNumber, () -> super.getAccount(accountNumber));
+    }
+
+    @Override
+    public List<Account> getCustomerAccounts(Long customerId) throws BankingException {
+        return admit(AdmissionController.KeyClass.CUSTOMER, customerId, () -> super.getCustomerAccounts(customerId));
+    }
+
+    @Override
+    public Transaction deposit(String accountNumber, BigDecimal amount, String description) throws BankingException {
+        return admit(AdmissionController.KeyClass.ACCOUNT, accountNumber,
+                () -> super.deposit(accountNumber, amount, description));
+    }
+
+    @Override
+    public Transaction withdraw(String accountNumber, BigDecimal amount, String description) throws BankingException {
+        return admit(AdmissionController.KeyClass.ACCOUNT, accountNumber,
+                () -> super.withdraw(accountNumber, amount, description));
+    }
+
+    @Override
+    public void transfer(String fromAccountNumber, String toAccountNumber,
+                         BigDecimal amount, String description) throws BankingException {
+        admit(AdmissionController.KeyClass.ACCOUNT, fromAccountNumber, () -> {
+            super.transfer(fromAccountNumber, toAccountNumber, amount, description);
+            return null;
+        });
+    }
+
+    @Override
+    public PostingResult tryDeposit(String accountNumber, BigDecimal amount, String description)
+            throws BankingException {
+        return tryAdmit(accountNumber, amount, () -> super.tryDeposit(accountNumber, amount, description));
+    }
+
+    @Override
+    public PostingResult tryWithdraw(String accountNumber, BigDecimal amount, String description)
+            throws BankingException {
+        return tryAdmit(accountNumber, amount, () -> super.tryWithdraw(accountNumber, amount, description));
+    }
+
+    @Override
+    public PostingResult tryTransfer(String fromAccountNumber, String toAccountNumber,
+                                     BigDecimal amount, String description) throws BankingException {
+        return tryAdmit(fromAccountNumber, amount,
+                () -> super.tryTransfer(fromAccountNumber, toAccountNumber, amount, description));
+    }
+
+    @Override
+    public PostingResult tryTransfer(Account fromAccount, Account toAccount, BigDecimal amount, String description)
+            throws BankingException {
+        return tryAdmit(fromAccount.getAccountNumber(), amount,
+                () -> super.tryTransfer(fromAccount, toAccount, amount, description));
+    }
+
+    @Override
+    public BigDecimal getBalance(String accountNumber) throws BankingException {
+        return admit(AdmissionController.KeyClass.ACCOUNT, accountNumber, () -> super.getBalance(accountNumber));
+    }
+
+    @Override
+    public List<Transaction> getTransactionHistory(String accountNumber) throws BankingException {
+        return admit(AdmissionController.KeyClass.ACCOUNT, accountNumber,
+                () -> super.getTransactionHistory(accountNumber));
+    }
+
+    @Override
+    public void closeAccount(String accountNumber) throws BankingException {
+        admit(AdmissionController.KeyClass.ACCOUNT, accountNumber, () -> {
+            super.closeAccount(accountNumber);
+            return null;
+        });
+    }
+
+    // The customer is only known once the account is looked up, so its key is charged here.
+    @Override
+    protected PostingResult admitPosting(Account account, BigDecimal amount) {
+        if (admission.tryAcquire(AdmissionController.KeyClass.CUSTOMER, account.getCustomerId())) {
+            return null;
+        }
+        return PostingResult.limited(PostingResult.Outcome.RATE_LIMITED, account.getAccountNumber(), amount,
+                AdmissionController.KeyClass.CUSTOMER.name().toLowerCase());
+    }
+
+    private <T> T admit(AdmissionController.KeyClass keyClass, Object key, Call<T> call) throws BankingException {
+        if (admitted.get()) {
+            return call.run();
+        }
+        if (!admission.tryAcquire(keyClass, key)) {
+            throw new RateLimitExceededException(keyClass.name().toLowerCase(), String.valueOf(key));
+        }
+        return runAdmitted(call);
+    }
+
+    // Result-returning variant: a rejection is reported as RATE_LIMITED rather than thrown.
+    private PostingResult tryAdmit(String accountNumber, BigDecimal amount, Call<PostingResult> call)
+            throws BankingException {
+        if (admitted.get()) {
+            return call.run();
+        }
+        if (!admission.tryAcquire(AdmissionController.KeyClass.ACCOUNT, accountNumber)) {
+            return PostingResult.limited(PostingResult.Outcome.RATE_LIMITED, accountNumber, amount,
+                    AdmissionController.KeyClass.ACCOUNT.name().toLowerCase());
+        }
+        return runAdmitted(call);
+    }
+
+    private <T> T runAdmitted(Call<T> call) throws BankingException {
+        admitted.set(Boolean.TRUE);
+        try {
+            return call.run();
+        } finally {
+            admitted.set(Boolean.FALSE);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call<T> {
+        T run() throws BankingException;
+    }
+}
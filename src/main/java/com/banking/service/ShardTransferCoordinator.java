@@ -0,0 +1,171 @@
+package com.banking.service;
+
+import com.banking.config.ShardRouter;
+import com.banking.dao.AccountRepository;
+import com.banking.dao.ShardTransferDAO;
+import com.banking.model.Account;
+import com.banking.model.AccountStatus;
+import com.banking.model.ShardTransfer;
+import com.banking.model.ShardTransferState;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Two-phase commit for transfers between accounts on different shards. The coordinator record lives on the
+ * source account's shard and is written before anything moves. Prepare takes the funds out of the source
+ * account as a pending withdrawal and records a pending credit on the destination shard, each in its own
+ * local transaction. Moving the record to COMMITTED is the decision point; after that the legs are made
+ * final. A transfer that never reached COMMITTED is rolled back.
+ *
+ * {@link #recover()} finishes whatever a crash left in between by replaying the recorded decision, treating
+ * PREPARING as aborted. Every leg step is idempotent and every state change is conditional, so recovery and
+ * a live transfer cannot both decide.
+ */
+class ShardTransferCoordinator {
+    private static final Logger logger = LoggerFactory.getLogger(ShardTransferCoordinator.class);
+
+    private final ShardRouter router;
+    private final AccountRepository[] accountDAOs;
+    private final ShardTransferDAO[] transferDAOs;
+    private volatile boolean tablesReady;
+
+    ShardTransferCoordinator(ShardRouter router, AccountRepository[] accountDAOs) {
+        this.router = router;
+        this.accountDAOs = accountDAOs;
+        this.transferDAOs = new ShardTransferDAO[router.getShardCount()];
+        for (int i = 0; i < transferDAOs.length; i++) {
+            transferDAOs[i] = new ShardTransferDAO(router.getShard(i));
+        }
+    }
+
+    /**
+     * Moves {@code amount} between two accounts that have already been validated. A participant that refuses
+     * to prepare, because the source no longer has the funds or either account was closed meanwhile, comes
+     * back as a rejection. If the transfer commits but a leg cannot be finished, the result carries what is
+     * known and recovery completes the rest.
+     */
+    PostingResult transfer(Account from, Account to, BigDecimal amount, String description) throws SQLException {
+        ensureTables();
+        ShardTransfer transfer = new ShardTransfer(UUID.randomUUID().toString(), from.getAccountNumber(),
+                to.getAccountNumber(), amount, description);
+        ShardTransferDAO coordinator = coordinatorFor(transfer);
+        ShardTransferDAO source = transferDAOs[router.shardOf(from.getAccountNumber())];
+        ShardTransferDAO destination = transferDAOs[router.shardOf(to.getAccountNumber())];
+        String id = transfer.getTransferId();
+
+        coordinator.begin(transfer);
+        Transaction debit = source.prepareDebit(id, from.getAccountId(), amount, debitDescription(transfer));
+        if (debit == null) {
+            coordinator.updateState(id, ShardTransferState.PREPARING, ShardTransferState.ROLLED_BACK);
+            return refusal(from, amount);
+        }
+
+        boolean prepared;
+        try {
+            prepared = destination.prepareCredit(id, to.getAccountId(), amount, creditDescription(transfer));
+        } catch (SQLException e) {
+            rollBack(transfer);
+            throw e;
+        }
+        if (!prepared) {
+            rollBack(transfer);
+            return refusal(to, amount);
+        }
+
+        if (!coordinator.updateState(id, ShardTransferState.PREPARING, ShardTransferState.COMMITTED)) {
+            rollBack(transfer);
+            throw new SQLException("Transfer " + id + " was aborted by recovery before it could commit");
+        }
+
+        Transaction credit = null;
+        try {
+            source.commitLeg(id, ShardTransferDAO.Leg.DEBIT);
+            credit = destination.commitLeg(id, ShardTransferDAO.Leg.CREDIT);
+            coordinator.updateState(id, ShardTransferState.COMMITTED, ShardTransferState.COMPLETED);
+        } catch (SQLException e) {
+            logger.error("Transfer {} is committed but not finished; recovery will complete it", id, e);
+        }
+        debit.setStatus(TransactionStatus.SUCCESS);
+        return PostingResult.transferred(debit, credit);
+    }
+
+    /** Resolves every transfer left between prepare and completion. Returns how many were resolved. */
+    int recover() throws SQLException {
+        ensureTables();
+        int resolved = 0;
+        for (ShardTransferDAO coordinator : transferDAOs) {
+            List<ShardTransfer> unfinished = coordinator.findUnfinished();
+            for (ShardTransfer transfer : unfinished) {
+                logger.warn("Recovering in-doubt transfer {}", transfer);
+                if (transfer.getState() == ShardTransferState.COMMITTED) {
+                    rollForward(transfer);
+                } else {
+                    rollBack(transfer);
+                }
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+
+    private void rollForward(ShardTransfer transfer) throws SQLException {
+        String id = transfer.getTransferId();
+        transferDAOs[router.shardOf(transfer.getFromAccountNumber())].commitLeg(id, ShardTransferDAO.Leg.DEBIT);
+        transferDAOs[router.shardOf(transfer.getToAccountNumber())].commitLeg(id, ShardTransferDAO.Leg.CREDIT);
+        coordinatorFor(transfer).updateState(id, ShardTransferState.COMMITTED, ShardTransferState.COMPLETED);
+    }
+
+    private void rollBack(ShardTransfer transfer) throws SQLException {
+        String id = transfer.getTransferId();
+        ShardTransferDAO coordinator = coordinatorFor(transfer);
+        if (!coordinator.updateState(id, ShardTransferState.PREPARING, ShardTransferState.ABORTED)
+                && coordinator.findState(id) == ShardTransferState.COMMITTED) {
+            // The live transfer reached its decision first and will finish the legs itself.
+            return;
+        }
+        transferDAOs[router.shardOf(transfer.getFromAccountNumber())].abortLeg(id, ShardTransferDAO.Leg.DEBIT);
+        transferDAOs[router.shardOf(transfer.getToAccountNumber())].abortLeg(id, ShardTransferDAO.Leg.CREDIT);
+        coordinator.updateState(id, ShardTransferState.ABORTED, ShardTransferState.ROLLED_BACK);
+    }
+
+    // Classifies a participant's refusal from the account's current state.
+    private PostingResult refusal(Account account, BigDecimal amount) throws SQLException {
+        Account current = accountDAOs[router.shardOf(account.getAccountNumber())]
+                .findByAccountNumberOrNull(account.getAccountNumber());
+        if (current == null) {
+            return PostingResult.rejected(PostingResult.Outcome.ACCOUNT_NOT_FOUND, account.getAccountNumber(), amount);
+        }
+        if (current.getStatus() == AccountStatus.CLOSED) {
+            return PostingResult.rejected(PostingResult.Outcome.ACCOUNT_CLOSED, account.getAccountNumber(), amount);
+        }
+        return PostingResult.insufficientFunds(account.getAccountNumber(), amount, current.getBalance());
+    }
+
+    private ShardTransferDAO coordinatorFor(ShardTransfer transfer) {
+        return transferDAOs[router.shardOf(transfer.getFromAccountNumber())];
+    }
+
+    private static String debitDescription(ShardTransfer transfer) {
+        return "Transfer to " + transfer.getToAccountNumber() + ": " + transfer.getDescription();
+    }
+
+    private static String creditDescription(ShardTransfer transfer) {
+        return "Transfer from " + transfer.getFromAccountNumber() + ": " + transfer.getDescription();
+    }
+
+    private void ensureTables() throws SQLException {
+        if (!tablesReady) {
+            for (ShardTransferDAO dao : transferDAOs) {
+                dao.createTablesIfMissing();
+            }
+            tablesReady = true;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.banking.service;
+
+import java.util.Arrays;
+
+/**
+ * Ring of time buckets with running totals. Advancing clears only the buckets that fell out of the
+ * window since the last call, so updates and checks are O(1) amortised. Not thread-safe; callers
+ * synchronise per account.
+ */
+class SlidingWindow {
+    private final long bucketMillis;
+    private final int buckets;
+    private final long[] counts;
+    private final long[] amounts;
+    private long headEpoch = Long.MIN_VALUE;
+    private long totalCount;
+    private long totalAmount;
+
+    SlidingWindow(long windowMillis, int buckets) {
+        this.bucketMillis = windowMillis / buckets;
+        this.buckets = buckets;
+        this.counts = new long[buckets];
+        this.amounts = new long[buckets];
+    }
+
+    void advance(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        if (headEpoch == Long.MIN_VALUE || epoch - headEpoch >= buckets) {
+            Arrays.fill(counts, 0L);
+            Arrays.fill(amounts, 0L);
+            totalCount = 0;
+            totalAmount = 0;
+            headEpoch = epoch;
+            return;
+        }
+        while (headEpoch < epoch) {
+            headEpoch++;
+            int slot = (int) Math.floorMod(headEpoch, (long) buckets);
+            totalCount -= counts[slot];
+            totalAmount -= amounts[slot];
+            counts[slot] = 0;
+            amounts[slot] = 0;
+        }
+    }
+
+    void add(long timestampMillis, long amountMinor) {
+        long epoch = timestampMillis / bucketMillis;
+        if (epoch > headEpoch) {
+            advance(timestampMillis);
+        } else if (headEpoch - epoch >= buckets) {
+            return;
+        }
+        int slot = (int) Math.floorMod(epoch, (long) buckets);
+        counts[slot]++;
+        amounts[slot] += amountMinor;
+        totalCount++;
+        totalAmount += amountMinor;
+    }
+
+    long getTotalCount() {
+        return totalCount;
+    }
+
+    long getTotalAmount() {
+        return totalAmount;
+    }
+}
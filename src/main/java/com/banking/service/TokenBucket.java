@@ -0,0 +1,40 @@
+package com.banking.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is the theoretical arrival time of the
+ * next request, updated with a single CAS. A request is admitted while that time is no further in the
+ * future than the burst allowance.
+ */
+class TokenBucket {
+    private final AtomicLong theoreticalArrivalNanos;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private volatile long lastAccessNanos;
+
+    TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / ratePerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, burst - 1);
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+        this.lastAccessNanos = nowNanos;
+    }
+
+    boolean tryAcquire(long nowNanos) {
+        lastAccessNanos = nowNanos;
+        while (true) {
+            long tat = theoreticalArrivalNanos.get();
+            long base = Math.max(tat, nowNanos);
+            if (base - nowNanos > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(tat, base + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+}
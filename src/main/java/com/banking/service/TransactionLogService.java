@@ -1,21 +1,28 @@
 package com.banking.service;
 
 import com.banking.config.DatabaseConfig;
+import com.banking.dao.TransactionLogRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
 
-public class TransactionLogService {
+public class TransactionLogService implements TransactionLogRepository {
     private static final Logger logger = LoggerFactory.getLogger(TransactionLogService.class);
     private final DatabaseConfig dbConfig;
 
     public TransactionLogService() {
-        this.dbConfig = DatabaseConfig.getInstance();
+        this(DatabaseConfig.getInstance());
     }
 
+    public TransactionLogService(DatabaseConfig dbConfig) {
+        this.dbConfig = dbConfig;
+    }
+
+    @Override
     public void logTransaction(Long transactionId, String logLevel, String message) {
         String sql = "INSERT INTO transaction_log (transaction_id, log_level, message) VALUES (?, ?, ?)";
 
@@ -34,6 +41,7 @@ public class TransactionLogService {
         }
     }
 
+    @Override
     public void logTransactionWithDetails(Long transactionId, String logLevel,
                                           String message, String ipAddress, String userAgent) {
         String sql = "INSERT INTO transaction_log (transaction_id, log_level, message, ip_address, user_agent) VALUES (?, ?, ?, ?, ?)";
@@ -54,4 +62,28 @@ public class TransactionLogService {
             logger.error("Failed to create detailed transaction log", e);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void logTransactions(List<Long> transactionIds, String logLevel, List<String> messages) {
+        if (transactionIds.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO transaction_log (transaction_id, log_level, message) VALUES (?, ?, ?)";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < transactionIds.size(); i++) {
+                stmt.setLong(1, transactionIds.get(i));
+                stmt.setString(2, logLevel);
+                stmt.setString(3, messages.get(i));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            logger.debug("Transaction logs created for {} transaction(s)", transactionIds.size());
+
+        } catch (SQLException e) {
+            logger.error("Failed to create transaction logs", e);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.banking.service;
+
+import com.banking.exception.VelocityLimitExceededException;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionType;
+import com.banking.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory velocity limits on account debits. Every account keeps one {@link SlidingWindow} per rule;
+ * checks and updates lock only that account. Rules come from {@code velocity.properties} on the classpath
+ * or from the file named by {@code banking.velocity.config}, and can be reloaded at runtime. A reload that
+ * changes a window's length or bucket count starts that account's counts from empty.
+ *
+ * The number of tracked accounts is a soft cap: once it is reached, each new record sweeps a few more
+ * entries for accounts idle longer than the longest window, resuming where the previous sweep stopped.
+ */
+public class VelocityMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(VelocityMonitor.class);
+    private static final int DEFAULT_MAX_ACCOUNTS = 1_000_000;
+    private static final int EVICTION_STEP = 64;
+
+    private final String configFile;
+    private final int maxAccounts;
+    private final ConcurrentHashMap<Long, AccountWindows> accounts = new ConcurrentHashMap<>();
+    private volatile RuleSet ruleSet = new RuleSet(new VelocityRule[0], 0);
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private Iterator<Map.Entry<Long, AccountWindows>> evictionCursor;
+
+    public VelocityMonitor(List<VelocityRule> rules) {
+        this(rules, DEFAULT_MAX_ACCOUNTS);
+    }
+
+    VelocityMonitor(List<VelocityRule> rules, int maxAccounts) {
+        this.configFile = null;
+        this.maxAccounts = maxAccounts;
+        apply(rules);
+    }
+
+    private VelocityMonitor(String configFile, int maxAccounts) {
+        this.configFile = configFile;
+        this.maxAccounts = maxAccounts;
+    }
+
+    public static VelocityMonitor fromConfiguration() {
+        VelocityMonitor monitor = new VelocityMonitor(System.getProperty("banking.velocity.config"),
+                Integer.getInteger("banking.velocity.max.accounts", DEFAULT_MAX_ACCOUNTS));
+        try {
+            monitor.reload();
+        } catch (IOException e) {
+            logger.error("Failed to load velocity rules, velocity checks disabled", e);
+        }
+        return monitor;
+    }
+
+    public synchronized void reload() throws IOException {
+        Properties props = new Properties();
+        if (configFile != null) {
+            try (InputStream input = Files.newInputStream(Paths.get(configFile))) {
+                props.load(input);
+            }
+        } else {
+            try (InputStream input = getClass().getClassLoader().getResourceAsStream("velocity.properties")) {
+                if (input == null) {
+                    logger.warn("velocity.properties not found, velocity checks disabled");
+                    apply(List.of());
+                    return;
+                }
+                props.load(input);
+            }
+        }
+        apply(VelocityRule.fromProperties(props));
+    }
+
+    private synchronized void apply(List<VelocityRule> rules) {
+        RuleSet current = ruleSet;
+        VelocityRule[] next = rules.toArray(new VelocityRule[0]);
+
+        boolean sameGeometry = next.length == current.rules.length;
+        for (int i = 0; sameGeometry && i < next.length; i++) {
+            sameGeometry = next[i].sameWindow(current.rules[i]);
+        }
+        ruleSet = new RuleSet(next, sameGeometry ? current.generation : current.generation + 1);
+        logger.info("Velocity rules loaded: {}", rules);
+    }
+
+    public List<VelocityRule> getRules() {
+        return List.of(ruleSet.rules);
+    }
+
+    public void check(Long accountId, String accountNumber, BigDecimal amount) throws VelocityLimitExceededException {
+        VelocityRule violated = findViolation(accountId, amount);
+        if (violated != null) {
+            throw new VelocityLimitExceededException(violated.getName(), accountNumber);
+        }
+    }
+
+    /** The first rule a debit of {@code amount} would break, or {@code null} if it is within every limit. */
+    public VelocityRule findViolation(Long accountId, BigDecimal amount) {
+        RuleSet rules = ruleSet;
+        if (rules.rules.length == 0) {
+            return null;
+        }
+        long amountMinor = MoneyUtils.toMinorUnits(amount);
+        AccountWindows windows = accounts.get(accountId);
+        if (windows == null) {
+            // Nothing recorded for the account, so only a single debit over a limit can break a rule.
+            for (VelocityRule rule : rules.rules) {
+                if (rule.getMaxCount() < 1 || amountMinor > rule.getMaxAmountMinor()) {
+                    return rule;
+                }
+            }
+            return null;
+        }
+        return windows.check(rules, System.currentTimeMillis(), amountMinor);
+    }
+
+    public void record(Long accountId, BigDecimal amount) {
+        record(accountId, System.currentTimeMillis(), MoneyUtils.toMinorUnits(amount));
+    }
+
+    private void record(Long accountId, long timestampMillis, long amountMinor) {
+        RuleSet rules = ruleSet;
+        if (rules.rules.length == 0) {
+            return;
+        }
+        if (accounts.size() >= maxAccounts) {
+            evictIdle(rules, System.currentTimeMillis());
+        }
+        while (true) {
+            AccountWindows windows = accounts.computeIfAbsent(accountId, id -> new AccountWindows());
+            if (windows.add(rules, timestampMillis, amountMinor)) {
+                return;
+            }
+            // Retired by a sweep that has not removed it yet; take it out and start a fresh one.
+            accounts.remove(accountId, windows);
+        }
+    }
+
+    public void rebuild(List<Transaction> recentTransactions) {
+        accounts.clear();
+        ZoneId zone = ZoneId.systemDefault();
+        int loaded = 0;
+        for (Transaction t : recentTransactions) {
+            if (t.getTransType() == TransactionType.WITHDRAWAL && t.getCreatedAt() != null) {
+                record(t.getAccountId(), t.getCreatedAt().atZone(zone).toInstant().toEpochMilli(),
+                        MoneyUtils.toMinorUnits(t.getAmount()));
+                loaded++;
+            }
+        }
+        logger.info("Velocity windows rebuilt from {} withdrawal(s) across {} account(s)", loaded, accounts.size());
+    }
+
+    public long getLongestWindowMillis() {
+        long longest = 0;
+        for (VelocityRule rule : ruleSet.rules) {
+            longest = Math.max(longest, rule.getWindowMillis());
+        }
+        return longest;
+    }
+
+    // Visits at most EVICTION_STEP entries; a thread that finds another one sweeping skips the step.
+    private void evictIdle(RuleSet rules, long now) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long longest = 0;
+            for (VelocityRule rule : rules.rules) {
+                longest = Math.max(longest, rule.getWindowMillis());
+            }
+            long cutoff = now - longest;
+            for (int visited = 0; visited < EVICTION_STEP; visited++) {
+                if (evictionCursor == null || !evictionCursor.hasNext()) {
+                    evictionCursor = accounts.entrySet().iterator();
+                    if (!evictionCursor.hasNext()) {
+                        return;
+                    }
+                }
+                // Idleness is re-checked under the account's lock, so a record that just reached the
+                // window either lands before it is retired or goes to a fresh one.
+                Map.Entry<Long, AccountWindows> entry = evictionCursor.next();
+                AccountWindows windows = entry.getValue();
+                if (windows.retireIfIdle(cutoff)) {
+                    accounts.remove(entry.getKey(), windows);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    int getTrackedAccounts() {
+        return accounts.size();
+    }
+
+    private static final class RuleSet {
+        final VelocityRule[] rules;
+        final long generation;
+
+        RuleSet(VelocityRule[] rules, long generation) {
+            this.rules = rules;
+            this.generation = generation;
+        }
+    }
+
+    private static final class AccountWindows {
+        private long generation = -1;
+        private SlidingWindow[] windows;
+        private volatile long lastActivityMillis;
+        private boolean retired;
+
+        synchronized VelocityRule check(RuleSet rules, long now, long amountMinor) {
+            ensureWindows(rules);
+            for (int i = 0; i < windows.length; i++) {
+                VelocityRule rule = rules.rules[i];
+                SlidingWindow window = windows[i];
+                window.advance(now);
+                if (window.getTotalCount() + 1 > rule.getMaxCount()
+                        || window.getTotalAmount() + amountMinor > rule.getMaxAmountMinor()) {
+                    return rule;
+                }
+            }
+            return null;
+        }
+
+        // Returns false once the windows are retired; the caller must record into a fresh instance.
+        synchronized boolean add(RuleSet rules, long timestampMillis, long amountMinor) {
+            if (retired) {
+                return false;
+            }
+            ensureWindows(rules);
+            for (SlidingWindow window : windows) {
+                window.add(timestampMillis, amountMinor);
+            }
+            lastActivityMillis = Math.max(lastActivityMillis, timestampMillis);
+            return true;
+        }
+
+        synchronized boolean retireIfIdle(long cutoffMillis) {
+            if (!retired && lastActivityMillis < cutoffMillis) {
+                retired = true;
+            }
+            return retired;
+        }
+
+        private void ensureWindows(RuleSet rules) {
+            if (generation == rules.generation && windows != null && windows.length == rules.rules.length) {
+                return;
+            }
+            windows = new SlidingWindow[rules.rules.length];
+            for (int i = 0; i < windows.length; i++) {
+                windows[i] = new SlidingWindow(rules.rules[i].getWindowMillis(), rules.rules[i].getBuckets());
+            }
+            generation = rules.generation;
+        }
+    }
+}
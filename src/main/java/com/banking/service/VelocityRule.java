@@ -0,0 +1,69 @@
+package com.banking.service;
+
+import com.banking.util.MoneyUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+public class VelocityRule {
+    private final String name;
+    private final long windowMillis;
+    private final int buckets;
+    private final long maxCount;
+    private final long maxAmountMinor;
+
+    public VelocityRule(String name, long windowMillis, int buckets, long maxCount, BigDecimal maxAmount) {
+        if (windowMillis <= 0 || buckets <= 0 || windowMillis % buckets != 0) {
+            throw new IllegalArgumentException("Window must be a positive multiple of the bucket count: " + name);
+        }
+        this.name = name;
+        this.windowMillis = windowMillis;
+        this.buckets = buckets;
+        this.maxCount = maxCount;
+        this.maxAmountMinor = MoneyUtils.toMinorUnits(maxAmount);
+    }
+
+    public static List<VelocityRule> fromProperties(Properties props) {
+        List<VelocityRule> rules = new ArrayList<>();
+        String names = props.getProperty("velocity.rules", "");
+        for (String rawName : names.split(",")) {
+            String name = rawName.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            String prefix = "velocity.rule." + name + ".";
+            rules.add(new VelocityRule(name,
+                    Long.parseLong(props.getProperty(prefix + "window.seconds")) * 1000L,
+                    Integer.parseInt(props.getProperty(prefix + "buckets", "60")),
+                    Long.parseLong(props.getProperty(prefix + "max.count", String.valueOf(Long.MAX_VALUE))),
+                    new BigDecimal(props.getProperty(prefix + "max.amount", "999999999999.99"))));
+        }
+        return rules;
+    }
+
+    public String getName() { return name; }
+
+    public long getWindowMillis() { return windowMillis; }
+
+    public int getBuckets() { return buckets; }
+
+    public long getMaxCount() { return maxCount; }
+
+    public long getMaxAmountMinor() { return maxAmountMinor; }
+
+    boolean sameWindow(VelocityRule other) {
+        return other != null && windowMillis == other.windowMillis && buckets == other.buckets;
+    }
+
+    @Override
+    public String toString() {
+        return "VelocityRule{" +
+                "name='" + name + '\'' +
+                ", windowMillis=" + windowMillis +
+                ", maxCount=" + maxCount +
+                ", maxAmount=" + MoneyUtils.fromMinorUnits(maxAmountMinor) +
+                '}';
+    }
+}
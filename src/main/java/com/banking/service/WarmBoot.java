@@ -0,0 +1,190 @@
+package com.banking.service;
+
+import com.banking.config.ConnectionPool;
+import com.banking.config.DatabaseConfig;
+import com.banking.config.ShardRouter;
+import com.banking.dao.AccountDAO;
+import com.banking.dao.TransactionDAO;
+import com.banking.exception.AccountNotFoundException;
+import com.banking.exception.BankingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Gets the process to steady-state latency before it takes traffic. In parallel it opens every pooled
+ * connection on every shard, prepares the hot statements on them, and looks up the busiest accounts from
+ * the last run's snapshot, which pulls their rows into each shard's database cache and runs the lookup
+ * path hot enough to be compiled. Those lookups are not counted as traffic. The snapshot is rewritten
+ * from {@link HotAccountTracker} at shutdown.
+ */
+public class WarmBoot {
+    private static final Logger logger = LoggerFactory.getLogger(WarmBoot.class);
+
+    private final List<DatabaseConfig> databases;
+    private final AccountService accountService;
+    private final Path snapshotFile;
+    private final int maxAccounts;
+    private final int threads;
+
+    public WarmBoot(List<DatabaseConfig> databases, AccountService accountService, Path snapshotFile,
+                    int maxAccounts, int threads) {
+        this.databases = List.copyOf(databases);
+        this.accountService = accountService;
+        this.snapshotFile = snapshotFile;
+        this.maxAccounts = maxAccounts;
+        this.threads = threads;
+    }
+
+    /** Warm boot over the shards of {@code accountService}, which must be backed by a {@link ShardRouter}. */
+    public static WarmBoot fromSystemProperties(AccountService accountService) {
+        ShardRouter shards = accountService.getShardRouter();
+        if (shards == null) {
+            throw new IllegalArgumentException("Warm boot needs an account service over database shards");
+        }
+        return new WarmBoot(shards.getShards(), accountService,
+                Paths.get(System.getProperty("banking.boot.snapshot", "hot-accounts.snapshot")),
+                Integer.getInteger("banking.boot.accounts", 10_000),
+                Integer.getInteger("banking.boot.threads", Runtime.getRuntime().availableProcessors() * 2));
+    }
+
+    public BootReport run() throws BankingException {
+        long started = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "warm-boot");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            List<String> statements = new ArrayList<>(AccountDAO.hotStatements());
+            statements.addAll(TransactionDAO.hotStatements());
+            List<String> reads = statements.stream()
+                    .filter(sql -> sql.startsWith("SELECT"))
+                    .collect(Collectors.toList());
+
+            AtomicInteger opened = new AtomicInteger();
+            AtomicInteger prepared = new AtomicInteger();
+            List<CompletableFuture<Void>> stages = new ArrayList<>();
+            for (DatabaseConfig database : databases) {
+                stages.add(warmPool(database.getPrimaryPool(), statements, opened, prepared, executor));
+                for (ConnectionPool replica : database.getReplicaPools()) {
+                    stages.add(warmPool(replica, reads, opened, prepared, executor));
+                }
+            }
+
+            List<String> accountNumbers = HotAccountTracker.readSnapshot(snapshotFile, maxAccounts);
+            AtomicInteger loaded = new AtomicInteger();
+            AtomicInteger missing = new AtomicInteger();
+            int chunk = Math.max(1, (accountNumbers.size() + threads - 1) / threads);
+            for (int from = 0; from < accountNumbers.size(); from += chunk) {
+                List<String> slice = accountNumbers.subList(from, Math.min(from + chunk, accountNumbers.size()));
+                stages.add(CompletableFuture.runAsync(() -> preload(slice, loaded, missing), executor));
+            }
+
+            CompletableFuture.allOf(stages.toArray(new CompletableFuture<?>[0])).join();
+
+            BootReport report = new BootReport(opened.get(), prepared.get(), loaded.get(), missing.get(),
+                    (System.nanoTime() - started) / 1_000_000);
+            logger.info("Warm boot completed: {}", report);
+            return report;
+
+        } catch (SQLException | IOException e) {
+            logger.error("Warm boot failed", e);
+            throw new BankingException("Warm boot failed", e);
+        } catch (CompletionException e) {
+            logger.error("Warm boot failed", e.getCause());
+            throw new BankingException("Warm boot failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void saveSnapshot() {
+        HotAccountTracker tracker = accountService.getHotAccountTracker();
+        if (tracker.size() == 0) {
+            return;
+        }
+        try {
+            int written = tracker.writeSnapshot(snapshotFile, maxAccounts);
+            logger.info("Hot account snapshot written: {} account(s) to {}", written, snapshotFile);
+        } catch (IOException e) {
+            logger.error("Failed to write hot account snapshot {}", snapshotFile, e);
+        }
+    }
+
+    private CompletableFuture<Void> warmPool(ConnectionPool pool, List<String> statements,
+                                             AtomicInteger opened, AtomicInteger prepared,
+                                             ExecutorService executor) {
+        List<CompletableFuture<Void>> openers = new ArrayList<>();
+        for (int i = 0; i < Math.min(threads, pool.getMaxSize()); i++) {
+            openers.add(CompletableFuture.runAsync(() -> opened.addAndGet(pool.warmUp(pool.getMaxSize())), executor));
+        }
+        return CompletableFuture.allOf(openers.toArray(new CompletableFuture<?>[0]))
+                .thenRunAsync(() -> prepared.addAndGet(pool.prepareStatements(statements)), executor);
+    }
+
+    private void preload(List<String> accountNumbers, AtomicInteger loaded, AtomicInteger missing) {
+        for (String accountNumber : accountNumbers) {
+            try {
+                accountService.preloadAccount(accountNumber);
+                loaded.incrementAndGet();
+            } catch (AccountNotFoundException e) {
+                missing.incrementAndGet();
+            } catch (BankingException e) {
+                logger.warn("Warm boot could not load account {}", accountNumber, e);
+                missing.incrementAndGet();
+            }
+        }
+    }
+
+    public static class BootReport {
+        private final int connectionsOpened;
+        private final int statementsPrepared;
+        private final int accountsPreloaded;
+        private final int accountsMissing;
+        private final long timeToReadyMillis;
+
+        public BootReport(int connectionsOpened, int statementsPrepared, int accountsPreloaded,
+                          int accountsMissing, long timeToReadyMillis) {
+            this.connectionsOpened = connectionsOpened;
+            this.statementsPrepared = statementsPrepared;
+            this.accountsPreloaded = accountsPreloaded;
+            this.accountsMissing = accountsMissing;
+            this.timeToReadyMillis = timeToReadyMillis;
+        }
+
+        public int getConnectionsOpened() { return connectionsOpened; }
+
+        public int getStatementsPrepared() { return statementsPrepared; }
+
+        public int getAccountsPreloaded() { return accountsPreloaded; }
+
+        public int getAccountsMissing() { return accountsMissing; }
+
+        public long getTimeToReadyMillis() { return timeToReadyMillis; }
+
+        @Override
+        public String toString() {
+            return "BootReport{" +
+                    "connectionsOpened=" + connectionsOpened +
+                    ", statementsPrepared=" + statementsPrepared +
+                    ", accountsPreloaded=" + accountsPreloaded +
+                    ", accountsMissing=" + accountsMissing +
+                    ", timeToReadyMillis=" + timeToReadyMillis +
+                    '}';
+        }
+    }
+}
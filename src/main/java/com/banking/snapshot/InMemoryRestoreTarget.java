@@ -0,0 +1,72 @@
+package com.banking.snapshot;
+
+import com.banking.dao.InMemoryAccountRepository;
+import com.banking.dao.InMemoryTransactionRepository;
+import com.banking.dao.TransactionLogRepository;
+import com.banking.model.Account;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionLogEntry;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Restores a snapshot into the heap repositories, keeping account and transaction ids. Blocks are loaded
+ * one at a time so each account's history keeps its order. Log entries go through the log repository and
+ * so lose their ids and timestamps.
+ */
+public class InMemoryRestoreTarget implements RestoreTarget {
+    private final InMemoryAccountRepository accounts;
+    private final InMemoryTransactionRepository transactions;
+    private final TransactionLogRepository logs;
+
+    public InMemoryRestoreTarget(InMemoryAccountRepository accounts, InMemoryTransactionRepository transactions,
+                                 TransactionLogRepository logs) {
+        this.accounts = accounts;
+        this.transactions = transactions;
+        this.logs = logs;
+    }
+
+    @Override
+    public int getLoaders() {
+        return 1;
+    }
+
+    @Override
+    public void begin() throws SQLException {
+        if (accounts.size() > 0 || transactions.size() > 0) {
+            throw new SQLException("In-memory repositories are not empty; a snapshot only restores into empty ones");
+        }
+    }
+
+    @Override
+    public void loadAccounts(List<Account> rows) throws SQLException {
+        for (Account account : rows) {
+            accounts.restore(account);
+        }
+    }
+
+    @Override
+    public void loadTransactions(List<Transaction> rows) {
+        for (Transaction transaction : rows) {
+            transactions.restore(transaction);
+        }
+    }
+
+    @Override
+    public void loadLogEntries(List<TransactionLogEntry> entries) {
+        for (TransactionLogEntry entry : entries) {
+            if (entry.getIpAddress() == null && entry.getUserAgent() == null) {
+                logs.logTransaction(entry.getTransactionId(), entry.getLogLevel(), entry.getMessage());
+            } else {
+                logs.logTransactionWithDetails(entry.getTransactionId(), entry.getLogLevel(), entry.getMessage(),
+                        entry.getIpAddress(), entry.getUserAgent());
+            }
+        }
+    }
+
+    @Override
+    public void finish() {
+        // Indexes are maintained row by row and ids already advanced.
+    }
+}
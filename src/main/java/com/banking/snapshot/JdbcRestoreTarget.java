@@ -0,0 +1,221 @@
+package com.banking.snapshot;
+
+import com.banking.config.DatabaseConfig;
+import com.banking.model.Account;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionLogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Restores a snapshot into the database behind a {@link DatabaseConfig}. Each block is one batched insert
+ * with explicit ids, committed on its own pooled connection, and several blocks load at once. Secondary
+ * indexes are found through the JDBC metadata and dropped before the load, then rebuilt in one pass at the
+ * end instead of being updated row by row; an index the database will not drop (one backing a foreign key)
+ * stays in place. Finally each table's id sequence is moved past the highest id restored.
+ */
+public class JdbcRestoreTarget implements RestoreTarget {
+    private static final Logger logger = LoggerFactory.getLogger(JdbcRestoreTarget.class);
+
+    private final DatabaseConfig dbConfig;
+    private final int loaders;
+    private final List<DeferredIndex> deferred = new ArrayList<>();
+    private boolean mysql;
+
+    public JdbcRestoreTarget(DatabaseConfig dbConfig, int loaders) {
+        this.dbConfig = dbConfig;
+        this.loaders = loaders;
+    }
+
+    @Override
+    public int getLoaders() {
+        return loaders;
+    }
+
+    @Override
+    public void begin() throws SQLException {
+        try (Connection conn = dbConfig.getConnection()) {
+            DatabaseMetaData metaData = conn.getMetaData();
+            String product = metaData.getDatabaseProductName();
+            mysql = product.contains("MySQL") || product.contains("MariaDB");
+
+            for (SnapshotTable table : SnapshotTable.values()) {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT 1 FROM " + table.getTableName() + " LIMIT 1")) {
+                    if (rs.next()) {
+                        throw new SQLException("Table " + table.getTableName()
+                                + " is not empty; a snapshot only restores into empty tables");
+                    }
+                }
+            }
+            for (SnapshotTable table : SnapshotTable.values()) {
+                dropSecondaryIndexes(conn, metaData, table);
+            }
+        }
+    }
+
+    @Override
+    public void loadAccounts(List<Account> accounts) throws SQLException {
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(insertSql(SnapshotTable.ACCOUNT))) {
+                for (Account account : accounts) {
+                    stmt.setLong(1, account.getAccountId());
+                    stmt.setString(2, account.getAccountNumber());
+                    stmt.setLong(3, account.getCustomerId());
+                    stmt.setString(4, account.getAccountType().name());
+                    stmt.setBigDecimal(5, account.getBalance());
+                    stmt.setString(6, account.getStatus().name());
+                    setTimestamp(stmt, 7, account.getCreatedAt());
+                    setTimestamp(stmt, 8, account.getUpdatedAt());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void loadTransactions(List<Transaction> transactions) throws SQLException {
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(insertSql(SnapshotTable.TRANSACTION))) {
+                for (Transaction transaction : transactions) {
+                    stmt.setLong(1, transaction.getTransactionId());
+                    stmt.setLong(2, transaction.getAccountId());
+                    stmt.setString(3, transaction.getTransType().name());
+                    stmt.setBigDecimal(4, transaction.getAmount());
+                    stmt.setBigDecimal(5, transaction.getBalanceAfter());
+                    stmt.setString(6, transaction.getDescription());
+                    stmt.setString(7, transaction.getStatus().name());
+                    setTimestamp(stmt, 8, transaction.getCreatedAt());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void loadLogEntries(List<TransactionLogEntry> entries) throws SQLException {
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(insertSql(SnapshotTable.TRANSACTION_LOG))) {
+                for (TransactionLogEntry entry : entries) {
+                    stmt.setLong(1, entry.getLogId());
+                    stmt.setLong(2, entry.getTransactionId());
+                    stmt.setString(3, entry.getLogLevel());
+                    stmt.setString(4, entry.getMessage());
+                    stmt.setString(5, entry.getIpAddress());
+                    stmt.setString(6, entry.getUserAgent());
+                    setTimestamp(stmt, 7, entry.getCreatedAt());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void finish() throws SQLException {
+        try (Connection conn = dbConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (DeferredIndex index : deferred) {
+                stmt.execute("CREATE INDEX " + index.name + " ON " + index.table + " ("
+                        + String.join(", ", index.columns) + ")");
+                logger.info("Rebuilt index {} on {}", index.name, index.table);
+            }
+            deferred.clear();
+
+            for (SnapshotTable table : SnapshotTable.values()) {
+                long nextId;
+                try (ResultSet rs = stmt.executeQuery("SELECT MAX(" + table.getIdColumn() + ") FROM "
+                        + table.getTableName())) {
+                    rs.next();
+                    nextId = rs.getLong(1) + 1;
+                }
+                stmt.execute(mysql
+                        ? "ALTER TABLE " + table.getTableName() + " AUTO_INCREMENT = " + nextId
+                        : "ALTER TABLE " + table.getTableName() + " ALTER COLUMN " + table.getIdColumn()
+                                + " RESTART WITH " + nextId);
+            }
+        }
+    }
+
+    private void dropSecondaryIndexes(Connection conn, DatabaseMetaData metaData, SnapshotTable table)
+            throws SQLException {
+        String tableName = table.getTableName();
+        if (metaData.storesUpperCaseIdentifiers()) {
+            tableName = tableName.toUpperCase();
+        } else if (metaData.storesLowerCaseIdentifiers()) {
+            tableName = tableName.toLowerCase();
+        }
+
+        // Rows come back ordered by index name and column position.
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(conn.getCatalog(), conn.getSchema(), tableName, false, false)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                if (name != null && rs.getBoolean("NON_UNIQUE")
+                        && rs.getShort("TYPE") != DatabaseMetaData.tableIndexStatistic) {
+                    indexes.computeIfAbsent(name, k -> new ArrayList<>()).add(rs.getString("COLUMN_NAME"));
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<String>> index : indexes.entrySet()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(mysql
+                        ? "DROP INDEX " + index.getKey() + " ON " + table.getTableName()
+                        : "DROP INDEX " + index.getKey());
+                deferred.add(new DeferredIndex(index.getKey(), table.getTableName(), index.getValue()));
+                logger.info("Deferred index {} on {} until the restore completes", index.getKey(), tableName);
+            } catch (SQLException e) {
+                logger.debug("Keeping index {} on {}: {}", index.getKey(), tableName, e.getMessage());
+            }
+        }
+    }
+
+    private static String insertSql(SnapshotTable table) {
+        return "INSERT INTO " + table.getTableName() + " (" + String.join(", ", table.getColumns()) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(table.getColumns().size(), "?")) + ")";
+    }
+
+    private static void setTimestamp(PreparedStatement stmt, int index, LocalDateTime value) throws SQLException {
+        if (value != null) {
+            stmt.setTimestamp(index, Timestamp.valueOf(value));
+        } else {
+            stmt.setNull(index, Types.TIMESTAMP);
+        }
+    }
+
+    private static final class DeferredIndex {
+        final String name;
+        final String table;
+        final List<String> columns;
+
+        DeferredIndex(String name, String table, List<String> columns) {
+            this.name = name;
+            this.table = table;
+            this.columns = columns;
+        }
+    }
+}
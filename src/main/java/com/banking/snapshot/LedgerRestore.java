@@ -0,0 +1,149 @@
+package com.banking.snapshot;
+
+import com.banking.model.Account;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionLogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Loads a snapshot directory written by {@link LedgerSnapshot} into a {@link RestoreTarget}. Tables are
+ * restored one after another in {@link SnapshotTable} order so foreign keys always resolve. Within a table
+ * the calling thread reads and checks blocks while the target's loaders insert the ones before; at most two
+ * blocks per loader are held decoded at once.
+ */
+public class LedgerRestore {
+    private static final Logger logger = LoggerFactory.getLogger(LedgerRestore.class);
+
+    private final Path directory;
+
+    public LedgerRestore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Restores every table and returns the rows loaded per table. The target's {@code finish} runs even when
+     * loading fails, so a database gets its deferred indexes back either way.
+     */
+    public Map<SnapshotTable, Long> restoreInto(RestoreTarget target) throws IOException, SQLException {
+        for (SnapshotTable table : SnapshotTable.values()) {
+            if (!Files.isRegularFile(directory.resolve(table.getFileName()))) {
+                throw new IOException("Snapshot " + directory + " has no " + table.getFileName());
+            }
+        }
+
+        int loaders = Math.max(1, target.getLoaders());
+        ExecutorService executor = loaders > 1 ? Executors.newFixedThreadPool(loaders, r -> {
+            Thread t = new Thread(r, "ledger-restore");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+
+        target.begin();
+        Map<SnapshotTable, Long> counts = new EnumMap<>(SnapshotTable.class);
+        try {
+            for (SnapshotTable table : SnapshotTable.values()) {
+                counts.put(table, restoreTable(table, target, executor, loaders));
+            }
+        } catch (IOException | SQLException | RuntimeException e) {
+            try {
+                target.finish();
+            } catch (SQLException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        target.finish();
+        return counts;
+    }
+
+    private long restoreTable(SnapshotTable table, RestoreTarget target, ExecutorService executor, int loaders)
+            throws IOException, SQLException {
+        Path file = directory.resolve(table.getFileName());
+        Semaphore inFlight = new Semaphore(loaders * 2);
+        List<Future<?>> pending = new ArrayList<>();
+
+        try (SnapshotReader reader = new SnapshotReader(file, table)) {
+            List<?> rows;
+            while ((rows = reader.nextBlock()) != null) {
+                if (executor == null) {
+                    load(target, table, rows);
+                    continue;
+                }
+                inFlight.acquire();
+                List<?> block = rows;
+                pending.add(executor.submit(() -> {
+                    try {
+                        load(target, table, block);
+                        return null;
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+                awaitDone(pending, false);
+            }
+            // Every row of this table must be in before the next table's rows can refer to it.
+            awaitDone(pending, true);
+            logger.info("Restored {} {} row(s) from {}", reader.getRecordCount(), table.getTableName(), file);
+            return reader.getRecordCount();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Snapshot restore interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new IOException("Snapshot restore failed", e.getCause());
+        } finally {
+            for (Future<?> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    // Collects finished loads so a failed one stops the restore without reading the rest of the file.
+    private static void awaitDone(List<Future<?>> pending, boolean all)
+            throws InterruptedException, ExecutionException {
+        Iterator<Future<?>> it = pending.iterator();
+        while (it.hasNext()) {
+            Future<?> future = it.next();
+            if (all || future.isDone()) {
+                future.get();
+                it.remove();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void load(RestoreTarget target, SnapshotTable table, List<?> rows) throws SQLException {
+        switch (table) {
+            case ACCOUNT:
+                target.loadAccounts((List<Account>) rows);
+                break;
+            case TRANSACTION:
+                target.loadTransactions((List<Transaction>) rows);
+                break;
+            default:
+                target.loadLogEntries((List<TransactionLogEntry>) rows);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.banking.snapshot;
+
+import com.banking.config.DatabaseConfig;
+import com.banking.model.Account;
+import com.banking.model.AccountStatus;
+import com.banking.model.AccountType;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionLogEntry;
+import com.banking.model.TransactionStatus;
+import com.banking.model.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Exports the account, transaction and transaction_log tables into a snapshot directory, one file per
+ * table written by its own thread. Each table is read in keyset pages up to an id mark taken before any
+ * rows are read; the marks are taken child table first, so every log row and transaction exported refers
+ * to a row that is exported too. The tables are not read in one database transaction, so balances are only
+ * a point-in-time copy when nothing posts during the export.
+ *
+ * Usage: {@code LedgerSnapshot export|restore [directory]}; restore loads into empty tables.
+ */
+public class LedgerSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(LedgerSnapshot.class);
+    private static final int DEFAULT_PAGE_SIZE = 10_000;
+    private static final int DEFAULT_LOADERS = 4;
+
+    private final DatabaseConfig dbConfig;
+    private final Path directory;
+    private final int pageSize;
+
+    public LedgerSnapshot(DatabaseConfig dbConfig, Path directory, int pageSize) {
+        this.dbConfig = dbConfig;
+        this.directory = directory;
+        this.pageSize = pageSize;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || !("export".equals(args[0]) || "restore".equals(args[0]))) {
+            System.err.println("Usage: LedgerSnapshot export|restore [directory]");
+            System.exit(1);
+        }
+        Path directory = Paths.get(args.length > 1 ? args[1] : System.getProperty("banking.snapshot.dir", "snapshot"));
+        DatabaseConfig dbConfig = DatabaseConfig.getInstance();
+
+        long started = System.nanoTime();
+        Map<SnapshotTable, Long> counts;
+        if ("export".equals(args[0])) {
+            counts = new LedgerSnapshot(dbConfig, directory,
+                    Integer.getInteger("banking.snapshot.page.size", DEFAULT_PAGE_SIZE)).export();
+        } else {
+            counts = new LedgerRestore(directory).restoreInto(new JdbcRestoreTarget(dbConfig,
+                    Integer.getInteger("banking.snapshot.loaders", DEFAULT_LOADERS)));
+        }
+        System.out.printf("%s %s in %.2f s: %s%n", args[0].equals("export") ? "Exported to" : "Restored from",
+                directory, (System.nanoTime() - started) / 1e9, counts);
+        dbConfig.shutdown();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /** Writes every table's file and returns the rows written per table. */
+    public Map<SnapshotTable, Long> export() throws SQLException, IOException {
+        Files.createDirectories(directory);
+        SnapshotTable[] tables = SnapshotTable.values();
+        long[] upTo = new long[tables.length];
+        try (Connection conn = dbConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (int i = tables.length - 1; i >= 0; i--) {
+                try (ResultSet rs = stmt.executeQuery("SELECT MAX(" + tables[i].getIdColumn() + ") FROM "
+                        + tables[i].getTableName())) {
+                    rs.next();
+                    upTo[i] = rs.getLong(1);
+                }
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(tables.length, r -> {
+            Thread t = new Thread(r, "ledger-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < tables.length; i++) {
+                SnapshotTable table = tables[i];
+                long mark = upTo[i];
+                futures.add(executor.submit(() -> exportTable(table, mark)));
+            }
+            Map<SnapshotTable, Long> counts = new EnumMap<>(SnapshotTable.class);
+            for (int i = 0; i < tables.length; i++) {
+                counts.put(tables[i], futures.get(i).get());
+            }
+            return counts;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Snapshot export interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new IOException("Snapshot export failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long exportTable(SnapshotTable table, long upTo) throws SQLException, IOException {
+        String id = table.getIdColumn();
+        String sql = "SELECT " + String.join(", ", table.getColumns()) + " FROM " + table.getTableName()
+                + " WHERE " + id + " > ? AND " + id + " <= ? ORDER BY " + id + " LIMIT ?";
+
+        try (SnapshotWriter writer = new SnapshotWriter(directory.resolve(table.getFileName()), table);
+             Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            long lastId = 0;
+            int rows;
+            do {
+                stmt.setLong(1, lastId);
+                stmt.setLong(2, upTo);
+                stmt.setInt(3, pageSize);
+                rows = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        lastId = write(writer, rs);
+                        rows++;
+                    }
+                }
+            } while (rows == pageSize);
+
+            writer.commit();
+            logger.info("Exported {} {} row(s) to {}", writer.getRecordCount(), table.getTableName(),
+                    directory.resolve(table.getFileName()));
+            return writer.getRecordCount();
+        }
+    }
+
+    // Columns are read by position, in SnapshotTable order. Returns the row's id.
+    private static long write(SnapshotWriter writer, ResultSet rs) throws SQLException, IOException {
+        switch (writer.getTable()) {
+            case ACCOUNT: {
+                Account account = new Account();
+                account.setAccountId(rs.getLong(1));
+                account.setAccountNumber(rs.getString(2));
+                account.setCustomerId(rs.getLong(3));
+                account.setAccountType(AccountType.valueOf(rs.getString(4)));
+                account.setBalance(rs.getBigDecimal(5));
+                account.setStatus(AccountStatus.valueOf(rs.getString(6)));
+                account.setCreatedAt(toLocalDateTime(rs.getTimestamp(7)));
+                account.setUpdatedAt(toLocalDateTime(rs.getTimestamp(8)));
+                writer.write(account);
+                return account.getAccountId();
+            }
+            case TRANSACTION: {
+                Transaction transaction = new Transaction();
+                transaction.setTransactionId(rs.getLong(1));
+                transaction.setAccountId(rs.getLong(2));
+                transaction.setTransType(TransactionType.valueOf(rs.getString(3)));
+                transaction.setAmount(rs.getBigDecimal(4));
+                transaction.setBalanceAfter(rs.getBigDecimal(5));
+                transaction.setDescription(rs.getString(6));
+                transaction.setStatus(TransactionStatus.valueOf(rs.getString(7)));
+                transaction.setCreatedAt(toLocalDateTime(rs.getTimestamp(8)));
+                writer.write(transaction);
+                return transaction.getTransactionId();
+            }
+            default: {
+                TransactionLogEntry entry = new TransactionLogEntry();
+                entry.setLogId(rs.getLong(1));
+                entry.setTransactionId(rs.getLong(2));
+                entry.setLogLevel(rs.getString(3));
+                entry.setMessage(rs.getString(4));
+                entry.setIpAddress(rs.getString(5));
+                entry.setUserAgent(rs.getString(6));
+                entry.setCreatedAt(toLocalDateTime(rs.getTimestamp(7)));
+                writer.write(entry);
+                return entry.getLogId();
+            }
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
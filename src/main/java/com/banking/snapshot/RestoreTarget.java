@@ -0,0 +1,30 @@
+package com.banking.snapshot;
+
+import com.banking.model.Account;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionLogEntry;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Where {@link LedgerRestore} loads a snapshot. Rows arrive one decoded block at a time, table by table in
+ * {@link SnapshotTable} order, with up to {@link #getLoaders()} load calls running at once.
+ */
+public interface RestoreTarget {
+
+    /** Concurrent load calls the target accepts; 1 delivers every table's blocks in file order. */
+    int getLoaders();
+
+    /** Called once before any rows; fails if the target already holds ledger rows. */
+    void begin() throws SQLException;
+
+    void loadAccounts(List<Account> accounts) throws SQLException;
+
+    void loadTransactions(List<Transaction> transactions) throws SQLException;
+
+    void loadLogEntries(List<TransactionLogEntry> entries) throws SQLException;
+
+    /** Called once after the last table has loaded. */
+    void finish() throws SQLException;
+}
@@ -0,0 +1,164 @@
+package com.banking.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * Layout shared by {@link SnapshotWriter} and {@link SnapshotReader}. A table file is:
+ * <pre>
+ *   int magic "LSNP", short version
+ *   frame: int length, int record count, int CRC32C of the payload, then the payload
+ *     the first frame is the header: table name, then each enum's constant names in ordinal order
+ *     every other frame is a block of records, each a varint length followed by its fields
+ *   end frame (length 0, count 0, crc 0), long total records, int magic
+ * </pre>
+ * Ids are unsigned varints, amounts zigzag varints of minor units, strings a varint of length + 1
+ * (0 for null) and UTF-8 bytes, enums a byte of ordinal + 1 and timestamps a varint of zigzag epoch
+ * microseconds (read as UTC) + 1. Fields a reader does not know are skipped using the record length.
+ */
+final class SnapshotFormat {
+    static final int MAGIC = 0x4C534E50; // "LSNP"
+    static final short VERSION = 1;
+    static final int PREAMBLE_SIZE = 6;
+    static final int FRAME_SIZE = 12;
+    static final int TRAILER_SIZE = 12;
+    static final int BLOCK_SIZE = 256 * 1024;
+
+    private SnapshotFormat() {}
+
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of snapshot file");
+            }
+        }
+    }
+
+    /** Growable byte array with the varint encodings above. */
+    static final class Buffer {
+        byte[] bytes;
+        int length;
+        int position;
+
+        Buffer(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void clear() {
+            length = 0;
+            position = 0;
+        }
+
+        void ensureCapacity(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        void putBytes(byte[] source, int offset, int count) {
+            ensureCapacity(count);
+            System.arraycopy(source, offset, bytes, length, count);
+            length += count;
+        }
+
+        void putVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void putZigzag(long value) {
+            putVarint((value << 1) ^ (value >> 63));
+        }
+
+        void putString(String value) {
+            if (value == null) {
+                putVarint(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            putVarint(utf8.length + 1L);
+            putBytes(utf8, 0, utf8.length);
+        }
+
+        void putEnum(Enum<?> value) {
+            ensureCapacity(1);
+            bytes[length++] = (byte) (value != null ? value.ordinal() + 1 : 0);
+        }
+
+        void putTimestamp(LocalDateTime value) {
+            if (value == null) {
+                putVarint(0);
+                return;
+            }
+            long micros = ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), value);
+            putVarint(((micros << 1) ^ (micros >> 63)) + 1);
+        }
+
+        long getVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= length) {
+                    throw new IOException("Truncated snapshot record");
+                }
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in snapshot record");
+        }
+
+        long getZigzag() throws IOException {
+            long raw = getVarint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        String getString() throws IOException {
+            int size = (int) getVarint() - 1;
+            if (size < 0) {
+                return null;
+            }
+            if (size > length - position) {
+                throw new IOException("Truncated snapshot record");
+            }
+            String value = new String(bytes, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+
+        int getEnumOrdinal() throws IOException {
+            if (position >= length) {
+                throw new IOException("Truncated snapshot record");
+            }
+            return (bytes[position++] & 0xFF) - 1;
+        }
+
+        LocalDateTime getTimestamp() throws IOException {
+            long raw = getVarint();
+            if (raw == 0) {
+                return null;
+            }
+            raw -= 1;
+            long micros = (raw >>> 1) ^ -(raw & 1);
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                    (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.banking.snapshot;
+
+import com.banking.model.Account;
+import com.banking.model.AccountStatus;
+import com.banking.model.AccountType;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionLogEntry;
+import com.banking.model.TransactionStatus;
+import com.banking.model.TransactionType;
+import com.banking.util.MoneyUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads a snapshot file written by {@link SnapshotWriter} one block at a time. Every block is checked
+ * against its CRC32C before a row is decoded, and the trailer's record count against the rows read, so a
+ * damaged or truncated file fails with an {@link IOException} instead of restoring part of a table.
+ */
+public class SnapshotReader implements Closeable {
+    private final Path file;
+    private final SnapshotTable table;
+    private final FileChannel channel;
+    private final SnapshotFormat.Buffer block = new SnapshotFormat.Buffer(SnapshotFormat.BLOCK_SIZE + 4096);
+    private final SnapshotFormat.Buffer record = new SnapshotFormat.Buffer(0);
+    private final ByteBuffer frame = ByteBuffer.allocate(SnapshotFormat.FRAME_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private final Enum<?>[][] enums;
+    private long records;
+    private boolean finished;
+
+    public SnapshotReader(Path file, SnapshotTable table) throws IOException {
+        this.file = file;
+        this.table = table;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer preamble = ByteBuffer.allocate(SnapshotFormat.PREAMBLE_SIZE);
+            SnapshotFormat.readFully(channel, preamble);
+            preamble.flip();
+            if (preamble.getInt() != SnapshotFormat.MAGIC) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            short version = preamble.getShort();
+            if (version != SnapshotFormat.VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            if (readFrame() < 0) {
+                throw new IOException("Snapshot file has no header: " + file);
+            }
+            this.enums = readHeader();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public SnapshotTable getTable() {
+        return table;
+    }
+
+    /** Rows read so far. */
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Decodes the next block into {@link Account}, {@link Transaction} or {@link TransactionLogEntry} rows,
+     * depending on the table. Returns null once the trailer has been read and checked.
+     */
+    public List<?> nextBlock() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int count = readFrame();
+        if (count < 0) {
+            readTrailer();
+            finished = true;
+            return null;
+        }
+
+        List<Object> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int size = (int) block.getVarint();
+            if (size < 0 || size > block.length - block.position) {
+                throw new IOException("Corrupt record length in " + file);
+            }
+            // Decode from a view of just this record, so fields added by a later version are skipped.
+            record.bytes = block.bytes;
+            record.position = block.position;
+            record.length = block.position + size;
+            rows.add(decode());
+            block.position += size;
+        }
+        if (block.position != block.length) {
+            throw new IOException("Block holds more than its " + count + " record(s) in " + file);
+        }
+        records += count;
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Object decode() throws IOException {
+        switch (table) {
+            case ACCOUNT: {
+                Account account = new Account();
+                account.setAccountId(record.getVarint());
+                account.setAccountNumber(record.getString());
+                account.setCustomerId(record.getVarint());
+                account.setAccountType((AccountType) getEnum(0));
+                account.setBalance(MoneyUtils.fromMinorUnits(record.getZigzag()));
+                account.setStatus((AccountStatus) getEnum(1));
+                account.setCreatedAt(record.getTimestamp());
+                account.setUpdatedAt(record.getTimestamp());
+                return account;
+            }
+            case TRANSACTION: {
+                Transaction transaction = new Transaction();
+                transaction.setTransactionId(record.getVarint());
+                transaction.setAccountId(record.getVarint());
+                transaction.setTransType((TransactionType) getEnum(0));
+                transaction.setAmount(MoneyUtils.fromMinorUnits(record.getZigzag()));
+                transaction.setBalanceAfter(MoneyUtils.fromMinorUnits(record.getZigzag()));
+                transaction.setDescription(record.getString());
+                transaction.setStatus((TransactionStatus) getEnum(1));
+                transaction.setCreatedAt(record.getTimestamp());
+                return transaction;
+            }
+            default: {
+                TransactionLogEntry entry = new TransactionLogEntry();
+                entry.setLogId(record.getVarint());
+                entry.setTransactionId(record.getVarint());
+                entry.setLogLevel(record.getString());
+                entry.setMessage(record.getString());
+                entry.setIpAddress(record.getString());
+                entry.setUserAgent(record.getString());
+                entry.setCreatedAt(record.getTimestamp());
+                return entry;
+            }
+        }
+    }
+
+    private Enum<?> getEnum(int dictionary) throws IOException {
+        int ordinal = record.getEnumOrdinal();
+        if (ordinal < 0) {
+            return null;
+        }
+        if (ordinal >= enums[dictionary].length) {
+            throw new IOException("Enum ordinal " + ordinal + " out of range in " + file);
+        }
+        return enums[dictionary][ordinal];
+    }
+
+    // Maps each enum's stored ordinals to today's constants by name.
+    private Enum<?>[][] readHeader() throws IOException {
+        String tableName = block.getString();
+        if (!table.getTableName().equals(tableName)) {
+            throw new IOException("Expected a " + table.getTableName() + " snapshot but " + file
+                    + " holds " + tableName);
+        }
+        List<Class<? extends Enum<?>>> types = table.getEnums();
+        int stored = (int) block.getVarint();
+        if (stored != types.size()) {
+            throw new IOException("Snapshot header lists " + stored + " enum(s), expected " + types.size());
+        }
+        Enum<?>[][] mapped = new Enum<?>[stored][];
+        for (int i = 0; i < stored; i++) {
+            Enum<?>[] constants = types.get(i).getEnumConstants();
+            mapped[i] = new Enum<?>[(int) block.getVarint()];
+            for (int ordinal = 0; ordinal < mapped[i].length; ordinal++) {
+                String name = block.getString();
+                for (Enum<?> constant : constants) {
+                    if (constant.name().equals(name)) {
+                        mapped[i][ordinal] = constant;
+                    }
+                }
+                if (mapped[i][ordinal] == null) {
+                    throw new IOException("Unknown " + types.get(i).getSimpleName() + " " + name + " in " + file);
+                }
+            }
+        }
+        return mapped;
+    }
+
+    // Loads the next frame's payload into the block buffer; returns its record count, or -1 at the end frame.
+    private int readFrame() throws IOException {
+        frame.clear();
+        SnapshotFormat.readFully(channel, frame);
+        frame.flip();
+        int length = frame.getInt();
+        int count = frame.getInt();
+        int checksum = frame.getInt();
+        if (length == 0) {
+            return -1;
+        }
+        if (length < 0 || count < 0) {
+            throw new IOException("Corrupt block frame in " + file);
+        }
+
+        block.clear();
+        block.ensureCapacity(length);
+        SnapshotFormat.readFully(channel, ByteBuffer.wrap(block.bytes, 0, length));
+        block.length = length;
+        crc.reset();
+        crc.update(block.bytes, 0, length);
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Checksum mismatch in the block after record " + records + " of " + file);
+        }
+        return count;
+    }
+
+    private void readTrailer() throws IOException {
+        ByteBuffer trailer = ByteBuffer.allocate(SnapshotFormat.TRAILER_SIZE);
+        SnapshotFormat.readFully(channel, trailer);
+        trailer.flip();
+        long expected = trailer.getLong();
+        if (trailer.getInt() != SnapshotFormat.MAGIC || expected != records) {
+            throw new IOException("Snapshot " + file + " should hold " + expected + " record(s) but "
+                    + records + " were read");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.banking.snapshot;
+
+import com.banking.model.AccountStatus;
+import com.banking.model.AccountType;
+import com.banking.model.TransactionStatus;
+import com.banking.model.TransactionType;
+
+import java.util.List;
+
+/**
+ * The tables a snapshot covers, in the order they must be restored so every foreign key points at a row
+ * that is already there. Each table goes to its own file; the enums named here have their constants written
+ * into that file's header so a reader maps stored ordinals by name.
+ */
+public enum SnapshotTable {
+    ACCOUNT("account", List.of("account_id", "account_number", "customer_id", "account_type", "balance",
+            "status", "created_at", "updated_at"), List.of(AccountType.class, AccountStatus.class)),
+    TRANSACTION("transaction", List.of("transaction_id", "account_id", "trans_type", "amount", "balance_after",
+            "description", "status", "created_at"), List.of(TransactionType.class, TransactionStatus.class)),
+    TRANSACTION_LOG("transaction_log", List.of("log_id", "transaction_id", "log_level", "message", "ip_address",
+            "user_agent", "created_at"), List.of());
+
+    private final String tableName;
+    private final List<String> columns;
+    private final List<Class<? extends Enum<?>>> enums;
+
+    SnapshotTable(String tableName, List<String> columns, List<Class<? extends Enum<?>>> enums) {
+        this.tableName = tableName;
+        this.columns = columns;
+        this.enums = enums;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /** The primary key comes first; snapshot records hold the columns in this order. */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public String getIdColumn() {
+        return columns.get(0);
+    }
+
+    public String getFileName() {
+        return tableName + ".snap";
+    }
+
+    List<Class<? extends Enum<?>>> getEnums() {
+        return enums;
+    }
+}
@@ -0,0 +1,166 @@
+package com.banking.snapshot;
+
+import com.banking.model.Account;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionLogEntry;
+import com.banking.util.MoneyUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Writes one table's rows into a snapshot file in the {@link SnapshotFormat} layout. Rows are encoded into
+ * a block buffer that goes to the channel with its checksum every {@link SnapshotFormat#BLOCK_SIZE} bytes.
+ * Everything is written to a temporary file that {@link #commit()} forces and moves into place, so a
+ * snapshot file either holds every row it was given or does not exist; closing without committing
+ * deletes the temporary file.
+ */
+public class SnapshotWriter implements Closeable {
+    private final SnapshotTable table;
+    private final Path file;
+    private final Path temp;
+    private final FileChannel channel;
+    private final SnapshotFormat.Buffer block = new SnapshotFormat.Buffer(SnapshotFormat.BLOCK_SIZE + 4096);
+    private final SnapshotFormat.Buffer record = new SnapshotFormat.Buffer(512);
+    private final ByteBuffer frame = ByteBuffer.allocate(SnapshotFormat.FRAME_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private int blockRecords;
+    private long records;
+    private boolean committed;
+
+    public SnapshotWriter(Path file, SnapshotTable table) throws IOException {
+        this.table = table;
+        this.file = file;
+        this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        writeHeader();
+    }
+
+    public SnapshotTable getTable() {
+        return table;
+    }
+
+    public long getRecordCount() {
+        return records;
+    }
+
+    public void write(Account account) throws IOException {
+        expect(SnapshotTable.ACCOUNT);
+        record.clear();
+        record.putVarint(account.getAccountId());
+        record.putString(account.getAccountNumber());
+        record.putVarint(account.getCustomerId());
+        record.putEnum(account.getAccountType());
+        record.putZigzag(MoneyUtils.toMinorUnits(account.getBalance()));
+        record.putEnum(account.getStatus());
+        record.putTimestamp(account.getCreatedAt());
+        record.putTimestamp(account.getUpdatedAt());
+        append();
+    }
+
+    public void write(Transaction transaction) throws IOException {
+        expect(SnapshotTable.TRANSACTION);
+        record.clear();
+        record.putVarint(transaction.getTransactionId());
+        record.putVarint(transaction.getAccountId());
+        record.putEnum(transaction.getTransType());
+        record.putZigzag(MoneyUtils.toMinorUnits(transaction.getAmount()));
+        record.putZigzag(MoneyUtils.toMinorUnits(transaction.getBalanceAfter()));
+        record.putString(transaction.getDescription());
+        record.putEnum(transaction.getStatus());
+        record.putTimestamp(transaction.getCreatedAt());
+        append();
+    }
+
+    public void write(TransactionLogEntry entry) throws IOException {
+        expect(SnapshotTable.TRANSACTION_LOG);
+        record.clear();
+        record.putVarint(entry.getLogId());
+        record.putVarint(entry.getTransactionId());
+        record.putString(entry.getLogLevel());
+        record.putString(entry.getMessage());
+        record.putString(entry.getIpAddress());
+        record.putString(entry.getUserAgent());
+        record.putTimestamp(entry.getCreatedAt());
+        append();
+    }
+
+    /** Writes the last block and the trailer, forces the file to disk and moves it into place. */
+    public void commit() throws IOException {
+        flushBlock();
+        writeFrame(0, 0, 0);
+        writeFully(ByteBuffer.allocate(SnapshotFormat.TRAILER_SIZE).putLong(records).putInt(SnapshotFormat.MAGIC).flip());
+        channel.force(true);
+        channel.close();
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        committed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        writeFully(ByteBuffer.allocate(SnapshotFormat.PREAMBLE_SIZE)
+                .putInt(SnapshotFormat.MAGIC).putShort(SnapshotFormat.VERSION).flip());
+        block.putString(table.getTableName());
+        block.putVarint(table.getEnums().size());
+        for (Class<? extends Enum<?>> type : table.getEnums()) {
+            Enum<?>[] constants = type.getEnumConstants();
+            block.putVarint(constants.length);
+            for (Enum<?> constant : constants) {
+                block.putString(constant.name());
+            }
+        }
+        flushBlock();
+    }
+
+    private void expect(SnapshotTable rowTable) {
+        if (table != rowTable) {
+            throw new IllegalArgumentException("Cannot write " + rowTable + " rows to a " + table + " snapshot");
+        }
+    }
+
+    private void append() throws IOException {
+        block.putVarint(record.length);
+        block.putBytes(record.bytes, 0, record.length);
+        blockRecords++;
+        records++;
+        if (block.length >= SnapshotFormat.BLOCK_SIZE) {
+            flushBlock();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (block.length == 0) {
+            return;
+        }
+        crc.reset();
+        crc.update(block.bytes, 0, block.length);
+        writeFrame(block.length, blockRecords, (int) crc.getValue());
+        writeFully(ByteBuffer.wrap(block.bytes, 0, block.length));
+        block.clear();
+        blockRecords = 0;
+    }
+
+    private void writeFrame(int length, int count, int checksum) throws IOException {
+        frame.clear();
+        writeFully(frame.putInt(length).putInt(count).putInt(checksum).flip());
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        SnapshotFormat.writeFully(channel, buffer);
+    }
+}
@@ -0,0 +1,179 @@
+package com.banking.tools;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Scans the rolling application logs in parallel and prints operation counts, failure rates,
+ * error categories, per-account activity and the distribution of gaps between events on a thread.
+ *
+ * Usage: {@code LogAnalyzer [file-or-directory ...]} (defaults to {@code logs}).
+ */
+public class LogAnalyzer {
+    private static final Logger logger = LoggerFactory.getLogger(LogAnalyzer.class);
+
+    private static final long CHUNK_SIZE = 64L * 1024 * 1024;
+    // Room for the stack trace of the last event in a chunk.
+    private static final long TAIL_SIZE = 1024L * 1024;
+    private static final int TOP_ACCOUNTS = 20;
+
+    private final int parallelism;
+
+    public LogAnalyzer(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        if (args.length == 0) {
+            inputs.add(Paths.get("logs"));
+        } else {
+            for (String arg : args) {
+                inputs.add(Paths.get(arg));
+            }
+        }
+
+        LogAnalyzer analyzer = new LogAnalyzer(Runtime.getRuntime().availableProcessors());
+        long started = System.nanoTime();
+        LogStats stats = analyzer.analyze(collectLogFiles(inputs));
+        long elapsedNanos = System.nanoTime() - started;
+
+        printReport(stats, elapsedNanos, System.out);
+    }
+
+    static List<Path> collectLogFiles(List<Path> inputs) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (Stream<Path> stream = Files.list(input)) {
+                    stream.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith("banking-system") && name.endsWith(".log");
+                    }).sorted().forEach(files::add);
+                }
+            } else {
+                files.add(input);
+            }
+        }
+        return files;
+    }
+
+    public LogStats analyze(List<Path> files) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<LogStats>> futures = new ArrayList<>();
+            LogStats total = new LogStats();
+
+            for (Path file : files) {
+                long size = Files.size(file);
+                total.files++;
+                for (long start = 0; start < size; start += CHUNK_SIZE) {
+                    long chunkStart = start;
+                    long chunkEnd = Math.min(size, start + CHUNK_SIZE);
+                    futures.add(executor.submit(() -> parseChunk(file, size, chunkStart, chunkEnd)));
+                }
+            }
+
+            for (Future<LogStats> future : futures) {
+                total.merge(future.get());
+            }
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Log analysis interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Log analysis failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LogStats parseChunk(Path file, long fileSize, long start, long end) throws IOException {
+        // Map one byte before the chunk so the parser can tell whether it starts on a line boundary.
+        long regionStart = start == 0 ? 0 : start - 1;
+        long regionEnd = Math.min(fileSize, end + TAIL_SIZE);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                    regionStart, regionEnd - regionStart);
+            int offset = (int) (start - regionStart);
+            LogStats stats = new LogChunkParser(buffer, offset, offset + (int) (end - start)).parse();
+            logger.debug("Parsed {} [{}, {}): {} events", file, start, end, stats.events);
+            return stats;
+        }
+    }
+
+    static void printReport(LogStats stats, long elapsedNanos, PrintStream out) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        double megabytes = stats.bytes / (1024.0 * 1024.0);
+
+        out.println("========================================");
+        out.println("   LOG ANALYSIS REPORT");
+        out.println("========================================");
+        out.printf("Files: %d, Size: %.1f MB, Lines: %d, Events: %d%n",
+                stats.files, megabytes, stats.lines, stats.events);
+        out.printf("Elapsed: %.3f s (%.1f MB/s)%n", seconds, seconds > 0 ? megabytes / seconds : 0.0);
+        out.println("Events by level: " + stats.eventsByLevel);
+
+        out.println("\n--- Operations ---");
+        out.println(String.format("%-16s %10s %10s %10s", "Operation", "Completed", "Failed", "Fail %"));
+        stats.operations.forEach((op, counts) -> {
+            long total = counts[0] + counts[1];
+            double failRate = total > 0 ? counts[1] * 100.0 / total : 0.0;
+            out.println(String.format("%-16s %10d %10d %9.2f%%", op, counts[0], counts[1], failRate));
+        });
+
+        out.println("\n--- Error Categories ---");
+        stats.errorCategories.forEach((category, count) -> {
+            out.println(String.format("%-64s %8d", category, count));
+            Map<String, Long> accounts = stats.accountErrors.get(category);
+            if (accounts != null) {
+                out.println("    accounts: " + accounts);
+            }
+        });
+
+        out.println("\n--- Most Active Accounts ---");
+        stats.accountActivity.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Map<String, Long>> e) ->
+                        e.getValue().values().stream().mapToLong(Long::longValue).sum()).reversed())
+                .limit(TOP_ACCOUNTS)
+                .forEach(e -> out.println(String.format("%-20s %s", e.getKey(), e.getValue())));
+
+        out.println("\n--- Inter-event Gaps (same thread) ---");
+        if (stats.gapCount == 0) {
+            out.println("No consecutive events found.");
+        } else {
+            out.printf("Count: %d, Avg: %.2f s, Max: %d s%n", stats.gapCount,
+                    stats.gapSumSeconds / (double) stats.gapCount, stats.gapMaxSeconds);
+            long lower = 0;
+            List<String> buckets = new ArrayList<>();
+            for (int i = 0; i < LogStats.GAP_BUCKET_LIMITS.length; i++) {
+                long upper = LogStats.GAP_BUCKET_LIMITS[i];
+                String label = upper == Long.MAX_VALUE ? ">" + LogStats.GAP_BUCKET_LIMITS[i - 1] + "s"
+                        : lower == upper ? upper + "s" : lower + "-" + upper + "s";
+                buckets.add(label + "=" + stats.gapHistogram[i]);
+                lower = upper + 1;
+            }
+            out.println(buckets.stream().collect(Collectors.joining(", ")));
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.banking.tools;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses one byte range of a log file written with the pattern
+ * {@code %d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n}.
+ * Lines that do not start with a timestamp are treated as the stack trace of the preceding event.
+ * A chunk owns every event that starts inside it; continuation lines may run past the end.
+ * Per-thread gaps and repeated errors that straddle a chunk boundary are resolved by {@link LogStats#merge}.
+ */
+class LogChunkParser {
+    private static final Operation[] OPERATIONS = {
+            new Operation("Deposit completed: ", "DEPOSIT", false, AccountPosition.LAST),
+            new Operation("Withdrawal completed: ", "WITHDRAWAL", false, AccountPosition.LAST),
+            new Operation("Transfer completed: ", "TRANSFER", false, AccountPosition.FROM_TO),
+            new Operation("Account created successfully: ", "CREATE_ACCOUNT", false, AccountPosition.LAST),
+            new Operation("Account closed: ", "CLOSE_ACCOUNT", false, AccountPosition.LAST),
+            new Operation("Deposit failed", "DEPOSIT", true, AccountPosition.NONE),
+            new Operation("Withdrawal failed", "WITHDRAWAL", true, AccountPosition.NONE),
+            new Operation("Transfer failed", "TRANSFER", true, AccountPosition.NONE),
+            new Operation("Failed to create account", "CREATE_ACCOUNT", true, AccountPosition.NONE),
+            new Operation("Failed to close account", "CLOSE_ACCOUNT", true, AccountPosition.NONE)
+    };
+
+    private static final byte[] SERVICE_LOGGER = bytes(".AccountService");
+    private static final byte[] CAUSED_BY = bytes("Caused by: ");
+    private static final byte[] ERROR_LEVEL = bytes("ERROR");
+    private static final byte[] ACCOUNT_PREFIX = bytes("account: ");
+    private static final byte[] DUPLICATE_ENTRY = bytes("Duplicate entry '");
+    private static final byte[] FOREIGN_KEY = bytes("foreign key constraint fails");
+    private static final byte[] LINK_FAILURE = bytes("Communications link failure");
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int end;
+    private final int limit;
+    private final LogStats stats = new LogStats();
+
+    private int lastThreadStart = -1;
+    private int lastThreadLength;
+    private String lastThread;
+
+    LogChunkParser(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        this.limit = buffer.limit();
+    }
+
+    LogStats parse() {
+        int pos = start;
+        if (pos > 0) {
+            pos = nextLine(pos - 1);
+            while (pos < limit && !isEventLine(pos)) {
+                pos = nextLine(pos);
+            }
+        }
+
+        while (pos < end && pos < limit) {
+            if (!isEventLine(pos)) {
+                pos = nextLine(pos);
+                stats.lines++;
+                continue;
+            }
+            int eol = lineEnd(pos);
+            int next = eol + 1;
+            int rootCauseStart = -1;
+            stats.lines++;
+
+            while (next < limit && !isEventLine(next)) {
+                byte first = buffer.get(next);
+                if (startsWith(next, CAUSED_BY)) {
+                    rootCauseStart = next + CAUSED_BY.length;
+                } else if (rootCauseStart < 0 && first != '\t' && first != ' ' && first != '\n' && first != '\r') {
+                    rootCauseStart = next;
+                }
+                next = nextLine(next);
+                stats.lines++;
+            }
+
+            parseEvent(pos, eol, rootCauseStart);
+            pos = next;
+        }
+        stats.bytes = Math.min(end, limit) - start;
+        return stats;
+    }
+
+    private void parseEvent(int lineStart, int eol, int rootCauseStart) {
+        long timestamp = parseEpochSeconds(lineStart);
+
+        int threadStart = lineStart + 21;
+        int threadEnd = indexOf(threadStart, eol, (byte) ']');
+        if (threadEnd < 0) {
+            return;
+        }
+        int levelStart = threadEnd + 2;
+        int levelEnd = indexOf(levelStart, eol, (byte) ' ');
+        if (levelEnd < 0) {
+            return;
+        }
+        int loggerStart = levelEnd;
+        while (loggerStart < eol && buffer.get(loggerStart) == ' ') {
+            loggerStart++;
+        }
+        int loggerEnd = indexOf(loggerStart, eol, (byte) ' ');
+        if (loggerEnd < 0 || loggerEnd + 3 > eol) {
+            return;
+        }
+        int messageStart = loggerEnd + 3;
+
+        stats.events++;
+        stats.recordLevel(string(levelStart, levelEnd));
+        recordGap(threadStart, threadEnd, timestamp);
+
+        if (endsWith(loggerStart, loggerEnd, SERVICE_LOGGER)) {
+            recordOperation(messageStart, eol);
+        }
+        if (levelEnd - levelStart == ERROR_LEVEL.length && startsWith(levelStart, ERROR_LEVEL)) {
+            recordError(timestamp, messageStart, eol, rootCauseStart);
+        }
+    }
+
+    private void recordOperation(int messageStart, int eol) {
+        for (Operation op : OPERATIONS) {
+            if (!startsWith(messageStart, op.prefix)) {
+                continue;
+            }
+            stats.recordOperation(op.name, op.failed);
+            if (op.position == AccountPosition.LAST) {
+                stats.recordActivity(lastToken(messageStart, eol, 0), op.name);
+            } else if (op.position == AccountPosition.FROM_TO) {
+                stats.recordActivity(lastToken(messageStart, eol, 2), op.name + "_OUT");
+                stats.recordActivity(lastToken(messageStart, eol, 0), op.name + "_IN");
+            }
+            return;
+        }
+    }
+
+    private void recordError(long timestamp, int messageStart, int eol, int rootCauseStart) {
+        String category;
+        String account = null;
+
+        if (rootCauseStart >= 0) {
+            int rootEnd = lineEnd(rootCauseStart);
+            category = categorize(rootCauseStart, rootEnd);
+            int duplicate = indexOf(rootCauseStart, rootEnd, DUPLICATE_ENTRY);
+            if (duplicate >= 0) {
+                int valueStart = duplicate + DUPLICATE_ENTRY.length;
+                int valueEnd = indexOf(valueStart, rootEnd, (byte) '\'');
+                if (valueEnd > valueStart) {
+                    account = string(valueStart, valueEnd);
+                }
+            }
+        } else {
+            int colon = indexOf(messageStart, eol, (byte) ':');
+            category = string(messageStart, colon > 0 ? colon : eol);
+        }
+
+        if (account == null && indexOf(messageStart, eol, ACCOUNT_PREFIX) >= 0) {
+            account = lastToken(messageStart, eol, 0);
+        }
+
+        // The DAO, the service and the application each log the same failure; count it once.
+        String key = timestamp + "|" + lastThread + "|" + category;
+        if (key.equals(stats.lastErrorKey)) {
+            return;
+        }
+        if (stats.firstErrorKey == null) {
+            stats.firstErrorKey = key;
+            stats.firstErrorCategory = category;
+            stats.firstErrorAccount = account;
+        }
+        stats.lastErrorKey = key;
+        stats.recordError(category, account);
+    }
+
+    private String categorize(int lineStart, int lineEnd) {
+        int colon = indexOf(lineStart, lineEnd, (byte) ':');
+        int classEnd = colon > 0 ? colon : lineEnd;
+        int simpleStart = lineStart;
+        for (int i = lineStart; i < classEnd; i++) {
+            if (buffer.get(i) == '.') {
+                simpleStart = i + 1;
+            }
+        }
+        String exception = string(simpleStart, classEnd);
+
+        if (indexOf(lineStart, lineEnd, DUPLICATE_ENTRY) >= 0) {
+            return exception + ": duplicate entry";
+        }
+        if (indexOf(lineStart, lineEnd, FOREIGN_KEY) >= 0) {
+            return exception + ": foreign key violation";
+        }
+        if (indexOf(lineStart, lineEnd, LINK_FAILURE) >= 0) {
+            return exception + ": connection failure";
+        }
+        return exception;
+    }
+
+    private void recordGap(int threadStart, int threadEnd, long timestamp) {
+        int length = threadEnd - threadStart;
+        if (lastThread == null || length != lastThreadLength || !rangeEquals(threadStart, lastThreadStart, length)) {
+            lastThread = string(threadStart, threadEnd);
+        }
+        lastThreadStart = threadStart;
+        lastThreadLength = length;
+
+        long[] span = stats.threadSpans.get(lastThread);
+        if (span == null) {
+            stats.threadSpans.put(lastThread, new long[] {timestamp, timestamp});
+            return;
+        }
+        if (timestamp >= span[1]) {
+            stats.recordGap(timestamp - span[1]);
+        }
+        span[1] = timestamp;
+    }
+
+    // yyyy-MM-dd HH:mm:ss as local epoch seconds
+    private long parseEpochSeconds(int p) {
+        int year = digits(p, 4);
+        int month = digits(p + 5, 2);
+        int day = digits(p + 8, 2);
+        int hour = digits(p + 11, 2);
+        int minute = digits(p + 14, 2);
+        int second = digits(p + 17, 2);
+
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yoe = y - era * 400;
+        int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        long days = (long) era * 146097 + doe - 719468;
+        return days * 86400 + hour * 3600L + minute * 60L + second;
+    }
+
+    private int digits(int p, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            value = value * 10 + (buffer.get(p + i) - '0');
+        }
+        return value;
+    }
+
+    private boolean isEventLine(int p) {
+        if (p + 21 > limit) {
+            return false;
+        }
+        return isDigit(p) && isDigit(p + 1) && isDigit(p + 2) && isDigit(p + 3)
+                && buffer.get(p + 4) == '-' && isDigit(p + 5) && isDigit(p + 6)
+                && buffer.get(p + 7) == '-' && isDigit(p + 8) && isDigit(p + 9)
+                && buffer.get(p + 10) == ' ' && isDigit(p + 11) && isDigit(p + 12)
+                && buffer.get(p + 13) == ':' && isDigit(p + 14) && isDigit(p + 15)
+                && buffer.get(p + 16) == ':' && isDigit(p + 17) && isDigit(p + 18)
+                && buffer.get(p + 19) == ' ' && buffer.get(p + 20) == '[';
+    }
+
+    private boolean isDigit(int p) {
+        byte b = buffer.get(p);
+        return b >= '0' && b <= '9';
+    }
+
+    private int lineEnd(int p) {
+        while (p < limit && buffer.get(p) != '\n') {
+            p++;
+        }
+        int eol = p;
+        if (eol > 0 && eol <= limit && buffer.get(eol - 1) == '\r') {
+            eol--;
+        }
+        return eol;
+    }
+
+    private int nextLine(int p) {
+        while (p < limit && buffer.get(p) != '\n') {
+            p++;
+        }
+        return p + 1;
+    }
+
+    private int indexOf(int from, int to, byte b) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(int from, int to, byte[] needle) {
+        for (int i = from; i + needle.length <= to; i++) {
+            if (startsWith(i, needle)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean startsWith(int p, byte[] prefix) {
+        if (p + prefix.length > limit) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(p + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean endsWith(int from, int to, byte[] suffix) {
+        return to - from >= suffix.length && startsWith(to - suffix.length, suffix);
+    }
+
+    private boolean rangeEquals(int a, int b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(a + i) != buffer.get(b + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Whitespace-separated token counted back from the end of the line.
+    private String lastToken(int from, int to, int skip) {
+        int tokenEnd = to;
+        int tokenStart = to;
+        for (int i = 0; i <= skip; i++) {
+            tokenEnd = tokenStart;
+            while (tokenEnd > from && buffer.get(tokenEnd - 1) == ' ') {
+                tokenEnd--;
+            }
+            tokenStart = tokenEnd;
+            while (tokenStart > from && buffer.get(tokenStart - 1) != ' ') {
+                tokenStart--;
+            }
+        }
+        return string(tokenStart, tokenEnd);
+    }
+
+    private String string(int from, int to) {
+        byte[] out = new byte[to - from];
+        buffer.get(from, out);
+        return new String(out, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private enum AccountPosition { NONE, LAST, FROM_TO }
+
+    private static final class Operation {
+        final byte[] prefix;
+        final String name;
+        final boolean failed;
+        final AccountPosition position;
+
+        Operation(String prefix, String name, boolean failed, AccountPosition position) {
+            this.prefix = bytes(prefix);
+            this.name = name;
+            this.failed = failed;
+            this.position = position;
+        }
+    }
+}
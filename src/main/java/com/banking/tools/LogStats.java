@@ -0,0 +1,134 @@
+package com.banking.tools;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aggregates produced by {@link LogChunkParser}. One instance per chunk, merged by {@link LogAnalyzer}
+ * in file order so that state carried across a chunk boundary lines up.
+ */
+class LogStats {
+    static final long[] GAP_BUCKET_LIMITS = {0, 1, 5, 60, 3600, Long.MAX_VALUE};
+
+    long files;
+    long bytes;
+    long lines;
+    long events;
+    final Map<String, Long> eventsByLevel = new TreeMap<>();
+
+    // operation -> [completed, failed]
+    final Map<String, long[]> operations = new TreeMap<>();
+    final Map<String, Long> errorCategories = new TreeMap<>();
+    // category -> account -> occurrences
+    final Map<String, Map<String, Long>> accountErrors = new TreeMap<>();
+    // account -> operation -> occurrences
+    final Map<String, Map<String, Long>> accountActivity = new HashMap<>();
+
+    final long[] gapHistogram = new long[GAP_BUCKET_LIMITS.length];
+    long gapCount;
+    long gapSumSeconds;
+    long gapMaxSeconds;
+
+    // thread -> [first, last] event timestamp, to count the gap that spans the next chunk boundary
+    final Map<String, long[]> threadSpans = new HashMap<>();
+    // The first error is dropped on merge if the previous chunk ended with the same failure.
+    String firstErrorKey;
+    String firstErrorCategory;
+    String firstErrorAccount;
+    String lastErrorKey;
+
+    void recordLevel(String level) {
+        eventsByLevel.merge(level, 1L, Long::sum);
+    }
+
+    void recordOperation(String operation, boolean failed) {
+        long[] counts = operations.computeIfAbsent(operation, k -> new long[2]);
+        counts[failed ? 1 : 0]++;
+    }
+
+    void recordError(String category, String account) {
+        errorCategories.merge(category, 1L, Long::sum);
+        if (account != null) {
+            accountErrors.computeIfAbsent(category, k -> new TreeMap<>()).merge(account, 1L, Long::sum);
+        }
+    }
+
+    void recordActivity(String account, String operation) {
+        accountActivity.computeIfAbsent(account, k -> new TreeMap<>()).merge(operation, 1L, Long::sum);
+    }
+
+    void recordGap(long seconds) {
+        int bucket = 0;
+        while (seconds > GAP_BUCKET_LIMITS[bucket]) {
+            bucket++;
+        }
+        gapHistogram[bucket]++;
+        gapCount++;
+        gapSumSeconds += seconds;
+        gapMaxSeconds = Math.max(gapMaxSeconds, seconds);
+    }
+
+    private void forgetError(String category, String account) {
+        errorCategories.computeIfPresent(category, (k, v) -> v > 1 ? v - 1 : null);
+        if (account != null) {
+            Map<String, Long> accounts = accountErrors.get(category);
+            accounts.computeIfPresent(account, (k, v) -> v > 1 ? v - 1 : null);
+            if (accounts.isEmpty()) {
+                accountErrors.remove(category);
+            }
+        }
+    }
+
+    /** Adds {@code other}, which must cover the bytes that follow everything merged so far. */
+    void merge(LogStats other) {
+        files += other.files;
+        bytes += other.bytes;
+        lines += other.lines;
+        events += other.events;
+        other.eventsByLevel.forEach((k, v) -> eventsByLevel.merge(k, v, Long::sum));
+        other.operations.forEach((k, v) -> {
+            long[] counts = operations.computeIfAbsent(k, key -> new long[2]);
+            counts[0] += v[0];
+            counts[1] += v[1];
+        });
+        other.errorCategories.forEach((k, v) -> errorCategories.merge(k, v, Long::sum));
+        other.accountErrors.forEach((category, accounts) -> {
+            Map<String, Long> target = accountErrors.computeIfAbsent(category, k -> new TreeMap<>());
+            accounts.forEach((account, count) -> target.merge(account, count, Long::sum));
+        });
+        other.accountActivity.forEach((account, ops) -> {
+            Map<String, Long> target = accountActivity.computeIfAbsent(account, k -> new TreeMap<>());
+            ops.forEach((op, count) -> target.merge(op, count, Long::sum));
+        });
+        for (int i = 0; i < gapHistogram.length; i++) {
+            gapHistogram[i] += other.gapHistogram[i];
+        }
+        gapCount += other.gapCount;
+        gapSumSeconds += other.gapSumSeconds;
+        gapMaxSeconds = Math.max(gapMaxSeconds, other.gapMaxSeconds);
+
+        other.threadSpans.forEach((thread, span) -> {
+            long[] current = threadSpans.get(thread);
+            if (current == null) {
+                threadSpans.put(thread, span.clone());
+                return;
+            }
+            if (span[0] >= current[1]) {
+                recordGap(span[0] - current[1]);
+            }
+            current[1] = span[1];
+        });
+        if (other.firstErrorKey != null) {
+            if (other.firstErrorKey.equals(lastErrorKey)) {
+                forgetError(other.firstErrorCategory, other.firstErrorAccount);
+            }
+            if (firstErrorKey == null) {
+                firstErrorKey = other.firstErrorKey;
+                firstErrorCategory = other.firstErrorCategory;
+                firstErrorAccount = other.firstErrorAccount;
+            }
+            lastErrorKey = other.lastErrorKey;
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.banking.tools;
+
+import com.banking.exception.BankingException;
+import com.banking.exception.InvalidTransactionException;
+import com.banking.model.Account;
+import com.banking.model.AccountStatus;
+import com.banking.model.AccountType;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionStatus;
+import com.banking.model.TransactionType;
+import com.banking.service.AccountService;
+import com.banking.service.PostingResult;
+import com.banking.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hammers an {@link AccountService} from many threads with a random mix of deposits, withdrawals,
+ * transfers, balance reads and account closes over a few freshly opened accounts, so that the threads
+ * collide on them constantly. Once every thread is done it checks the money invariants listed in
+ * {@link StressReport.Check} against what the service acknowledged and against each account's transaction
+ * trail, and reports throughput together with anything broken.
+ *
+ * Usage: {@code StressHarness} with {@code -Dbanking.stress.*} settings. It runs on the heap engine unless
+ * {@code banking.stress.storage=database}, which opens its accounts in the configured database. Velocity
+ * rules apply as configured; pointing {@code banking.velocity.config} at an empty file keeps them from
+ * turning most debits away.
+ */
+public class StressHarness {
+    private static final Logger logger = LoggerFactory.getLogger(StressHarness.class);
+    private static final int OUTCOMES = PostingResult.Outcome.values().length;
+
+    public enum Operation {
+        DEPOSIT,
+        WITHDRAW,
+        TRANSFER,
+        BALANCE,
+        /**
+         * Transfers the account's whole balance to another account and closes it. Reported as SUCCESS when
+         * closed, ACCOUNT_CLOSED when it already was or closing it would leave fewer than two accounts open,
+         * and INVALID_AMOUNT when a posting changed its balance before the close.
+         */
+        CLOSE
+    }
+
+    /** Relative weights of the operations. */
+    public static final class Mix {
+        public static final Mix DEFAULT = new Mix(30, 30, 30, 9, 1);
+
+        private final int[] cumulative = new int[Operation.values().length];
+
+        public Mix(int deposit, int withdraw, int transfer, int balance) {
+            this(deposit, withdraw, transfer, balance, 0);
+        }
+
+        public Mix(int deposit, int withdraw, int transfer, int balance, int close) {
+            int[] weights = {deposit, withdraw, transfer, balance, close};
+            int total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                if (weights[i] < 0) {
+                    throw new IllegalArgumentException("Negative weight for " + Operation.values()[i]);
+                }
+                total += weights[i];
+                cumulative[i] = total;
+            }
+            if (total == 0) {
+                throw new IllegalArgumentException("At least one operation needs a weight");
+            }
+        }
+
+        /** Parses {@code deposit,withdraw,transfer,balance[,close]}. */
+        public static Mix parse(String weights) {
+            String[] parts = weights.split(",");
+            if (parts.length != 4 && parts.length != 5) {
+                throw new IllegalArgumentException("Expected four or five weights: " + weights);
+            }
+            return new Mix(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+                    Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[3].trim()),
+                    parts.length == 5 ? Integer.parseInt(parts[4].trim()) : 0);
+        }
+
+        Operation pick(SplittableRandom random) {
+            int roll = random.nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; ; i++) {
+                if (roll < cumulative[i]) {
+                    return Operation.values()[i];
+                }
+            }
+        }
+    }
+
+    private final AccountService accountService;
+    private final int accounts;
+    private final int threads;
+    private final int operationsPerThread;
+    private final Mix mix;
+    private final Long customerId;
+    private final BigDecimal openingBalance;
+    private final long maxAmountMinor;
+    private final long seed;
+
+    /**
+     * @param accounts       accounts to open; fewer means more contention (at least two, for transfers)
+     * @param customerId     owner of the opened accounts, which must exist when running on a database
+     * @param openingBalance balance each account opens with; single amounts go up to a fifth of it
+     */
+    public StressHarness(AccountService accountService, int accounts, int threads, int operationsPerThread,
+                         Mix mix, Long customerId, BigDecimal openingBalance, long seed) {
+        if (accounts < 2) {
+            throw new IllegalArgumentException("Need at least two accounts: " + accounts);
+        }
+        this.accountService = accountService;
+        this.accounts = accounts;
+        this.threads = threads;
+        this.operationsPerThread = operationsPerThread;
+        this.mix = mix;
+        this.customerId = customerId;
+        this.openingBalance = openingBalance;
+        this.maxAmountMinor = Math.max(1, MoneyUtils.toMinorUnits(openingBalance) / 5);
+        this.seed = seed;
+    }
+
+    public static StressHarness fromSystemProperties(AccountService accountService) {
+        return new StressHarness(accountService,
+                Integer.getInteger("banking.stress.accounts", 16),
+                Integer.getInteger("banking.stress.threads", Runtime.getRuntime().availableProcessors() * 2),
+                Integer.getInteger("banking.stress.operations", 10_000),
+                Mix.parse(System.getProperty("banking.stress.mix", "30,30,30,9,1")),
+                Long.getLong("banking.stress.customer", 1L),
+                new BigDecimal(System.getProperty("banking.stress.opening", "1000.00")),
+                Long.getLong("banking.stress.seed", System.nanoTime()));
+    }
+
+    public static void main(String[] args) throws BankingException, InterruptedException {
+        AccountService accountService = "database".equals(System.getProperty("banking.stress.storage"))
+                ? new AccountService()
+                : AccountService.inMemory();
+        StressReport report = fromSystemProperties(accountService).run();
+        report.print(System.out);
+        System.exit(report.isClean() ? 0 : 1);
+    }
+
+    public StressReport run() throws BankingException, InterruptedException {
+        logger.info("Stress run: {} account(s), {} thread(s) x {} operation(s), seed {}",
+                accounts, threads, operationsPerThread, seed);
+        String[] accountNumbers = openAccounts();
+        long[] opening = new long[accounts];
+        for (int i = 0; i < accounts; i++) {
+            opening[i] = MoneyUtils.toMinorUnits(accountService.findAccountOrNull(accountNumbers[i]).getBalance());
+        }
+
+        Ledger ledger = new Ledger(accounts);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(seed + t);
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < operationsPerThread; i++) {
+                    runOne(random, accountNumbers, ledger);
+                }
+            }, "stress-worker-" + t);
+            workers[t].start();
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsedNanos = System.nanoTime() - started;
+
+        List<StressReport.Violation> violations = verify(accountNumbers, opening, ledger);
+        return new StressReport(threads, elapsedNanos, ledger.outcomeCounts(), ledger.errors.sum(), violations);
+    }
+
+    private String[] openAccounts() throws BankingException {
+        String prefix = "S" + Long.toString(System.currentTimeMillis() % 2_176_782_336L, 36) + "-";
+        String[] accountNumbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            Account account = new Account();
+            account.setAccountNumber(prefix + i);
+            account.setCustomerId(customerId);
+            account.setAccountType(AccountType.CHECKING);
+            account.setBalance(openingBalance);
+            account.setStatus(AccountStatus.ACTIVE);
+            accountNumbers[i] = accountService.createAccount(account).getAccountNumber();
+        }
+        return accountNumbers;
+    }
+
+    private void runOne(SplittableRandom random, String[] accountNumbers, Ledger ledger) {
+        Operation operation = mix.pick(random);
+        int from = random.nextInt(accounts);
+        int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+        long amountMinor = 1 + random.nextLong(maxAmountMinor);
+        BigDecimal amount = MoneyUtils.fromMinorUnits(amountMinor);
+        try {
+            switch (operation) {
+                case DEPOSIT -> {
+                    PostingResult result = accountService.tryDeposit(accountNumbers[from], amount, "Stress deposit");
+                    if (result.isSuccess()) {
+                        ledger.posted(from, amountMinor);
+                        ledger.deposited.add(amountMinor);
+                    }
+                    ledger.count(operation, result.getOutcome());
+                }
+                case WITHDRAW -> {
+                    PostingResult result = accountService.tryWithdraw(accountNumbers[from], amount, "Stress withdrawal");
+                    if (result.isSuccess()) {
+                        ledger.posted(from, -amountMinor);
+                        ledger.withdrawn.add(amountMinor);
+                    }
+                    ledger.count(operation, result.getOutcome());
+                }
+                case TRANSFER -> {
+                    PostingResult result = accountService.tryTransfer(accountNumbers[from], accountNumbers[to],
+                            amount, "Stress transfer");
+                    if (result.isSuccess()) {
+                        ledger.posted(from, -amountMinor);
+                        ledger.posted(to, amountMinor);
+                    }
+                    ledger.count(operation, result.getOutcome());
+                }
+                case BALANCE -> {
+                    accountService.getBalance(accountNumbers[from]);
+                    ledger.count(operation, PostingResult.Outcome.SUCCESS);
+                }
+                case CLOSE -> ledger.count(operation, close(from, to, accountNumbers, ledger));
+            }
+        } catch (BankingException | RuntimeException e) {
+            logger.debug("Stress {} failed", operation, e);
+            ledger.errors.increment();
+        }
+    }
+
+    // Closing races the other workers: transfers into the account, whose credit leg must not be lost, and
+    // postings that land between sweeping the balance out and the close itself.
+    private PostingResult.Outcome close(int from, int to, String[] accountNumbers, Ledger ledger)
+            throws BankingException {
+        if (!ledger.claimClose(from)) {
+            return PostingResult.Outcome.ACCOUNT_CLOSED;
+        }
+        try {
+            BigDecimal balance = accountService.findAccountOrNull(accountNumbers[from]).getBalance();
+            if (balance.signum() > 0) {
+                PostingResult moved = accountService.tryTransfer(accountNumbers[from], accountNumbers[to], balance,
+                        "Stress close");
+                if (!moved.isSuccess()) {
+                    ledger.releaseClose(from);
+                    return moved.getOutcome();
+                }
+                long movedMinor = MoneyUtils.toMinorUnits(balance);
+                ledger.posted(from, -movedMinor);
+                ledger.posted(to, movedMinor);
+            }
+            accountService.closeAccount(accountNumbers[from]);
+            return PostingResult.Outcome.SUCCESS;
+        } catch (InvalidTransactionException e) {
+            ledger.releaseClose(from);
+            return PostingResult.Outcome.INVALID_AMOUNT;
+        } catch (BankingException | RuntimeException e) {
+            ledger.releaseClose(from);
+            throw e;
+        }
+    }
+
+    private List<StressReport.Violation> verify(String[] accountNumbers, long[] opening, Ledger ledger)
+            throws BankingException {
+        List<StressReport.Violation> violations = new ArrayList<>();
+        long totalOpening = 0;
+        long totalClosing = 0;
+
+        for (int i = 0; i < accounts; i++) {
+            String accountNumber = accountNumbers[i];
+            long closing = MoneyUtils.toMinorUnits(accountService.findAccountOrNull(accountNumber).getBalance());
+            totalOpening += opening[i];
+            totalClosing += closing;
+
+            if (closing < 0) {
+                violations.add(new StressReport.Violation(StressReport.Check.NEGATIVE_BALANCE, accountNumber,
+                        "balance is " + money(closing)));
+            }
+            long acknowledged = opening[i] + ledger.net.get(i);
+            if (closing != acknowledged) {
+                violations.add(new StressReport.Violation(StressReport.Check.LOST_UPDATE, accountNumber,
+                        "balance is " + money(closing) + " but acknowledged postings give " + money(acknowledged)));
+            }
+            checkTrail(accountNumber, opening[i], closing, ledger.postings.get(i), violations);
+        }
+
+        long expectedTotal = totalOpening + ledger.deposited.sum() - ledger.withdrawn.sum();
+        if (totalClosing != expectedTotal) {
+            violations.add(new StressReport.Violation(StressReport.Check.CONSERVATION, null,
+                    "balances total " + money(totalClosing) + " but opening balances, deposits and withdrawals give "
+                            + money(expectedTotal)));
+        }
+        return violations;
+    }
+
+    // Replays the account's successful transactions in id order, the order postings on one account commit in.
+    private void checkTrail(String accountNumber, long opening, long closing, long acknowledgedPostings,
+                            List<StressReport.Violation> violations) throws BankingException {
+        List<Transaction> trail = new ArrayList<>(accountService.getTransactionHistory(accountNumber));
+        trail.sort(Comparator.comparing(Transaction::getTransactionId));
+
+        long balance = opening;
+        long replayed = opening;
+        long successes = 0;
+        for (Transaction transaction : trail) {
+            if (transaction.getStatus() == TransactionStatus.PENDING) {
+                violations.add(new StressReport.Violation(StressReport.Check.PENDING_LEFT, accountNumber,
+                        "transaction " + transaction.getTransactionId() + " is still pending"));
+            }
+            if (transaction.getStatus() != TransactionStatus.SUCCESS
+                    || transaction.getTransType() == TransactionType.TRANSFER) {
+                continue;
+            }
+            successes++;
+            long amount = MoneyUtils.toMinorUnits(transaction.getAmount());
+            long delta = transaction.getTransType() == TransactionType.DEPOSIT ? amount : -amount;
+            long recorded = MoneyUtils.toMinorUnits(transaction.getBalanceAfter());
+            replayed += delta;
+            if (recorded != balance + delta) {
+                violations.add(new StressReport.Violation(StressReport.Check.BALANCE_CHAIN, accountNumber,
+                        "transaction " + transaction.getTransactionId() + " left " + money(recorded)
+                                + ", expected " + money(balance + delta)));
+            }
+            if (recorded < 0) {
+                violations.add(new StressReport.Violation(StressReport.Check.NEGATIVE_BALANCE, accountNumber,
+                        "transaction " + transaction.getTransactionId() + " left " + money(recorded)));
+            }
+            // Carry on from what was recorded so one break is reported once.
+            balance = recorded;
+        }
+
+        if (replayed != closing) {
+            violations.add(new StressReport.Violation(StressReport.Check.TRAIL_MISMATCH, accountNumber,
+                    "balance is " + money(closing) + " but its transactions give " + money(replayed)));
+        }
+        if (successes != acknowledgedPostings) {
+            violations.add(new StressReport.Violation(StressReport.Check.TRAIL_COUNT, accountNumber,
+                    successes + " successful transaction(s) for " + acknowledgedPostings + " acknowledged posting(s)"));
+        }
+    }
+
+    private static String money(long minorUnits) {
+        return MoneyUtils.fromMinorUnits(minorUnits).toPlainString();
+    }
+
+    // What the workers were told happened, to compare with what the store ended up holding.
+    private static final class Ledger {
+        final AtomicLongArray net;
+        final AtomicLongArray postings;
+        final LongAdder deposited = new LongAdder();
+        final LongAdder withdrawn = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final AtomicLongArray outcomes = new AtomicLongArray(Operation.values().length * OUTCOMES);
+        final AtomicIntegerArray closing;
+        final AtomicInteger open;
+
+        Ledger(int accounts) {
+            net = new AtomicLongArray(accounts);
+            postings = new AtomicLongArray(accounts);
+            closing = new AtomicIntegerArray(accounts);
+            open = new AtomicInteger(accounts);
+        }
+
+        // Claims the account for closing unless it is taken or only two accounts would be left to collide on.
+        boolean claimClose(int account) {
+            if (!closing.compareAndSet(account, 0, 1)) {
+                return false;
+            }
+            int current;
+            do {
+                current = open.get();
+                if (current <= 2) {
+                    closing.set(account, 0);
+                    return false;
+                }
+            } while (!open.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        void releaseClose(int account) {
+            open.incrementAndGet();
+            closing.set(account, 0);
+        }
+
+        void posted(int account, long deltaMinor) {
+            net.addAndGet(account, deltaMinor);
+            postings.incrementAndGet(account);
+        }
+
+        void count(Operation operation, PostingResult.Outcome outcome) {
+            outcomes.incrementAndGet(operation.ordinal() * OUTCOMES + outcome.ordinal());
+        }
+
+        long[][] outcomeCounts() {
+            long[][] counts = new long[Operation.values().length][OUTCOMES];
+            for (int i = 0; i < outcomes.length(); i++) {
+                counts[i / OUTCOMES][i % OUTCOMES] = outcomes.get(i);
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.banking.tools;
+
+import com.banking.service.PostingResult;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/** What a {@link StressHarness} run did, how fast, and which invariants it found broken. */
+public class StressReport {
+    private static final int MAX_PRINTED = 50;
+
+    public enum Check {
+        /** The sum of all balances moved by something other than acknowledged deposits and withdrawals. */
+        CONSERVATION,
+        /** A balance, or a transaction's balance after, went below zero. */
+        NEGATIVE_BALANCE,
+        /** An account's balance differs from its opening balance plus every posting the service acknowledged. */
+        LOST_UPDATE,
+        /** An account's balance differs from its opening balance plus its successful transactions. */
+        TRAIL_MISMATCH,
+        /** An account has more or fewer successful transactions than postings were acknowledged. */
+        TRAIL_COUNT,
+        /** A transaction's balance after does not follow from the one before it. */
+        BALANCE_CHAIN,
+        /** A transaction was left PENDING after every operation had returned. */
+        PENDING_LEFT
+    }
+
+    public static final class Violation {
+        private final Check check;
+        private final String accountNumber;
+        private final String detail;
+
+        Violation(Check check, String accountNumber, String detail) {
+            this.check = check;
+            this.accountNumber = accountNumber;
+            this.detail = detail;
+        }
+
+        public Check getCheck() {
+            return check;
+        }
+
+        /** Null for checks over all accounts. */
+        public String getAccountNumber() {
+            return accountNumber;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        @Override
+        public String toString() {
+            return check + (accountNumber != null ? " " + accountNumber : "") + ": " + detail;
+        }
+    }
+
+    private final int threads;
+    private final long elapsedNanos;
+    private final long[][] outcomes;
+    private final long errors;
+    private final List<Violation> violations;
+
+    StressReport(int threads, long elapsedNanos, long[][] outcomes, long errors, List<Violation> violations) {
+        this.threads = threads;
+        this.elapsedNanos = elapsedNanos;
+        this.outcomes = outcomes;
+        this.errors = errors;
+        this.violations = List.copyOf(violations);
+    }
+
+    public boolean isClean() {
+        return violations.isEmpty();
+    }
+
+    public List<Violation> getViolations() {
+        return violations;
+    }
+
+    public long getOperations() {
+        long total = errors;
+        for (long[] byOutcome : outcomes) {
+            for (long count : byOutcome) {
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    /** Operations of this kind that came back with {@code outcome}; reads only ever count as SUCCESS. */
+    public long getCount(StressHarness.Operation operation, PostingResult.Outcome outcome) {
+        return outcomes[operation.ordinal()][outcome.ordinal()];
+    }
+
+    /** Operations that threw instead of returning an outcome. */
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getOperationsPerSecond() {
+        return elapsedNanos > 0 ? getOperations() * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%d operation(s) on %d thread(s) in %.2f s: %.0f ops/s%n",
+                getOperations(), threads, elapsedNanos / 1e9, getOperationsPerSecond());
+        for (StressHarness.Operation operation : StressHarness.Operation.values()) {
+            StringBuilder line = new StringBuilder(String.format("  %-9s", operation));
+            for (PostingResult.Outcome outcome : PostingResult.Outcome.values()) {
+                long count = getCount(operation, outcome);
+                if (count > 0) {
+                    line.append(' ').append(outcome).append('=').append(count);
+                }
+            }
+            out.println(line);
+        }
+        if (errors > 0) {
+            out.println("  errors    " + errors);
+        }
+        if (violations.isEmpty()) {
+            out.println("All invariants held");
+        } else {
+            out.println(violations.size() + " invariant violation(s):");
+            for (Violation violation : violations.subList(0, Math.min(violations.size(), MAX_PRINTED))) {
+                out.println("  " + violation);
+            }
+            if (violations.size() > MAX_PRINTED) {
+                out.println("  ... and " + (violations.size() - MAX_PRINTED) + " more");
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.banking.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class MoneyUtils {
+    public static final int MINOR_UNIT_SCALE = 2;
+
+    private MoneyUtils() {}
+
+    public static long toMinorUnits(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.setScale(MINOR_UNIT_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, MINOR_UNIT_SCALE);
+    }
+}
@@ -0,0 +1,100 @@
+package com.banking.analytics;
+
+import com.banking.dao.TransactionDAO;
+import com.banking.model.AccountType;
+import com.banking.model.TransactionStatus;
+import com.banking.model.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionColumnsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private int available;
+    private TransactionColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        // Row i: account i % 10, type and account type cycling, amount i cents, created i minutes after START.
+        TransactionDAO source = new TransactionDAO(null) {
+            @Override
+            public int scanAfter(long afterTransactionId, LocalDateTime createdBefore, int limit, RowSink sink) {
+                int rows = 0;
+                for (long id = afterTransactionId + 1; id <= available && rows < limit; id++, rows++) {
+                    sink.accept(id, id % 10, TransactionType.values()[(int) (id % 3)],
+                            AccountType.values()[(int) (id % 2)], id,
+                            Timestamp.valueOf(START.plusMinutes(id)).getTime(),
+                            id % 5 == 0 ? TransactionStatus.FAILED : TransactionStatus.SUCCESS);
+                }
+                return rows;
+            }
+        };
+        columns = new TransactionColumns(List.of(source), 0, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        columns.close();
+    }
+
+    @Test
+    void testRefreshAppendsOnlyNewRows() throws Exception {
+        available = 200_000;
+        assertEquals(200_000, columns.refresh());
+        available = 200_100;
+        assertEquals(100, columns.refresh());
+        assertEquals(0, columns.refresh());
+        assertEquals(200_100, columns.size());
+    }
+
+    @Test
+    void testFiltersAndGroups() throws Exception {
+        available = 300_000;
+        columns.refresh();
+
+        Map<AccountType, TransactionColumns.Totals> withdrawals = columns.query()
+                .types(TransactionType.WITHDRAWAL)
+                .statuses(TransactionStatus.SUCCESS)
+                .byAccountType();
+
+        long[] count = new long[2];
+        long[] sum = new long[2];
+        for (long id = 1; id <= available; id++) {
+            if (id % 3 == 1 && id % 5 != 0) {
+                count[(int) (id % 2)]++;
+                sum[(int) (id % 2)] += id;
+            }
+        }
+        assertEquals(count[0], withdrawals.get(AccountType.SAVINGS).getCount());
+        assertEquals(sum[0], withdrawals.get(AccountType.SAVINGS).getAmountMinor());
+        assertEquals(count[1], withdrawals.get(AccountType.CHECKING).getCount());
+        assertFalse(withdrawals.containsKey(AccountType.FIXED_DEPOSIT));
+    }
+
+    @Test
+    void testAccountAndTimeRange() throws Exception {
+        available = 1_000;
+        columns.refresh();
+
+        TransactionColumns.Totals total = columns.query()
+                .account(3)
+                .createdBetween(START.plusMinutes(100), START.plusMinutes(200))
+                .total();
+
+        // Ids 103, 113, ..., 193.
+        assertEquals(10, total.getCount());
+        assertEquals(new BigDecimal("14.80"), total.getAmount());
+        assertEquals(available, columns.query().byStatus().values().stream()
+                .mapToLong(TransactionColumns.Totals::getCount).sum());
+    }
+}
@@ -0,0 +1,130 @@
+package com.banking.archive;
+
+import com.banking.model.Transaction;
+import com.banking.model.TransactionLogEntry;
+import com.banking.model.TransactionStatus;
+import com.banking.model.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionArchiveTest {
+    private static final LocalDateTime START = LocalDateTime.of(2023, 1, 1, 12, 0, 0, 500_000_000);
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("archive");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void testSegmentRoundTripKeepsRowsAndLogEntries() throws IOException {
+        TransactionArchive archive = new TransactionArchive(directory, 4);
+        Transaction deposit = transaction(1L, 7L, TransactionType.DEPOSIT, "100.00", "Salary", 0);
+        Transaction withdrawal = transaction(2L, 7L, TransactionType.WITHDRAWAL, "40.25", null, 1);
+        Transaction other = transaction(3L, 8L, TransactionType.DEPOSIT, "5.00", "Other account", 2);
+        TransactionLogEntry detailed = log(11L, 1L, "Deposit successful");
+        detailed.setIpAddress("10.0.0.1");
+        detailed.setUserAgent("teller");
+
+        archive.writeSegments(List.of(deposit, withdrawal, other), List.of(detailed, log(12L, 2L, null)));
+
+        List<Transaction> history = archive.findByAccountId(7L);
+        assertEquals(2, history.size());
+        assertEquals(2L, history.get(0).getTransactionId());
+        assertNull(history.get(0).getDescription());
+        Transaction read = history.get(1);
+        assertEquals(Long.valueOf(7L), read.getAccountId());
+        assertEquals(TransactionType.DEPOSIT, read.getTransType());
+        assertEquals(new BigDecimal("100.00"), read.getAmount());
+        assertEquals(new BigDecimal("100.00"), read.getBalanceAfter());
+        assertEquals("Salary", read.getDescription());
+        assertEquals(TransactionStatus.SUCCESS, read.getStatus());
+        assertEquals(START, read.getCreatedAt());
+
+        List<TransactionLogEntry> logs = archive.findLogEntries(7L);
+        assertEquals(2, logs.size());
+        assertEquals("Deposit successful", logs.get(0).getMessage());
+        assertEquals("10.0.0.1", logs.get(0).getIpAddress());
+        assertEquals("teller", logs.get(0).getUserAgent());
+        assertEquals(Long.valueOf(2L), logs.get(1).getTransactionId());
+        assertNull(logs.get(1).getMessage());
+        assertTrue(archive.findLogEntries(8L).isEmpty());
+        assertTrue(archive.findByAccountId(9L).isEmpty());
+    }
+
+    @Test
+    void testSmallSegmentsAreCompactedWithoutLosingOrDuplicatingRows() throws IOException {
+        TransactionArchive archive = new TransactionArchive(directory, 1, 3);
+
+        archive.writeSegments(List.of(transaction(1L, 7L, TransactionType.DEPOSIT, "1.00", "a", 0)),
+                List.of(log(1L, 1L, "first")));
+        archive.writeSegments(List.of(transaction(2L, 7L, TransactionType.DEPOSIT, "2.00", "b", 1)), List.of());
+        assertEquals(2, archive.getSegmentCount(7L));
+        // A batch archived twice, as after a crash between writing and deleting, is read once.
+        archive.writeSegments(List.of(transaction(2L, 7L, TransactionType.DEPOSIT, "2.00", "b", 1),
+                transaction(3L, 7L, TransactionType.DEPOSIT, "3.00", "c", 2)), List.of(log(3L, 3L, "third")));
+
+        assertEquals(1, archive.getSegmentCount(7L));
+        try (Stream<Path> files = Files.list(directory.resolve("partition-000"))) {
+            assertEquals(1L, files.count());
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Transaction t : archive.findByAccountId(7L)) {
+            ids.add(t.getTransactionId());
+        }
+        assertEquals(List.of(3L, 2L, 1L), ids);
+        assertEquals(2, archive.findLogEntries(7L).size());
+    }
+
+    @Test
+    void testSegmentsWrittenByAnotherInstanceAreSeen() throws IOException {
+        TransactionArchive reader = new TransactionArchive(directory, 2);
+        assertTrue(reader.findByAccountId(4L).isEmpty());
+
+        new TransactionArchive(directory, 2).writeSegments(
+                List.of(transaction(1L, 4L, TransactionType.DEPOSIT, "9.99", null, 0)), List.of());
+
+        assertEquals(1, reader.findByAccountId(4L).size());
+    }
+
+    private static Transaction transaction(Long id, Long accountId, TransactionType type, String amount,
+                                           String description, int minutes) {
+        Transaction transaction = new Transaction(accountId, type, new BigDecimal(amount), new BigDecimal(amount),
+                description);
+        transaction.setTransactionId(id);
+        transaction.setStatus(TransactionStatus.SUCCESS);
+        transaction.setCreatedAt(START.plusMinutes(minutes));
+        return transaction;
+    }
+
+    private static TransactionLogEntry log(Long logId, Long transactionId, String message) {
+        TransactionLogEntry entry = new TransactionLogEntry(transactionId, "INFO", message);
+        entry.setLogId(logId);
+        entry.setCreatedAt(START);
+        return entry;
+    }
+}
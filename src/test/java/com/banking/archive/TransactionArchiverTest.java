@@ -0,0 +1,111 @@
+package com.banking.archive;
+
+import com.banking.config.DatabaseConfig;
+import com.banking.dao.TransactionDAO;
+import com.banking.model.TransactionLogEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionArchiverTest {
+
+    private String url;
+    private DatabaseConfig dbConfig;
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        url = "jdbc:h2:mem:archiver-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        try (Connection conn = DriverManager.getConnection(url, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("RUNSCRIPT FROM 'classpath:/schema.sql'");
+            stmt.execute("INSERT INTO customer (first_name, last_name, email) VALUES ('Jane', 'Doe', 'jane@example.com')");
+            stmt.execute("INSERT INTO account (account_number, customer_id, account_type, balance, status) "
+                    + "VALUES ('ACC1001', 1, 'SAVINGS', 30.00, 'ACTIVE')");
+            for (int i = 1; i <= 3; i++) {
+                // Two old transactions to archive, one recent one to keep.
+                String createdAt = i < 3 ? "TIMESTAMP '2020-01-0" + i + " 10:00:00'" : "CURRENT_TIMESTAMP";
+                stmt.execute("INSERT INTO transaction (account_id, trans_type, amount, balance_after, description, "
+                        + "status, created_at) VALUES (1, 'DEPOSIT', 10.00, " + (i * 10) + ".00, 'Deposit " + i
+                        + "', 'SUCCESS', " + createdAt + ")");
+                stmt.execute("INSERT INTO transaction_log (transaction_id, log_level, message, ip_address) "
+                        + "VALUES (" + i + ", 'INFO', 'Deposit successful: " + i + "', '10.0.0." + i + "')");
+            }
+        }
+        Properties props = new Properties();
+        props.setProperty("db.driver", "org.h2.Driver");
+        props.setProperty("db.url", url);
+        props.setProperty("db.username", "sa");
+        props.setProperty("db.password", "");
+        dbConfig = new DatabaseConfig(props);
+        directory = Files.createTempDirectory("archive");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        dbConfig.shutdown();
+        try (Connection conn = DriverManager.getConnection(url, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void testArchivedTransactionsKeepTheirAuditRows() throws Exception {
+        TransactionArchive archive = new TransactionArchive(directory, 4);
+
+        long archived = new TransactionArchiver(new TransactionDAO(dbConfig), archive, Duration.ofDays(30), 1).run();
+
+        assertEquals(2, archived);
+        assertEquals(1, count("SELECT COUNT(*) FROM transaction"));
+        assertEquals(1, count("SELECT COUNT(*) FROM transaction_log WHERE transaction_id = 3"));
+        assertEquals(1, count("SELECT COUNT(*) FROM transaction_log"));
+
+        List<TransactionLogEntry> logs = archive.findLogEntries(1L);
+        assertEquals(2, logs.size());
+        assertEquals("Deposit successful: 1", logs.get(0).getMessage());
+        assertEquals("10.0.0.2", logs.get(1).getIpAddress());
+        assertEquals(2, archive.findByAccountId(1L).size());
+    }
+
+    @Test
+    void testBatchIsKeptWhenAnAuditRowWasNotArchived() throws Exception {
+        TransactionDAO transactionDAO = new TransactionDAO(dbConfig);
+
+        // Log row 1 was archived but row 2 was not: neither transaction may be deleted.
+        assertThrows(java.sql.SQLException.class, () -> transactionDAO.deleteArchived(List.of(1L, 2L), List.of(1L)));
+
+        assertEquals(3, count("SELECT COUNT(*) FROM transaction"));
+        assertEquals(3, count("SELECT COUNT(*) FROM transaction_log"));
+    }
+
+    private long count(String sql) throws Exception {
+        try (Connection conn = DriverManager.getConnection(url, "sa", "");
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.banking.batch;
+
+import com.banking.exception.InvalidTransactionException;
+import com.banking.model.AccountType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchCommandTest {
+
+    @Test
+    void testBlankAndCommentLinesAreSkipped() throws Exception {
+        assertNull(BatchCommand.parse(1, ""));
+        assertNull(BatchCommand.parse(2, "   \t "));
+        assertNull(BatchCommand.parse(3, "# deposit ACC1001 10.00"));
+        assertNull(BatchCommand.parse(4, "   #indented comment"));
+    }
+
+    @Test
+    void testDescriptionKeepsEverythingAfterTheRequiredFields() throws Exception {
+        BatchCommand transfer = BatchCommand.parse(7, "TRANSFER  ACC1001 ACC1002   25.50  March rent,  flat 2");
+
+        assertEquals(7L, transfer.getLineNumber());
+        assertEquals(BatchCommand.Type.TRANSFER, transfer.getType());
+        assertEquals("ACC1001", transfer.getAccountNumber());
+        assertEquals("ACC1002", transfer.getToAccountNumber());
+        assertEquals(new BigDecimal("25.50"), transfer.getAmount());
+        assertEquals("March rent,  flat 2", transfer.getDescription());
+        assertEquals(List.of("ACC1001", "ACC1002"), transfer.getAccounts());
+
+        BatchCommand deposit = BatchCommand.parse(8, "deposit ACC1001 10.00");
+        assertEquals("", deposit.getDescription());
+        assertEquals(List.of("ACC1001"), deposit.getAccounts());
+    }
+
+    @Test
+    void testCreateAndSingleAccountCommands() throws Exception {
+        BatchCommand create = BatchCommand.parse(1, "create ACC1001 42 fixed_deposit 500.00");
+        assertEquals(Long.valueOf(42L), create.getCustomerId());
+        assertEquals(AccountType.FIXED_DEPOSIT, create.getAccountType());
+        assertEquals(new BigDecimal("500.00"), create.getAmount());
+
+        BatchCommand close = BatchCommand.parse(2, "close ACC1001");
+        assertEquals(BatchCommand.Type.CLOSE, close.getType());
+        assertNull(close.getAmount());
+        assertEquals(BatchCommand.Type.BALANCE, BatchCommand.parse(3, "Balance ACC1001").getType());
+    }
+
+    @Test
+    void testMissingArgumentsAreRejected() {
+        InvalidTransactionException e = assertThrows(InvalidTransactionException.class,
+                () -> BatchCommand.parse(1, "transfer ACC1001 ACC1002"));
+        assertEquals("TRANSFER expects 3 argument(s)", e.getMessage());
+        assertThrows(InvalidTransactionException.class, () -> BatchCommand.parse(2, "balance"));
+        assertThrows(InvalidTransactionException.class, () -> BatchCommand.parse(3, "create ACC1001 1 SAVINGS"));
+    }
+
+    @Test
+    void testMalformedValuesAreRejected() {
+        InvalidTransactionException unknown = assertThrows(InvalidTransactionException.class,
+                () -> BatchCommand.parse(1, "refund ACC1001 10.00"));
+        assertEquals("Unknown command: refund", unknown.getMessage());
+        assertThrows(InvalidTransactionException.class, () -> BatchCommand.parse(2, "deposit ACC1001 ten"));
+        assertThrows(InvalidTransactionException.class, () -> BatchCommand.parse(3, "create ACC1001 x SAVINGS 1"));
+        assertThrows(InvalidTransactionException.class, () -> BatchCommand.parse(4, "create ACC1001 1 GOLD 1"));
+    }
+}
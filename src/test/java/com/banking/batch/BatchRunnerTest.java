@@ -0,0 +1,66 @@
+package com.banking.batch;
+
+import com.banking.dao.InMemoryAccountRepository;
+import com.banking.dao.InMemoryTransactionLog;
+import com.banking.dao.InMemoryTransactionRepository;
+import com.banking.exception.BankingException;
+import com.banking.service.AccountService;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRunnerTest {
+
+    @Test
+    void testTransfersSharingAnAccountRunInScriptOrder() throws Exception {
+        // The first transfer is slow; the second can only succeed once the first has filled ACC1002.
+        AccountService accountService = new AccountService(new InMemoryAccountRepository(),
+                new InMemoryTransactionRepository(), new InMemoryTransactionLog()) {
+            @Override
+            public void transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount,
+                                 String description) throws BankingException {
+                if (fromAccountNumber.equals("ACC1001")) {
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.transfer(fromAccountNumber, toAccountNumber, amount, description);
+            }
+        };
+        String script = String.join("\n",
+                "create ACC1001 1 CHECKING 100.00",
+                "create ACC1002 1 CHECKING 0.00",
+                "create ACC1003 1 CHECKING 0.00",
+                "create ACC2001 1 CHECKING 5.00",
+                "",
+                "transfer ACC1001 ACC1002 100.00 First leg",
+                "# unrelated work runs alongside",
+                "deposit ACC2001 1.00",
+                "transfer ACC1002 ACC1003 100.00 Second leg",
+                "withdraw ACC9999 1.00");
+        StringWriter output = new StringWriter();
+
+        BatchRunner.BatchSummary summary = new BatchRunner(accountService, 4, 16)
+                .run(new BufferedReader(new StringReader(script)), new PrintWriter(output));
+
+        assertEquals(7L, summary.getSucceeded());
+        assertEquals(1L, summary.getFailed());
+        assertEquals(new BigDecimal("0.00"), accountService.getBalance("ACC1001"));
+        assertEquals(new BigDecimal("0.00"), accountService.getBalance("ACC1002"));
+        assertEquals(new BigDecimal("100.00"), accountService.getBalance("ACC1003"));
+        assertEquals(new BigDecimal("6.00"), accountService.getBalance("ACC2001"));
+
+        String[] lines = output.toString().split("\\R");
+        assertEquals("line\tcommand\taccount\tstatus\tresult", lines[0]);
+        assertEquals(9, lines.length);
+        assertTrue(output.toString().contains("10\tWITHDRAW\tACC9999\tERROR\t"), output::toString);
+    }
+}
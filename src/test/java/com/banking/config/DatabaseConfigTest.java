@@ -0,0 +1,134 @@
+package com.banking.config;
+
+import com.banking.dao.AccountDAO;
+import com.banking.model.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseConfigTest {
+
+    private String primaryUrl;
+    private String replicaUrl;
+    private DatabaseConfig dbConfig;
+    private AccountDAO accountDAO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String suffix = UUID.randomUUID().toString();
+        primaryUrl = "jdbc:h2:mem:primary-" + suffix + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        replicaUrl = "jdbc:h2:mem:replica-" + suffix + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+        // The replica lags behind: it still has the old balance.
+        createAccount(primaryUrl, "1000.00");
+        createAccount(replicaUrl, "500.00");
+
+        dbConfig = new DatabaseConfig(properties(replicaUrl));
+        accountDAO = new AccountDAO(dbConfig);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        dbConfig.shutdown();
+        for (String url : new String[]{primaryUrl, replicaUrl}) {
+            try (Connection conn = DriverManager.getConnection(url, "sa", "");
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("SHUTDOWN");
+            }
+        }
+    }
+
+    @Test
+    void testReadOnlyLookupGoesToReplica() throws Exception {
+        assertEquals(new BigDecimal("500.00"), accountDAO.findByAccountNumberReadOnly("ACC1001").getBalance());
+        assertEquals(new BigDecimal("1000.00"), accountDAO.findByAccountNumber("ACC1001").getBalance());
+    }
+
+    @Test
+    void testReadStaysOnPrimaryAfterWrite() throws Exception {
+        Account account = accountDAO.findByAccountNumber("ACC1001");
+        accountDAO.markWritten(account);
+
+        assertEquals(new BigDecimal("1000.00"), accountDAO.findByAccountNumberReadOnly("ACC1001").getBalance());
+    }
+
+    @Test
+    void testFallsBackToPrimaryWhenReplicaUnavailable() throws Exception {
+        dbConfig.shutdown();
+        dbConfig = new DatabaseConfig(properties("jdbc:h2:mem:missing-" + UUID.randomUUID() + ";IFEXISTS=TRUE"));
+        accountDAO = new AccountDAO(dbConfig);
+
+        assertEquals(new BigDecimal("1000.00"), accountDAO.findByAccountNumberReadOnly("ACC1001").getBalance());
+        assertFalse(dbConfig.getReplicaPools().get(0).isHealthy());
+    }
+
+    @Test
+    void testBusyReplicaFallsBackToPrimaryWithoutWaitingForThePoolTimeout() throws Exception {
+        dbConfig.shutdown();
+        Properties props = properties(replicaUrl);
+        props.setProperty("db.pool.size", "1");
+        props.setProperty("db.read.acquire.timeout.ms", "50");
+        dbConfig = new DatabaseConfig(props);
+        accountDAO = new AccountDAO(dbConfig);
+
+        try (Connection held = dbConfig.getReplicaPools().get(0).getConnection()) {
+            assertNotNull(held);
+            long started = System.nanoTime();
+            assertEquals(new BigDecimal("1000.00"), accountDAO.findByAccountNumberReadOnly("ACC1001").getBalance());
+            assertTrue(System.nanoTime() - started < 5_000_000_000L);
+        }
+        // Busy is not broken: the replica keeps serving reads once a connection is free.
+        assertTrue(dbConfig.getReplicaPools().get(0).isHealthy());
+        assertEquals(new BigDecimal("500.00"), accountDAO.findByAccountNumberReadOnly("ACC1001").getBalance());
+    }
+
+    @Test
+    void testHealthCheckLeavesABusyReplicaHealthy() throws Exception {
+        dbConfig.shutdown();
+        Properties props = properties(replicaUrl);
+        props.setProperty("db.pool.size", "1");
+        props.setProperty("db.read.acquire.timeout.ms", "50");
+        props.setProperty("db.health.interval.seconds", "1");
+        dbConfig = new DatabaseConfig(props);
+        accountDAO = new AccountDAO(dbConfig);
+        ConnectionPool replica = dbConfig.getReplicaPools().get(0);
+
+        try (Connection held = replica.getConnection()) {
+            assertNotNull(held);
+            // Long enough for the checker to find the pool exhausted at least once.
+            Thread.sleep(2_500);
+            assertTrue(replica.isHealthy());
+        }
+        assertEquals(new BigDecimal("500.00"), accountDAO.findByAccountNumberReadOnly("ACC1001").getBalance());
+    }
+
+    private Properties properties(String replica) {
+        Properties props = new Properties();
+        props.setProperty("db.driver", "org.h2.Driver");
+        props.setProperty("db.url", primaryUrl);
+        props.setProperty("db.username", "sa");
+        props.setProperty("db.password", "");
+        props.setProperty("db.replica.1.url", replica);
+        props.setProperty("db.health.interval.seconds", "0");
+        return props;
+    }
+
+    private static void createAccount(String url, String balance) throws Exception {
+        try (Connection conn = DriverManager.getConnection(url, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("RUNSCRIPT FROM 'classpath:/schema.sql'");
+            stmt.execute("INSERT INTO customer (first_name, last_name, email) VALUES ('Jane', 'Doe', 'jane@example.com')");
+            stmt.execute("INSERT INTO account (account_number, customer_id, account_type, balance, status) "
+                    + "VALUES ('ACC1001', 1, 'SAVINGS', " + balance + ", 'ACTIVE')");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.banking.dao;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountDirectoryTest {
+
+    @Test
+    void testGrowsPastExpectedSize() {
+        AccountDirectory directory = new AccountDirectory(16);
+        for (int i = 1; i <= 100_000; i++) {
+            assertTrue(directory.put("ACC" + i, i));
+        }
+
+        assertEquals(100_000, directory.size());
+        assertEquals(100_000, directory.getMaxAccountId());
+        for (int i = 1; i <= 100_000; i++) {
+            assertEquals(i, directory.get("ACC" + i));
+        }
+        assertEquals(AccountDirectory.MISSING, directory.get("ACC0"));
+    }
+
+    @Test
+    void testExistingNumberKeepsItsId() {
+        AccountDirectory directory = new AccountDirectory(16);
+        directory.put("ACC1001", 7);
+        directory.put("ACC1001", 8);
+
+        assertEquals(7, directory.get("ACC1001"));
+        assertEquals(1, directory.size());
+    }
+
+    @Test
+    void testOverlongNumbersAreNotStored() {
+        AccountDirectory directory = new AccountDirectory(16);
+
+        assertFalse(directory.put("ACC-0123456789012345678", 1));
+        assertEquals(AccountDirectory.MISSING, directory.get("ACC-0123456789012345678"));
+    }
+
+    @Test
+    void testSaveAndLoad(@TempDir Path dir) throws Exception {
+        AccountDirectory directory = new AccountDirectory(1_000);
+        for (int i = 1; i <= 5_000; i++) {
+            directory.put("ACC" + i, i * 3L);
+        }
+        Path file = dir.resolve("directory.bin");
+        directory.save(file);
+
+        AccountDirectory loaded = AccountDirectory.load(file);
+        assertEquals(5_000, loaded.size());
+        assertEquals(15_000, loaded.getMaxAccountId());
+        assertEquals(300, loaded.get("ACC100"));
+
+        loaded.put("ACC5001", 15_003);
+        assertEquals(15_003, loaded.get("ACC5001"));
+    }
+
+    @Test
+    void testReadersSeeEveryPublishedEntry() throws Exception {
+        AccountDirectory directory = new AccountDirectory(16);
+        AtomicInteger published = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger misses = new AtomicInteger();
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                int upTo = published.get();
+                for (int i = Math.max(1, upTo - 100); i <= upTo; i++) {
+                    if (directory.get("ACC" + i) != i) {
+                        misses.incrementAndGet();
+                    }
+                }
+            }
+        });
+        reader.start();
+        for (int i = 1; i <= 50_000; i++) {
+            directory.put("ACC" + i, i);
+            published.set(i);
+        }
+        done.set(true);
+        reader.join();
+
+        assertEquals(0, misses.get());
+    }
+}
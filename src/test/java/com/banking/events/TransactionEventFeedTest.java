@@ -0,0 +1,81 @@
+package com.banking.events;
+
+import com.banking.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionEventFeedTest {
+
+    @Test
+    void testEveryConsumerSeesEveryEventInOrder() throws Exception {
+        TransactionEventFeed feed = new TransactionEventFeed(64);
+        List<Long> first = Collections.synchronizedList(new ArrayList<>());
+        List<Long> second = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(2);
+
+        feed.subscribe("first", collector(first, done, 50), WaitStrategy.yielding(), 8);
+        feed.subscribe("second", collector(second, done, 50), WaitStrategy.blocking(), 16);
+
+        for (long i = 1; i <= 50; i++) {
+            feed.publish(TransactionType.DEPOSIT, i, 1001L, null, new BigDecimal("10.00"), new BigDecimal("10.00"));
+            if (i % 16 == 0) {
+                Thread.sleep(5);
+            }
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(50, first.size());
+        assertEquals(first, second);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i + 1, first.get(i));
+        }
+        feed.close();
+    }
+
+    @Test
+    void testSlowConsumerIsOverrunInsteadOfBlockingPublisher() throws Exception {
+        TransactionEventFeed feed = new TransactionEventFeed(8);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch overrun = new CountDownLatch(1);
+
+        TransactionEventFeed.Subscription slow = feed.subscribe("slow", new EventHandler() {
+            @Override
+            public void onEvent(TransactionEvent event, boolean endOfBatch) throws Exception {
+                release.await();
+            }
+
+            @Override
+            public void onOverrun(long missed) {
+                overrun.countDown();
+            }
+        }, WaitStrategy.sleeping(), 1);
+
+        for (long i = 1; i <= 100; i++) {
+            feed.publish(TransactionType.WITHDRAWAL, i, 1001L, null, BigDecimal.ONE, BigDecimal.ZERO);
+        }
+        assertEquals(100, feed.getPublishedCount());
+        assertTrue(slow.getLag() > 8);
+
+        release.countDown();
+        assertTrue(overrun.await(5, TimeUnit.SECONDS));
+        assertTrue(slow.getMissed() > 0);
+        feed.close();
+    }
+
+    private static EventHandler collector(List<Long> ids, CountDownLatch done, int expected) {
+        return (event, endOfBatch) -> {
+            ids.add(event.getTransactionId());
+            if (ids.size() == expected) {
+                done.countDown();
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.banking.jfr;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementTracingTest {
+
+    @Test
+    void testSelectIsNamedAfterItsFirstTable() {
+        assertEquals("SELECT account", StatementTracing.sqlId("SELECT * FROM account WHERE account_number = ?"));
+        assertEquals("SELECT transaction", StatementTracing.sqlId(
+                "SELECT COUNT(*), SUM(amount) FROM transaction t JOIN account a ON t.account_id = a.account_id"));
+        assertEquals("SELECT account", StatementTracing.sqlId("\n  select balance from account for update"));
+    }
+
+    @Test
+    void testInsertIsNamedAfterItsTargetTable() {
+        assertEquals("INSERT transaction_log", StatementTracing.sqlId(
+                "INSERT INTO transaction_log (transaction_id, log_level, message) VALUES (?, ?, ?)"));
+        assertEquals("INSERT account", StatementTracing.sqlId("INSERT INTO account(account_number) VALUES (?)"));
+        assertEquals("REPLACE daily_rollup", StatementTracing.sqlId("REPLACE INTO daily_rollup VALUES (?, ?)"));
+    }
+
+    @Test
+    void testUpdateIsNamedAfterItsTable() {
+        assertEquals("UPDATE account", StatementTracing.sqlId("UPDATE account SET balance = ? WHERE account_id = ?"));
+        assertEquals("UPDATE", StatementTracing.sqlId("UPDATE"));
+    }
+
+    @Test
+    void testDeleteIsNamedAfterItsTable() {
+        assertEquals("DELETE transaction", StatementTracing.sqlId(
+                "DELETE FROM transaction WHERE transaction_id IN (?, ?)"));
+        assertEquals("DELETE", StatementTracing.sqlId("DELETE"));
+    }
+
+    @Test
+    void testUnknownVerbsKeepOnlyTheVerb() {
+        assertEquals("CREATE", StatementTracing.sqlId("CREATE TABLE IF NOT EXISTS standing_order (order_id BIGINT)"));
+        assertEquals("SET", StatementTracing.sqlId("set autocommit = 0"));
+        assertEquals("SELECT", StatementTracing.sqlId("SELECT 1"));
+        assertEquals("", StatementTracing.sqlId("   "));
+    }
+}
@@ -0,0 +1,192 @@
+package com.banking.logging;
+
+import com.banking.model.AccountStatus;
+import com.banking.model.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BusinessEventLogTest {
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    private static final long DAY_ONE_NOON = LocalDateTime.of(2024, 5, 1, 12, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("events");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentProducersEachClaimTheirOwnSlot() throws Exception {
+        int producers = 8;
+        int perProducer = 2_000;
+        BusinessEventLog log = unstarted(producers * perProducer, () -> DAY_ONE_NOON);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long first = (long) p * perProducer;
+            Thread thread = new Thread(() -> {
+                for (long id = first; id < first + perProducer; id++) {
+                    log.logPosting(1L, id, TransactionType.DEPOSIT, BigDecimal.ONE, BigDecimal.TEN);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        log.close();
+
+        List<long[]> records = read(directory.resolve("banking-events-2024-05-01.bin"));
+        assertEquals(producers * perProducer, records.size());
+        Set<Long> transactionIds = new HashSet<>();
+        for (long[] record : records) {
+            transactionIds.add(record[4]);
+        }
+        assertEquals(producers * perProducer, transactionIds.size());
+        assertEquals(0L, log.getDroppedCount());
+        assertEquals(producers * perProducer, log.getWrittenCount());
+    }
+
+    @Test
+    void testEventsAreDroppedAndCountedWhenTheBufferIsFull() throws Exception {
+        BusinessEventLog log = unstarted(8, () -> DAY_ONE_NOON);
+
+        for (long id = 0; id < 12; id++) {
+            log.logStatusChange(id, AccountStatus.CLOSED);
+        }
+        log.close();
+        log.logStatusChange(99L, AccountStatus.ACTIVE);
+
+        assertEquals(5L, log.getDroppedCount());
+        assertEquals(8L, log.getWrittenCount());
+        List<long[]> records = read(directory.resolve("banking-events-2024-05-01.bin"));
+        assertEquals(8, records.size());
+        assertEquals(7L, records.get(7)[3]);
+    }
+
+    @Test
+    void testWriterDrainsRecordsInTheDocumentedLayout() throws Exception {
+        // Room for every event, so a writer that falls behind cannot drop any.
+        BusinessEventLog log = new BusinessEventLog(directory, 128, 16, new int[]{1, 1, 1, 1});
+        for (long id = 1; id <= 100; id++) {
+            log.logPosting(7L, id, TransactionType.WITHDRAWAL, new BigDecimal("12.34"), new BigDecimal("100.00"));
+        }
+        log.logFailure(FailureCode.INSUFFICIENT_FUNDS, 7L, new BigDecimal("5.00"));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (log.getWrittenCount() < 101 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        log.close();
+
+        List<long[]> records = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted().collect(Collectors.toList())) {
+                records.addAll(read(file));
+            }
+        }
+        assertEquals(0L, log.getDroppedCount());
+        assertEquals(101L, log.getWrittenCount());
+        assertEquals(101, records.size());
+        for (int i = 0; i < 100; i++) {
+            long[] posting = records.get(i);
+            assertEquals(EventCategory.POSTING.ordinal(), posting[1]);
+            assertEquals(TransactionType.WITHDRAWAL.ordinal(), posting[2]);
+            assertEquals(7L, posting[3]);
+            assertEquals(i + 1L, posting[4]);
+            assertEquals(1234L, posting[5]);
+            assertEquals(10000L, posting[6]);
+        }
+        long[] failure = records.get(100);
+        assertEquals(EventCategory.FAILURE.ordinal(), failure[1]);
+        assertEquals(FailureCode.INSUFFICIENT_FUNDS.ordinal(), failure[2]);
+        assertEquals(7L, failure[3]);
+        assertEquals(500L, failure[5]);
+    }
+
+    @Test
+    void testRecordsRollOverToANewFileAtMidnight() throws Exception {
+        long beforeMidnight = LocalDateTime.of(2024, 5, 1, 23, 59, 59).toInstant(ZoneOffset.UTC).toEpochMilli();
+        AtomicLong now = new AtomicLong(beforeMidnight);
+        BusinessEventLog log = unstarted(16, now::get);
+
+        log.logBalanceUpdate(1L, new BigDecimal("1.00"));
+        log.logBalanceUpdate(2L, new BigDecimal("2.00"));
+        now.set(beforeMidnight + 2_000);
+        log.logBalanceUpdate(3L, new BigDecimal("3.00"));
+        log.close();
+
+        List<long[]> dayOne = read(directory.resolve("banking-events-2024-05-01.bin"));
+        List<long[]> dayTwo = read(directory.resolve("banking-events-2024-05-02.bin"));
+        assertEquals(2, dayOne.size());
+        assertEquals(1, dayTwo.size());
+        assertEquals(3L, dayTwo.get(0)[3]);
+        assertEquals(300L, dayTwo.get(0)[6]);
+    }
+
+    @Test
+    void testUnsampledCategoriesAreNotRecorded() throws Exception {
+        BusinessEventLog log = new BusinessEventLog(directory, 8, 8, new int[]{0, 1, 1, 1}, UTC,
+                () -> DAY_ONE_NOON, false);
+
+        log.logPosting(1L, 1L, TransactionType.DEPOSIT, BigDecimal.ONE, BigDecimal.ONE);
+        log.logStatusChange(1L, AccountStatus.ACTIVE);
+        log.close();
+
+        assertEquals(1L, log.getWrittenCount());
+        assertEquals(0L, log.getDroppedCount());
+    }
+
+    private BusinessEventLog unstarted(int capacity, LongSupplier clock) {
+        return new BusinessEventLog(directory, Integer.highestOneBit(capacity - 1) << 1, 64, new int[]{1, 1, 1, 1},
+                UTC, clock, false);
+    }
+
+    // Each record as {epochMillis, category, detail, accountId, transactionId, amountMinor, balanceMinor}.
+    private static List<long[]> read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(0, buffer.remaining() % BusinessEventLog.RECORD_SIZE);
+        List<long[]> records = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            long timestamp = buffer.getLong();
+            long category = buffer.getShort();
+            long detail = buffer.getShort();
+            buffer.getInt();
+            records.add(new long[]{timestamp, category, detail, buffer.getLong(), buffer.getLong(),
+                    buffer.getLong(), buffer.getLong()});
+        }
+        return records;
+    }
+}
@@ -0,0 +1,315 @@
+package com.banking.scheduling;
+
+import com.banking.config.DatabaseConfig;
+import com.banking.dao.InMemoryAccountRepository;
+import com.banking.dao.InMemoryTransactionLog;
+import com.banking.dao.InMemoryTransactionRepository;
+import com.banking.dao.StandingOrderDAO;
+import com.banking.exception.BankingException;
+import com.banking.model.*;
+import com.banking.service.AccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StandingOrderSchedulerTest {
+
+    private InMemoryStandingOrderDAO orders;
+    private AccountService accountService;
+    private StandingOrderScheduler scheduler;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() throws BankingException {
+        orders = new InMemoryStandingOrderDAO();
+        accountService = new AccountService(new InMemoryAccountRepository(), new InMemoryTransactionRepository(),
+                new InMemoryTransactionLog());
+        accountService.createAccount(account("ACC1001", "1000.00"));
+        accountService.createAccount(account("ACC1002", "50.00"));
+        now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+
+    @Test
+    void testDoubleFiredTimerPostsTheOccurrenceOnce() throws Exception {
+        scheduler = scheduler(0);
+        StandingOrder order = scheduler.schedule(order(ScheduleFrequency.DAILY, now.minusMinutes(1)));
+        // Reloading queues a second timer for the same occurrence; with one timer per batch, both workers
+        // read the order before either claims it.
+        scheduler.load();
+        orders.barrier = new CyclicBarrier(2);
+
+        assertEquals(2, scheduler.tick(System.currentTimeMillis()));
+        orders.barrier = null;
+
+        assertEquals(1, scheduler.getExecutedCount());
+        assertEquals(1, scheduler.getStaleCount());
+        assertEquals(new BigDecimal("900.00"), accountService.getBalance("ACC1001"));
+        assertEquals(new BigDecimal("150.00"), accountService.getBalance("ACC1002"));
+        StandingOrder stored = orders.findById(order.getOrderId());
+        assertEquals(1, stored.getExecutions());
+        assertEquals(now.minusMinutes(1).plusDays(1), stored.getNextDueAt());
+        assertNull(stored.getInFlightDueAt());
+        assertEquals("SUCCESS", stored.getLastOutcome());
+    }
+
+    @Test
+    void testClaimCanOnlyBeWonOnce() throws Exception {
+        StandingOrder order = orders.create(order(ScheduleFrequency.DAILY, now));
+        LocalDateTime next = now.plusDays(1);
+
+        assertTrue(orders.advance(order.getOrderId(), now, next, StandingOrderStatus.ACTIVE, now));
+        assertFalse(orders.advance(order.getOrderId(), now, next, StandingOrderStatus.ACTIVE, now));
+
+        orders.recordOutcome(order.getOrderId(), now, "SUCCESS");
+        // Released, but the order has moved on to the next occurrence.
+        assertFalse(orders.advance(order.getOrderId(), now, next, StandingOrderStatus.ACTIVE, now));
+    }
+
+    @Test
+    void testInterruptedClaimIsRecordedAsUnknownAndNotRetried() throws Exception {
+        LocalDateTime due = now.minusHours(1);
+        StandingOrder order = orders.create(order(ScheduleFrequency.DAILY, due));
+        // A crash after the claim: the row already points at the next occurrence.
+        orders.advance(order.getOrderId(), due, due.plusDays(1), StandingOrderStatus.ACTIVE, due);
+        scheduler = scheduler(0);
+
+        assertEquals(1, scheduler.load());
+        assertEquals(0, scheduler.tick(System.currentTimeMillis()));
+
+        StandingOrder stored = orders.findById(order.getOrderId());
+        assertEquals(StandingOrderScheduler.OUTCOME_UNKNOWN, stored.getLastOutcome());
+        assertEquals(due, stored.getLastDueAt());
+        assertNull(stored.getInFlightDueAt());
+        assertEquals(due.plusDays(1), stored.getNextDueAt());
+        assertEquals(0, scheduler.getExecutedCount());
+        assertEquals(new BigDecimal("1000.00"), accountService.getBalance("ACC1001"));
+    }
+
+    @Test
+    void testRestartRunsMissedOccurrencesOnePerTick() throws Exception {
+        LocalDateTime first = now.minusHours(30);
+        StandingOrder order = orders.create(order(ScheduleFrequency.DAILY, first));
+        scheduler = scheduler(0);
+
+        assertEquals(1, scheduler.load());
+        long nowMillis = System.currentTimeMillis();
+        assertEquals(1, scheduler.tick(nowMillis));
+        assertEquals(first, orders.findById(order.getOrderId()).getLastDueAt());
+        assertEquals(1, scheduler.tick(nowMillis + 1000));
+        assertEquals(0, scheduler.tick(nowMillis + 2000));
+
+        StandingOrder stored = orders.findById(order.getOrderId());
+        assertEquals(2, stored.getExecutions());
+        assertEquals(first.plusDays(1), stored.getLastDueAt());
+        assertEquals(first.plusDays(2), stored.getNextDueAt());
+        assertEquals(2, scheduler.getExecutedCount());
+        assertEquals(new BigDecimal("800.00"), accountService.getBalance("ACC1001"));
+    }
+
+    @Test
+    void testOneOffOrderMissedWhileDownRunsAndCompletes() throws Exception {
+        StandingOrder order = orders.create(order(ScheduleFrequency.ONCE, now.minusHours(1)));
+        scheduler = scheduler(0);
+
+        scheduler.load();
+        assertEquals(1, scheduler.tick(System.currentTimeMillis()));
+
+        StandingOrder stored = orders.findById(order.getOrderId());
+        assertEquals(StandingOrderStatus.COMPLETED, stored.getStatus());
+        assertNull(stored.getNextDueAt());
+        assertEquals(1, scheduler.getExecutedCount());
+        assertEquals(0, scheduler.load());
+    }
+
+    @Test
+    void testCatchUpLimitSkipsTheOlderMissedOccurrences() throws Exception {
+        LocalDateTime first = now.minusDays(4).minusMinutes(1);
+        StandingOrder order = orders.create(order(ScheduleFrequency.DAILY, first));
+        scheduler = scheduler(2);
+
+        assertEquals(1, scheduler.load());
+        // Five missed, the last a minute ago; only the last two are kept.
+        assertEquals(first.plusDays(3), orders.findById(order.getOrderId()).getNextDueAt());
+
+        long nowMillis = System.currentTimeMillis();
+        for (int i = 0; i < 4; i++) {
+            scheduler.tick(nowMillis + i * 1000L);
+        }
+
+        StandingOrder stored = orders.findById(order.getOrderId());
+        assertEquals(2, stored.getExecutions());
+        assertEquals(first.plusDays(4), stored.getLastDueAt());
+        assertEquals(first.plusDays(5), stored.getNextDueAt());
+        assertEquals(new BigDecimal("800.00"), accountService.getBalance("ACC1001"));
+    }
+
+    @Test
+    void testCatchUpLimitLeavesShortBacklogAlone() throws Exception {
+        LocalDateTime first = now.minusDays(1).minusMinutes(1);
+        StandingOrder order = orders.create(order(ScheduleFrequency.DAILY, first));
+        scheduler = scheduler(2);
+
+        scheduler.load();
+
+        assertEquals(first, orders.findById(order.getOrderId()).getNextDueAt());
+    }
+
+    private StandingOrderScheduler scheduler(int maxCatchUp) {
+        return new StandingOrderScheduler(accountService, orders, ZoneOffset.UTC, 1000, 2, 1, maxCatchUp);
+    }
+
+    private static StandingOrder order(ScheduleFrequency frequency, LocalDateTime firstDueAt) {
+        return new StandingOrder("ACC1001", "ACC1002", new BigDecimal("100.00"), "Rent", frequency, firstDueAt);
+    }
+
+    private static Account account(String accountNumber, String balance) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setCustomerId(1L);
+        account.setAccountType(AccountType.SAVINGS);
+        account.setBalance(new BigDecimal(balance));
+        account.setStatus(AccountStatus.ACTIVE);
+        return account;
+    }
+
+    /** Applies the same row conditions as the SQL in {@link StandingOrderDAO}, atomically per call. */
+    private static final class InMemoryStandingOrderDAO extends StandingOrderDAO {
+        private final Map<Long, StandingOrder> rows = new TreeMap<>();
+        private long nextId = 1;
+        volatile CyclicBarrier barrier;
+
+        InMemoryStandingOrderDAO() {
+            super((DatabaseConfig) null);
+        }
+
+        @Override
+        public void createTableIfMissing() {
+        }
+
+        @Override
+        public synchronized StandingOrder create(StandingOrder order) {
+            order.setOrderId(nextId++);
+            rows.put(order.getOrderId(), copy(order));
+            return order;
+        }
+
+        @Override
+        public List<StandingOrder> findByIds(Collection<Long> orderIds) throws SQLException {
+            List<StandingOrder> found = new ArrayList<>();
+            synchronized (this) {
+                for (Long orderId : orderIds) {
+                    StandingOrder row = rows.get(orderId);
+                    if (row != null) {
+                        found.add(copy(row));
+                    }
+                }
+            }
+            CyclicBarrier await = barrier;
+            if (await != null) {
+                try {
+                    await.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                    throw new SQLException("Barrier failed", e);
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public synchronized List<StandingOrder> findActive(long afterOrderId, int limit) {
+            List<StandingOrder> found = new ArrayList<>();
+            for (StandingOrder row : rows.values()) {
+                if (row.getStatus() == StandingOrderStatus.ACTIVE && row.getOrderId() > afterOrderId
+                        && found.size() < limit) {
+                    found.add(copy(row));
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public synchronized List<StandingOrder> findInFlight() {
+            List<StandingOrder> found = new ArrayList<>();
+            for (StandingOrder row : rows.values()) {
+                if (row.getInFlightDueAt() != null) {
+                    found.add(copy(row));
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public synchronized boolean advance(long orderId, LocalDateTime expectedDue, LocalDateTime nextDue,
+                                            StandingOrderStatus status, LocalDateTime inFlightDue) {
+            StandingOrder row = rows.get(orderId);
+            if (row == null || row.getStatus() != StandingOrderStatus.ACTIVE
+                    || !expectedDue.equals(row.getNextDueAt()) || row.getInFlightDueAt() != null) {
+                return false;
+            }
+            row.setNextDueAt(nextDue);
+            row.setStatus(status);
+            row.setInFlightDueAt(inFlightDue);
+            return true;
+        }
+
+        @Override
+        public synchronized void recordOutcome(long orderId, LocalDateTime due, String outcome) {
+            StandingOrder row = rows.get(orderId);
+            if (row != null && due.equals(row.getInFlightDueAt())) {
+                row.setInFlightDueAt(null);
+                row.setLastDueAt(due);
+                row.setLastOutcome(outcome);
+                row.setExecutions(row.getExecutions() + 1);
+            }
+        }
+
+        @Override
+        public synchronized boolean cancel(long orderId) {
+            StandingOrder row = rows.get(orderId);
+            if (row == null || row.getStatus() != StandingOrderStatus.ACTIVE) {
+                return false;
+            }
+            row.setStatus(StandingOrderStatus.CANCELLED);
+            return true;
+        }
+
+        private static StandingOrder copy(StandingOrder order) {
+            StandingOrder copy = new StandingOrder(order.getFromAccountNumber(), order.getToAccountNumber(),
+                    order.getAmount(), order.getDescription(), order.getFrequency(), order.getFirstDueAt());
+            copy.setOrderId(order.getOrderId());
+            copy.setEndAt(order.getEndAt());
+            copy.setNextDueAt(order.getNextDueAt());
+            copy.setInFlightDueAt(order.getInFlightDueAt());
+            copy.setLastDueAt(order.getLastDueAt());
+            copy.setLastOutcome(order.getLastOutcome());
+            copy.setExecutions(order.getExecutions());
+            copy.setStatus(order.getStatus());
+            copy.setCreatedAt(order.getCreatedAt());
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.banking.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    void testFiresOnDueTickInOrder() {
+        TimerWheel wheel = new TimerWheel(1000, 0);
+        wheel.add(new TimerWheel.Timer(1, 0), 5_000);
+        wheel.add(new TimerWheel.Timer(2, 0), 5_000);
+        wheel.add(new TimerWheel.Timer(3, 0), 7_500);
+
+        assertTrue(wheel.advance(4_999).isEmpty());
+        assertEquals(List.of(1L, 2L), ids(wheel.advance(5_000)));
+        assertTrue(wheel.advance(7_999).isEmpty());
+        assertEquals(List.of(3L), ids(wheel.advance(8_000)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testCascadesFromCoarseWheels() {
+        TimerWheel wheel = new TimerWheel(1000, 0);
+        long farDue = 3L * 24 * 3600 * 1000;
+        wheel.add(new TimerWheel.Timer(1, 0), 300_000);
+        wheel.add(new TimerWheel.Timer(2, 0), farDue);
+
+        assertEquals(List.of(1L), ids(wheel.advance(300_000)));
+        assertTrue(wheel.advance(farDue - 1_000).isEmpty());
+        assertEquals(List.of(2L), ids(wheel.advance(farDue)));
+    }
+
+    @Test
+    void testBeyondRangeIsParkedAndReplaced() {
+        TimerWheel wheel = new TimerWheel(1000, 0);
+        long beyondRange = 1L << 27;
+        wheel.add(new TimerWheel.Timer(1, 0), beyondRange * 1000);
+
+        assertTrue(wheel.advance((beyondRange - 1) * 1000).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(1L), ids(wheel.advance(beyondRange * 1000)));
+    }
+
+    @Test
+    void testPastDueFiresOnNextAdvance() {
+        TimerWheel wheel = new TimerWheel(1000, 60_000);
+        wheel.add(new TimerWheel.Timer(1, 0), 1_000);
+
+        assertEquals(List.of(1L), ids(wheel.advance(60_000)));
+        assertTrue(wheel.advance(61_000).isEmpty());
+    }
+
+    private static List<Long> ids(List<TimerWheel.Timer> timers) {
+        List<Long> ids = new ArrayList<>();
+        for (TimerWheel.Timer timer : timers) {
+            ids.add(timer.id);
+        }
+        return ids;
+    }
+}
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -40,4 +42,43 @@ class AccountServiceTest {
 
         assertTrue(exception.getMessage().contains("same account"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTryDepositReportsInvalidAmountWithoutThrowing() throws BankingException {
+        PostingResult result = accountService.tryDeposit("ACC1001", new BigDecimal("-100.00"), "Invalid deposit");
+
+        assertFalse(result.isSuccess());
+        assertEquals(PostingResult.Outcome.INVALID_AMOUNT, result.getOutcome());
+        assertEquals(new BigDecimal("-100.00"), result.getRequestedAmount());
+        assertThrows(InvalidTransactionException.class, result::getTransactionOrThrow);
+    }
+
+    @Test
+    void testMergeHistoryAppendsArchivedRowsAndDropsDuplicates() {
+        List<Transaction> recent = List.of(transaction(5L), transaction(4L));
+        // Row 4 was archived but not yet deleted from the table when history was read.
+        List<Transaction> archived = List.of(transaction(4L), transaction(2L), transaction(1L));
+
+        List<Long> ids = new ArrayList<>();
+        for (Transaction t : AccountService.mergeHistory(recent, archived)) {
+            ids.add(t.getTransactionId());
+        }
+
+        assertEquals(List.of(5L, 4L, 2L, 1L), ids);
+        assertSame(recent.get(1), AccountService.mergeHistory(recent, archived).get(1));
+    }
+
+    @Test
+    void testMergeHistoryWithoutArchivedRowsReturnsRecent() {
+        List<Transaction> recent = List.of(transaction(1L));
+
+        assertSame(recent, AccountService.mergeHistory(recent, List.of()));
+        assertEquals(1, AccountService.mergeHistory(List.of(), List.of(transaction(1L))).size());
+    }
+
+    private static Transaction transaction(Long transactionId) {
+        Transaction transaction = new Transaction(1L, TransactionType.DEPOSIT, BigDecimal.ONE, BigDecimal.ONE, null);
+        transaction.setTransactionId(transactionId);
+        return transaction;
+    }
+}
@@ -0,0 +1,91 @@
+package com.banking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControllerTest {
+
+    @Test
+    void testBurstThenReject() {
+        AdmissionController controller = controller(10, 10_000);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(controller.tryAcquire(AdmissionController.KeyClass.ACCOUNT, "ACC1001"));
+        }
+        assertFalse(controller.tryAcquire(AdmissionController.KeyClass.ACCOUNT, "ACC1001"));
+
+        // Other keys are unaffected by one noisy account.
+        assertTrue(controller.tryAcquire(AdmissionController.KeyClass.ACCOUNT, "ACC1002"));
+
+        AdmissionController.Stats stats = controller.getStats(AdmissionController.KeyClass.ACCOUNT);
+        assertEquals(6, stats.getAdmitted());
+        assertEquals(1, stats.getRejected());
+        assertEquals(2, stats.getActiveKeys());
+    }
+
+    @Test
+    void testFullKeySpaceAdmitsUntracked() {
+        AdmissionController controller = controller(1, 10_000);
+
+        assertTrue(controller.tryAcquire(AdmissionController.KeyClass.ACCOUNT, "ACC1001"));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(controller.tryAcquire(AdmissionController.KeyClass.ACCOUNT, "ACC2001"));
+        }
+
+        AdmissionController.Stats stats = controller.getStats(AdmissionController.KeyClass.ACCOUNT);
+        assertEquals(1, stats.getActiveKeys());
+        assertEquals(10, stats.getUntracked());
+    }
+
+    @Test
+    void testIdleBucketsAreEvicted() throws InterruptedException {
+        AdmissionController controller = controller(1, 1);
+
+        assertTrue(controller.tryAcquire(AdmissionController.KeyClass.ACCOUNT, "ACC1001"));
+        Thread.sleep(20);
+        assertTrue(controller.tryAcquire(AdmissionController.KeyClass.ACCOUNT, "ACC1002"));
+
+        AdmissionController.Stats stats = controller.getStats(AdmissionController.KeyClass.ACCOUNT);
+        assertEquals(1, stats.getEvicted());
+        assertEquals(1, stats.getActiveKeys());
+    }
+
+    @Test
+    void testFullKeySpaceIsSweptInBoundedSteps() {
+        AdmissionController controller = controller(200, 1_000);
+        long start = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            assertTrue(controller.tryAcquire(AdmissionController.KeyClass.ACCOUNT, "ACC" + i, start));
+        }
+        long later = start + TimeUnit.SECONDS.toNanos(2);
+
+        // One new key evicts one step's worth of idle buckets, not the whole map.
+        assertTrue(controller.tryAcquire(AdmissionController.KeyClass.ACCOUNT, "NEW1", later));
+        AdmissionController.Stats stats = controller.getStats(AdmissionController.KeyClass.ACCOUNT);
+        assertEquals(64, stats.getEvicted());
+        assertEquals(200 - 64 + 1, stats.getActiveKeys());
+
+        // The next step resumes where the last one stopped, until the pass is done.
+        assertTrue(controller.tryAcquire(AdmissionController.KeyClass.ACCOUNT, "NEW2", later));
+        assertEquals(128, controller.getStats(AdmissionController.KeyClass.ACCOUNT).getEvicted());
+        for (int i = 3; i <= 10; i++) {
+            assertTrue(controller.tryAcquire(AdmissionController.KeyClass.ACCOUNT, "NEW" + i, later));
+        }
+        stats = controller.getStats(AdmissionController.KeyClass.ACCOUNT);
+        assertEquals(200, stats.getEvicted());
+        assertEquals(10, stats.getActiveKeys());
+        assertEquals(0, stats.getUntracked());
+    }
+
+    private static AdmissionController controller(int maxKeys, long idleMillis) {
+        Map<AdmissionController.KeyClass, AdmissionController.Limit> limits =
+                new EnumMap<>(AdmissionController.KeyClass.class);
+        limits.put(AdmissionController.KeyClass.ACCOUNT, new AdmissionController.Limit(0.001, 5));
+        return new AdmissionController(limits, maxKeys, idleMillis);
+    }
+}
@@ -0,0 +1,198 @@
+package com.banking.service;
+
+import com.banking.dao.InMemoryAccountRepository;
+import com.banking.dao.InMemoryTransactionLog;
+import com.banking.dao.InMemoryTransactionRepository;
+import com.banking.exception.BankingException;
+import com.banking.model.Account;
+import com.banking.model.AccountStatus;
+import com.banking.model.AccountType;
+import com.banking.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncAccountServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch bothLookups = new CountDownLatch(2);
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicInteger transfers = new AtomicInteger();
+    private AsyncAccountService async;
+
+    // Answers from memory; getAccount and history block until released, lookups wait for each other.
+    private final AccountService stub = new AccountService() {
+        @Override
+        public Account getAccount(String accountNumber) throws BankingException {
+            reads.incrementAndGet();
+            await(release);
+            return account(accountNumber);
+        }
+
+        @Override
+        public List<Transaction> getTransactionHistory(String accountNumber) throws BankingException {
+            await(release);
+            return List.of();
+        }
+
+        @Override
+        public Account findAccountOrNull(String accountNumber) throws BankingException {
+            bothLookups.countDown();
+            if (!awaitQuietly(bothLookups)) {
+                throw new BankingException("Lookups did not overlap");
+            }
+            return accountNumber.startsWith("MISSING") ? null : account(accountNumber);
+        }
+
+        @Override
+        public PostingResult tryTransfer(Account fromAccount, Account toAccount, BigDecimal amount,
+                                         String description) {
+            transfers.incrementAndGet();
+            return PostingResult.transferred(new Transaction(), new Transaction());
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (async != null) {
+            async.close();
+        }
+    }
+
+    @Test
+    void testConcurrentLookupsShareOneQuery() throws Exception {
+        async = new AsyncAccountService(stub, 4, 16, 0);
+
+        CompletableFuture<Account> first = async.getAccount("ACC1001");
+        CompletableFuture<Account> second = async.getAccount("ACC1001");
+        CompletableFuture<BigDecimal> balance = async.getBalance("ACC1001");
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(new BigDecimal("100.00"), balance.get(5, TimeUnit.SECONDS));
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void testCancellingOneWaiterLeavesTheOthers() throws Exception {
+        async = new AsyncAccountService(stub, 4, 16, 0);
+
+        CompletableFuture<Account> cancelled = async.getAccount("ACC1001");
+        CompletableFuture<Account> kept = async.getAccount("ACC1001");
+        cancelled.cancel(true);
+        release.countDown();
+
+        assertTrue(cancelled.isCancelled());
+        assertEquals("ACC1001", kept.get(5, TimeUnit.SECONDS).getAccountNumber());
+    }
+
+    @Test
+    void testTransferLooksUpBothAccountsInParallel() throws Exception {
+        async = new AsyncAccountService(stub, 4, 16, 0);
+
+        PostingResult result = async.transfer("ACC1001", "ACC1002", new BigDecimal("10.00"), "Rent")
+                .get(5, TimeUnit.SECONDS);
+
+        assertTrue(result.isSuccess());
+        assertEquals(1, transfers.get());
+    }
+
+    @Test
+    void testTransferToMissingAccountIsRejected() throws Exception {
+        async = new AsyncAccountService(stub, 4, 16, 0);
+
+        PostingResult result = async.transfer("ACC1001", "MISSING", new BigDecimal("10.00"), "Rent")
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(PostingResult.Outcome.ACCOUNT_NOT_FOUND, result.getOutcome());
+        assertEquals(0, transfers.get());
+    }
+
+    @Test
+    void testActivityFailsWhenTimeoutElapses() {
+        async = new AsyncAccountService(stub, 4, 16, 100);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> async.getAccountActivity("ACC1001").get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    @Test
+    void testFullQueueRefusesNewCalls() throws Exception {
+        async = new AsyncAccountService(stub, 1, 1, 0);
+
+        CompletableFuture<List<Transaction>> running = async.getTransactionHistory("ACC1001");
+        CompletableFuture<List<Transaction>> queued = async.getTransactionHistory("ACC1002");
+        CompletableFuture<List<Transaction>> refused = async.getTransactionHistory("ACC1003");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> refused.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(BankingException.class, e.getCause());
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS).isEmpty());
+        assertTrue(queued.get(5, TimeUnit.SECONDS).isEmpty());
+    }
+
+    @Test
+    void testRateLimitedTransferIsChargedOnceToTheSource() throws Exception {
+        Map<AdmissionController.KeyClass, AdmissionController.Limit> limits =
+                new EnumMap<>(AdmissionController.KeyClass.class);
+        limits.put(AdmissionController.KeyClass.ACCOUNT, new AdmissionController.Limit(0.001, 1));
+        limits.put(AdmissionController.KeyClass.CUSTOMER, new AdmissionController.Limit(0.001, 10));
+        AdmissionController admission = new AdmissionController(limits, 100, 60_000);
+        InMemoryAccountRepository accounts = new InMemoryAccountRepository();
+        accounts.create(new Account(null, "ACC1001", 1L, AccountType.SAVINGS, new BigDecimal("100.00"),
+                AccountStatus.ACTIVE));
+        accounts.create(new Account(null, "ACC1002", 2L, AccountType.SAVINGS, new BigDecimal("0.00"),
+                AccountStatus.ACTIVE));
+        async = new AsyncAccountService(new RateLimitedAccountService(admission, accounts,
+                new InMemoryTransactionRepository(), new InMemoryTransactionLog()), 4, 16, 0);
+
+        PostingResult result = async.transfer("ACC1001", "ACC1002", new BigDecimal("10.00"), "Rent")
+                .get(5, TimeUnit.SECONDS);
+
+        // The lookups ahead of the transfer are not charged, nor is the destination.
+        assertTrue(result.isSuccess());
+        assertEquals(1, admission.getStats(AdmissionController.KeyClass.ACCOUNT).getAdmitted());
+        assertEquals(PostingResult.Outcome.RATE_LIMITED,
+                async.transfer("ACC1001", "ACC1002", new BigDecimal("10.00"), "Rent").get(5, TimeUnit.SECONDS)
+                        .getOutcome());
+        assertTrue(async.transfer("ACC1002", "ACC1001", new BigDecimal("10.00"), "Back")
+                .get(5, TimeUnit.SECONDS).isSuccess());
+    }
+
+    private static Account account(String accountNumber) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setBalance(new BigDecimal("100.00"));
+        return account;
+    }
+
+    private static void await(CountDownLatch latch) throws BankingException {
+        if (!awaitQuietly(latch)) {
+            throw new BankingException("Timed out waiting for the test");
+        }
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
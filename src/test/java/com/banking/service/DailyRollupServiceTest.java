@@ -0,0 +1,69 @@
+package com.banking.service;
+
+import com.banking.config.DatabaseConfig;
+import com.banking.dao.DailyRollupDAO;
+import com.banking.model.DailyRollup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DailyRollupServiceTest {
+
+    private DatabaseConfig dbConfig;
+    private DailyRollupService rollups;
+
+    @BeforeEach
+    void setUp() {
+        Properties props = new Properties();
+        props.setProperty("db.url", "jdbc:h2:mem:rollup-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        props.setProperty("db.username", "sa");
+        props.setProperty("db.password", "");
+        props.setProperty("db.driver", "org.h2.Driver");
+        dbConfig = new DatabaseConfig(props);
+        rollups = new DailyRollupService(new DailyRollupDAO(dbConfig), ZoneId.systemDefault());
+    }
+
+    @AfterEach
+    void tearDown() {
+        dbConfig.shutdown();
+    }
+
+    @Test
+    void testFlushedAndPendingDeltasAreCombined() throws Exception {
+        LocalDate today = LocalDate.now();
+
+        rollups.record(DailyRollupService.Kind.DEPOSIT, 1L, 10L, new BigDecimal("100.00"));
+        rollups.record(DailyRollupService.Kind.WITHDRAWAL, 1L, 10L, new BigDecimal("30.00"));
+        assertEquals(3, rollups.flush());
+
+        rollups.record(DailyRollupService.Kind.DEPOSIT, 1L, 10L, new BigDecimal("50.00"));
+        rollups.record(DailyRollupService.Kind.TRANSFER_OUT, 1L, 10L, new BigDecimal("20.00"));
+        rollups.record(DailyRollupService.Kind.TRANSFER_IN, 2L, 11L, new BigDecimal("20.00"));
+
+        List<DailyRollup> account = rollups.getAccountRollups(1L, today.minusDays(7), today);
+        assertEquals(1, account.size());
+        assertEquals(2, account.get(0).getDepositCount());
+        assertEquals(new BigDecimal("150.00"), account.get(0).getDepositAmount());
+        assertEquals(1, account.get(0).getWithdrawalCount());
+        assertEquals(new BigDecimal("20.00"), account.get(0).getTransferOutAmount());
+
+        rollups.flush();
+        DailyRollup bank = rollups.getBankRollups(today, today).get(0);
+        assertEquals(2, bank.getDepositCount());
+        assertEquals(1, bank.getTransferInCount());
+        assertEquals(1, bank.getTransferOutCount());
+        assertEquals(new BigDecimal("30.00"), bank.getWithdrawalAmount());
+
+        assertEquals(1, rollups.getCustomerRollups(11L, today, today).get(0).getTransferInCount());
+        assertTrue(rollups.getCustomerRollups(10L, today.minusDays(3), today.minusDays(1)).isEmpty());
+    }
+}
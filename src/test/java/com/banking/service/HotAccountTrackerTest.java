@@ -0,0 +1,102 @@
+package com.banking.service;
+
+import com.banking.model.Account;
+import com.banking.model.AccountStatus;
+import com.banking.model.AccountType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotAccountTrackerTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("hot-accounts");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void testSnapshotIsWrittenBusiestFirstAndReadBack() throws IOException {
+        HotAccountTracker tracker = new HotAccountTracker(10);
+        touch(tracker, "ACC1001", 2);
+        touch(tracker, "ACC1002", 5);
+        touch(tracker, "ACC1003", 1);
+        Path file = directory.resolve("nested").resolve("hot-accounts.snapshot");
+
+        assertEquals(2, tracker.writeSnapshot(file, 2));
+
+        assertEquals(List.of("ACC1002 5", "ACC1001 2"), Files.readAllLines(file, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(file.resolveSibling("hot-accounts.snapshot.tmp")));
+        assertEquals(List.of("ACC1002", "ACC1001"), HotAccountTracker.readSnapshot(file, 10));
+        assertEquals(List.of("ACC1002"), HotAccountTracker.readSnapshot(file, 1));
+    }
+
+    @Test
+    void testReadToleratesMissingFileAndLooseLines() throws IOException {
+        assertTrue(HotAccountTracker.readSnapshot(directory.resolve("absent"), 10).isEmpty());
+
+        Path file = directory.resolve("hand-written.snapshot");
+        Files.write(file, List.of("ACC2001 9", "", "  ", "ACC2002"), StandardCharsets.UTF_8);
+
+        assertEquals(List.of("ACC2001", "ACC2002"), HotAccountTracker.readSnapshot(file, 10));
+    }
+
+    @Test
+    void testNewAccountsAreIgnoredOnceFull() {
+        HotAccountTracker tracker = new HotAccountTracker(2);
+        touch(tracker, "ACC1001", 1);
+        touch(tracker, "ACC1002", 1);
+        touch(tracker, "ACC1003", 4);
+        touch(tracker, "ACC1001", 2);
+        tracker.record(null);
+
+        assertEquals(2, tracker.size());
+        assertEquals(List.of("ACC1001", "ACC1002"), tracker.top(5));
+    }
+
+    @Test
+    void testPreloadIsNotCountedAsTraffic() throws Exception {
+        AccountService accountService = AccountService.inMemory();
+        Account account = new Account();
+        account.setAccountNumber("ACC1001");
+        account.setCustomerId(1L);
+        account.setAccountType(AccountType.SAVINGS);
+        account.setBalance(BigDecimal.TEN);
+        account.setStatus(AccountStatus.ACTIVE);
+        accountService.createAccount(account);
+
+        assertEquals("ACC1001", accountService.preloadAccount("ACC1001").getAccountNumber());
+        assertEquals(0, accountService.getHotAccountTracker().size());
+
+        accountService.getAccount("ACC1001");
+        assertEquals(1, accountService.getHotAccountTracker().size());
+    }
+
+    private static void touch(HotAccountTracker tracker, String accountNumber, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(accountNumber);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.banking.service;
+
+import com.banking.dao.InMemoryAccountRepository;
+import com.banking.dao.InMemoryTransactionLog;
+import com.banking.dao.InMemoryTransactionRepository;
+import com.banking.exception.AccountNotFoundException;
+import com.banking.exception.BankingException;
+import com.banking.exception.InvalidTransactionException;
+import com.banking.exception.RateLimitExceededException;
+import com.banking.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryAccountServiceTest {
+
+    private InMemoryAccountRepository accounts;
+    private InMemoryTransactionRepository transactions;
+    private InMemoryTransactionLog log;
+    private AccountService accountService;
+
+    @BeforeEach
+    void setUp() throws BankingException {
+        accounts = new InMemoryAccountRepository();
+        transactions = new InMemoryTransactionRepository();
+        log = new InMemoryTransactionLog();
+        accountService = new AccountService(accounts, transactions, log);
+        accountService.createAccount(account("ACC1001", 1L, "1000.00"));
+        accountService.createAccount(account("ACC1002", 1L, "50.00"));
+    }
+
+    @Test
+    void testTransferMovesFundsAndRecordsBothLegs() throws BankingException {
+        PostingResult result = accountService.tryTransfer("ACC1001", "ACC1002", new BigDecimal("250.00"), "Rent");
+
+        assertTrue(result.isSuccess());
+        assertEquals(new BigDecimal("750.00"), accountService.getBalance("ACC1001"));
+        assertEquals(new BigDecimal("300.00"), accountService.getBalance("ACC1002"));
+
+        List<Transaction> history = accountService.getTransactionHistory("ACC1001");
+        assertEquals(1, history.size());
+        assertEquals(TransactionType.WITHDRAWAL, history.get(0).getTransType());
+        assertEquals(TransactionStatus.SUCCESS, history.get(0).getStatus());
+        assertEquals(List.of("INFO Withdrawal successful: 250.00"),
+                log.getMessages(result.getTransaction().getTransactionId()));
+    }
+
+    @Test
+    void testDebitIsReversedWhenTheCreditLegIsRejected() throws Exception {
+        // Another process closes the destination between the transfer's check and its credit leg.
+        AtomicInteger destinationReads = new AtomicInteger();
+        InMemoryAccountRepository racing = new InMemoryAccountRepository() {
+            @Override
+            public Account findByAccountNumberOrNull(String accountNumber) {
+                Account account = super.findByAccountNumberOrNull(accountNumber);
+                if ("ACC1002".equals(accountNumber) && destinationReads.incrementAndGet() > 1) {
+                    account.setStatus(AccountStatus.CLOSED);
+                }
+                return account;
+            }
+        };
+        AccountService service = new AccountService(racing, transactions, log);
+        service.createAccount(account("ACC1001", 1L, "1000.00"));
+        service.createAccount(account("ACC1002", 1L, "50.00"));
+        Account from = service.getAccount("ACC1001");
+        Account to = service.getAccount("ACC1002");
+        destinationReads.set(0);
+
+        PostingResult result = service.tryTransfer(from, to, new BigDecimal("250.00"), "Rent");
+
+        assertEquals(PostingResult.Outcome.ACCOUNT_CLOSED, result.getOutcome());
+        assertEquals(new BigDecimal("1000.00"), service.getBalance("ACC1001"));
+        assertEquals(new BigDecimal("50.00"), service.getBalance("ACC1002"));
+        List<Transaction> history = service.getTransactionHistory("ACC1001");
+        assertEquals(2, history.size());
+        assertEquals("Reversal of transfer to ACC1002", history.get(0).getDescription());
+        assertEquals(new BigDecimal("1000.00"), history.get(0).getBalanceAfter());
+        // The reversal takes the debit back out of the rollups instead of counting a transfer in.
+        DailyRollup rollup = service.getAccountRollups("ACC1001", LocalDate.now(), LocalDate.now()).get(0);
+        assertEquals(0, rollup.getTransferOutCount());
+        assertEquals(0, rollup.getTransferOutAmount().signum());
+        assertEquals(0, rollup.getTransferInCount());
+    }
+
+    @Test
+    void testReversedDebitIsNotCountedForVelocity() throws Exception {
+        AtomicInteger destinationReads = new AtomicInteger();
+        InMemoryAccountRepository racing = new InMemoryAccountRepository() {
+            @Override
+            public Account findByAccountNumberOrNull(String accountNumber) {
+                Account account = super.findByAccountNumberOrNull(accountNumber);
+                if ("ACC1002".equals(accountNumber) && destinationReads.incrementAndGet() > 1) {
+                    account.setStatus(AccountStatus.CLOSED);
+                }
+                return account;
+            }
+        };
+        Path rules = Files.createTempFile("velocity", ".properties");
+        Files.writeString(rules, "velocity.rules=single\n"
+                + "velocity.rule.single.window.seconds=600\n"
+                + "velocity.rule.single.buckets=10\n"
+                + "velocity.rule.single.max.count=1\n"
+                + "velocity.rule.single.max.amount=10000.00\n");
+        AccountService service;
+        System.setProperty("banking.velocity.config", rules.toString());
+        try {
+            service = new AccountService(racing, transactions, log);
+        } finally {
+            System.clearProperty("banking.velocity.config");
+            Files.delete(rules);
+        }
+        service.createAccount(account("ACC1001", 1L, "1000.00"));
+        service.createAccount(account("ACC1002", 1L, "50.00"));
+        Account from = service.getAccount("ACC1001");
+        Account to = service.getAccount("ACC1002");
+        destinationReads.set(0);
+
+        assertEquals(PostingResult.Outcome.ACCOUNT_CLOSED,
+                service.tryTransfer(from, to, new BigDecimal("250.00"), "Rent").getOutcome());
+
+        // The rule allows one debit; the reversed one does not use it up.
+        assertTrue(service.tryWithdraw("ACC1001", new BigDecimal("10.00"), "Cash").isSuccess());
+        assertEquals(PostingResult.Outcome.VELOCITY_LIMIT,
+                service.tryWithdraw("ACC1001", new BigDecimal("10.00"), "Cash").getOutcome());
+    }
+
+    @Test
+    void testWithdrawalBeyondBalanceIsRejected() throws BankingException {
+        PostingResult result = accountService.tryWithdraw("ACC1002", new BigDecimal("80.00"), "Too much");
+
+        assertEquals(PostingResult.Outcome.INSUFFICIENT_FUNDS, result.getOutcome());
+        assertEquals(new BigDecimal("50.00"), accountService.getBalance("ACC1002"));
+        assertTrue(accountService.getTransactionHistory("ACC1002").isEmpty());
+    }
+
+    @Test
+    void testHistoryIsNewestFirst() throws BankingException {
+        accountService.deposit("ACC1002", new BigDecimal("10.00"), "First");
+        accountService.withdraw("ACC1002", new BigDecimal("5.00"), "Second");
+
+        List<Transaction> history = accountService.getTransactionHistory("ACC1002");
+
+        assertEquals("Second", history.get(0).getDescription());
+        assertEquals("First", history.get(1).getDescription());
+        assertEquals(new BigDecimal("55.00"), history.get(0).getBalanceAfter());
+    }
+
+    @Test
+    void testClosedAccountRejectsPostings() throws BankingException {
+        accountService.withdraw("ACC1002", new BigDecimal("50.00"), "Empty it");
+        accountService.closeAccount("ACC1002");
+
+        PostingResult result = accountService.tryDeposit("ACC1002", new BigDecimal("1.00"), "Late");
+
+        assertEquals(PostingResult.Outcome.ACCOUNT_CLOSED, result.getOutcome());
+        assertThrows(InvalidTransactionException.class, () -> accountService.closeAccount("ACC1001"));
+    }
+
+    @Test
+    void testLookupsAndDuplicates() throws BankingException {
+        assertThrows(AccountNotFoundException.class, () -> accountService.getAccount("ACC9999"));
+        assertThrows(BankingException.class, () -> accountService.createAccount(account("ACC1001", 2L, "0.00")));
+        assertEquals(2, accountService.getCustomerAccounts(1L).size());
+
+        // Callers get copies; changing one does not change the stored account.
+        accountService.getAccount("ACC1001").setBalance(BigDecimal.ZERO);
+        assertEquals(new BigDecimal("1000.00"), accountService.getBalance("ACC1001"));
+    }
+
+    @Test
+    void testRollupsStayInMemory() throws BankingException {
+        accountService.deposit("ACC1001", new BigDecimal("5.00"), "Cash");
+
+        List<DailyRollup> rollups = accountService.getAccountRollups("ACC1001", LocalDate.now(), LocalDate.now());
+
+        assertEquals(1, rollups.size());
+        assertEquals(1, rollups.get(0).getDepositCount());
+    }
+
+    @Test
+    void testPostedCreditIsRecordedLikeADeposit() throws BankingException {
+        Transaction posted = accountService.postCredit("ACC1002", account -> {
+            BigDecimal newBalance = account.getBalance().add(new BigDecimal("0.42"));
+            Transaction transaction = transactions.create(new Transaction(account.getAccountId(),
+                    TransactionType.DEPOSIT, new BigDecimal("0.42"), newBalance, "Interest"));
+            accounts.updateBalance(account.getAccountId(), newBalance);
+            return transaction;
+        }, "Interest credited");
+
+        assertEquals(new BigDecimal("50.42"), accountService.getBalance("ACC1002"));
+        assertEquals(List.of("INFO Interest credited: 0.42"), log.getMessages(posted.getTransactionId()));
+        List<DailyRollup> rollups = accountService.getAccountRollups("ACC1002", LocalDate.now(), LocalDate.now());
+        assertEquals(1, rollups.get(0).getDepositCount());
+    }
+
+    @Test
+    void testCreditIsNotPostedToClosedAccount() throws BankingException {
+        accountService.withdraw("ACC1002", new BigDecimal("50.00"), "Empty it");
+        accountService.closeAccount("ACC1002");
+
+        Transaction posted = accountService.postCredit("ACC1002", account -> {
+            throw new AssertionError("posting called for a closed account");
+        }, "Interest credited");
+
+        assertNull(posted);
+        assertNull(accountService.postCredit("ACC9999", account -> null, "Interest credited"));
+    }
+
+    @Test
+    void testPostingsOnAnyAccountAreChargedToTheCustomer() throws BankingException {
+        Map<AdmissionController.KeyClass, AdmissionController.Limit> limits =
+                new EnumMap<>(AdmissionController.KeyClass.class);
+        limits.put(AdmissionController.KeyClass.ACCOUNT, new AdmissionController.Limit(0.001, 100));
+        limits.put(AdmissionController.KeyClass.CUSTOMER, new AdmissionController.Limit(0.001, 3));
+        RateLimitedAccountService limited = new RateLimitedAccountService(
+                new AdmissionController(limits, 100, 60_000), accounts, transactions, log);
+
+        assertTrue(limited.tryDeposit("ACC1001", new BigDecimal("1.00"), "Cash").isSuccess());
+        assertTrue(limited.tryWithdraw("ACC1002", new BigDecimal("1.00"), "Cash").isSuccess());
+        assertTrue(limited.tryTransfer("ACC1001", "ACC1002", new BigDecimal("1.00"), "Rent").isSuccess());
+
+        // Both accounts belong to customer 1, whose three postings are used up.
+        PostingResult result = limited.tryDeposit("ACC1002", new BigDecimal("1.00"), "Cash");
+        assertEquals(PostingResult.Outcome.RATE_LIMITED, result.getOutcome());
+        assertEquals("customer", result.getReason());
+        assertThrows(RateLimitExceededException.class,
+                () -> limited.withdraw("ACC1001", new BigDecimal("1.00"), "Cash"));
+        assertEquals(new BigDecimal("50.00"), limited.getBalance("ACC1002"));
+    }
+
+    private static Account account(String accountNumber, Long customerId, String balance) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setCustomerId(customerId);
+        account.setAccountType(AccountType.SAVINGS);
+        account.setBalance(new BigDecimal(balance));
+        account.setStatus(AccountStatus.ACTIVE);
+        return account;
+    }
+}
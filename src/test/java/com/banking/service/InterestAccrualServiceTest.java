@@ -0,0 +1,130 @@
+package com.banking.service;
+
+import com.banking.dao.InMemoryAccountRepository;
+import com.banking.dao.InMemoryInterestAccrualRepository;
+import com.banking.dao.InMemoryTransactionLog;
+import com.banking.dao.InMemoryTransactionRepository;
+import com.banking.dao.TransactionRepository;
+import com.banking.exception.BankingException;
+import com.banking.model.Account;
+import com.banking.model.AccountStatus;
+import com.banking.model.AccountType;
+import com.banking.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterestAccrualServiceTest {
+
+    private InterestAccrualService service;
+
+    @BeforeEach
+    void setUp() {
+        // 100 bps over 365 days is exactly 1% of the balance, which makes the rounding easy to read.
+        service = new InterestAccrualService(AccountService.inMemory(), List.of(),
+                Map.of(AccountType.SAVINGS, 100, AccountType.FIXED_DEPOSIT, 650), 1, 1_000);
+    }
+
+    @Test
+    void testInterestIsProRataForTheDays() {
+        assertEquals(100L, service.interestFor(AccountType.SAVINGS, 10_000L, 365));
+        assertEquals(65_000L, service.interestFor(AccountType.FIXED_DEPOSIT, 1_000_000L, 365));
+        // 1,000,000 * 650 * 30 / 3,650,000 = 5342.47
+        assertEquals(5_342L, service.interestFor(AccountType.FIXED_DEPOSIT, 1_000_000L, 30));
+    }
+
+    @Test
+    void testHalvesRoundToEven() {
+        assertEquals(0L, service.interestFor(AccountType.SAVINGS, 50L, 365));
+        assertEquals(2L, service.interestFor(AccountType.SAVINGS, 150L, 365));
+        assertEquals(2L, service.interestFor(AccountType.SAVINGS, 250L, 365));
+        assertEquals(3L, service.interestFor(AccountType.SAVINGS, 251L, 365));
+        assertEquals(2L, service.interestFor(AccountType.SAVINGS, 249L, 365));
+    }
+
+    @Test
+    void testOverflowingProductStillRoundsHalfEven() {
+        long base = 100_000_000_000_000_000L;
+
+        assertEquals(1_000_000_000_000_000L, service.interestFor(AccountType.SAVINGS, base + 50, 365));
+        assertEquals(1_000_000_000_000_002L, service.interestFor(AccountType.SAVINGS, base + 150, 365));
+        assertEquals(1_000_000_000_000_001L, service.interestFor(AccountType.SAVINGS, base + 51, 365));
+    }
+
+    @Test
+    void testNothingAccruesWithoutRateBalanceOrDays() {
+        assertEquals(0L, service.interestFor(AccountType.CHECKING, 1_000_000L, 365));
+        assertEquals(0L, service.interestFor(AccountType.SAVINGS, 0L, 365));
+        assertEquals(0L, service.interestFor(AccountType.SAVINGS, -500L, 365));
+        assertEquals(0L, service.interestFor(AccountType.SAVINGS, 1_000_000L, 0));
+    }
+
+    @Test
+    void testRestartAfterACrashMidRangeCreditsEveryAccountOnce() throws Exception {
+        InMemoryAccountRepository accounts = new InMemoryAccountRepository();
+        InMemoryTransactionRepository transactions = new InMemoryTransactionRepository();
+        AccountService accountService = new AccountService(accounts, transactions, new InMemoryTransactionLog());
+        for (int i = 1; i <= 10; i++) {
+            accountService.createAccount(new Account(null, "ACC" + (1000 + i), 1L, AccountType.SAVINGS,
+                    new BigDecimal("100.00"), AccountStatus.ACTIVE));
+        }
+        // Ranges [1, 5), [5, 9) and [9, 13), committed two accounts at a time; the job dies after its third
+        // commit, half way through the second range.
+        CrashingAccrualRepository accrual = new CrashingAccrualRepository(accounts, transactions, 3);
+        Map<AccountType, Integer> rates = Map.of(AccountType.SAVINGS, 100);
+
+        assertThrows(BankingException.class,
+                () -> new InterestAccrualService(accountService, List.of(accrual), rates, 1, 4, 2)
+                        .run("2024-03", 365));
+        for (long accountId = 1; accountId <= 10; accountId++) {
+            String expected = accountId <= 6 ? "101.00" : "100.00";
+            assertEquals(new BigDecimal(expected), accounts.findById(accountId).getBalance(), "account " + accountId);
+        }
+
+        accrual.revive();
+        InterestAccrualService.AccrualResult result =
+                new InterestAccrualService(accountService, List.of(accrual), rates, 1, 4, 2).run("2024-03", 365);
+
+        assertEquals(1, result.getRangesSkipped());
+        assertEquals(2, result.getRangesProcessed());
+        assertEquals(4, result.getAccountsCredited());
+        assertEquals(400L, result.getTotalInterestMinor());
+        for (long accountId = 1; accountId <= 10; accountId++) {
+            List<Transaction> history = transactions.findByAccountId(accountId);
+            assertEquals(1, history.size(), "account " + accountId);
+            assertEquals(new BigDecimal("1.00"), history.get(0).getAmount());
+            assertEquals(new BigDecimal("101.00"), accounts.findById(accountId).getBalance(), "account " + accountId);
+        }
+    }
+
+    // Fails every commit after the first few, as if the process had died there.
+    private static class CrashingAccrualRepository extends InMemoryInterestAccrualRepository {
+        private int commitsLeft;
+
+        CrashingAccrualRepository(InMemoryAccountRepository accounts, TransactionRepository transactions,
+                                  int commitsLeft) {
+            super(accounts, transactions);
+            this.commitsLeft = commitsLeft;
+        }
+
+        void revive() {
+            commitsLeft = Integer.MAX_VALUE;
+        }
+
+        @Override
+        public synchronized List<Transaction> creditInterest(String runId, List<Account> batch,
+                                                             InterestCalculator calculator, String description)
+                throws SQLException {
+            if (commitsLeft-- <= 0) {
+                throw new SQLException("Connection lost");
+            }
+            return super.creditInterest(runId, batch, calculator, description);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.banking.service;
+
+import com.banking.config.ShardRouter;
+import com.banking.dao.AccountDAO;
+import com.banking.dao.ShardTransferDAO;
+import com.banking.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedAccountServiceTest {
+
+    private static final int SHARDS = 3;
+
+    private final String[] urls = new String[SHARDS];
+    private final String[] accountNumbers = new String[SHARDS];
+    private ShardRouter router;
+    private AccountService accountService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String suffix = UUID.randomUUID().toString();
+        Properties props = new Properties();
+        props.setProperty("db.driver", "org.h2.Driver");
+        props.setProperty("db.username", "sa");
+        props.setProperty("db.password", "");
+        props.setProperty("db.health.interval.seconds", "0");
+        props.setProperty("db.shard.count", String.valueOf(SHARDS));
+        for (int i = 0; i < SHARDS; i++) {
+            urls[i] = "jdbc:h2:mem:shard" + i + "-" + suffix + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+            props.setProperty(i == 0 ? "db.url" : "db.shard." + i + ".url", urls[i]);
+            try (Connection conn = DriverManager.getConnection(urls[i], "sa", "");
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("RUNSCRIPT FROM 'classpath:/schema.sql'");
+                stmt.execute("INSERT INTO customer (first_name, last_name, email) VALUES ('Jane', 'Doe', 'jane@example.com')");
+            }
+        }
+
+        router = ShardRouter.fromProperties(props);
+        accountService = new AccountService(router);
+
+        // One account per shard.
+        for (int n = 1001; accountNumbers[0] == null || accountNumbers[1] == null || accountNumbers[2] == null; n++) {
+            String accountNumber = "ACC" + n;
+            int shard = router.shardOf(accountNumber);
+            if (accountNumbers[shard] == null) {
+                accountNumbers[shard] = accountNumber;
+                accountService.createAccount(account(accountNumber));
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        router.shutdown();
+        for (String url : urls) {
+            try (Connection conn = DriverManager.getConnection(url, "sa", "");
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("SHUTDOWN");
+            }
+        }
+    }
+
+    @Test
+    void testAccountsLiveOnlyOnTheirShard() throws Exception {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            AccountDAO accountDAO = new AccountDAO(router.getShard(shard));
+            for (int other = 0; other < SHARDS; other++) {
+                Account found = accountDAO.findByAccountNumberOrNull(accountNumbers[other]);
+                assertEquals(shard == other, found != null);
+            }
+        }
+        assertEquals(new BigDecimal("1000.00"), accountService.getBalance(accountNumbers[2]));
+    }
+
+    @Test
+    void testCrossShardTransferMovesFunds() throws Exception {
+        PostingResult result = accountService.tryTransfer(accountNumbers[0], accountNumbers[1],
+                new BigDecimal("250.00"), "Rent");
+
+        assertTrue(result.isSuccess());
+        assertNotNull(result.getCreditTransaction());
+        assertEquals(new BigDecimal("750.00"), accountService.getBalance(accountNumbers[0]));
+        assertEquals(new BigDecimal("1250.00"), accountService.getBalance(accountNumbers[1]));
+        assertEquals(TransactionStatus.SUCCESS,
+                accountService.getTransactionHistory(accountNumbers[0]).get(0).getStatus());
+        assertEquals(0, accountService.recoverCrossShardTransfers());
+    }
+
+    @Test
+    void testCrossShardTransferRejectedWithoutFunds() throws Exception {
+        PostingResult result = accountService.tryTransfer(accountNumbers[1], accountNumbers[2],
+                new BigDecimal("5000.00"), "Too much");
+
+        assertEquals(PostingResult.Outcome.INSUFFICIENT_FUNDS, result.getOutcome());
+        assertEquals(new BigDecimal("1000.00"), accountService.getBalance(accountNumbers[1]));
+        assertEquals(new BigDecimal("1000.00"), accountService.getBalance(accountNumbers[2]));
+    }
+
+    @Test
+    void testCustomerAccountsGatheredFromAllShards() throws Exception {
+        List<Account> accounts = accountService.getCustomerAccounts(1L);
+
+        assertEquals(SHARDS, accounts.size());
+    }
+
+    @Test
+    void testRecoveryFinishesCommittedAndRollsBackPrepared() throws Exception {
+        String from = accountNumbers[0];
+        String to = accountNumbers[2];
+        ShardTransferDAO source = new ShardTransferDAO(router.getShard(0));
+        ShardTransferDAO destination = new ShardTransferDAO(router.getShard(2));
+        source.createTablesIfMissing();
+        destination.createTablesIfMissing();
+        Long fromId = accountService.getAccount(from).getAccountId();
+        Long toId = accountService.getAccount(to).getAccountId();
+
+        // Crashed after the decision: both legs prepared, record COMMITTED.
+        ShardTransfer committed = new ShardTransfer(UUID.randomUUID().toString(), from, to,
+                new BigDecimal("100.00"), "Payroll");
+        source.begin(committed);
+        assertNotNull(source.prepareDebit(committed.getTransferId(), fromId, committed.getAmount(), "debit"));
+        assertTrue(destination.prepareCredit(committed.getTransferId(), toId, committed.getAmount(), "credit"));
+        assertTrue(source.updateState(committed.getTransferId(), ShardTransferState.PREPARING,
+                ShardTransferState.COMMITTED));
+
+        // Crashed before the decision: only the debit was prepared.
+        ShardTransfer preparing = new ShardTransfer(UUID.randomUUID().toString(), from, to,
+                new BigDecimal("40.00"), "Interrupted");
+        source.begin(preparing);
+        assertNotNull(source.prepareDebit(preparing.getTransferId(), fromId, preparing.getAmount(), "debit"));
+
+        assertEquals(new BigDecimal("860.00"), accountService.getBalance(from));
+        assertEquals(2, accountService.recoverCrossShardTransfers());
+
+        assertEquals(new BigDecimal("900.00"), accountService.getBalance(from));
+        assertEquals(new BigDecimal("1100.00"), accountService.getBalance(to));
+        assertEquals(ShardTransferState.COMPLETED, source.findState(committed.getTransferId()));
+        assertEquals(ShardTransferState.ROLLED_BACK, source.findState(preparing.getTransferId()));
+        assertEquals(0, accountService.recoverCrossShardTransfers());
+    }
+
+    private static Account account(String accountNumber) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setCustomerId(1L);
+        account.setAccountType(AccountType.SAVINGS);
+        account.setBalance(new BigDecimal("1000.00"));
+        account.setStatus(AccountStatus.ACTIVE);
+        return account;
+    }
+}
@@ -0,0 +1,66 @@
+package com.banking.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowTest {
+
+    // Ten one-second buckets.
+    private final SlidingWindow window = new SlidingWindow(10_000, 10);
+
+    @Test
+    void testBucketsExpireOneAtATime() {
+        window.add(1_000, 5);
+        window.add(3_000, 7);
+        window.advance(10_999);
+        assertEquals(2, window.getTotalCount());
+        assertEquals(12, window.getTotalAmount());
+
+        // Bucket 1 leaves the window when the head reaches second 11, bucket 3 at second 13.
+        window.advance(11_000);
+        assertEquals(1, window.getTotalCount());
+        assertEquals(7, window.getTotalAmount());
+        window.advance(13_000);
+        assertEquals(0, window.getTotalCount());
+        assertEquals(0, window.getTotalAmount());
+    }
+
+    @Test
+    void testRotatedSlotIsClearedBeforeReuse() {
+        window.add(2_500, 4);
+        window.add(12_100, 6);
+
+        // Second 12 reuses the slot second 2 had.
+        assertEquals(1, window.getTotalCount());
+        assertEquals(6, window.getTotalAmount());
+    }
+
+    @Test
+    void testLateAddsLandInTheirBucketOrAreDropped() {
+        window.add(13_000, 1);
+        window.add(2_000, 100);
+        window.add(5_000, 10);
+        assertEquals(2, window.getTotalCount());
+        assertEquals(11, window.getTotalAmount());
+
+        window.advance(15_999);
+        assertEquals(1, window.getTotalCount());
+        assertEquals(1, window.getTotalAmount());
+    }
+
+    @Test
+    void testJumpPastTheWholeWindowClearsEverything() {
+        for (int second = 0; second < 10; second++) {
+            window.add(second * 1_000L, 3);
+        }
+        assertEquals(10, window.getTotalCount());
+
+        window.advance(100_000);
+
+        assertEquals(0, window.getTotalCount());
+        assertEquals(0, window.getTotalAmount());
+        window.add(100_500, 2);
+        assertEquals(2, window.getTotalAmount());
+    }
+}
@@ -0,0 +1,139 @@
+package com.banking.service;
+
+import com.banking.exception.VelocityLimitExceededException;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VelocityMonitorTest {
+
+    private static final VelocityRule BURST = new VelocityRule("burst", 60_000, 6, 3, new BigDecimal("100.00"));
+
+    @Test
+    void testCountLimitTripsOnTheDebitAfterTheLast() throws Exception {
+        VelocityMonitor monitor = new VelocityMonitor(List.of(BURST));
+        for (int i = 0; i < 3; i++) {
+            assertNull(monitor.findViolation(1L, new BigDecimal("1.00")));
+            monitor.record(1L, new BigDecimal("1.00"));
+        }
+
+        assertSame(BURST, monitor.findViolation(1L, new BigDecimal("1.00")));
+        VelocityLimitExceededException e = assertThrows(VelocityLimitExceededException.class,
+                () -> monitor.check(1L, "ACC1001", new BigDecimal("1.00")));
+        assertEquals("burst", e.getRuleName());
+    }
+
+    @Test
+    void testAmountLimitCountsThePendingDebit() {
+        VelocityMonitor monitor = new VelocityMonitor(List.of(BURST));
+        monitor.record(2L, new BigDecimal("90.00"));
+
+        assertNull(monitor.findViolation(2L, new BigDecimal("10.00")));
+        assertSame(BURST, monitor.findViolation(2L, new BigDecimal("10.01")));
+    }
+
+    @Test
+    void testUnknownAccountIsCheckedWithoutBeingTracked() {
+        VelocityMonitor monitor = new VelocityMonitor(List.of(BURST));
+
+        assertNull(monitor.findViolation(3L, new BigDecimal("100.00")));
+        assertSame(BURST, monitor.findViolation(3L, new BigDecimal("100.01")));
+        assertEquals(0, monitor.getTrackedAccounts());
+        assertNull(new VelocityMonitor(List.of()).findViolation(3L, new BigDecimal("1000000.00")));
+    }
+
+    @Test
+    void testIdleAccountsAreEvictedInStepsOnceTheCapIsReached() {
+        VelocityMonitor monitor = new VelocityMonitor(List.of(BURST), 100);
+        List<Transaction> old = new ArrayList<>();
+        for (long id = 1; id <= 1_000; id++) {
+            Transaction t = new Transaction(id, TransactionType.WITHDRAWAL, new BigDecimal("1.00"),
+                    BigDecimal.ZERO, null);
+            t.setCreatedAt(LocalDateTime.now().minusHours(2));
+            old.add(t);
+        }
+
+        monitor.rebuild(old);
+        assertTrue(monitor.getTrackedAccounts() <= 100, () -> "tracked " + monitor.getTrackedAccounts());
+
+        for (int i = 0; i < 3; i++) {
+            monitor.record(5_000L, new BigDecimal("1.00"));
+        }
+        assertSame(BURST, monitor.findViolation(5_000L, new BigDecimal("1.00")));
+    }
+
+    @Test
+    void testRecordsRacingAnEvictionSweepAreKept() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            VelocityMonitor monitor = new VelocityMonitor(List.of(BURST), 64);
+            List<Transaction> old = new ArrayList<>();
+            for (long id = 1; id <= 64; id++) {
+                Transaction t = new Transaction(id, TransactionType.WITHDRAWAL, new BigDecimal("1.00"),
+                        BigDecimal.ZERO, null);
+                t.setCreatedAt(LocalDateTime.now().minusHours(2));
+                old.add(t);
+            }
+            monitor.rebuild(old);
+
+            // One thread brings the idle accounts back while new accounts keep the sweep running.
+            Thread sweeper = new Thread(() -> {
+                for (long id = 10_000; id < 10_500; id++) {
+                    monitor.record(id, new BigDecimal("1.00"));
+                }
+            });
+            sweeper.start();
+            for (int i = 0; i < 3; i++) {
+                for (long id = 1; id <= 64; id++) {
+                    monitor.record(id, new BigDecimal("1.00"));
+                }
+            }
+            sweeper.join();
+
+            for (long id = 1; id <= 64; id++) {
+                assertSame(BURST, monitor.findViolation(id, new BigDecimal("1.00")), "account " + id);
+            }
+        }
+    }
+
+    @Test
+    void testRulesAreReadFromProperties() {
+        Properties props = new Properties();
+        props.setProperty("velocity.rules", "burst, daily");
+        props.setProperty("velocity.rule.burst.window.seconds", "600");
+        props.setProperty("velocity.rule.burst.max.count", "20");
+        props.setProperty("velocity.rule.daily.window.seconds", "86400");
+        props.setProperty("velocity.rule.daily.buckets", "96");
+        props.setProperty("velocity.rule.daily.max.amount", "50000.00");
+
+        List<VelocityRule> rules = VelocityRule.fromProperties(props);
+
+        assertEquals(2, rules.size());
+        assertEquals(600_000L, rules.get(0).getWindowMillis());
+        assertEquals(60, rules.get(0).getBuckets());
+        assertEquals(20L, rules.get(0).getMaxCount());
+        assertEquals(Long.MAX_VALUE, rules.get(1).getMaxCount());
+        assertEquals(5_000_000L, rules.get(1).getMaxAmountMinor());
+        assertTrue(VelocityRule.fromProperties(new Properties()).isEmpty());
+    }
+
+    @Test
+    void testWindowMustSplitEvenlyIntoBuckets() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new VelocityRule("odd", 1_000, 7, 1, BigDecimal.ONE));
+        assertThrows(IllegalArgumentException.class,
+                () -> new VelocityRule("empty", 0, 1, 1, BigDecimal.ONE));
+    }
+
+    @Test
+    void testShippedConfigurationHasNoRules() {
+        assertTrue(VelocityMonitor.fromConfiguration().getRules().isEmpty());
+    }
+}
@@ -0,0 +1,251 @@
+package com.banking.snapshot;
+
+import com.banking.config.DatabaseConfig;
+import com.banking.dao.InMemoryAccountRepository;
+import com.banking.dao.InMemoryTransactionLog;
+import com.banking.dao.InMemoryTransactionRepository;
+import com.banking.model.*;
+import com.banking.service.AccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerSnapshotTest {
+    private static final int ACCOUNTS = 50;
+    private static final int TRANSACTIONS_PER_ACCOUNT = 400;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 9, 30, 0, 123_456_000);
+
+    private Path directory;
+    private DatabaseConfig source;
+    private DatabaseConfig target;
+    private final List<String> urls = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("snapshot");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (DatabaseConfig dbConfig : new DatabaseConfig[]{source, target}) {
+            if (dbConfig != null) {
+                dbConfig.shutdown();
+            }
+        }
+        for (String url : urls) {
+            try (Connection conn = DriverManager.getConnection(url, "sa", "");
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("SHUTDOWN");
+            }
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void testH2ExportRestoresIntoEmptyDatabase() throws Exception {
+        String sourceUrl = createDatabase();
+        try (Connection conn = DriverManager.getConnection(sourceUrl, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            for (int i = 1; i <= 3; i++) {
+                stmt.execute("INSERT INTO account (account_number, customer_id, account_type, balance, status) "
+                        + "VALUES ('ACC100" + i + "', 1, 'SAVINGS', " + (i * 100) + ".25, 'ACTIVE')");
+                stmt.execute("INSERT INTO transaction (account_id, trans_type, amount, balance_after, description, "
+                        + "status) VALUES (" + i + ", 'DEPOSIT', 10.00, " + (i * 100) + ".25, NULL, 'SUCCESS')");
+                stmt.execute("INSERT INTO transaction_log (transaction_id, log_level, message, ip_address) "
+                        + "VALUES (" + i + ", 'INFO', 'Deposit successful', '10.0.0." + i + "')");
+            }
+        }
+        source = new DatabaseConfig(properties(sourceUrl));
+
+        Map<SnapshotTable, Long> exported = new LedgerSnapshot(source, directory, 2).export();
+
+        String targetUrl = createDatabase();
+        try (Connection conn = DriverManager.getConnection(targetUrl, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX idx_transaction_created ON transaction (created_at)");
+        }
+        target = new DatabaseConfig(properties(targetUrl));
+
+        Map<SnapshotTable, Long> restored = new LedgerRestore(directory).restoreInto(new JdbcRestoreTarget(target, 3));
+
+        assertEquals(Map.of(SnapshotTable.ACCOUNT, 3L, SnapshotTable.TRANSACTION, 3L,
+                SnapshotTable.TRANSACTION_LOG, 3L), exported);
+        assertEquals(exported, restored);
+        try (Connection conn = DriverManager.getConnection(targetUrl, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT SUM(balance) FROM account")) {
+                rs.next();
+                assertEquals(new BigDecimal("600.75"), rs.getBigDecimal(1));
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT ip_address FROM transaction_log WHERE log_id = 2")) {
+                rs.next();
+                assertEquals("10.0.0.2", rs.getString(1));
+            }
+            try (ResultSet rs = conn.getMetaData().getIndexInfo(null, null, "TRANSACTION", false, false)) {
+                boolean rebuilt = false;
+                while (rs.next()) {
+                    rebuilt |= "IDX_TRANSACTION_CREATED".equalsIgnoreCase(rs.getString("INDEX_NAME"));
+                }
+                assertTrue(rebuilt);
+            }
+            // New rows continue after the restored ids.
+            stmt.execute("INSERT INTO account (account_number, customer_id, account_type, balance, status) "
+                    + "VALUES ('ACC2001', 1, 'CHECKING', 0, 'ACTIVE')");
+            try (ResultSet rs = stmt.executeQuery("SELECT account_id FROM account WHERE account_number = 'ACC2001'")) {
+                rs.next();
+                assertEquals(4L, rs.getLong(1));
+            }
+        }
+    }
+
+    @Test
+    void testSnapshotRestoresIntoInMemoryStore() throws Exception {
+        writeSnapshot();
+        InMemoryAccountRepository accounts = new InMemoryAccountRepository();
+        InMemoryTransactionRepository transactions = new InMemoryTransactionRepository();
+        InMemoryTransactionLog log = new InMemoryTransactionLog();
+
+        Map<SnapshotTable, Long> restored = new LedgerRestore(directory)
+                .restoreInto(new InMemoryRestoreTarget(accounts, transactions, log));
+
+        assertEquals(Long.valueOf((long) ACCOUNTS * TRANSACTIONS_PER_ACCOUNT), restored.get(SnapshotTable.TRANSACTION));
+        AccountService accountService = new AccountService(accounts, transactions, log);
+        assertEquals(new BigDecimal("12.34"), accountService.getBalance("ACC1007"));
+
+        List<Transaction> history = accountService.getTransactionHistory("ACC1007");
+        assertEquals(TRANSACTIONS_PER_ACCOUNT, history.size());
+        assertEquals(START.plusMinutes(TRANSACTIONS_PER_ACCOUNT - 1), history.get(0).getCreatedAt());
+        assertNull(history.get(0).getDescription());
+        assertEquals("Payment é 1", history.get(TRANSACTIONS_PER_ACCOUNT - 2).getDescription());
+        assertEquals(List.of("INFO Posted [10.0.0.1, null]"), log.getMessages(1L));
+
+        Account opened = accountService.createAccount(account(0, "ACC9999", BigDecimal.ZERO));
+        assertEquals(Long.valueOf(ACCOUNTS + 1L), opened.getAccountId());
+    }
+
+    @Test
+    void testCorruptBlockIsRejected() throws Exception {
+        writeSnapshot();
+        Path file = directory.resolve(SnapshotTable.TRANSACTION.getFileName());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            long position = channel.size() / 2;
+            channel.read(one, position);
+            one.put(0, (byte) (one.get(0) ^ 0x40)).rewind();
+            channel.write(one, position);
+        }
+
+        IOException failure = assertThrows(IOException.class, () -> new LedgerRestore(directory)
+                .restoreInto(new InMemoryRestoreTarget(new InMemoryAccountRepository(),
+                        new InMemoryTransactionRepository(), new InMemoryTransactionLog())));
+        assertTrue(failure.getMessage().contains("Checksum mismatch"), failure::getMessage);
+    }
+
+    @Test
+    void testRestoreRefusesNonEmptyStore() throws Exception {
+        writeSnapshot();
+        InMemoryAccountRepository accounts = new InMemoryAccountRepository();
+        accounts.create(account(0, "ACC0001", BigDecimal.ONE));
+
+        assertThrows(SQLException.class, () -> new LedgerRestore(directory).restoreInto(
+                new InMemoryRestoreTarget(accounts, new InMemoryTransactionRepository(), new InMemoryTransactionLog())));
+        assertEquals(1, accounts.size());
+    }
+
+    // Each account's transactions alternate 12.34 deposits and withdrawals, ending on a withdrawal.
+    private void writeSnapshot() throws IOException {
+        try (SnapshotWriter writer = new SnapshotWriter(directory.resolve(SnapshotTable.ACCOUNT.getFileName()),
+                SnapshotTable.ACCOUNT)) {
+            for (int i = 1; i <= ACCOUNTS; i++) {
+                writer.write(account(i, "ACC" + (1000 + i), new BigDecimal("12.34")));
+            }
+            writer.commit();
+        }
+        long transactionId = 0;
+        try (SnapshotWriter writer = new SnapshotWriter(directory.resolve(SnapshotTable.TRANSACTION.getFileName()),
+                SnapshotTable.TRANSACTION)) {
+            for (int n = 0; n < TRANSACTIONS_PER_ACCOUNT; n++) {
+                for (int i = 1; i <= ACCOUNTS; i++) {
+                    boolean deposit = n % 2 == 0;
+                    Transaction transaction = new Transaction((long) i,
+                            deposit ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL, new BigDecimal("12.34"),
+                            deposit ? new BigDecimal("24.68") : new BigDecimal("12.34"),
+                            n % 3 == 0 ? null : "Payment é " + n);
+                    transaction.setTransactionId(++transactionId);
+                    transaction.setStatus(TransactionStatus.SUCCESS);
+                    transaction.setCreatedAt(START.plusMinutes(n));
+                    writer.write(transaction);
+                }
+            }
+            writer.commit();
+        }
+        try (SnapshotWriter writer = new SnapshotWriter(
+                directory.resolve(SnapshotTable.TRANSACTION_LOG.getFileName()), SnapshotTable.TRANSACTION_LOG)) {
+            TransactionLogEntry entry = new TransactionLogEntry(1L, "INFO", "Posted");
+            entry.setLogId(1L);
+            entry.setIpAddress("10.0.0.1");
+            writer.write(entry);
+            writer.commit();
+        }
+    }
+
+    private static Account account(long accountId, String accountNumber, BigDecimal balance) {
+        Account account = new Account();
+        account.setAccountId(accountId);
+        account.setAccountNumber(accountNumber);
+        account.setCustomerId(1L);
+        account.setAccountType(AccountType.SAVINGS);
+        account.setBalance(balance);
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setCreatedAt(START);
+        account.setUpdatedAt(START);
+        return account;
+    }
+
+    private String createDatabase() throws SQLException {
+        String url = "jdbc:h2:mem:snapshot-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        try (Connection conn = DriverManager.getConnection(url, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("RUNSCRIPT FROM 'classpath:/schema.sql'");
+            stmt.execute("INSERT INTO customer (first_name, last_name, email) VALUES ('Jane', 'Doe', 'jane@example.com')");
+        }
+        urls.add(url);
+        return url;
+    }
+
+    private static Properties properties(String url) {
+        Properties props = new Properties();
+        props.setProperty("db.driver", "org.h2.Driver");
+        props.setProperty("db.url", url);
+        props.setProperty("db.username", "sa");
+        props.setProperty("db.password", "");
+        return props;
+    }
+}
@@ -0,0 +1,118 @@
+package com.banking.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogChunkParserTest {
+    private static final String LOG = String.join("\n",
+            "2024-03-01 10:00:00 [main] INFO  c.b.service.AccountService - Account created successfully: ACC1001",
+            "2024-03-01 10:00:01 [pool-1-thread-1] INFO  c.b.service.AccountService - Deposit completed: 50.00 to account ACC1001",
+            "2024-03-01 10:00:03 [pool-1-thread-2] INFO  c.b.service.AccountService - Transfer completed: 10.00 from ACC1001 to ACC1002",
+            "2024-03-01 10:00:04 [pool-1-thread-1] ERROR c.b.dao.AccountDAO - Error creating account: ACC1001",
+            "java.sql.SQLIntegrityConstraintViolationException: Duplicate entry 'ACC1001' for key 'account_number'",
+            "\tat com.banking.dao.AccountDAO.create(AccountDAO.java:42)",
+            "\tat com.banking.service.AccountService.createAccount(AccountService.java:120)",
+            "2024-03-01 10:00:04 [pool-1-thread-1] ERROR c.b.service.AccountService - Failed to create account",
+            "java.sql.SQLIntegrityConstraintViolationException: Duplicate entry 'ACC1001' for key 'account_number'",
+            "\tat com.banking.dao.AccountDAO.create(AccountDAO.java:42)",
+            "2024-03-01 10:00:10 [pool-1-thread-2] WARN  c.b.service.AccountService - Withdrawal failed: insufficient funds",
+            "2024-03-01 10:01:10 [pool-1-thread-1] INFO  c.b.service.AccountService - Account closed: ACC1002",
+            "2024-03-01 11:01:11 [main] ERROR c.b.BankingApplication - Timeout: no response",
+            "");
+
+    @Test
+    void testSingleChunkStats() {
+        LogStats stats = parse(LOG, 0, LOG.length());
+
+        assertEquals(LOG.length(), stats.bytes);
+        assertEquals(13, stats.lines);
+        assertEquals(8, stats.events);
+        assertEquals(Map.of("INFO", 4L, "ERROR", 3L, "WARN", 1L), stats.eventsByLevel);
+        assertEquals("CLOSE_ACCOUNT=1/0 CREATE_ACCOUNT=1/1 DEPOSIT=1/0 TRANSFER=1/0 WITHDRAWAL=0/1",
+                operations(stats));
+        assertEquals(Map.of("SQLIntegrityConstraintViolationException: duplicate entry", 1L, "Timeout", 1L),
+                stats.errorCategories);
+        assertEquals(1L, stats.accountErrors.get("SQLIntegrityConstraintViolationException: duplicate entry")
+                .get("ACC1001"));
+        assertEquals(Map.of("CREATE_ACCOUNT", 1L, "DEPOSIT", 1L, "TRANSFER_OUT", 1L),
+                stats.accountActivity.get("ACC1001"));
+
+        // main: 3671 s; thread-1: 3, 0, 66 s; thread-2: 7 s
+        assertEquals(5, stats.gapCount);
+        assertEquals(3671 + 3 + 66 + 7, stats.gapSumSeconds);
+        assertEquals(3671, stats.gapMaxSeconds);
+        assertEquals("[1, 0, 1, 1, 1, 1]", Arrays.toString(stats.gapHistogram));
+    }
+
+    @Test
+    void testAnyTwoChunksMergeToTheSingleChunkStats() {
+        LogStats expected = parse(LOG, 0, LOG.length());
+
+        for (int split = 1; split < LOG.length(); split++) {
+            LogStats merged = new LogStats();
+            merged.merge(parse(LOG, 0, split));
+            merged.merge(parse(LOG, split, LOG.length()));
+            assertSameStats(expected, merged, "split at " + split);
+        }
+    }
+
+    @Test
+    void testGapsAcrossSeveralChunksAreCounted() {
+        LogStats expected = parse(LOG, 0, LOG.length());
+
+        for (int size = 1; size < 200; size += 7) {
+            LogStats merged = new LogStats();
+            for (int start = 0; start < LOG.length(); start += size) {
+                merged.merge(parse(LOG, start, Math.min(LOG.length(), start + size)));
+            }
+            assertSameStats(expected, merged, "chunk size " + size);
+        }
+    }
+
+    @Test
+    void testChunkStartingInsideAStackTraceSkipsToTheNextEvent() {
+        int inTrace = LOG.indexOf("\tat com.banking.dao.AccountDAO.create") + 5;
+        int nextEvent = LOG.indexOf("2024-03-01 10:00:04 [pool-1-thread-1] ERROR c.b.service");
+
+        LogStats stats = parse(LOG, inTrace, nextEvent);
+
+        assertEquals(nextEvent - inTrace, stats.bytes);
+        assertEquals(0, stats.events);
+        assertEquals(0, stats.lines);
+    }
+
+    private static LogStats parse(String log, int start, int end) {
+        ByteBuffer buffer = ByteBuffer.wrap(log.getBytes(StandardCharsets.UTF_8));
+        return new LogChunkParser(buffer, start, end).parse();
+    }
+
+    private static void assertSameStats(LogStats expected, LogStats actual, String message) {
+        assertEquals(expected.bytes, actual.bytes, message);
+        assertEquals(expected.lines, actual.lines, message);
+        assertEquals(expected.events, actual.events, message);
+        assertEquals(expected.eventsByLevel, actual.eventsByLevel, message);
+        assertEquals(operations(expected), operations(actual), message);
+        assertEquals(expected.errorCategories, actual.errorCategories, message);
+        assertEquals(expected.accountErrors, actual.accountErrors, message);
+        assertEquals(expected.accountActivity, actual.accountActivity, message);
+        assertEquals(Arrays.toString(expected.gapHistogram), Arrays.toString(actual.gapHistogram), message);
+        assertEquals(expected.gapCount, actual.gapCount, message);
+        assertEquals(expected.gapSumSeconds, actual.gapSumSeconds, message);
+        assertEquals(expected.gapMaxSeconds, actual.gapMaxSeconds, message);
+    }
+
+    private static String operations(LogStats stats) {
+        StringBuilder out = new StringBuilder();
+        new TreeMap<>(stats.operations).forEach((op, counts) ->
+                out.append(out.length() == 0 ? "" : " ").append(op).append('=').append(counts[0]).append('/')
+                        .append(counts[1]));
+        return out.toString();
+    }
+}
@@ -0,0 +1,123 @@
+package com.banking.tools;
+
+import com.banking.config.ShardRouter;
+import com.banking.dao.InMemoryAccountRepository;
+import com.banking.dao.InMemoryTransactionLog;
+import com.banking.dao.InMemoryTransactionRepository;
+import com.banking.exception.BankingException;
+import com.banking.service.AccountService;
+import com.banking.service.PostingResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StressHarnessTest {
+
+    private Path noVelocityRules;
+    private ShardRouter router;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Velocity limits would turn most debits away and leave little to collide.
+        noVelocityRules = Files.createTempFile("velocity", ".properties");
+        System.setProperty("banking.velocity.config", noVelocityRules.toString());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        System.clearProperty("banking.velocity.config");
+        Files.deleteIfExists(noVelocityRules);
+        if (router != null) {
+            router.shutdown();
+            try (Connection conn = DriverManager.getConnection(url, "sa", "");
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("SHUTDOWN");
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentPostingsOnH2KeepInvariants() throws Exception {
+        url = "jdbc:h2:mem:stress-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        try (Connection conn = DriverManager.getConnection(url, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("RUNSCRIPT FROM 'classpath:/schema.sql'");
+            stmt.execute("INSERT INTO customer (first_name, last_name, email) VALUES ('Jane', 'Doe', 'jane@example.com')");
+        }
+        Properties props = new Properties();
+        props.setProperty("db.driver", "org.h2.Driver");
+        props.setProperty("db.url", url);
+        props.setProperty("db.username", "sa");
+        props.setProperty("db.password", "");
+        props.setProperty("db.health.interval.seconds", "0");
+        router = ShardRouter.fromProperties(props);
+
+        StressReport report = harness(new AccountService(router), 8, 250).run();
+
+        assertEquals(0, report.getErrors());
+        assertEquals(8 * 250, report.getOperations());
+        assertTrue(report.isClean(), () -> report.getViolations().toString());
+    }
+
+    @Test
+    void testConcurrentPostingsInMemoryKeepInvariants() throws Exception {
+        StressReport report = harness(AccountService.inMemory(), 8, 5_000).run();
+
+        assertEquals(8 * 5_000, report.getOperations());
+        assertTrue(report.getCount(StressHarness.Operation.TRANSFER, PostingResult.Outcome.SUCCESS) > 0);
+        assertTrue(report.isClean(), () -> report.getViolations().toString());
+    }
+
+    @Test
+    void testClosesRacingTransfersLoseNoMoney() throws Exception {
+        StressReport report = new StressHarness(AccountService.inMemory(), 6, 8, 2_000,
+                new StressHarness.Mix(20, 10, 50, 0, 20), 1L, new BigDecimal("1000.00"), 11L).run();
+
+        assertEquals(0, report.getErrors());
+        assertTrue(report.getCount(StressHarness.Operation.CLOSE, PostingResult.Outcome.SUCCESS) > 0);
+        assertTrue(report.isClean(), () -> report.getViolations().toString());
+    }
+
+    @Test
+    void testMoneyCreatedBehindTheHarnessIsReported() throws Exception {
+        // Every withdrawal also slips a cent into the account that the caller is never told about.
+        AccountService leaky = new AccountService(new InMemoryAccountRepository(),
+                new InMemoryTransactionRepository(), new InMemoryTransactionLog()) {
+            @Override
+            public PostingResult tryWithdraw(String accountNumber, BigDecimal amount, String description)
+                    throws BankingException {
+                PostingResult result = super.tryWithdraw(accountNumber, amount, description);
+                super.tryDeposit(accountNumber, new BigDecimal("0.01"), "Leak");
+                return result;
+            }
+        };
+
+        StressReport report = new StressHarness(leaky, 4, 2, 200, new StressHarness.Mix(0, 1, 0, 0), 1L,
+                new BigDecimal("1000.00"), 7L).run();
+
+        Set<StressReport.Check> failed = report.getViolations().stream()
+                .map(StressReport.Violation::getCheck)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of(StressReport.Check.CONSERVATION, StressReport.Check.LOST_UPDATE,
+                StressReport.Check.TRAIL_COUNT), failed);
+    }
+
+    private static StressHarness harness(AccountService accountService, int threads, int operations) {
+        return new StressHarness(accountService, 6, threads, operations, StressHarness.Mix.DEFAULT, 1L,
+                new BigDecimal("1000.00"), 42L);
+    }
+}